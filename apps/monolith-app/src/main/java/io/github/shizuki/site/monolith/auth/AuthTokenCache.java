@@ -0,0 +1,397 @@
+package io.github.shizuki.site.monolith.auth;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.shizuki.common.core.time.ClockProvider;
+import io.github.shizuki.site.monolith.config.GatewayAuthProperties;
+import io.github.shizuki.site.user.service.auth.AuthContextInvalidationEvent;
+import io.github.shizuki.site.user.service.auth.AuthContextInvalidationPublisher;
+import io.github.shizuki.site.user.service.auth.GroupPermissionMatrix;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Two-level cache for gateway token introspection results.
+ *
+ * <p>L1 is an in-process segmented LRU keyed by the SHA-256 of the access token: new entries land in a
+ * probation segment and are promoted to the protected segment on their second hit, so a burst of one-off
+ * tokens cannot flush the hot working set. Each entry expires at the earlier of the configured TTL and
+ * the token's own expiry. L2 is an optional Redis copy shared by all nodes; group-wide changes bump an
+ * epoch counter that makes every older L2 entry stale. Invalidations arrive as local events on the node
+ * that made the change and through Redis pub/sub everywhere else.
+ */
+@Component
+public class AuthTokenCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuthTokenCache.class);
+
+    static final String TOKEN_KEY_PREFIX = "shizuki:gateway:auth:token:";
+    static final String USER_KEY_PREFIX = "shizuki:gateway:auth:user:";
+    static final String EPOCH_KEY = "shizuki:gateway:auth:epoch";
+
+    private static final int SEGMENT_COUNT = 16;
+    private static final double PROTECTED_RATIO = 0.8d;
+
+    private final GatewayAuthProperties properties;
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private final ObjectMapper objectMapper;
+    private final ClockProvider clockProvider;
+    private final ObjectProvider<GroupPermissionMatrix> groupPermissionMatrixProvider;
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder redisHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private RedisMessageListenerContainer listenerContainer;
+
+    public AuthTokenCache(GatewayAuthProperties properties,
+                          ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                          ObjectMapper objectMapper,
+                          ClockProvider clockProvider,
+                          ObjectProvider<GroupPermissionMatrix> groupPermissionMatrixProvider) {
+        this.properties = properties;
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.objectMapper = objectMapper;
+        this.clockProvider = clockProvider;
+        this.groupPermissionMatrixProvider = groupPermissionMatrixProvider;
+        int segmentCapacity = Math.max(1, (properties.getCacheMaxEntries() + SEGMENT_COUNT - 1) / SEGMENT_COUNT);
+        for (int index = 0; index < SEGMENT_COUNT; index++) {
+            segments[index] = new Segment(segmentCapacity);
+        }
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        StringRedisTemplate redisTemplate = redisTemplate();
+        if (redisTemplate == null || redisTemplate.getConnectionFactory() == null) {
+            return;
+        }
+        try {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(redisTemplate.getConnectionFactory());
+            container.addMessageListener(
+                (message, pattern) -> onRemoteInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(AuthContextInvalidationPublisher.CHANNEL)
+            );
+            container.afterPropertiesSet();
+            container.start();
+            listenerContainer = container;
+        } catch (Exception ex) {
+            LOGGER.warn("AUTH_TOKEN_CACHE_SUBSCRIBE_FAIL reason={}", ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (listenerContainer == null) {
+            return;
+        }
+        try {
+            listenerContainer.destroy();
+        } catch (Exception ex) {
+            LOGGER.warn("AUTH_TOKEN_CACHE_UNSUBSCRIBE_FAIL reason={}", ex.getMessage());
+        }
+        listenerContainer = null;
+    }
+
+    /**
+     * Looks the token up in L1, then L2. The returned lookup must be passed back to {@link #store}
+     * so that a result loaded across a concurrent invalidation is not cached.
+     */
+    public Lookup lookup(String accessToken) {
+        String tokenHash = sha256(accessToken);
+        long nowMs = clockProvider.now().toEpochMilli();
+        long observedGeneration = generation.get();
+        Entry entry = segmentFor(tokenHash).get(tokenHash, nowMs);
+        if (entry != null) {
+            hits.increment();
+            return new Lookup(tokenHash, entry.context(), observedGeneration, null);
+        }
+        StringRedisTemplate redisTemplate = redisTemplate();
+        if (redisTemplate == null) {
+            misses.increment();
+            return new Lookup(tokenHash, null, observedGeneration, null);
+        }
+        String epoch = "0";
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(List.of(TOKEN_KEY_PREFIX + tokenHash, EPOCH_KEY));
+            String payload = values == null || values.isEmpty() ? null : values.get(0);
+            epoch = values == null || values.size() < 2 || values.get(1) == null ? "0" : values.get(1);
+            RedisEntry redisEntry = payload == null ? null : objectMapper.readValue(payload, RedisEntry.class);
+            if (redisEntry != null && epoch.equals(redisEntry.epoch()) && redisEntry.expireAtMs() > nowMs) {
+                AuthContext context = new AuthContext(redisEntry.userId(), redisEntry.groups(), redisEntry.permissions());
+                if (generation.get() == observedGeneration) {
+                    putLocal(tokenHash, new Entry(context, redisEntry.expireAtMs()));
+                }
+                redisHits.increment();
+                return new Lookup(tokenHash, context, observedGeneration, epoch);
+            }
+        } catch (Exception ex) {
+            LOGGER.warn("AUTH_TOKEN_CACHE_REDIS_READ_FAIL reason={}", ex.getMessage());
+            epoch = null;
+        }
+        misses.increment();
+        return new Lookup(tokenHash, null, observedGeneration, epoch);
+    }
+
+    /**
+     * Caches a freshly introspected context for the token identified by {@code lookup}.
+     *
+     * @param tokenExpiresInSec remaining token lifetime; {@code -1} means no expiry, {@code null} unknown
+     */
+    public void store(Lookup lookup, AuthContext context, Long tokenExpiresInSec) {
+        if (lookup == null || context == null) {
+            return;
+        }
+        long ttlMs = properties.getCacheTtlSeconds() * 1000L;
+        if (tokenExpiresInSec != null && tokenExpiresInSec != -1L) {
+            if (tokenExpiresInSec <= 0) {
+                return;
+            }
+            ttlMs = Math.min(ttlMs, tokenExpiresInSec * 1000L);
+        }
+        if (generation.get() != lookup.generation()) {
+            return;
+        }
+        long expireAtMs = clockProvider.now().toEpochMilli() + ttlMs;
+        putLocal(lookup.tokenHash(), new Entry(context, expireAtMs));
+
+        StringRedisTemplate redisTemplate = redisTemplate();
+        if (redisTemplate == null || lookup.redisEpoch() == null) {
+            return;
+        }
+        try {
+            RedisEntry redisEntry = new RedisEntry(
+                context.userId(),
+                context.groups(),
+                context.permissions(),
+                expireAtMs,
+                lookup.redisEpoch()
+            );
+            Duration ttl = Duration.ofMillis(ttlMs);
+            String userKey = USER_KEY_PREFIX + context.userId();
+            redisTemplate.opsForValue().set(TOKEN_KEY_PREFIX + lookup.tokenHash(), objectMapper.writeValueAsString(redisEntry), ttl);
+            redisTemplate.opsForSet().add(userKey, lookup.tokenHash());
+            redisTemplate.expire(userKey, Duration.ofSeconds(properties.getCacheTtlSeconds()));
+        } catch (Exception ex) {
+            LOGGER.warn("AUTH_TOKEN_CACHE_REDIS_WRITE_FAIL userId={} reason={}", context.userId(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Drops a single token from L1, e.g. after the auth service rejected it.
+     */
+    public void evict(Lookup lookup) {
+        if (lookup != null) {
+            segmentFor(lookup.tokenHash()).remove(lookup.tokenHash());
+        }
+    }
+
+    /**
+     * Handles invalidations raised on this node: clears L1 and the shared L2.
+     */
+    @EventListener
+    public void onLocalInvalidation(AuthContextInvalidationEvent event) {
+        invalidateLocal(event);
+        StringRedisTemplate redisTemplate = redisTemplate();
+        if (redisTemplate == null || event == null) {
+            return;
+        }
+        try {
+            if (event.scope() == AuthContextInvalidationEvent.Scope.USER) {
+                String userKey = USER_KEY_PREFIX + event.subject();
+                Set<String> tokenHashes = redisTemplate.opsForSet().members(userKey);
+                List<String> keys = new ArrayList<>();
+                keys.add(userKey);
+                if (tokenHashes != null) {
+                    tokenHashes.forEach(tokenHash -> keys.add(TOKEN_KEY_PREFIX + tokenHash));
+                }
+                redisTemplate.delete(keys);
+            } else {
+                redisTemplate.opsForValue().increment(EPOCH_KEY);
+            }
+        } catch (Exception ex) {
+            LOGGER.warn("AUTH_TOKEN_CACHE_REDIS_INVALIDATE_FAIL event={} reason={}", event.encode(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Handles invalidations broadcast by other nodes; L2 has already been cleared by the sender.
+     * Group-wide changes also bump this node's group-permission matrix, which the sender only bumped locally.
+     */
+    void onRemoteInvalidation(String message) {
+        AuthContextInvalidationEvent event = AuthContextInvalidationEvent.decode(message);
+        if (event == null) {
+            LOGGER.warn("AUTH_TOKEN_CACHE_INVALID_MESSAGE message={}", message);
+            return;
+        }
+        if (event.scope() != AuthContextInvalidationEvent.Scope.USER) {
+            groupPermissionMatrixProvider.ifAvailable(GroupPermissionMatrix::bumpVersion);
+        }
+        invalidateLocal(event);
+    }
+
+    public Stats stats() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return new Stats(hits.sum(), redisHits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    private void invalidateLocal(AuthContextInvalidationEvent event) {
+        if (event == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        Predicate<Entry> matcher = switch (event.scope()) {
+            case USER -> entry -> Objects.equals(entry.context().userId(), event.userId());
+            case GROUP -> entry -> entry.context().groups().contains(event.subject());
+            case ALL -> entry -> true;
+        };
+        for (Segment segment : segments) {
+            segment.removeIf(matcher);
+        }
+    }
+
+    private void putLocal(String tokenHash, Entry entry) {
+        evictions.add(segmentFor(tokenHash).put(tokenHash, entry));
+    }
+
+    private Segment segmentFor(String tokenHash) {
+        int hash = tokenHash.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENT_COUNT - 1)];
+    }
+
+    private StringRedisTemplate redisTemplate() {
+        return properties.isCacheRedisEnabled() ? redisTemplateProvider.getIfAvailable() : null;
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * One lock-guarded slice of the segmented LRU.
+     */
+    private static final class Segment {
+
+        private final int capacity;
+        private final int protectedCapacity;
+        private final LinkedHashMap<String, Entry> probation = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<String, Entry> protectedEntries = new LinkedHashMap<>(16, 0.75f, true);
+
+        private Segment(int capacity) {
+            this.capacity = capacity;
+            this.protectedCapacity = Math.max(1, (int) (capacity * PROTECTED_RATIO));
+        }
+
+        private synchronized Entry get(String key, long nowMs) {
+            Entry entry = protectedEntries.get(key);
+            if (entry != null) {
+                if (entry.expireAtMs() <= nowMs) {
+                    protectedEntries.remove(key);
+                    return null;
+                }
+                return entry;
+            }
+            entry = probation.remove(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expireAtMs() <= nowMs) {
+                return null;
+            }
+            protectedEntries.put(key, entry);
+            if (protectedEntries.size() > protectedCapacity) {
+                Iterator<Map.Entry<String, Entry>> iterator = protectedEntries.entrySet().iterator();
+                Map.Entry<String, Entry> demoted = iterator.next();
+                iterator.remove();
+                probation.put(demoted.getKey(), demoted.getValue());
+            }
+            return entry;
+        }
+
+        private synchronized int put(String key, Entry entry) {
+            if (protectedEntries.containsKey(key)) {
+                protectedEntries.put(key, entry);
+                return 0;
+            }
+            probation.put(key, entry);
+            int evicted = 0;
+            while (probation.size() + protectedEntries.size() > capacity) {
+                LinkedHashMap<String, Entry> victims = probation.isEmpty() ? protectedEntries : probation;
+                Iterator<Map.Entry<String, Entry>> iterator = victims.entrySet().iterator();
+                iterator.next();
+                iterator.remove();
+                evicted++;
+            }
+            return evicted;
+        }
+
+        private synchronized void remove(String key) {
+            probation.remove(key);
+            protectedEntries.remove(key);
+        }
+
+        private synchronized void removeIf(Predicate<Entry> matcher) {
+            probation.values().removeIf(matcher);
+            protectedEntries.values().removeIf(matcher);
+        }
+
+        private synchronized int size() {
+            return probation.size() + protectedEntries.size();
+        }
+    }
+
+    public record AuthContext(Long userId, Set<String> groups, Set<String> permissions) {
+
+        public AuthContext {
+            groups = groups == null ? Set.of() : Set.copyOf(groups);
+            permissions = permissions == null ? Set.of() : Set.copyOf(permissions);
+        }
+    }
+
+    /**
+     * Result of a cache lookup; {@code context} is null on a miss.
+     */
+    public record Lookup(String tokenHash, AuthContext context, long generation, String redisEpoch) {
+    }
+
+    public record Stats(long hits, long redisHits, long misses, long evictions, int size) {
+    }
+
+    private record Entry(AuthContext context, long expireAtMs) {
+    }
+
+    record RedisEntry(Long userId, Set<String> groups, Set<String> permissions, long expireAtMs, String epoch) {
+    }
+}
@@ -13,6 +13,7 @@ public class GatewayAuthProperties {
     private boolean enabled = true;
     private long cacheTtlSeconds = 30L;
     private int cacheMaxEntries = 10000;
+    private boolean cacheRedisEnabled = true;
     private GuestInvalidTokenPolicy guestInvalidTokenPolicy = GuestInvalidTokenPolicy.DOWNGRADE;
     private List<String> publicPaths = new ArrayList<>();
     private List<String> guestPaths = new ArrayList<>();
@@ -41,6 +42,14 @@ public class GatewayAuthProperties {
         this.cacheMaxEntries = Math.max(100, cacheMaxEntries);
     }
 
+    public boolean isCacheRedisEnabled() {
+        return cacheRedisEnabled;
+    }
+
+    public void setCacheRedisEnabled(boolean cacheRedisEnabled) {
+        this.cacheRedisEnabled = cacheRedisEnabled;
+    }
+
     public GuestInvalidTokenPolicy getGuestInvalidTokenPolicy() {
         return guestInvalidTokenPolicy;
     }
@@ -3,6 +3,9 @@ package io.github.shizuki.site.monolith.filter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.shizuki.common.core.error.BusinessException;
 import io.github.shizuki.common.core.error.ErrorCode;
+import io.github.shizuki.common.security.context.LoginUserContext;
+import io.github.shizuki.common.security.model.LoginUser;
+import io.github.shizuki.site.monolith.auth.AuthTokenCache;
 import io.github.shizuki.site.monolith.auth.GuestAuthorTokenService;
 import io.github.shizuki.site.monolith.config.GatewayAuthProperties;
 import io.github.shizuki.site.user.response.auth.AuthIntrospectResponse;
@@ -17,12 +20,8 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
-import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.Ordered;
@@ -30,7 +29,6 @@ import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -47,22 +45,27 @@ public class AuthEntryFilter extends OncePerRequestFilter {
     private static final String USER_PERMISSIONS = "X-User-Permissions";
     private static final String GUEST_AUTHOR_TOKEN = "X-Guest-Author-Token";
     private static final String GUEST_AUTHOR_GROUP = "GUEST_AUTHOR";
+    private static final String GUEST_AUTHOR_POSTS_PATH = "/api/v1/me/posts";
+    private static final LoginUser GUEST_USER = new LoginUser(0L, Set.of("GUEST"), Set.of());
 
     private final GatewayAuthProperties properties;
     private final AuthService authService;
     private final GuestAuthorTokenService guestAuthorTokenService;
     private final ObjectMapper objectMapper;
-    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
-    private final Map<String, CachedAuthContext> tokenCache = new ConcurrentHashMap<>();
+    private final AuthTokenCache authTokenCache;
+    private final RouteRuleTrie routeRules;
 
     public AuthEntryFilter(GatewayAuthProperties properties,
                            AuthService authService,
                            GuestAuthorTokenService guestAuthorTokenService,
-                           ObjectMapper objectMapper) {
+                           ObjectMapper objectMapper,
+                           AuthTokenCache authTokenCache) {
         this.properties = properties;
         this.authService = authService;
         this.guestAuthorTokenService = guestAuthorTokenService;
         this.objectMapper = objectMapper;
+        this.authTokenCache = authTokenCache;
+        this.routeRules = compileRouteRules(properties);
     }
 
     @Override
@@ -74,20 +77,20 @@ public class AuthEntryFilter extends OncePerRequestFilter {
             return;
         }
 
-        HttpServletRequest sanitizedRequest = stripUntrustedUserHeaders(request);
-        String path = resolveRequestPath(sanitizedRequest);
-        boolean guestPath = isGuestPath(path);
+        String path = resolveRequestPath(request);
+        int routeClass = routeRules.match(path);
+        boolean guestPath = (routeClass & (RouteRuleTrie.GUEST | RouteRuleTrie.GUEST_AUTHOR)) != 0;
 
-        if ("OPTIONS".equalsIgnoreCase(sanitizedRequest.getMethod()) || isPublicPath(path)) {
-            filterChain.doFilter(sanitizedRequest, response);
+        if ("OPTIONS".equalsIgnoreCase(request.getMethod()) || (routeClass & RouteRuleTrie.PUBLIC) != 0) {
+            filterChain.doFilter(new IdentityRequest(request, null), response);
             return;
         }
 
-        String authorization = sanitizedRequest.getHeader(AUTHORIZATION);
+        String authorization = request.getHeader(AUTHORIZATION);
         if (!StringUtils.hasText(authorization)) {
             if (guestPath) {
-                if (isGuestAuthorPath(path)) {
-                    String guestAuthorToken = sanitizedRequest.getHeader(GUEST_AUTHOR_TOKEN);
+                if ((routeClass & RouteRuleTrie.GUEST_AUTHOR) != 0) {
+                    String guestAuthorToken = request.getHeader(GUEST_AUTHOR_TOKEN);
                     if (StringUtils.hasText(guestAuthorToken)) {
                         GuestAuthorTokenService.GuestAuthorSession session = guestAuthorTokenService.verify(guestAuthorToken);
                         if (session == null) {
@@ -95,41 +98,42 @@ public class AuthEntryFilter extends OncePerRequestFilter {
                             return;
                         }
                         filterChain.doFilter(
-                            withUserHeaders(sanitizedRequest, session.authorId(), Set.of(GUEST_AUTHOR_GROUP), Set.of()),
+                            new IdentityRequest(request, new LoginUser(session.authorId(), Set.of(GUEST_AUTHOR_GROUP), Set.of())),
                             response
                         );
                         return;
                     }
                 }
-                filterChain.doFilter(withGuestHeaders(sanitizedRequest), response);
+                filterChain.doFilter(new IdentityRequest(request, GUEST_USER), response);
                 return;
             }
             unauthorized(response, "Login required");
             return;
         }
 
-        AuthContext cached = getCachedContext(authorization);
+        String accessToken = extractAccessToken(authorization);
+        if (!StringUtils.hasText(accessToken)) {
+            unauthorized(response, "Invalid token");
+            return;
+        }
+        AuthTokenCache.Lookup lookup = authTokenCache.lookup(accessToken);
+        AuthTokenCache.AuthContext cached = lookup.context();
         if (cached != null) {
-            filterChain.doFilter(withUserHeaders(sanitizedRequest, cached.userId(), cached.groups(), cached.permissions()), response);
+            filterChain.doFilter(new IdentityRequest(request, toLoginUser(cached)), response);
             return;
         }
 
         try {
-            String accessToken = extractAccessToken(authorization);
-            if (!StringUtils.hasText(accessToken)) {
-                unauthorized(response, "Invalid token");
-                return;
-            }
             AuthIntrospectResponse introspectResponse = authService.introspectByAccessToken(accessToken);
-            AuthContext context = parseAuthContext(introspectResponse);
-            cacheContext(authorization, context);
-            filterChain.doFilter(withUserHeaders(sanitizedRequest, context.userId(), context.groups(), context.permissions()), response);
+            AuthTokenCache.AuthContext context = parseAuthContext(introspectResponse);
+            authTokenCache.store(lookup, context, introspectResponse.tokenExpiresInSec());
+            filterChain.doFilter(new IdentityRequest(request, toLoginUser(context)), response);
         } catch (BusinessException ex) {
-            tokenCache.remove(authorization);
+            authTokenCache.evict(lookup);
             if (isTokenRejected(ex) && guestPath && shouldDowngradeGuestInvalidToken()) {
                 LOGGER.warn("游客路径 token 被拒绝，降级为游客身份。reason={} path={} guest_path={} policy={}",
                     ex.getErrorCode().code(), path, true, currentGuestPolicy());
-                filterChain.doFilter(withGuestHeaders(sanitizedRequest), response);
+                filterChain.doFilter(new IdentityRequest(request, GUEST_USER), response);
                 return;
             }
             if (isTokenRejected(ex)) {
@@ -148,14 +152,14 @@ public class AuthEntryFilter extends OncePerRequestFilter {
         }
     }
 
-    private AuthContext parseAuthContext(AuthIntrospectResponse response) {
+    private AuthTokenCache.AuthContext parseAuthContext(AuthIntrospectResponse response) {
         if (response == null || response.userId() == null || response.userId() <= 0) {
             throw new BusinessException(ErrorCode.UNAUTHORIZED, "Invalid token payload");
         }
 
         Set<String> groups = response.groups() == null ? Set.of() : response.groups();
         Set<String> permissions = response.permissions() == null ? Set.of() : response.permissions();
-        return new AuthContext(response.userId(), groups, permissions);
+        return new AuthTokenCache.AuthContext(response.userId(), groups, permissions);
     }
 
     private boolean isTokenRejected(BusinessException ex) {
@@ -210,75 +214,17 @@ public class AuthEntryFilter extends OncePerRequestFilter {
         return normalized.startsWith("/") ? normalized : "/" + normalized;
     }
 
-    private HttpServletRequest withGuestHeaders(HttpServletRequest request) {
-        return withUserHeaders(request, 0L, Set.of("GUEST"), Set.of());
-    }
-
-    private HttpServletRequest withUserHeaders(HttpServletRequest request,
-                                               Long userId,
-                                               Set<String> groups,
-                                               Set<String> permissions) {
-        MutableHeaderRequest wrapper = new MutableHeaderRequest(request);
-        wrapper.removeHeader(USER_ID);
-        wrapper.removeHeader(USER_GROUPS);
-        wrapper.removeHeader(USER_PERMISSIONS);
-        wrapper.setHeader(USER_ID, String.valueOf(userId));
-        wrapper.setHeader(USER_GROUPS, String.join(",", groups));
-        wrapper.setHeader(USER_PERMISSIONS, String.join(",", permissions));
-        return wrapper;
-    }
-
-    private HttpServletRequest stripUntrustedUserHeaders(HttpServletRequest request) {
-        MutableHeaderRequest wrapper = new MutableHeaderRequest(request);
-        wrapper.removeHeader(USER_ID);
-        wrapper.removeHeader(USER_GROUPS);
-        wrapper.removeHeader(USER_PERMISSIONS);
-        return wrapper;
-    }
-
-    private boolean isPublicPath(String path) {
-        return matchAny(path, properties.getPublicPaths());
-    }
-
-    private boolean isGuestPath(String path) {
-        return isGuestAuthorPath(path) || matchAny(path, properties.getGuestPaths());
-    }
-
-    private boolean isGuestAuthorPath(String path) {
-        return "/api/v1/me/posts".equals(path)
-            || path.matches("/api/v1/me/posts/\\d+")
-            || path.matches("/api/v1/me/posts/\\d+/(publish|unpublish)");
-    }
-
-    private boolean matchAny(String path, List<String> patterns) {
-        if (patterns == null || patterns.isEmpty()) {
-            return false;
-        }
-        return patterns.stream().anyMatch(pattern -> antPathMatcher.match(pattern, path));
-    }
-
-    private void cacheContext(String authorization, AuthContext context) {
-        if (tokenCache.size() >= properties.getCacheMaxEntries()) {
-            long now = System.currentTimeMillis();
-            tokenCache.entrySet().removeIf(entry -> entry.getValue().expireAtMs() <= now);
-            if (tokenCache.size() >= properties.getCacheMaxEntries()) {
-                tokenCache.clear();
-            }
-        }
-        long expireAtMs = System.currentTimeMillis() + properties.getCacheTtlSeconds() * 1000L;
-        tokenCache.put(authorization, new CachedAuthContext(context, expireAtMs));
+    private static LoginUser toLoginUser(AuthTokenCache.AuthContext context) {
+        return new LoginUser(context.userId(), context.groups(), context.permissions());
     }
 
-    private AuthContext getCachedContext(String authorization) {
-        CachedAuthContext cached = tokenCache.get(authorization);
-        if (cached == null) {
-            return null;
-        }
-        if (cached.expireAtMs() < System.currentTimeMillis()) {
-            tokenCache.remove(authorization);
-            return null;
-        }
-        return cached.context();
+    static RouteRuleTrie compileRouteRules(GatewayAuthProperties properties) {
+        return RouteRuleTrie.builder()
+            .addAll(properties.getPublicPaths(), RouteRuleTrie.PUBLIC)
+            .addAll(properties.getGuestPaths(), RouteRuleTrie.GUEST)
+            .add(GUEST_AUTHOR_POSTS_PATH, RouteRuleTrie.GUEST_AUTHOR)
+            .addRegex(GUEST_AUTHOR_POSTS_PATH + "/", "/api/v1/me/posts/\\d+(/(publish|unpublish))?", RouteRuleTrie.GUEST_AUTHOR)
+            .build();
     }
 
     private void unauthorized(HttpServletResponse response, String message) throws IOException {
@@ -304,64 +250,97 @@ public class AuthEntryFilter extends OncePerRequestFilter {
     private record ProblemBody(String title, String detail, String code, Integer status) {
     }
 
-    private record AuthContext(Long userId, Set<String> groups, Set<String> permissions) {
-    }
-
-    private record CachedAuthContext(AuthContext context, long expireAtMs) {
-    }
+    /**
+     * Carries the resolved principal as a request attribute and overlays the three {@code X-User-*} headers
+     * without copying the original header map; a {@code null} principal strips them. Header values are
+     * only synthesized when a legacy consumer asks for them.
+     */
+    private static final class IdentityRequest extends HttpServletRequestWrapper {
 
-    private static final class MutableHeaderRequest extends HttpServletRequestWrapper {
+        private final LoginUser loginUser;
+        private String groupsHeader;
+        private String permissionsHeader;
 
-        private final Map<String, List<String>> customHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-
-        private MutableHeaderRequest(HttpServletRequest request) {
+        private IdentityRequest(HttpServletRequest request, LoginUser loginUser) {
             super(request);
+            this.loginUser = loginUser;
         }
 
-        private void setHeader(String name, String value) {
-            customHeaders.put(name, new ArrayList<>(List.of(value)));
-        }
-
-        private void removeHeader(String name) {
-            customHeaders.put(name, List.of());
+        @Override
+        public Object getAttribute(String name) {
+            if (LoginUserContext.REQUEST_ATTRIBUTE.equals(name)) {
+                return loginUser;
+            }
+            return super.getAttribute(name);
         }
 
         @Override
         public String getHeader(String name) {
-            if (customHeaders.containsKey(name)) {
-                List<String> values = customHeaders.get(name);
-                return values == null || values.isEmpty() ? null : values.get(0);
+            if (isUserHeader(name)) {
+                return userHeader(name);
             }
             return super.getHeader(name);
         }
 
         @Override
         public Enumeration<String> getHeaders(String name) {
-            if (customHeaders.containsKey(name)) {
-                List<String> values = customHeaders.get(name);
-                if (values == null || values.isEmpty()) {
-                    return Collections.emptyEnumeration();
-                }
-                return Collections.enumeration(values);
+            if (isUserHeader(name)) {
+                String value = userHeader(name);
+                return value == null ? Collections.emptyEnumeration() : Collections.enumeration(List.of(value));
             }
             return super.getHeaders(name);
         }
 
+        @Override
+        public int getIntHeader(String name) {
+            if (isUserHeader(name)) {
+                String value = userHeader(name);
+                return value == null ? -1 : Integer.parseInt(value);
+            }
+            return super.getIntHeader(name);
+        }
+
         @Override
         public Enumeration<String> getHeaderNames() {
-            Set<String> names = new LinkedHashSet<>();
+            List<String> names = new ArrayList<>();
             Enumeration<String> source = super.getHeaderNames();
             while (source.hasMoreElements()) {
-                names.add(source.nextElement());
-            }
-            for (Map.Entry<String, List<String>> entry : customHeaders.entrySet()) {
-                if (entry.getValue() != null && !entry.getValue().isEmpty()) {
-                    names.add(entry.getKey());
-                } else {
-                    names.remove(entry.getKey());
+                String name = source.nextElement();
+                if (!isUserHeader(name)) {
+                    names.add(name);
                 }
             }
+            if (loginUser != null) {
+                names.add(USER_ID);
+                names.add(USER_GROUPS);
+                names.add(USER_PERMISSIONS);
+            }
             return Collections.enumeration(names);
         }
+
+        private String userHeader(String name) {
+            if (loginUser == null) {
+                return null;
+            }
+            if (USER_ID.equalsIgnoreCase(name)) {
+                return String.valueOf(loginUser.getUserId());
+            }
+            if (USER_GROUPS.equalsIgnoreCase(name)) {
+                if (groupsHeader == null) {
+                    groupsHeader = String.join(",", loginUser.getGroups());
+                }
+                return groupsHeader;
+            }
+            if (permissionsHeader == null) {
+                permissionsHeader = String.join(",", loginUser.getPermissions());
+            }
+            return permissionsHeader;
+        }
+
+        private static boolean isUserHeader(String name) {
+            return USER_ID.equalsIgnoreCase(name)
+                || USER_GROUPS.equalsIgnoreCase(name)
+                || USER_PERMISSIONS.equalsIgnoreCase(name);
+        }
     }
 }
@@ -0,0 +1,289 @@
+package io.github.shizuki.site.monolith.filter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+
+/**
+ * Segment trie over the gateway route table, compiled once at startup.
+ *
+ * <p>Each rule contributes a bit to the result mask, so a single traversal answers "is this path public,
+ * guest-readable, a guest-author route" at once. Whole-segment literals, {@code *} and {@code **} are
+ * matched in the trie with the same semantics as {@link AntPathMatcher}, including its trailing-slash
+ * rules. Patterns with wildcards inside a segment (e.g. {@code *.js}, {@code {id}}) are still delegated
+ * to {@link AntPathMatcher}, and genuine regex rules to a precompiled {@link Pattern} guarded by a
+ * literal prefix.
+ */
+final class RouteRuleTrie {
+
+    static final int PUBLIC = 1;
+    static final int GUEST = 1 << 1;
+    static final int GUEST_AUTHOR = 1 << 2;
+
+    private static final char SEPARATOR = '/';
+
+    private final Node root;
+    private final List<AntRule> antRules;
+    private final List<RegexRule> regexRules;
+
+    private RouteRuleTrie(Node root, List<AntRule> antRules, List<RegexRule> regexRules) {
+        this.root = root;
+        this.antRules = antRules;
+        this.regexRules = regexRules;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the union of the rule classes whose patterns match {@code path}, or {@code 0}.
+     */
+    int match(String path) {
+        if (path == null) {
+            return 0;
+        }
+        int mask = path.startsWith("/") ? collect(root, path, 0) : 0;
+        for (AntRule rule : antRules) {
+            if ((mask & rule.ruleClass()) == 0 && rule.matcher().match(rule.pattern(), path)) {
+                mask |= rule.ruleClass();
+            }
+        }
+        for (RegexRule rule : regexRules) {
+            if ((mask & rule.ruleClass()) == 0
+                && path.startsWith(rule.literalPrefix())
+                && rule.pattern().matcher(path).matches()) {
+                mask |= rule.ruleClass();
+            }
+        }
+        return mask;
+    }
+
+    private static int collect(Node node, String path, int from) {
+        if (!node.doubleStar) {
+            return step(node, path, from);
+        }
+        // "**" consumes zero or more whole segments: try the rest of the pattern at every boundary.
+        int mask = 0;
+        int position = from;
+        while (true) {
+            mask |= step(node, path, position);
+            int start = skipSeparators(path, position);
+            if (start == path.length()) {
+                return mask;
+            }
+            position = segmentEnd(path, start);
+        }
+    }
+
+    private static int step(Node node, String path, int from) {
+        int start = skipSeparators(path, from);
+        if (start == path.length()) {
+            return acceptAtEnd(node, path);
+        }
+        int end = segmentEnd(path, start);
+        int length = end - start;
+        int mask = 0;
+        String[] segments = node.literalSegments;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.length() == length && path.regionMatches(start, segment, 0, length)) {
+                mask |= collect(node.literalChildren[i], path, end);
+            }
+        }
+        if (node.star != null) {
+            mask |= collect(node.star, path, end);
+        }
+        if (node.doubleStarChild != null) {
+            mask |= collect(node.doubleStarChild, path, start);
+        }
+        return mask;
+    }
+
+    private static int acceptAtEnd(Node node, String path) {
+        boolean trailingSlash = path.charAt(path.length() - 1) == SEPARATOR;
+        int mask;
+        if (node.doubleStar) {
+            mask = node.endMask | node.endSlashMask;
+        } else {
+            mask = trailingSlash ? node.endSlashMask : node.endMask;
+            // Before any "**", AntPathMatcher lets a final "*" match the empty segment after a trailing slash.
+            if (!node.globbed && trailingSlash && node.star != null) {
+                mask |= node.star.endMask | node.star.endSlashMask;
+            }
+        }
+        for (Node rest = node.doubleStarChild; rest != null; rest = rest.doubleStarChild) {
+            mask |= rest.endMask | rest.endSlashMask;
+        }
+        return mask;
+    }
+
+    private static int skipSeparators(String path, int from) {
+        int index = from;
+        while (index < path.length() && path.charAt(index) == SEPARATOR) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int segmentEnd(String path, int start) {
+        int end = path.indexOf(SEPARATOR, start);
+        return end < 0 ? path.length() : end;
+    }
+
+    static final class Builder {
+
+        private final BuildNode root = new BuildNode(false, false);
+        private final List<AntRule> antRules = new ArrayList<>();
+        private final List<RegexRule> regexRules = new ArrayList<>();
+        private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+        private Builder() {
+        }
+
+        Builder addAll(List<String> patterns, int ruleClass) {
+            if (patterns != null) {
+                patterns.forEach(pattern -> add(pattern, ruleClass));
+            }
+            return this;
+        }
+
+        Builder add(String pattern, int ruleClass) {
+            if (!StringUtils.hasText(pattern)) {
+                return this;
+            }
+            if (!pattern.startsWith("/")) {
+                antRules.add(new AntRule(pattern, ruleClass, antPathMatcher));
+                return this;
+            }
+            String[] segments = StringUtils.tokenizeToStringArray(pattern, "/", false, true);
+            for (String segment : segments) {
+                if (!"*".equals(segment) && !"**".equals(segment) && isAntWildcard(segment)) {
+                    antRules.add(new AntRule(pattern, ruleClass, antPathMatcher));
+                    return this;
+                }
+            }
+            BuildNode node = root;
+            for (String segment : segments) {
+                node = node.child(segment);
+            }
+            if (pattern.endsWith("/")) {
+                node.endSlashMask |= ruleClass;
+            } else {
+                node.endMask |= ruleClass;
+            }
+            return this;
+        }
+
+        /**
+         * Adds a full-match regex rule; it is only evaluated for paths starting with {@code literalPrefix}.
+         */
+        Builder addRegex(String literalPrefix, String regex, int ruleClass) {
+            regexRules.add(new RegexRule(literalPrefix, Pattern.compile(regex), ruleClass));
+            return this;
+        }
+
+        RouteRuleTrie build() {
+            return new RouteRuleTrie(root.freeze(), List.copyOf(antRules), List.copyOf(regexRules));
+        }
+
+        private static boolean isAntWildcard(String segment) {
+            return segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0;
+        }
+    }
+
+    private static final class BuildNode {
+
+        private final boolean doubleStar;
+        private final boolean globbed;
+        private final Map<String, BuildNode> literals = new LinkedHashMap<>();
+        private BuildNode star;
+        private BuildNode doubleStarChild;
+        private int endMask;
+        private int endSlashMask;
+
+        private BuildNode(boolean doubleStar, boolean globbed) {
+            this.doubleStar = doubleStar;
+            this.globbed = globbed;
+        }
+
+        private BuildNode child(String segment) {
+            if ("**".equals(segment)) {
+                if (doubleStarChild == null) {
+                    doubleStarChild = new BuildNode(true, true);
+                }
+                return doubleStarChild;
+            }
+            if ("*".equals(segment)) {
+                if (star == null) {
+                    star = new BuildNode(false, globbed);
+                }
+                return star;
+            }
+            return literals.computeIfAbsent(segment, key -> new BuildNode(false, globbed));
+        }
+
+        private Node freeze() {
+            String[] segments = literals.keySet().toArray(new String[0]);
+            Node[] children = new Node[segments.length];
+            for (int i = 0; i < segments.length; i++) {
+                children[i] = literals.get(segments[i]).freeze();
+            }
+            return new Node(
+                doubleStar,
+                globbed,
+                segments,
+                children,
+                star == null ? null : star.freeze(),
+                doubleStarChild == null ? null : doubleStarChild.freeze(),
+                endMask,
+                endSlashMask
+            );
+        }
+    }
+
+    /**
+     * Immutable trie node. A pattern ending in {@code **} accepts paths with or without a trailing slash;
+     * any other pattern must agree with the path on it. {@code globbed} marks nodes whose pattern prefix
+     * already contains {@code **}, which disables AntPathMatcher's empty-{@code *} special case.
+     */
+    private static final class Node {
+
+        private final boolean doubleStar;
+        private final boolean globbed;
+        private final String[] literalSegments;
+        private final Node[] literalChildren;
+        private final Node star;
+        private final Node doubleStarChild;
+        private final int endMask;
+        private final int endSlashMask;
+
+        private Node(boolean doubleStar,
+                     boolean globbed,
+                     String[] literalSegments,
+                     Node[] literalChildren,
+                     Node star,
+                     Node doubleStarChild,
+                     int endMask,
+                     int endSlashMask) {
+            this.doubleStar = doubleStar;
+            this.globbed = globbed;
+            this.literalSegments = literalSegments;
+            this.literalChildren = literalChildren;
+            this.star = star;
+            this.doubleStarChild = doubleStarChild;
+            this.endMask = endMask;
+            this.endSlashMask = endSlashMask;
+        }
+    }
+
+    private record AntRule(String pattern, int ruleClass, AntPathMatcher matcher) {
+    }
+
+    private record RegexRule(String literalPrefix, Pattern pattern, int ruleClass) {
+    }
+}
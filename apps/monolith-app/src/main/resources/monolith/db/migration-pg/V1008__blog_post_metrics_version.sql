@@ -0,0 +1,19 @@
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1
+        FROM information_schema.tables
+        WHERE table_schema = 'public'
+          AND table_name = 'ctn_post'
+    ) THEN
+        IF NOT EXISTS (
+            SELECT 1
+            FROM information_schema.columns
+            WHERE table_schema = 'public'
+              AND table_name = 'ctn_post'
+              AND column_name = 'metrics_version'
+        ) THEN
+            EXECUTE 'ALTER TABLE CTN_POST ADD COLUMN metrics_version INTEGER NOT NULL DEFAULT 0';
+        END IF;
+    END IF;
+END $$;
@@ -0,0 +1,11 @@
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1
+        FROM information_schema.tables
+        WHERE table_schema = 'public'
+          AND table_name = 'ctn_post'
+    ) THEN
+        EXECUTE 'CREATE INDEX IF NOT EXISTS IX_CTN_POST_8 ON CTN_POST (status_code, published_time DESC, id DESC)';
+    END IF;
+END $$;
@@ -0,0 +1,16 @@
+-- Wake audit outbox dispatchers as soon as new events are committed.
+-- Statement-level trigger: a batched insert issues a single NOTIFY, delivered on commit.
+
+CREATE OR REPLACE FUNCTION aud_event_outbox_notify() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_notify('aud_event_outbox', '');
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS TR_AUD_EVENT_OUTBOX_NOTIFY ON AUD_EVENT_OUTBOX;
+
+CREATE TRIGGER TR_AUD_EVENT_OUTBOX_NOTIFY
+    AFTER INSERT ON AUD_EVENT_OUTBOX
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION aud_event_outbox_notify();
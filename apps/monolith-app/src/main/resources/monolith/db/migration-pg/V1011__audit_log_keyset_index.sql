@@ -0,0 +1,9 @@
+-- 审计日志列表按 (create_time, id) 降序分页，复合索引让 user/action/时间范围过滤后可沿索引直接定位游标。
+-- 原单列索引 IX_AUD_LOG_2/3/4 是新索引的前缀，一并删除以减少写入维护成本。
+CREATE INDEX IF NOT EXISTS IX_AUD_LOG_5 ON AUD_LOG (create_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IX_AUD_LOG_6 ON AUD_LOG (user_id, create_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IX_AUD_LOG_7 ON AUD_LOG (action_code, create_time DESC, id DESC);
+
+DROP INDEX IF EXISTS IX_AUD_LOG_2;
+DROP INDEX IF EXISTS IX_AUD_LOG_3;
+DROP INDEX IF EXISTS IX_AUD_LOG_4;
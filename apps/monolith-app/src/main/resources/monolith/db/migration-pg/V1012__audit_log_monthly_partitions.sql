@@ -0,0 +1,71 @@
+-- AUD_LOG 改为按 create_time 月分区，保留期外的数据由审计保留任务整分区删除或归档。
+-- 分区表主键必须包含分区键，改为 (id, create_time)；PostgreSQL 17 之前分区表不支持 IDENTITY，改用独立序列。
+-- DEFAULT 分区兜底未预建月份的写入，保留任务会持续预建后续月份分区。
+
+DO $$
+DECLARE
+    month_start DATE;
+    last_month DATE := (date_trunc('month', CURRENT_DATE) + INTERVAL '2 months')::date;
+BEGIN
+    IF EXISTS (
+        SELECT 1
+        FROM pg_partitioned_table
+        WHERE partrelid = to_regclass('aud_log')
+    ) THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE AUD_LOG RENAME TO AUD_LOG_UNPARTITIONED;
+    DROP INDEX IF EXISTS IX_AUD_LOG_1;
+    DROP INDEX IF EXISTS IX_AUD_LOG_5;
+    DROP INDEX IF EXISTS IX_AUD_LOG_6;
+    DROP INDEX IF EXISTS IX_AUD_LOG_7;
+
+    CREATE SEQUENCE IF NOT EXISTS SEQ_AUD_LOG;
+    CREATE TABLE AUD_LOG (
+        id BIGINT NOT NULL DEFAULT nextval('seq_aud_log'),
+        trace_code VARCHAR(64),
+        user_id BIGINT,
+        action_code VARCHAR(128) NOT NULL,
+        resource_code VARCHAR(128),
+        result_status VARCHAR(32) NOT NULL,
+        error_code VARCHAR(64),
+        cost_value BIGINT NOT NULL,
+        create_time TIMESTAMP NOT NULL,
+        update_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+        deleted_flag SMALLINT NOT NULL DEFAULT 0,
+        version_num INT NOT NULL DEFAULT 0,
+        CONSTRAINT PK_AUD_LOG PRIMARY KEY (id, create_time)
+    ) PARTITION BY RANGE (create_time);
+    ALTER SEQUENCE SEQ_AUD_LOG OWNED BY AUD_LOG.id;
+
+    SELECT COALESCE(date_trunc('month', MIN(create_time))::date, date_trunc('month', CURRENT_DATE)::date)
+    INTO month_start
+    FROM AUD_LOG_UNPARTITIONED;
+    WHILE month_start <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF AUD_LOG FOR VALUES FROM (%L) TO (%L)',
+            'aud_log_p' || to_char(month_start, 'YYYYMM'),
+            month_start,
+            (month_start + INTERVAL '1 month')::date
+        );
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+    CREATE TABLE IF NOT EXISTS AUD_LOG_DEFAULT PARTITION OF AUD_LOG DEFAULT;
+
+    INSERT INTO AUD_LOG (
+        id, trace_code, user_id, action_code, resource_code, result_status, error_code, cost_value,
+        create_time, update_time, deleted_flag, version_num
+    )
+    SELECT id, trace_code, user_id, action_code, resource_code, result_status, error_code, cost_value,
+           create_time, update_time, deleted_flag, version_num
+    FROM AUD_LOG_UNPARTITIONED;
+    PERFORM setval('seq_aud_log', (SELECT COALESCE(MAX(id), 0) + 1 FROM AUD_LOG_UNPARTITIONED), false);
+
+    DROP TABLE AUD_LOG_UNPARTITIONED;
+END $$;
+
+CREATE INDEX IF NOT EXISTS IX_AUD_LOG_1 ON AUD_LOG (trace_code);
+CREATE INDEX IF NOT EXISTS IX_AUD_LOG_5 ON AUD_LOG (create_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IX_AUD_LOG_6 ON AUD_LOG (user_id, create_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IX_AUD_LOG_7 ON AUD_LOG (action_code, create_time DESC, id DESC);
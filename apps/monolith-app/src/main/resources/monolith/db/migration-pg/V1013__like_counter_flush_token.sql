@@ -0,0 +1,35 @@
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1
+        FROM information_schema.tables
+        WHERE table_schema = 'public'
+          AND table_name = 'ctn_post'
+    ) THEN
+        IF NOT EXISTS (
+            SELECT 1
+            FROM information_schema.columns
+            WHERE table_schema = 'public'
+              AND table_name = 'ctn_post'
+              AND column_name = 'like_flush_token'
+        ) THEN
+            EXECUTE 'ALTER TABLE CTN_POST ADD COLUMN like_flush_token VARCHAR(64) NULL';
+        END IF;
+    END IF;
+    IF EXISTS (
+        SELECT 1
+        FROM information_schema.tables
+        WHERE table_schema = 'public'
+          AND table_name = 'ctn_app'
+    ) THEN
+        IF NOT EXISTS (
+            SELECT 1
+            FROM information_schema.columns
+            WHERE table_schema = 'public'
+              AND table_name = 'ctn_app'
+              AND column_name = 'like_flush_token'
+        ) THEN
+            EXECUTE 'ALTER TABLE CTN_APP ADD COLUMN like_flush_token VARCHAR(64) NULL';
+        END IF;
+    END IF;
+END $$;
@@ -0,0 +1,12 @@
+-- 游标列表只收录有 published_time 的文章，这里为历史已发布文章补齐发布时间。
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1
+        FROM information_schema.tables
+        WHERE table_schema = 'public'
+          AND table_name = 'ctn_post'
+    ) THEN
+        EXECUTE 'UPDATE CTN_POST SET published_time = COALESCE(create_time, update_time) WHERE status_code = ''PUBLISHED'' AND published_time IS NULL';
+    END IF;
+END $$;
@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS CTN_LIKE_FLUSH_LOG (
+    target_code VARCHAR(16) NOT NULL,
+    target_id BIGINT NOT NULL,
+    flush_token VARCHAR(64) NOT NULL,
+    create_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (target_code, target_id, flush_token)
+);
+CREATE INDEX IF NOT EXISTS IX_CTN_LIKE_FLUSH_LOG_1 ON CTN_LIKE_FLUSH_LOG (create_time);
@@ -0,0 +1,11 @@
+SET @idx_exists = (
+    SELECT COUNT(1)
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE()
+      AND table_name = 'CTN_POST'
+      AND index_name = 'IX_CTN_POST_8'
+);
+SET @ddl = IF(@idx_exists = 0, 'ALTER TABLE CTN_POST ADD INDEX IX_CTN_POST_8 (status_code, published_time, id)', 'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,74 @@
+-- 审计日志列表按 (create_time, id) 降序分页，复合索引让 user/action/时间范围过滤后可沿索引直接定位游标。
+-- 原单列索引 IX_AUD_LOG_2/3/4 是新索引的前缀，一并删除以减少写入维护成本。
+
+SET @idx_exists = (
+    SELECT COUNT(1)
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE()
+      AND table_name = 'AUD_LOG'
+      AND index_name = 'IX_AUD_LOG_5'
+);
+SET @ddl = IF(@idx_exists = 0, 'ALTER TABLE AUD_LOG ADD INDEX IX_AUD_LOG_5 (create_time, id)', 'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @idx_exists = (
+    SELECT COUNT(1)
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE()
+      AND table_name = 'AUD_LOG'
+      AND index_name = 'IX_AUD_LOG_6'
+);
+SET @ddl = IF(@idx_exists = 0, 'ALTER TABLE AUD_LOG ADD INDEX IX_AUD_LOG_6 (user_id, create_time, id)', 'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @idx_exists = (
+    SELECT COUNT(1)
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE()
+      AND table_name = 'AUD_LOG'
+      AND index_name = 'IX_AUD_LOG_7'
+);
+SET @ddl = IF(@idx_exists = 0, 'ALTER TABLE AUD_LOG ADD INDEX IX_AUD_LOG_7 (action_code, create_time, id)', 'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @idx_exists = (
+    SELECT COUNT(1)
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE()
+      AND table_name = 'AUD_LOG'
+      AND index_name = 'IX_AUD_LOG_2'
+);
+SET @ddl = IF(@idx_exists > 0, 'ALTER TABLE AUD_LOG DROP INDEX IX_AUD_LOG_2', 'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @idx_exists = (
+    SELECT COUNT(1)
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE()
+      AND table_name = 'AUD_LOG'
+      AND index_name = 'IX_AUD_LOG_3'
+);
+SET @ddl = IF(@idx_exists > 0, 'ALTER TABLE AUD_LOG DROP INDEX IX_AUD_LOG_3', 'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @idx_exists = (
+    SELECT COUNT(1)
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE()
+      AND table_name = 'AUD_LOG'
+      AND index_name = 'IX_AUD_LOG_4'
+);
+SET @ddl = IF(@idx_exists > 0, 'ALTER TABLE AUD_LOG DROP INDEX IX_AUD_LOG_4', 'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS CTN_LIKE_FLUSH_LOG (
+    target_code VARCHAR(16) NOT NULL,
+    target_id BIGINT NOT NULL,
+    flush_token VARCHAR(64) NOT NULL,
+    create_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (target_code, target_id, flush_token),
+    KEY ix_ctn_like_flush_log_create_time (create_time)
+);
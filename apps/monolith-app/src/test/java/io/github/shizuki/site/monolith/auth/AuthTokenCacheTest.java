@@ -0,0 +1,257 @@
+package io.github.shizuki.site.monolith.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.shizuki.common.core.time.ClockProvider;
+import io.github.shizuki.site.monolith.config.GatewayAuthProperties;
+import io.github.shizuki.site.user.mapper.GroupPermissionMapper;
+import io.github.shizuki.site.user.service.auth.AuthContextInvalidationEvent;
+import io.github.shizuki.site.user.service.auth.GroupPermissionMatrix;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+class AuthTokenCacheTest {
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-04-18T00:00:00Z"));
+    private final ClockProvider clockProvider = now::get;
+    private final FakeRedis redis = new FakeRedis();
+
+    @Test
+    void shouldKeepHotTokensWhileOneOffTokensFloodTheCache() throws Exception {
+        GatewayAuthProperties properties = properties(1600);
+        AuthTokenCache cache = localCache(properties);
+        for (int index = 0; index < 100; index++) {
+            String token = "hot-" + index;
+            cache.store(cache.lookup(token), context(index, "USER"), null);
+            assertThat(cache.lookup(token).context()).isNotNull();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int worker = 0; worker < 8; worker++) {
+                int offset = worker;
+                futures.add(executor.submit(() -> {
+                    for (int index = 0; index < 5_000; index++) {
+                        String token = "scan-" + offset + "-" + index;
+                        cache.store(cache.lookup(token), context(10_000L + index, "USER"), null);
+                        if (index % 50 == 0) {
+                            cache.lookup("hot-" + (index / 50));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        AuthTokenCache.Stats stats = cache.stats();
+        assertThat(stats.size()).isLessThanOrEqualTo(1600);
+        assertThat(stats.evictions()).isGreaterThan(30_000L);
+        for (int index = 0; index < 100; index++) {
+            assertThat(cache.lookup("hot-" + index).context()).as("hot-" + index).isNotNull();
+        }
+    }
+
+    @Test
+    void shouldExpireAtEarlierOfCacheTtlAndTokenExpiry() {
+        AuthTokenCache cache = localCache(properties(1000));
+        cache.store(cache.lookup("short-lived"), context(1L, "USER"), 10L);
+        cache.store(cache.lookup("long-lived"), context(2L, "USER"), -1L);
+        cache.store(cache.lookup("expired"), context(3L, "USER"), 0L);
+
+        assertThat(cache.lookup("expired").context()).isNull();
+        advanceSeconds(9);
+        assertThat(cache.lookup("short-lived").context()).isNotNull();
+        advanceSeconds(1);
+        assertThat(cache.lookup("short-lived").context()).isNull();
+        advanceSeconds(19);
+        assertThat(cache.lookup("long-lived").context()).isNotNull();
+        advanceSeconds(1);
+        assertThat(cache.lookup("long-lived").context()).isNull();
+    }
+
+    @Test
+    void shouldShareEntriesThroughRedisAndInvalidateUserAcrossNodes() {
+        AuthTokenCache nodeA = redisCache();
+        AuthTokenCache nodeB = redisCache();
+        nodeA.store(nodeA.lookup("token-7"), context(7L, "USER"), 7200L);
+
+        assertThat(nodeB.lookup("token-7").context().userId()).isEqualTo(7L);
+        assertThat(nodeB.stats().redisHits()).isEqualTo(1L);
+
+        AuthContextInvalidationEvent event = AuthContextInvalidationEvent.user(7L);
+        nodeA.onLocalInvalidation(event);
+        nodeB.onRemoteInvalidation(event.encode());
+
+        assertThat(nodeA.lookup("token-7").context()).isNull();
+        assertThat(nodeB.lookup("token-7").context()).isNull();
+        assertThat(redis.values.keySet()).noneMatch(key -> key.startsWith(AuthTokenCache.TOKEN_KEY_PREFIX));
+    }
+
+    @Test
+    void shouldInvalidateOnlyGroupMembersAndStaleRedisEntriesOnGroupChange() {
+        AuthTokenCache nodeA = redisCache();
+        AuthTokenCache nodeB = redisCache();
+        nodeA.store(nodeA.lookup("editor-token"), context(1L, "EDITOR"), null);
+        nodeA.store(nodeA.lookup("user-token"), context(2L, "USER"), null);
+        nodeB.lookup("editor-token");
+        nodeB.lookup("user-token");
+
+        AuthContextInvalidationEvent event = AuthContextInvalidationEvent.group("editor");
+        nodeA.onLocalInvalidation(event);
+        nodeB.onRemoteInvalidation(event.encode());
+
+        long redisHitsBefore = nodeB.stats().redisHits();
+        assertThat(nodeB.lookup("user-token").context()).isNotNull();
+        assertThat(nodeB.stats().redisHits()).isEqualTo(redisHitsBefore);
+        assertThat(nodeB.lookup("editor-token").context()).isNull();
+        assertThat(redis.values.get(AuthTokenCache.EPOCH_KEY)).isEqualTo("1");
+    }
+
+    @Test
+    void shouldBumpGroupPermissionMatrixOnRemoteGroupWideInvalidation() {
+        GroupPermissionMatrix matrix = new GroupPermissionMatrix(Mockito.mock(GroupPermissionMapper.class));
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("groupPermissionMatrix", matrix);
+        AuthTokenCache cache = new AuthTokenCache(
+            properties(1000),
+            new StaticListableBeanFactory().getBeanProvider(StringRedisTemplate.class),
+            new ObjectMapper(),
+            clockProvider,
+            beanFactory.getBeanProvider(GroupPermissionMatrix.class)
+        );
+
+        cache.onRemoteInvalidation(AuthContextInvalidationEvent.user(7L).encode());
+        assertThat(matrix.version()).isZero();
+
+        cache.onRemoteInvalidation(AuthContextInvalidationEvent.group("editor").encode());
+        cache.onRemoteInvalidation(AuthContextInvalidationEvent.all().encode());
+        assertThat(matrix.version()).isEqualTo(2L);
+    }
+
+    @Test
+    void shouldNotCacheContextLoadedAcrossInvalidation() {
+        AuthTokenCache cache = redisCache();
+        AuthTokenCache.Lookup lookup = cache.lookup("racing-token");
+
+        cache.onLocalInvalidation(AuthContextInvalidationEvent.user(5L));
+        cache.store(lookup, context(5L, "USER"), null);
+
+        assertThat(cache.lookup("racing-token").context()).isNull();
+        assertThat(redis.values.keySet()).noneMatch(key -> key.startsWith(AuthTokenCache.TOKEN_KEY_PREFIX));
+    }
+
+    @Test
+    void shouldKeyRedisEntriesByTokenHashRatherThanRawToken() {
+        AuthTokenCache cache = redisCache();
+        cache.store(cache.lookup("secret-token"), context(9L, "USER"), null);
+
+        assertThat(redis.values.keySet()).noneMatch(key -> key.contains("secret-token"));
+        assertThat(cache.lookup("secret-token-2").context()).isNull();
+    }
+
+    private AuthTokenCache localCache(GatewayAuthProperties properties) {
+        return new AuthTokenCache(
+            properties,
+            new StaticListableBeanFactory().getBeanProvider(StringRedisTemplate.class),
+            new ObjectMapper(),
+            clockProvider,
+            new StaticListableBeanFactory().getBeanProvider(GroupPermissionMatrix.class)
+        );
+    }
+
+    private AuthTokenCache redisCache() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("stringRedisTemplate", redis.template);
+        return new AuthTokenCache(
+            properties(1000),
+            beanFactory.getBeanProvider(StringRedisTemplate.class),
+            new ObjectMapper(),
+            clockProvider,
+            new StaticListableBeanFactory().getBeanProvider(GroupPermissionMatrix.class)
+        );
+    }
+
+    private static GatewayAuthProperties properties(int maxEntries) {
+        GatewayAuthProperties properties = new GatewayAuthProperties();
+        properties.setCacheMaxEntries(maxEntries);
+        properties.setCacheTtlSeconds(30L);
+        return properties;
+    }
+
+    private static AuthTokenCache.AuthContext context(long userId, String group) {
+        return new AuthTokenCache.AuthContext(userId, Set.of(group), Set.of("blog.post.read"));
+    }
+
+    private void advanceSeconds(long seconds) {
+        now.updateAndGet(current -> current.plusSeconds(seconds));
+    }
+
+    /**
+     * In-memory stand-in for the handful of Redis commands the cache issues.
+     */
+    @SuppressWarnings("unchecked")
+    private static final class FakeRedis {
+
+        private final Map<String, String> values = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> sets = new ConcurrentHashMap<>();
+        private final StringRedisTemplate template = Mockito.mock(StringRedisTemplate.class);
+
+        private FakeRedis() {
+            ValueOperations<String, String> valueOperations = Mockito.mock(ValueOperations.class);
+            SetOperations<String, String> setOperations = Mockito.mock(SetOperations.class);
+            Mockito.when(template.opsForValue()).thenReturn(valueOperations);
+            Mockito.when(template.opsForSet()).thenReturn(setOperations);
+            Mockito.when(valueOperations.multiGet(ArgumentMatchers.anyCollection())).thenAnswer(invocation -> {
+                Collection<String> keys = invocation.getArgument(0);
+                List<String> result = new ArrayList<>();
+                keys.forEach(key -> result.add(values.get(key)));
+                return result;
+            });
+            Mockito.doAnswer(invocation -> values.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(valueOperations).set(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.any(Duration.class));
+            Mockito.when(valueOperations.increment(ArgumentMatchers.anyString())).thenAnswer(invocation -> {
+                String key = invocation.getArgument(0);
+                return Long.parseLong(values.merge(key, "1", (previous, one) -> String.valueOf(Long.parseLong(previous) + 1)));
+            });
+            Mockito.when(setOperations.add(ArgumentMatchers.anyString(), ArgumentMatchers.<String>any())).thenAnswer(invocation -> {
+                sets.computeIfAbsent(invocation.getArgument(0), key -> ConcurrentHashMap.newKeySet()).add(invocation.getArgument(1));
+                return 1L;
+            });
+            Mockito.when(setOperations.members(ArgumentMatchers.anyString()))
+                .thenAnswer(invocation -> sets.getOrDefault(invocation.getArgument(0), Set.of()));
+            Mockito.when(template.delete(ArgumentMatchers.anyCollection())).thenAnswer(invocation -> {
+                Collection<String> keys = invocation.getArgument(0);
+                keys.forEach(key -> {
+                    values.remove(key);
+                    sets.remove(key);
+                });
+                return (long) keys.size();
+            });
+        }
+    }
+}
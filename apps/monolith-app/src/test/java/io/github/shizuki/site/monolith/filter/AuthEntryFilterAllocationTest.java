@@ -0,0 +1,192 @@
+package io.github.shizuki.site.monolith.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.shizuki.common.security.context.LoginUserContext;
+import io.github.shizuki.common.security.filter.LoginUserContextFilter;
+import io.github.shizuki.site.monolith.auth.AuthTokenCache;
+import io.github.shizuki.site.monolith.auth.GuestAuthorTokenService;
+import io.github.shizuki.site.monolith.config.GatewayAuthProperties;
+import io.github.shizuki.site.user.response.auth.AuthIntrospectResponse;
+import io.github.shizuki.site.user.service.AuthService;
+import io.github.shizuki.site.user.service.auth.GroupPermissionMatrix;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Per-request allocation of the gateway identity hand-off: the previous double header-map wrapping plus
+ * header re-parsing in {@link LoginUserContextFilter}, versus the request-attribute principal with a
+ * single non-copying overlay.
+ */
+class AuthEntryFilterAllocationTest {
+
+    private static final String PATH = "/api/v1/admin/ai-town/npcs/librarian/sessions";
+    private static final String TOKEN = "valid-token";
+    private static final Set<String> PERMISSIONS = Set.of(
+        "blog.post.read", "blog.post.write", "media.asset.read", "media.asset.write", "music.playlist.write"
+    );
+
+    @Test
+    void shouldAllocateLessPerRequestThanHeaderCopyingChain() throws Exception {
+        com.sun.management.ThreadMXBean threads = threadMxBean();
+        assumeTrue(threads != null && threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        GatewayAuthProperties properties = new GatewayAuthProperties();
+        AuthService authService = Mockito.mock(AuthService.class);
+        Mockito.when(authService.introspectByAccessToken(TOKEN))
+            .thenReturn(new AuthIntrospectResponse(42L, Set.of("USER", "AUTHOR"), PERMISSIONS, 3600L));
+        AuthTokenCache authTokenCache = new AuthTokenCache(
+            properties,
+            new StaticListableBeanFactory().getBeanProvider(StringRedisTemplate.class),
+            new ObjectMapper(),
+            Instant::now,
+            new StaticListableBeanFactory().getBeanProvider(GroupPermissionMatrix.class)
+        );
+        AuthEntryFilter filter = new AuthEntryFilter(
+            properties,
+            authService,
+            new GuestAuthorTokenService("test-guest-author-secret", 3600L),
+            new ObjectMapper(),
+            authTokenCache
+        );
+        RouteRuleTrie routeRules = AuthEntryFilter.compileRouteRules(properties);
+        LoginUserContextFilter loginUserContextFilter = new LoginUserContextFilter();
+        MockHttpServletRequest request = newRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        long[] sink = new long[1];
+        FilterChain handler = (chainRequest, chainResponse) -> {
+            sink[0] += LoginUserContext.require().getPermissions().size();
+            sink[0] += ((HttpServletRequest) chainRequest).getHeader("Accept").length();
+        };
+        FilterChain downstream = (chainRequest, chainResponse) ->
+            loginUserContextFilter.doFilter(chainRequest, chainResponse, handler);
+
+        Chain current = () -> filter.doFilter(request, response, downstream);
+        Chain legacy = () -> {
+            routeRules.match(PATH);
+            AuthTokenCache.AuthContext context = authTokenCache.lookup(TOKEN).context();
+            LegacyHeaderRequest stripped = LegacyHeaderRequest.stripped(request);
+            downstream.doFilter(LegacyHeaderRequest.withUser(stripped, context), response);
+        };
+
+        current.run();
+        assertThat(response.getStatus()).isEqualTo(200);
+        long legacyBytes = Long.MAX_VALUE;
+        long currentBytes = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            legacyBytes = Math.min(legacyBytes, bytesPerRequest(threads, legacy));
+            currentBytes = Math.min(currentBytes, bytesPerRequest(threads, current));
+        }
+
+        assertThat(sink[0]).isPositive();
+        assertThat(currentBytes)
+            .as("allocation per request: header-copying=%dB attribute-overlay=%dB", legacyBytes, currentBytes)
+            .isLessThan(legacyBytes);
+    }
+
+    private static long bytesPerRequest(com.sun.management.ThreadMXBean threads, Chain chain) throws Exception {
+        int iterations = 5_000;
+        for (int i = 0; i < iterations; i++) {
+            chain.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            chain.run();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / iterations;
+    }
+
+    private static MockHttpServletRequest newRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", PATH);
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        request.addHeader("Accept", "application/json");
+        request.addHeader("Accept-Language", "zh-CN,zh;q=0.9,en;q=0.8");
+        request.addHeader("User-Agent", "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36");
+        request.addHeader("Cookie", "theme=dark; locale=zh-CN");
+        request.addHeader("X-Request-Id", "0f8fad5b-d9cb-469f-a165-70867728950e");
+        request.addHeader("X-User-Id", "1");
+        return request;
+    }
+
+    private static com.sun.management.ThreadMXBean threadMxBean() {
+        return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean ? bean : null;
+    }
+
+    @FunctionalInterface
+    private interface Chain {
+
+        void run() throws Exception;
+    }
+
+    /**
+     * The wrapper AuthEntryFilter used before the principal moved to a request attribute.
+     */
+    private static final class LegacyHeaderRequest extends HttpServletRequestWrapper {
+
+        private final Map<String, List<String>> customHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        private LegacyHeaderRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        private static LegacyHeaderRequest stripped(HttpServletRequest request) {
+            LegacyHeaderRequest wrapper = new LegacyHeaderRequest(request);
+            wrapper.customHeaders.put("X-User-Id", List.of());
+            wrapper.customHeaders.put("X-User-Groups", List.of());
+            wrapper.customHeaders.put("X-User-Permissions", List.of());
+            return wrapper;
+        }
+
+        private static LegacyHeaderRequest withUser(HttpServletRequest request, AuthTokenCache.AuthContext context) {
+            LegacyHeaderRequest wrapper = stripped(request);
+            wrapper.customHeaders.put("X-User-Id", new ArrayList<>(List.of(String.valueOf(context.userId()))));
+            wrapper.customHeaders.put("X-User-Groups", new ArrayList<>(List.of(String.join(",", context.groups()))));
+            wrapper.customHeaders.put("X-User-Permissions",
+                new ArrayList<>(List.of(String.join(",", context.permissions()))));
+            return wrapper;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (customHeaders.containsKey(name)) {
+                List<String> values = customHeaders.get(name);
+                return values == null || values.isEmpty() ? null : values.get(0);
+            }
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            Set<String> names = new LinkedHashSet<>(Collections.list(super.getHeaderNames()));
+            customHeaders.forEach((name, values) -> {
+                if (values.isEmpty()) {
+                    names.remove(name);
+                } else {
+                    names.add(name);
+                }
+            });
+            return Collections.enumeration(names);
+        }
+    }
+}
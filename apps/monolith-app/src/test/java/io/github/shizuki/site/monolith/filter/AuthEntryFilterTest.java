@@ -3,19 +3,30 @@ package io.github.shizuki.site.monolith.filter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.shizuki.common.core.error.BusinessException;
 import io.github.shizuki.common.core.error.ErrorCode;
+import io.github.shizuki.common.security.context.LoginUserContext;
+import io.github.shizuki.common.security.filter.LoginUserContextFilter;
+import io.github.shizuki.common.security.model.LoginUser;
+import io.github.shizuki.site.monolith.auth.AuthTokenCache;
 import io.github.shizuki.site.monolith.auth.GuestAuthorTokenService;
 import io.github.shizuki.site.monolith.config.GatewayAuthProperties;
+import io.github.shizuki.site.user.response.auth.AuthIntrospectResponse;
 import io.github.shizuki.site.user.service.AuthService;
+import io.github.shizuki.site.user.service.auth.GroupPermissionMatrix;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 
@@ -153,6 +164,61 @@ class AuthEntryFilterTest {
         Mockito.verifyNoInteractions(authService);
     }
 
+    @Test
+    void shouldServeRepeatedRequestsFromTokenCache() throws Exception {
+        AuthService authService = Mockito.mock(AuthService.class);
+        Mockito.when(authService.introspectByAccessToken("valid-token"))
+            .thenReturn(new AuthIntrospectResponse(42L, Set.of("USER"), Set.of("blog.post.read"), 3600L));
+        AuthEntryFilter filter = newFilter(authService, List.of());
+
+        for (int round = 0; round < 3; round++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", ADMIN_TOWN_NPC_SESSION_PATH);
+            request.addHeader("Authorization", "Bearer valid-token");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            AtomicBoolean invoked = new AtomicBoolean(false);
+
+            filter.doFilter(request, response, (chainRequest, chainResponse) -> {
+                invoked.set(true);
+                assertThat(((HttpServletRequest) chainRequest).getHeader("X-User-Id")).isEqualTo("42");
+            });
+
+            assertThat(invoked).isTrue();
+        }
+        Mockito.verify(authService, Mockito.times(1)).introspectByAccessToken("valid-token");
+    }
+
+    @Test
+    void shouldExposeResolvedPrincipalAndOverlayUserHeaders() throws Exception {
+        AuthService authService = Mockito.mock(AuthService.class);
+        Mockito.when(authService.introspectByAccessToken("valid-token"))
+            .thenReturn(new AuthIntrospectResponse(42L, Set.of("USER"), Set.of("blog.post.read"), 3600L));
+        AuthEntryFilter filter = newFilter(authService, List.of());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", ADMIN_TOWN_NPC_SESSION_PATH);
+        request.addHeader("Authorization", "Bearer valid-token");
+        request.addHeader("X-User-Id", "1");
+        request.addHeader("X-User-Groups", "ADMIN");
+        request.addHeader("Accept", "application/json");
+        AtomicBoolean invoked = new AtomicBoolean(false);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (chainRequest, chainResponse) ->
+            new LoginUserContextFilter().doFilter(chainRequest, chainResponse, (innerRequest, innerResponse) -> {
+                invoked.set(true);
+                HttpServletRequest httpRequest = (HttpServletRequest) innerRequest;
+                LoginUser principal = (LoginUser) httpRequest.getAttribute(LoginUserContext.REQUEST_ATTRIBUTE);
+                assertThat(principal.getUserId()).isEqualTo(42L);
+                assertThat(LoginUserContext.require()).isSameAs(principal);
+                assertThat(httpRequest.getHeader("x-user-groups")).isEqualTo("USER");
+                assertThat(Collections.list(httpRequest.getHeaders("X-User-Id"))).containsExactly("42");
+                assertThat(Collections.list(httpRequest.getHeaderNames()))
+                    .contains("Accept")
+                    .filteredOn("X-User-Id"::equalsIgnoreCase)
+                    .hasSize(1);
+                assertThat(httpRequest.getHeader("Accept")).isEqualTo("application/json");
+            }));
+
+        assertThat(invoked).isTrue();
+    }
+
     private static AuthEntryFilter newFilter(AuthService authService, List<String> guestPaths) {
         return newFilter(authService, guestPaths, new GuestAuthorTokenService("test-guest-author-secret", 3600L));
     }
@@ -163,7 +229,14 @@ class AuthEntryFilterTest {
         GatewayAuthProperties properties = new GatewayAuthProperties();
         properties.setGuestPaths(guestPaths);
         properties.setGuestInvalidTokenPolicy("downgrade");
-        return new AuthEntryFilter(properties, authService, tokenService, new ObjectMapper());
+        AuthTokenCache authTokenCache = new AuthTokenCache(
+            properties,
+            new StaticListableBeanFactory().getBeanProvider(StringRedisTemplate.class),
+            new ObjectMapper(),
+            Instant::now,
+            new StaticListableBeanFactory().getBeanProvider(GroupPermissionMatrix.class)
+        );
+        return new AuthEntryFilter(properties, authService, tokenService, new ObjectMapper(), authTokenCache);
     }
 
     private static List<String> configuredGuestPaths() {
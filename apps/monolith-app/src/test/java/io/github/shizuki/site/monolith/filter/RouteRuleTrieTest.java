@@ -0,0 +1,213 @@
+package io.github.shizuki.site.monolith.filter;
+
+import io.github.shizuki.site.monolith.config.GatewayAuthProperties;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.AntPathMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteRuleTrieTest {
+
+    private static final AntPathMatcher ANT = new AntPathMatcher();
+    private static final String GUEST_AUTHOR_POSTS_PATH = "/api/v1/me/posts";
+
+    @Test
+    void shouldClassifyRoutesFromTheConfiguredTable() {
+        RouteRuleTrie trie = AuthEntryFilter.compileRouteRules(configuredProperties());
+
+        assertThat(trie.match("/api/v1/auth/tokens")).isEqualTo(RouteRuleTrie.PUBLIC);
+        assertThat(trie.match("/actuator/health/liveness")).isEqualTo(RouteRuleTrie.PUBLIC);
+        assertThat(trie.match("/api/v1/posts")).isEqualTo(RouteRuleTrie.GUEST);
+        assertThat(trie.match("/api/v1/assets/42/download-url")).isEqualTo(RouteRuleTrie.GUEST);
+        assertThat(trie.match("/api/v1/assets/42/7/download-url")).isZero();
+        assertThat(trie.match("/api/v1/music/search/")).isZero();
+        assertThat(trie.match(GUEST_AUTHOR_POSTS_PATH)).isEqualTo(RouteRuleTrie.GUEST_AUTHOR);
+        assertThat(trie.match(GUEST_AUTHOR_POSTS_PATH + "/12/publish")).isEqualTo(RouteRuleTrie.GUEST_AUTHOR);
+        assertThat(trie.match(GUEST_AUTHOR_POSTS_PATH + "/12/archive")).isZero();
+        assertThat(trie.match(GUEST_AUTHOR_POSTS_PATH + "/category-policies")).isZero();
+        assertThat(trie.match("/api/v1/admin/users")).isZero();
+    }
+
+    @Test
+    void shouldAgreeWithAntPathMatcherOnTheRealRouteTable() {
+        GatewayAuthProperties properties = configuredProperties();
+        RouteRuleTrie trie = AuthEntryFilter.compileRouteRules(properties);
+        List<String> vocabulary = routeVocabulary(properties);
+        Random random = new Random(42L);
+
+        for (int round = 0; round < 20_000; round++) {
+            String path = randomPath(random, vocabulary, 7);
+            assertThat(trie.match(path)).as(path).isEqualTo(legacyMatch(properties, path));
+        }
+    }
+
+    @Test
+    void shouldAgreeWithAntPathMatcherOnRandomPatterns() {
+        List<String> patternSegments = List.of("a", "b", "*", "**");
+        List<String> pathSegments = List.of("a", "b", "c");
+        Random random = new Random(7L);
+
+        for (int round = 0; round < 2_000; round++) {
+            String pattern = randomPattern(random, patternSegments);
+            RouteRuleTrie trie = RouteRuleTrie.builder().add(pattern, RouteRuleTrie.PUBLIC).build();
+            for (int sample = 0; sample < 50; sample++) {
+                String path = randomPath(random, pathSegments, 5);
+                boolean expected = ANT.match(pattern, path);
+                assertThat(trie.match(path) == RouteRuleTrie.PUBLIC).as(pattern + " vs " + path).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void shouldDelegateInSegmentWildcardsToAntPathMatcher() {
+        RouteRuleTrie trie = RouteRuleTrie.builder()
+            .add("/static/*.js", RouteRuleTrie.PUBLIC)
+            .add("/api/v1/users/{id}/avatar", RouteRuleTrie.GUEST)
+            .build();
+
+        assertThat(trie.match("/static/app.js")).isEqualTo(RouteRuleTrie.PUBLIC);
+        assertThat(trie.match("/static/app.css")).isZero();
+        assertThat(trie.match("/api/v1/users/9/avatar")).isEqualTo(RouteRuleTrie.GUEST);
+    }
+
+    /**
+     * Opt-in benchmark: run with {@code -Dbenchmark=true}. Timing depends on the host, so it stays out of the default build.
+     */
+    @Test
+    @Tag("benchmark")
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void shouldBeatLinearAntMatchingOnTheRealRouteTable() {
+        GatewayAuthProperties properties = configuredProperties();
+        RouteRuleTrie trie = AuthEntryFilter.compileRouteRules(properties);
+        List<String> vocabulary = routeVocabulary(properties);
+        Random random = new Random(42L);
+        String[] paths = new String[4_096];
+        for (int i = 0; i < paths.length; i++) {
+            paths[i] = randomPath(random, vocabulary, 6);
+        }
+
+        long legacyNanos = Long.MAX_VALUE;
+        long trieNanos = Long.MAX_VALUE;
+        long sink = 0;
+        for (int round = 0; round < 15; round++) {
+            long started = System.nanoTime();
+            for (String path : paths) {
+                sink += legacyMatch(properties, path);
+            }
+            legacyNanos = Math.min(legacyNanos, System.nanoTime() - started);
+
+            started = System.nanoTime();
+            for (String path : paths) {
+                sink -= trie.match(path);
+            }
+            trieNanos = Math.min(trieNanos, System.nanoTime() - started);
+        }
+
+        assertThat(sink).isZero();
+        assertThat(trieNanos)
+            .as("route matching on %d paths x %d rules: ant=%.3fms trie=%.3fms",
+                paths.length, properties.getPublicPaths().size() + properties.getGuestPaths().size() + 2,
+                legacyNanos / 1e6, trieNanos / 1e6)
+            .isLessThan(legacyNanos);
+    }
+
+    /**
+     * Reference behaviour: linear AntPathMatcher scan plus the original guest-author regexes.
+     */
+    private static int legacyMatch(GatewayAuthProperties properties, String path) {
+        int mask = 0;
+        if (properties.getPublicPaths().stream().anyMatch(pattern -> ANT.match(pattern, path))) {
+            mask |= RouteRuleTrie.PUBLIC;
+        }
+        if (properties.getGuestPaths().stream().anyMatch(pattern -> ANT.match(pattern, path))) {
+            mask |= RouteRuleTrie.GUEST;
+        }
+        if (ANT.match(GUEST_AUTHOR_POSTS_PATH, path)
+            || path.matches("/api/v1/me/posts/\\d+")
+            || path.matches("/api/v1/me/posts/\\d+/(publish|unpublish)")) {
+            mask |= RouteRuleTrie.GUEST_AUTHOR;
+        }
+        return mask;
+    }
+
+    private static String randomPattern(Random random, List<String> segments) {
+        StringBuilder builder = new StringBuilder();
+        int length = random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            builder.append('/').append(segments.get(random.nextInt(segments.size())));
+        }
+        if (builder.isEmpty() || random.nextInt(4) == 0) {
+            builder.append('/');
+        }
+        return builder.toString();
+    }
+
+    private static String randomPath(Random random, List<String> segments, int maxSegments) {
+        StringBuilder builder = new StringBuilder();
+        int length = random.nextInt(maxSegments + 1);
+        for (int i = 0; i < length; i++) {
+            builder.append(random.nextInt(12) == 0 ? "//" : "/");
+            int kind = random.nextInt(10);
+            if (kind == 0) {
+                builder.append(random.nextInt(1_000));
+            } else if (kind == 1) {
+                builder.append(random.nextBoolean() ? "publish" : "unpublish");
+            } else {
+                builder.append(segments.get(random.nextInt(segments.size())));
+            }
+        }
+        if (builder.isEmpty() || random.nextInt(6) == 0) {
+            builder.append('/');
+        }
+        return builder.toString();
+    }
+
+    private static List<String> routeVocabulary(GatewayAuthProperties properties) {
+        Set<String> vocabulary = new LinkedHashSet<>(List.of("me", "posts", "admin", "unknown"));
+        List<String> patterns = new ArrayList<>(properties.getPublicPaths());
+        patterns.addAll(properties.getGuestPaths());
+        for (String pattern : patterns) {
+            for (String segment : pattern.split("/")) {
+                if (!segment.isEmpty() && !segment.contains("*")) {
+                    vocabulary.add(segment);
+                }
+            }
+        }
+        return List.copyOf(vocabulary);
+    }
+
+    private static GatewayAuthProperties configuredProperties() {
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource("application.yml"));
+        Properties source = yaml.getObject();
+        assertThat(source).isNotNull();
+
+        GatewayAuthProperties properties = new GatewayAuthProperties();
+        properties.setPublicPaths(readList(source, "shizuki.gateway.auth.public-paths"));
+        properties.setGuestPaths(readList(source, "shizuki.gateway.auth.guest-paths"));
+        assertThat(properties.getPublicPaths()).isNotEmpty();
+        assertThat(properties.getGuestPaths()).isNotEmpty();
+        return properties;
+    }
+
+    private static List<String> readList(Properties source, String key) {
+        List<String> values = new ArrayList<>();
+        for (int index = 0; ; index++) {
+            String value = source.getProperty(key + "[" + index + "]");
+            if (value == null) {
+                return values;
+            }
+            values.add(value);
+        }
+    }
+}
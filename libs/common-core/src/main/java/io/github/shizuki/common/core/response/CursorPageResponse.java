@@ -0,0 +1,27 @@
+package io.github.shizuki.common.core.response;
+
+import java.util.List;
+
+/**
+ * 游标分页响应体。
+ *
+ * @param items 当前页数据
+ * @param nextCursor 下一页游标，为空表示没有更多数据
+ * @param pageSize 当前页大小
+ * @param <T> 数据类型
+ */
+public record CursorPageResponse<T>(List<T> items, String nextCursor, long pageSize) {
+
+    /**
+     * 构造游标分页响应。
+     *
+     * @param items 当前页数据
+     * @param nextCursor 下一页游标
+     * @param pageSize 当前页大小
+     * @param <T> 数据类型
+     * @return 游标分页响应
+     */
+    public static <T> CursorPageResponse<T> of(List<T> items, String nextCursor, long pageSize) {
+        return new CursorPageResponse<>(items, nextCursor, pageSize);
+    }
+}
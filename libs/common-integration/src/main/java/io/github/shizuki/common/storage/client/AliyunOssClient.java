@@ -1,5 +1,6 @@
 package io.github.shizuki.common.storage.client;
 
+import com.aliyun.oss.ClientBuilderConfiguration;
 import com.aliyun.oss.OSS;
 import com.aliyun.oss.OSSClientBuilder;
 import com.aliyun.oss.ClientException;
@@ -17,6 +18,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
@@ -24,36 +30,35 @@ import org.springframework.util.StringUtils;
 public class AliyunOssClient implements ObjectStorageClient {
 
     private final OssProperties ossProperties;
+    private final OssClientFactory clientFactory;
+    private final Object clientLock = new Object();
+    private volatile SharedClient sharedClient;
 
+    @Autowired
     public AliyunOssClient(OssProperties ossProperties) {
+        this(ossProperties, AliyunOssClient::buildClient);
+    }
+
+    AliyunOssClient(OssProperties ossProperties, OssClientFactory clientFactory) {
         this.ossProperties = ossProperties;
+        this.clientFactory = clientFactory;
     }
 
     @Override
     public void putObject(String bucket, String key, InputStream inputStream, StorageObjectMetadata metadata) {
-        OSS ossClient = createClient();
-        try {
-            ObjectMetadata objectMetadata = new ObjectMetadata();
-            if (metadata != null) {
-                objectMetadata.setContentType(metadata.getContentType());
-                if (metadata.getContentLength() > 0) {
-                    objectMetadata.setContentLength(metadata.getContentLength());
-                }
+        ObjectMetadata objectMetadata = new ObjectMetadata();
+        if (metadata != null) {
+            objectMetadata.setContentType(metadata.getContentType());
+            if (metadata.getContentLength() > 0) {
+                objectMetadata.setContentLength(metadata.getContentLength());
             }
-            ossClient.putObject(bucket, key, inputStream, objectMetadata);
-        } finally {
-            ossClient.shutdown();
         }
+        withClient(ossClient -> ossClient.putObject(bucket, key, inputStream, objectMetadata));
     }
 
     @Override
     public void deleteObject(String bucket, String key) {
-        OSS ossClient = createClient();
-        try {
-            ossClient.deleteObject(bucket, key);
-        } finally {
-            ossClient.shutdown();
-        }
+        withClient(ossClient -> ossClient.deleteObject(bucket, key));
     }
 
     @Override
@@ -68,19 +73,14 @@ public class AliyunOssClient implements ObjectStorageClient {
 
     @Override
     public boolean objectExists(String bucket, String key) {
-        OSS ossClient = createClient();
-        try {
-            return ossClient.doesObjectExist(bucket, key);
-        } finally {
-            ossClient.shutdown();
-        }
+        return withClient(ossClient -> ossClient.doesObjectExist(bucket, key));
     }
 
     @Override
     public StorageObjectMetadata getObjectMetadata(String bucket, String key) {
-        OSS ossClient = createClient();
+        SharedClient lease = acquire();
         try {
-            ObjectMetadata metadata = ossClient.getObjectMetadata(bucket, key);
+            ObjectMetadata metadata = lease.client().getObjectMetadata(bucket, key);
             StorageObjectMetadata result = new StorageObjectMetadata();
             result.setContentType(metadata.getContentType());
             result.setContentLength(metadata.getContentLength());
@@ -100,64 +100,117 @@ public class AliyunOssClient implements ObjectStorageClient {
         } catch (Exception exception) {
             throw new BusinessException(ErrorCode.INTERNAL_ERROR, "Unexpected error while reading OSS metadata");
         } finally {
-            ossClient.shutdown();
+            lease.release();
         }
     }
 
     @Override
     public InputStream getObjectStream(String bucket, String key) {
-        OSS ossClient = createClient();
+        SharedClient lease = acquire();
+        OSSObject object;
         try {
-            OSSObject object = ossClient.getObject(bucket, key);
-            InputStream objectContent = object.getObjectContent();
-            // 返回可关闭的流包装器，确保调用方 close 时释放 OSSObject 与客户端连接。
-            return new FilterInputStream(objectContent) {
-                @Override
-                public void close() throws IOException {
-                    IOException closeException = null;
-                    try {
-                        super.close();
-                    } catch (IOException exception) {
-                        closeException = exception;
-                    } finally {
-                        try {
-                            object.close();
-                        } catch (Exception ignored) {
-                        }
-                        ossClient.shutdown();
-                    }
-                    if (closeException != null) {
-                        throw closeException;
-                    }
-                }
-            };
+            object = lease.client().getObject(bucket, key);
         } catch (Exception exception) {
-            ossClient.shutdown();
+            lease.release();
             throw new BusinessException(ErrorCode.BAD_REQUEST, "Read OSS object failed");
         }
+        InputStream objectContent = object.getObjectContent();
+        // 返回可关闭的流包装器，确保调用方 close 时释放 OSSObject，连接归还共享连接池；
+        // 流未关闭前一直持有客户端引用，配置切换不会提前关掉它底下的连接。
+        return new FilterInputStream(objectContent) {
+            private final AtomicBoolean closed = new AtomicBoolean();
+
+            @Override
+            public void close() throws IOException {
+                if (!closed.compareAndSet(false, true)) {
+                    return;
+                }
+                IOException closeException = null;
+                try {
+                    super.close();
+                } catch (IOException exception) {
+                    closeException = exception;
+                } finally {
+                    try {
+                        object.close();
+                    } catch (Exception ignored) {
+                    }
+                    lease.release();
+                }
+                if (closeException != null) {
+                    throw closeException;
+                }
+            }
+        };
     }
 
     private String generatePresignedUrl(String bucket, String key, long expireSeconds, HttpMethod httpMethod) {
-        OSS ossClient = createClient();
+        Date expiration = new Date(System.currentTimeMillis() + Math.max(1, expireSeconds) * 1000L);
+        GeneratePresignedUrlRequest request = new GeneratePresignedUrlRequest(bucket, key, httpMethod);
+        request.setExpiration(expiration);
+        URL url = withClient(ossClient -> ossClient.generatePresignedUrl(request));
+        return url.toString();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (clientLock) {
+            SharedClient current = sharedClient;
+            sharedClient = null;
+            if (current != null) {
+                current.release();
+            }
+        }
+    }
+
+    private <T> T withClient(Function<OSS, T> action) {
+        SharedClient lease = acquire();
         try {
-            Date expiration = new Date(System.currentTimeMillis() + Math.max(1, expireSeconds) * 1000L);
-            GeneratePresignedUrlRequest request = new GeneratePresignedUrlRequest(bucket, key, httpMethod);
-            request.setExpiration(expiration);
-            URL url = ossClient.generatePresignedUrl(request);
-            return url.toString();
+            return action.apply(lease.client());
         } finally {
-            ossClient.shutdown();
+            lease.release();
         }
     }
 
-    private OSS createClient() {
+    /**
+     * 借出共享客户端并计一次引用，调用方用完必须 {@link SharedClient#release()}。
+     * endpoint、凭证或连接池参数变化时先发布新实例，再释放旧实例的持有引用；
+     * 旧实例等仍在进行的调用（含未关闭的对象流）全部归还后才 shutdown。
+     */
+    private SharedClient acquire() {
         if (!StringUtils.hasText(ossProperties.getEndpoint())
             || !StringUtils.hasText(ossProperties.getAccessKeyId())
             || !StringUtils.hasText(ossProperties.getAccessKeySecret())) {
             throw new BusinessException(ErrorCode.BAD_REQUEST, "OSS config is missing");
         }
+        ClientSettings settings = ClientSettings.from(ossProperties);
+        SharedClient current = sharedClient;
+        if (current != null && current.settings().equals(settings) && current.retain()) {
+            return current;
+        }
+        synchronized (clientLock) {
+            current = sharedClient;
+            if (current != null && current.settings().equals(settings) && current.retain()) {
+                return current;
+            }
+            SharedClient created = new SharedClient(settings, clientFactory.create(settings));
+            created.retain();
+            sharedClient = created;
+            if (current != null) {
+                current.release();
+            }
+            return created;
+        }
+    }
+
+    private static OSS buildClient(ClientSettings settings) {
+        ClientBuilderConfiguration configuration = new ClientBuilderConfiguration();
+        configuration.setMaxConnections(Math.max(1, settings.maxConnections()));
+        configuration.setIdleConnectionTime(Math.max(1_000L, settings.idleConnectionTimeMs()));
+        configuration.setConnectionTimeout(Math.max(1, settings.connectionTimeoutMs()));
+        configuration.setSocketTimeout(Math.max(1, settings.socketTimeoutMs()));
         return new OSSClientBuilder()
-            .build(ossProperties.getEndpoint(), ossProperties.getAccessKeyId(), ossProperties.getAccessKeySecret());
+            .build(settings.endpoint(), settings.accessKeyId(), settings.accessKeySecret(), configuration);
     }
 
     private boolean isNotFoundError(String ossErrorCode) {
@@ -172,4 +225,79 @@ public class AliyunOssClient implements ObjectStorageClient {
             || "RequestTimeout".equals(ossErrorCode)
             || "OperationTimeout".equals(ossErrorCode);
     }
+
+    @FunctionalInterface
+    interface OssClientFactory {
+
+        OSS create(ClientSettings settings);
+    }
+
+    record ClientSettings(
+        String endpoint,
+        String accessKeyId,
+        String accessKeySecret,
+        int maxConnections,
+        long idleConnectionTimeMs,
+        int connectionTimeoutMs,
+        int socketTimeoutMs
+    ) {
+
+        static ClientSettings from(OssProperties properties) {
+            return new ClientSettings(
+                properties.getEndpoint(),
+                properties.getAccessKeyId(),
+                properties.getAccessKeySecret(),
+                properties.getMaxConnections(),
+                properties.getIdleConnectionTimeMs(),
+                properties.getConnectionTimeoutMs(),
+                properties.getSocketTimeoutMs()
+            );
+        }
+
+        @Override
+        public String toString() {
+            return "ClientSettings[endpoint=" + endpoint + ", maxConnections=" + maxConnections + "]";
+        }
+    }
+
+    /**
+     * 带引用计数的客户端：作为当前实例时持有 1 个引用，每个进行中的调用再各持 1 个，归零即关闭。
+     */
+    private static final class SharedClient {
+
+        private final ClientSettings settings;
+        private final OSS client;
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        private SharedClient(ClientSettings settings, OSS client) {
+            this.settings = settings;
+            this.client = client;
+        }
+
+        private ClientSettings settings() {
+            return settings;
+        }
+
+        private OSS client() {
+            return client;
+        }
+
+        private boolean retain() {
+            while (true) {
+                int current = references.get();
+                if (current == 0) {
+                    return false;
+                }
+                if (references.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private void release() {
+            if (references.decrementAndGet() == 0) {
+                client.shutdown();
+            }
+        }
+    }
 }
@@ -0,0 +1,142 @@
+package io.github.shizuki.common.storage.client;
+
+import io.github.shizuki.common.core.time.ClockProvider;
+import io.github.shizuki.common.storage.config.OssProperties;
+import io.github.shizuki.common.storage.model.StorageObjectMetadata;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * 预签名 GET URL 本地缓存装饰器。
+ *
+ * <p>按 bucket、对象键与有效期分桶缓存；剩余有效期不少于所请求有效期的一定比例（默认一半）且高于安全余量时复用，
+ * 否则重新签名，调用方拿到的 URL 不会比请求的有效期短太多。
+ * 其余操作直接委托给底层客户端。
+ */
+@Primary
+@Component
+public class CachingObjectStorageClient implements ObjectStorageClient {
+
+    private final ObjectStorageClient delegate;
+    private final OssProperties ossProperties;
+    private final ClockProvider clockProvider;
+    private final LinkedHashMap<Key, SignedUrl> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingObjectStorageClient(
+        @Qualifier("aliyunOssClient") ObjectStorageClient delegate,
+        OssProperties ossProperties,
+        ClockProvider clockProvider
+    ) {
+        this.delegate = delegate;
+        this.ossProperties = ossProperties;
+        this.clockProvider = clockProvider;
+    }
+
+    @Override
+    public String generateGetUrl(String bucket, String key, long expireSeconds) {
+        long validitySeconds = Math.max(1, expireSeconds);
+        long safetyMarginSeconds = Math.max(0L, ossProperties.getPresignedUrlSafetyMarginSeconds());
+        if (!ossProperties.isPresignedUrlCacheEnabled()
+            || ossProperties.getPresignedUrlCacheMaxEntries() <= 0
+            || validitySeconds <= safetyMarginSeconds) {
+            misses.increment();
+            return delegate.generateGetUrl(bucket, key, expireSeconds);
+        }
+        Key cacheKey = new Key(bucket, key, validitySeconds);
+        Instant now = clockProvider.now();
+        Instant reuseDeadline = now.plusSeconds(minRemainingSeconds(validitySeconds, safetyMarginSeconds));
+        synchronized (entries) {
+            SignedUrl cached = entries.get(cacheKey);
+            if (cached != null && cached.expiresAt().isAfter(reuseDeadline)) {
+                hits.increment();
+                return cached.url();
+            }
+        }
+        misses.increment();
+        // 以签名前的时间计算过期点，保证记录的有效期不晚于 URL 实际过期时间。
+        String url = delegate.generateGetUrl(bucket, key, expireSeconds);
+        SignedUrl signedUrl = new SignedUrl(url, now.plusSeconds(validitySeconds));
+        synchronized (entries) {
+            entries.put(cacheKey, signedUrl);
+            int maxEntries = ossProperties.getPresignedUrlCacheMaxEntries();
+            Iterator<Map.Entry<Key, SignedUrl>> iterator = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+        return url;
+    }
+
+    @Override
+    public String generatePutUrl(String bucket, String key, long expireSeconds) {
+        return delegate.generatePutUrl(bucket, key, expireSeconds);
+    }
+
+    @Override
+    public void putObject(String bucket, String key, InputStream inputStream, StorageObjectMetadata metadata) {
+        delegate.putObject(bucket, key, inputStream, metadata);
+    }
+
+    @Override
+    public void deleteObject(String bucket, String key) {
+        delegate.deleteObject(bucket, key);
+        synchronized (entries) {
+            entries.keySet().removeIf(cacheKey -> cacheKey.matches(bucket, key));
+        }
+    }
+
+    @Override
+    public boolean objectExists(String bucket, String key) {
+        return delegate.objectExists(bucket, key);
+    }
+
+    @Override
+    public StorageObjectMetadata getObjectMetadata(String bucket, String key) {
+        return delegate.getObjectMetadata(bucket, key);
+    }
+
+    @Override
+    public InputStream getObjectStream(String bucket, String key) {
+        return delegate.getObjectStream(bucket, key);
+    }
+
+    /**
+     * 复用所需的最短剩余有效期：所请求有效期按比例折算，与安全余量取较大者。
+     */
+    private long minRemainingSeconds(long validitySeconds, long safetyMarginSeconds) {
+        double ratio = Math.min(1.0d, Math.max(0.0d, ossProperties.getPresignedUrlReuseMinRemainingRatio()));
+        return Math.max(safetyMarginSeconds, (long) Math.ceil(validitySeconds * ratio));
+    }
+
+    public Stats stats() {
+        synchronized (entries) {
+            return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+        }
+    }
+
+    private record Key(String bucket, String key, long validitySeconds) {
+
+        private boolean matches(String targetBucket, String targetKey) {
+            return Objects.equals(bucket, targetBucket) && Objects.equals(key, targetKey);
+        }
+    }
+
+    private record SignedUrl(String url, Instant expiresAt) {
+    }
+
+    public record Stats(long hits, long misses, long evictions, int entryCount) {
+    }
+}
@@ -10,6 +10,14 @@ public class OssProperties {
     private String endpoint;
     private String accessKeyId;
     private String accessKeySecret;
+    private int maxConnections = 128;
+    private long idleConnectionTimeMs = 60_000L;
+    private int connectionTimeoutMs = 5_000;
+    private int socketTimeoutMs = 30_000;
+    private boolean presignedUrlCacheEnabled = true;
+    private int presignedUrlCacheMaxEntries = 10_000;
+    private long presignedUrlSafetyMarginSeconds = 60L;
+    private double presignedUrlReuseMinRemainingRatio = 0.5d;
 
     public String getEndpoint() {
         return endpoint;
@@ -34,4 +42,68 @@ public class OssProperties {
     public void setAccessKeySecret(String accessKeySecret) {
         this.accessKeySecret = accessKeySecret;
     }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public long getIdleConnectionTimeMs() {
+        return idleConnectionTimeMs;
+    }
+
+    public void setIdleConnectionTimeMs(long idleConnectionTimeMs) {
+        this.idleConnectionTimeMs = idleConnectionTimeMs;
+    }
+
+    public int getConnectionTimeoutMs() {
+        return connectionTimeoutMs;
+    }
+
+    public void setConnectionTimeoutMs(int connectionTimeoutMs) {
+        this.connectionTimeoutMs = connectionTimeoutMs;
+    }
+
+    public int getSocketTimeoutMs() {
+        return socketTimeoutMs;
+    }
+
+    public void setSocketTimeoutMs(int socketTimeoutMs) {
+        this.socketTimeoutMs = socketTimeoutMs;
+    }
+
+    public boolean isPresignedUrlCacheEnabled() {
+        return presignedUrlCacheEnabled;
+    }
+
+    public void setPresignedUrlCacheEnabled(boolean presignedUrlCacheEnabled) {
+        this.presignedUrlCacheEnabled = presignedUrlCacheEnabled;
+    }
+
+    public int getPresignedUrlCacheMaxEntries() {
+        return presignedUrlCacheMaxEntries;
+    }
+
+    public void setPresignedUrlCacheMaxEntries(int presignedUrlCacheMaxEntries) {
+        this.presignedUrlCacheMaxEntries = presignedUrlCacheMaxEntries;
+    }
+
+    public long getPresignedUrlSafetyMarginSeconds() {
+        return presignedUrlSafetyMarginSeconds;
+    }
+
+    public void setPresignedUrlSafetyMarginSeconds(long presignedUrlSafetyMarginSeconds) {
+        this.presignedUrlSafetyMarginSeconds = presignedUrlSafetyMarginSeconds;
+    }
+
+    public double getPresignedUrlReuseMinRemainingRatio() {
+        return presignedUrlReuseMinRemainingRatio;
+    }
+
+    public void setPresignedUrlReuseMinRemainingRatio(double presignedUrlReuseMinRemainingRatio) {
+        this.presignedUrlReuseMinRemainingRatio = presignedUrlReuseMinRemainingRatio;
+    }
 }
@@ -0,0 +1,175 @@
+package io.github.shizuki.common.storage.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.aliyun.oss.OSS;
+import com.aliyun.oss.model.GeneratePresignedUrlRequest;
+import com.aliyun.oss.model.OSSObject;
+import com.aliyun.oss.model.ObjectMetadata;
+import io.github.shizuki.common.core.error.BusinessException;
+import io.github.shizuki.common.storage.config.OssProperties;
+import io.github.shizuki.common.storage.model.StorageObjectMetadata;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+class AliyunOssClientTest {
+
+    private final OssProperties properties = new OssProperties();
+    private final List<OSS> createdClients = new ArrayList<>();
+    private final List<AliyunOssClient.ClientSettings> createdSettings = new ArrayList<>();
+    private AliyunOssClient aliyunOssClient;
+
+    @BeforeEach
+    void setUp() {
+        properties.setEndpoint("https://oss-cn-hangzhou.aliyuncs.com");
+        properties.setAccessKeyId("key-id");
+        properties.setAccessKeySecret("key-secret");
+        aliyunOssClient = new AliyunOssClient(properties, settings -> {
+            createdSettings.add(settings);
+            OSS oss = mockOss();
+            createdClients.add(oss);
+            return oss;
+        });
+    }
+
+    @Test
+    void shouldCreateSingleClientAcrossMixedOperations() throws Exception {
+        for (int index = 0; index < 1000; index++) {
+            String key = "objects/" + index;
+            switch (index % 6) {
+                case 0 -> assertTrue(aliyunOssClient.generateGetUrl("bucket", key, 600).startsWith("https://"));
+                case 1 -> aliyunOssClient.generatePutUrl("bucket", key, 600);
+                case 2 -> assertTrue(aliyunOssClient.objectExists("bucket", key));
+                case 3 -> assertEquals("text/plain", aliyunOssClient.getObjectMetadata("bucket", key).getContentType());
+                case 4 -> aliyunOssClient.putObject("bucket", key, new ByteArrayInputStream(new byte[] {1}), new StorageObjectMetadata());
+                default -> {
+                    try (InputStream stream = aliyunOssClient.getObjectStream("bucket", key)) {
+                        assertEquals(3, stream.readAllBytes().length);
+                    }
+                }
+            }
+        }
+
+        assertEquals(1, createdClients.size());
+        Mockito.verify(createdClients.get(0), Mockito.never()).shutdown();
+        assertEquals(128, createdSettings.get(0).maxConnections());
+        assertEquals(60_000L, createdSettings.get(0).idleConnectionTimeMs());
+    }
+
+    @Test
+    void shouldRebuildOnlyWhenCredentialsOrEndpointChange() {
+        aliyunOssClient.objectExists("bucket", "a");
+        aliyunOssClient.objectExists("bucket", "b");
+        assertEquals(1, createdClients.size());
+
+        properties.setAccessKeySecret("rotated-secret");
+        aliyunOssClient.objectExists("bucket", "c");
+        assertEquals(2, createdClients.size());
+        Mockito.verify(createdClients.get(0)).shutdown();
+
+        properties.setEndpoint("https://oss-cn-shanghai.aliyuncs.com");
+        aliyunOssClient.deleteObject("bucket", "d");
+        assertEquals(3, createdClients.size());
+        Mockito.verify(createdClients.get(1)).shutdown();
+        assertEquals("https://oss-cn-shanghai.aliyuncs.com", createdSettings.get(2).endpoint());
+    }
+
+    @Test
+    void shouldKeepReplacedClientOpenUntilObjectStreamIsClosed() throws Exception {
+        InputStream stream = aliyunOssClient.getObjectStream("bucket", "a");
+
+        properties.setAccessKeySecret("rotated-secret");
+        aliyunOssClient.objectExists("bucket", "b");
+        assertEquals(2, createdClients.size());
+        Mockito.verify(createdClients.get(0), Mockito.never()).shutdown();
+        Mockito.verify(createdClients.get(1)).doesObjectExist("bucket", "b");
+
+        assertEquals(3, stream.readAllBytes().length);
+        stream.close();
+        stream.close();
+        Mockito.verify(createdClients.get(0), Mockito.times(1)).shutdown();
+        Mockito.verify(createdClients.get(1), Mockito.never()).shutdown();
+    }
+
+    @Test
+    void shouldRetireReplacedClientOnlyAfterInFlightCallReturns() throws Exception {
+        aliyunOssClient.objectExists("bucket", "warm-up");
+        OSS original = createdClients.get(0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        Mockito.when(original.doesObjectExist("bucket", "slow")).thenAnswer(invocation -> {
+            started.countDown();
+            assertTrue(finish.await(5, TimeUnit.SECONDS));
+            return true;
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> inFlight = executor.submit(() -> aliyunOssClient.objectExists("bucket", "slow"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            properties.setEndpoint("https://oss-cn-shanghai.aliyuncs.com");
+            aliyunOssClient.deleteObject("bucket", "c");
+            Mockito.verify(createdClients.get(1)).deleteObject("bucket", "c");
+            Mockito.verify(original, Mockito.never()).shutdown();
+
+            finish.countDown();
+            assertTrue(inFlight.get(5, TimeUnit.SECONDS));
+            Mockito.verify(original).shutdown();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldShutdownSharedClientOnContextClose() {
+        aliyunOssClient.objectExists("bucket", "a");
+
+        aliyunOssClient.shutdown();
+
+        Mockito.verify(createdClients.get(0)).shutdown();
+        aliyunOssClient.objectExists("bucket", "b");
+        assertEquals(2, createdClients.size());
+    }
+
+    @Test
+    void shouldRejectMissingConfigWithoutCreatingClient() {
+        properties.setAccessKeyId("");
+
+        assertThrows(BusinessException.class, () -> aliyunOssClient.generateGetUrl("bucket", "a", 60));
+        assertEquals(0, createdClients.size());
+    }
+
+    private static OSS mockOss() {
+        OSS oss = Mockito.mock(OSS.class);
+        try {
+            Mockito.when(oss.generatePresignedUrl(ArgumentMatchers.any(GeneratePresignedUrlRequest.class)))
+                .thenReturn(new URL("https://bucket.oss-cn-hangzhou.aliyuncs.com/object?Signature=x"));
+        } catch (Exception exception) {
+            throw new IllegalStateException(exception);
+        }
+        Mockito.when(oss.doesObjectExist(ArgumentMatchers.anyString(), ArgumentMatchers.anyString())).thenReturn(true);
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType("text/plain");
+        Mockito.when(oss.getObjectMetadata(ArgumentMatchers.anyString(), ArgumentMatchers.anyString())).thenReturn(metadata);
+        Mockito.when(oss.getObject(ArgumentMatchers.anyString(), ArgumentMatchers.anyString())).thenAnswer(invocation -> {
+            OSSObject object = new OSSObject();
+            object.setObjectContent(new ByteArrayInputStream(new byte[] {1, 2, 3}));
+            return object;
+        });
+        return oss;
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.shizuki.common.storage.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import io.github.shizuki.common.core.time.ClockProvider;
+import io.github.shizuki.common.storage.config.OssProperties;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+class CachingObjectStorageClientTest {
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-04-18T00:00:00Z"));
+    private final ClockProvider clockProvider = now::get;
+    private final AtomicInteger signCalls = new AtomicInteger();
+    private final OssProperties properties = new OssProperties();
+    private ObjectStorageClient delegate;
+    private CachingObjectStorageClient cachingClient;
+
+    @BeforeEach
+    void setUp() {
+        delegate = Mockito.mock(ObjectStorageClient.class);
+        Mockito.when(delegate.generateGetUrl(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyLong()))
+            .thenAnswer(invocation -> "https://" + invocation.getArgument(0) + "/" + invocation.getArgument(1)
+                + "?Expires=" + invocation.getArgument(2) + "&n=" + signCalls.incrementAndGet());
+        properties.setPresignedUrlSafetyMarginSeconds(60L);
+        properties.setPresignedUrlCacheMaxEntries(100);
+        cachingClient = new CachingObjectStorageClient(delegate, properties, clockProvider);
+    }
+
+    @Test
+    void shouldReuseUrlInsideWindowAndRegenerateNearExpiry() {
+        String first = cachingClient.generateGetUrl("media", "music/a.mp3", 600);
+
+        advanceSeconds(200);
+        assertEquals(first, cachingClient.generateGetUrl("media", "music/a.mp3", 600));
+        advanceSeconds(99);
+        assertEquals(first, cachingClient.generateGetUrl("media", "music/a.mp3", 600));
+        assertEquals(1, signCalls.get());
+
+        advanceSeconds(1);
+        String renewed = cachingClient.generateGetUrl("media", "music/a.mp3", 600);
+        assertNotEquals(first, renewed);
+        assertEquals(2, signCalls.get());
+
+        advanceSeconds(100);
+        assertEquals(renewed, cachingClient.generateGetUrl("media", "music/a.mp3", 600));
+        CachingObjectStorageClient.Stats stats = cachingClient.stats();
+        assertEquals(3L, stats.hits());
+        assertEquals(2L, stats.misses());
+    }
+
+    @Test
+    void shouldKeepSafetyMarginWhenItExceedsHalfOfShortValidity() {
+        String first = cachingClient.generateGetUrl("media", "a.jpg", 100);
+
+        advanceSeconds(39);
+        assertEquals(first, cachingClient.generateGetUrl("media", "a.jpg", 100));
+        advanceSeconds(1);
+        assertNotEquals(first, cachingClient.generateGetUrl("media", "a.jpg", 100));
+        assertEquals(2, signCalls.get());
+    }
+
+    @Test
+    void shouldKeySeparatelyByObjectAndExpiryBucket() {
+        cachingClient.generateGetUrl("media", "a.jpg", 600);
+        cachingClient.generateGetUrl("media", "a.jpg", 3600);
+        cachingClient.generateGetUrl("media", "b.jpg", 600);
+        cachingClient.generateGetUrl("media", "a.jpg", 600);
+
+        assertEquals(3, signCalls.get());
+        assertEquals(3, cachingClient.stats().entryCount());
+    }
+
+    @Test
+    void shouldBypassCacheWhenValidityDoesNotExceedSafetyMargin() {
+        cachingClient.generateGetUrl("media", "a.jpg", 60);
+        cachingClient.generateGetUrl("media", "a.jpg", 60);
+
+        assertEquals(2, signCalls.get());
+        assertEquals(0, cachingClient.stats().entryCount());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntriesBeyondCapacity() {
+        properties.setPresignedUrlCacheMaxEntries(2);
+        cachingClient.generateGetUrl("media", "a.jpg", 600);
+        cachingClient.generateGetUrl("media", "b.jpg", 600);
+        cachingClient.generateGetUrl("media", "a.jpg", 600);
+        cachingClient.generateGetUrl("media", "c.jpg", 600);
+
+        assertEquals(2, cachingClient.stats().entryCount());
+        assertEquals(1L, cachingClient.stats().evictions());
+        cachingClient.generateGetUrl("media", "a.jpg", 600);
+        assertEquals(3, signCalls.get());
+        cachingClient.generateGetUrl("media", "b.jpg", 600);
+        assertEquals(4, signCalls.get());
+    }
+
+    @Test
+    void shouldDropCachedUrlsWhenObjectIsDeleted() {
+        cachingClient.generateGetUrl("media", "a.jpg", 600);
+
+        cachingClient.deleteObject("media", "a.jpg");
+        cachingClient.generateGetUrl("media", "a.jpg", 600);
+
+        Mockito.verify(delegate).deleteObject("media", "a.jpg");
+        assertEquals(2, signCalls.get());
+    }
+
+    private void advanceSeconds(long seconds) {
+        now.updateAndGet(current -> current.plusSeconds(seconds));
+    }
+}
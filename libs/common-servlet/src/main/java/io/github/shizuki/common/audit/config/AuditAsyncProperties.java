@@ -0,0 +1,165 @@
+package io.github.shizuki.common.audit.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 审计日志异步批量写入配置属性。
+ *
+ * <p>对应配置前缀：{@code shizuki.audit.async}。
+ */
+@Component
+@ConfigurationProperties(prefix = "shizuki.audit.async")
+public class AuditAsyncProperties {
+
+    /**
+     * 是否启用异步批量写入；关闭时在请求线程同步写入。
+     */
+    private boolean enabled = true;
+    /**
+     * 环形缓冲区容量。
+     */
+    private int capacity = 8192;
+    /**
+     * 单次 batchUpdate 的最大条数。
+     */
+    private int batchSize = 200;
+    /**
+     * 攒批等待上限（毫秒）。
+     */
+    private long lingerMs = 50L;
+    /**
+     * 缓冲区已满时的处理策略。
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.SYNC;
+    /**
+     * 关闭时等待后台线程刷盘的最长时间（毫秒）。
+     */
+    private long shutdownTimeoutMs = 10000L;
+
+    /**
+     * 是否启用异步写入。
+     *
+     * @return true 表示启用
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 设置是否启用异步写入。
+     *
+     * @param enabled 启用标记
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * 获取缓冲区容量。
+     *
+     * @return 缓冲区容量
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 设置缓冲区容量。
+     *
+     * @param capacity 缓冲区容量
+     */
+    public void setCapacity(int capacity) {
+        this.capacity = Math.max(capacity, 16);
+    }
+
+    /**
+     * 获取批量大小。
+     *
+     * @return 批量大小
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * 设置批量大小。
+     *
+     * @param batchSize 批量大小
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    /**
+     * 获取攒批等待上限（毫秒）。
+     *
+     * @return 攒批等待上限
+     */
+    public long getLingerMs() {
+        return lingerMs;
+    }
+
+    /**
+     * 设置攒批等待上限（毫秒）。
+     *
+     * @param lingerMs 攒批等待上限
+     */
+    public void setLingerMs(long lingerMs) {
+        this.lingerMs = Math.max(lingerMs, 0L);
+    }
+
+    /**
+     * 获取缓冲区满时的处理策略。
+     *
+     * @return 处理策略
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * 设置缓冲区满时的处理策略，为空时回退为 SYNC。
+     *
+     * @param overflowPolicy 处理策略
+     */
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy == null ? OverflowPolicy.SYNC : overflowPolicy;
+    }
+
+    /**
+     * 获取关闭时的刷盘等待上限（毫秒）。
+     *
+     * @return 刷盘等待上限
+     */
+    public long getShutdownTimeoutMs() {
+        return shutdownTimeoutMs;
+    }
+
+    /**
+     * 设置关闭时的刷盘等待上限（毫秒）。
+     *
+     * @param shutdownTimeoutMs 刷盘等待上限
+     */
+    public void setShutdownTimeoutMs(long shutdownTimeoutMs) {
+        this.shutdownTimeoutMs = Math.max(shutdownTimeoutMs, 0L);
+    }
+
+    /**
+     * 缓冲区已满时的背压策略。
+     */
+    public enum OverflowPolicy {
+        /**
+         * 阻塞请求线程直至有空位。
+         */
+        BLOCK,
+        /**
+         * 丢弃并计数。
+         */
+        DROP,
+        /**
+         * 在请求线程同步写入。
+         */
+        SYNC
+    }
+}
@@ -40,6 +40,22 @@ public class AuditOutboxProperties {
      * PROCESSING 状态超时回收阈值（秒）。
      */
     private int processingTimeoutSeconds = 300;
+    /**
+     * 发布线程数，抢占到的事件按聚合键分区后并行发布。
+     */
+    private int workerThreads = 4;
+    /**
+     * 是否在 PostgreSQL 上监听 outbox 插入通知，收到后立即分发。
+     */
+    private boolean notifyEnabled = true;
+    /**
+     * LISTEN/NOTIFY 通道名，需与迁移脚本中触发器使用的通道一致。
+     */
+    private String notifyChannel = "aud_event_outbox";
+    /**
+     * 单次等待通知的最长毫秒数。
+     */
+    private int listenTimeoutMs = 1000;
 
     /**
      * 是否启用 outbox。
@@ -166,4 +182,76 @@ public class AuditOutboxProperties {
     public void setProcessingTimeoutSeconds(int processingTimeoutSeconds) {
         this.processingTimeoutSeconds = Math.max(processingTimeoutSeconds, 30);
     }
+
+    /**
+     * 获取发布线程数。
+     *
+     * @return 发布线程数
+     */
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    /**
+     * 设置发布线程数。
+     *
+     * @param workerThreads 发布线程数
+     */
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = Math.max(workerThreads, 1);
+    }
+
+    /**
+     * 是否监听 outbox 插入通知。
+     *
+     * @return true 表示监听
+     */
+    public boolean isNotifyEnabled() {
+        return notifyEnabled;
+    }
+
+    /**
+     * 设置是否监听 outbox 插入通知。
+     *
+     * @param notifyEnabled 监听标记
+     */
+    public void setNotifyEnabled(boolean notifyEnabled) {
+        this.notifyEnabled = notifyEnabled;
+    }
+
+    /**
+     * 获取 LISTEN/NOTIFY 通道名。
+     *
+     * @return 通道名
+     */
+    public String getNotifyChannel() {
+        return notifyChannel;
+    }
+
+    /**
+     * 设置 LISTEN/NOTIFY 通道名。
+     *
+     * @param notifyChannel 通道名
+     */
+    public void setNotifyChannel(String notifyChannel) {
+        this.notifyChannel = notifyChannel;
+    }
+
+    /**
+     * 获取单次等待通知的最长毫秒数。
+     *
+     * @return 等待毫秒数
+     */
+    public int getListenTimeoutMs() {
+        return listenTimeoutMs;
+    }
+
+    /**
+     * 设置单次等待通知的最长毫秒数。
+     *
+     * @param listenTimeoutMs 等待毫秒数
+     */
+    public void setListenTimeoutMs(int listenTimeoutMs) {
+        this.listenTimeoutMs = Math.max(listenTimeoutMs, 100);
+    }
 }
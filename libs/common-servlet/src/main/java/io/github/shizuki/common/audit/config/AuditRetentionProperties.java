@@ -0,0 +1,212 @@
+package io.github.shizuki.common.audit.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 审计数据保留配置属性。
+ *
+ * <p>对应配置前缀：{@code shizuki.audit.retention}。
+ */
+@Component
+@ConfigurationProperties(prefix = "shizuki.audit.retention")
+public class AuditRetentionProperties {
+    /**
+     * 是否启用审计保留任务。
+     */
+    private boolean enabled = true;
+    /**
+     * 审计日志保留天数，小于等于 0 表示永久保留。
+     */
+    private int logRetentionDays = 180;
+    /**
+     * 已成功 outbox 事件保留天数，小于等于 0 表示永久保留。
+     */
+    private int outboxRetentionDays = 7;
+    /**
+     * 过期分区是否归档（摘下分区另存为独立表）而不是直接删除。
+     */
+    private boolean archive = false;
+    /**
+     * 预建未来分区的月数。
+     */
+    private int partitionMonthsAhead = 2;
+    /**
+     * 逐行删除时单条 DELETE 的最大行数。
+     */
+    private int batchSize = 1000;
+    /**
+     * 两批删除之间的停顿毫秒数，给在线写入和复制让出余量。
+     */
+    private long batchPauseMs = 50L;
+    /**
+     * 单次执行每张表最多删除的批数，剩余部分留给下一次执行。
+     */
+    private int maxBatchesPerRun = 200;
+    /**
+     * 执行间隔毫秒数。
+     */
+    private long intervalMs = 3600000L;
+
+    /**
+     * 是否启用保留任务。
+     *
+     * @return true 表示启用
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 设置是否启用保留任务。
+     *
+     * @param enabled 启用标记
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * 获取审计日志保留天数。
+     *
+     * @return 保留天数
+     */
+    public int getLogRetentionDays() {
+        return logRetentionDays;
+    }
+
+    /**
+     * 设置审计日志保留天数。
+     *
+     * @param logRetentionDays 保留天数
+     */
+    public void setLogRetentionDays(int logRetentionDays) {
+        this.logRetentionDays = logRetentionDays;
+    }
+
+    /**
+     * 获取outbox 成功事件保留天数。
+     *
+     * @return 保留天数
+     */
+    public int getOutboxRetentionDays() {
+        return outboxRetentionDays;
+    }
+
+    /**
+     * 设置outbox 成功事件保留天数。
+     *
+     * @param outboxRetentionDays 保留天数
+     */
+    public void setOutboxRetentionDays(int outboxRetentionDays) {
+        this.outboxRetentionDays = outboxRetentionDays;
+    }
+
+    /**
+     * 是否归档过期分区。
+     *
+     * @return true 表示归档
+     */
+    public boolean isArchive() {
+        return archive;
+    }
+
+    /**
+     * 设置是否归档过期分区。
+     *
+     * @param archive 归档标记
+     */
+    public void setArchive(boolean archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * 获取预建分区月数。
+     *
+     * @return 月数
+     */
+    public int getPartitionMonthsAhead() {
+        return partitionMonthsAhead;
+    }
+
+    /**
+     * 设置预建分区月数。
+     *
+     * @param partitionMonthsAhead 月数
+     */
+    public void setPartitionMonthsAhead(int partitionMonthsAhead) {
+        this.partitionMonthsAhead = Math.max(partitionMonthsAhead, 0);
+    }
+
+    /**
+     * 获取单批删除行数。
+     *
+     * @return 单批行数
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * 设置单批删除行数。
+     *
+     * @param batchSize 单批行数
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    /**
+     * 获取批间停顿毫秒数。
+     *
+     * @return 停顿毫秒数
+     */
+    public long getBatchPauseMs() {
+        return batchPauseMs;
+    }
+
+    /**
+     * 设置批间停顿毫秒数。
+     *
+     * @param batchPauseMs 停顿毫秒数
+     */
+    public void setBatchPauseMs(long batchPauseMs) {
+        this.batchPauseMs = Math.max(batchPauseMs, 0L);
+    }
+
+    /**
+     * 获取单次执行最大批数。
+     *
+     * @return 最大批数
+     */
+    public int getMaxBatchesPerRun() {
+        return maxBatchesPerRun;
+    }
+
+    /**
+     * 设置单次执行最大批数。
+     *
+     * @param maxBatchesPerRun 最大批数
+     */
+    public void setMaxBatchesPerRun(int maxBatchesPerRun) {
+        this.maxBatchesPerRun = Math.max(maxBatchesPerRun, 1);
+    }
+
+    /**
+     * 获取执行间隔毫秒数。
+     *
+     * @return 间隔毫秒数
+     */
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    /**
+     * 设置执行间隔毫秒数。
+     *
+     * @param intervalMs 间隔毫秒数
+     */
+    public void setIntervalMs(long intervalMs) {
+        this.intervalMs = intervalMs;
+    }
+}
@@ -1,6 +1,8 @@
 package io.github.shizuki.common.audit.controller;
 
+import io.github.shizuki.common.audit.model.AuditLogCursor;
 import io.github.shizuki.common.core.response.ApiResponse;
+import io.github.shizuki.common.core.response.CursorPageResponse;
 import io.github.shizuki.common.core.response.PageResponse;
 import io.github.shizuki.common.security.annotation.RequireGroup;
 import java.sql.Timestamp;
@@ -19,13 +21,37 @@ import org.springframework.web.bind.annotation.RestController;
 /**
  * 管理端审计日志查询控制器。
  *
- * <p>提供按 trace/user/action/time 条件过滤的分页查询接口。
+ * <p>提供按 trace/user/action/time 条件过滤的分页查询接口。两个接口都按 (create_time, id) 降序返回，
+ * 与 user/action/time 复合索引的顺序一致；深翻页请使用游标接口，避免 OFFSET 逐行跳过。
  */
 @RestController
 @RequestMapping("/api/v1/admin/audit-logs")
 @RequireGroup("ADMIN")
 public class AuditLogQueryController {
 
+    /**
+     * 字段别名统一成 API 返回约定的 snake_case 字段名。
+     */
+    private static final String SELECT_COLUMNS = "SELECT id, trace_code AS trace_id, user_id, action_code AS action_name, "
+        + "resource_code AS resource_name, result_status AS result, error_code, cost_value AS cost_ms, "
+        + "create_time AS created_at ";
+    /**
+     * 列表排序，与复合索引 (..., create_time, id) 的顺序一致。
+     */
+    private static final String ORDER_BY = " ORDER BY create_time DESC, id DESC";
+    /**
+     * 估算总数时向后最多计数的页数。
+     */
+    private static final long ESTIMATE_LOOKAHEAD_PAGES = 10L;
+    /**
+     * 游标分页默认每页大小。
+     */
+    private static final long DEFAULT_CURSOR_PAGE_SIZE = 20L;
+    /**
+     * 游标分页最大每页大小。
+     */
+    private static final long MAX_CURSOR_PAGE_SIZE = 100L;
+
     /**
      * JdbcTemplate 延迟提供者，用于可选启用 DB 查询能力。
      */
@@ -43,6 +69,9 @@ public class AuditLogQueryController {
     /**
      * 查询审计日志。
      *
+     * <p>{@code estimate_total=true} 时不做全量 COUNT，只数到当前页之后 10 页为止：
+     * 返回的 total 是下界，等于上限时表示后面还有更多。
+     *
      * @param traceId 链路 ID 过滤
      * @param userId 用户 ID 过滤
      * @param action 动作编码过滤
@@ -50,6 +79,7 @@ public class AuditLogQueryController {
      * @param endAt 结束时间
      * @param pageNo 页码
      * @param pageSize 每页大小
+     * @param estimateTotal 是否使用估算总数
      * @return 审计日志分页结果
      */
     @GetMapping
@@ -60,17 +90,112 @@ public class AuditLogQueryController {
         @RequestParam(value = "start_at", required = false) LocalDateTime startAt,
         @RequestParam(value = "end_at", required = false) LocalDateTime endAt,
         @RequestParam(value = "page_no", defaultValue = "1") long pageNo,
-        @RequestParam(value = "page_size", defaultValue = "20") long pageSize
+        @RequestParam(value = "page_size", defaultValue = "20") long pageSize,
+        @RequestParam(value = "estimate_total", defaultValue = "false") boolean estimateTotal
     ) {
         JdbcTemplate jdbcTemplate = jdbcTemplateProvider.getIfAvailable();
         if (jdbcTemplate == null) {
             return ApiResponse.success(PageResponse.of(List.of(), 0, pageNo, pageSize));
         }
 
-        // 动态拼接 where 条件，避免为可选查询参数写多套 SQL。
-        StringBuilder where = new StringBuilder(" WHERE 1=1 ");
         List<Object> args = new ArrayList<>();
+        String where = buildWhere(traceId, userId, action, startAt, endAt, args);
+        long offset = (pageNo - 1) * pageSize;
+
+        Long total;
+        if (estimateTotal) {
+            // 子查询带 LIMIT，数据库数满上限即停止扫描。
+            String countSql = "SELECT COUNT(1) FROM (SELECT 1 FROM AUD_LOG" + where + " LIMIT ?) counted";
+            List<Object> countArgs = new ArrayList<>(args);
+            countArgs.add(offset + pageSize * ESTIMATE_LOOKAHEAD_PAGES);
+            total = jdbcTemplate.queryForObject(countSql, countArgs.toArray(), Long.class);
+        } else {
+            String countSql = "SELECT COUNT(1) FROM AUD_LOG" + where;
+            total = jdbcTemplate.queryForObject(countSql, args.toArray(), Long.class);
+        }
+
+        String dataSql = SELECT_COLUMNS + "FROM AUD_LOG" + where + ORDER_BY + " LIMIT ? OFFSET ?";
+        List<Object> dataArgs = new ArrayList<>(args);
+        dataArgs.add(pageSize);
+        dataArgs.add(offset);
+
+        List<Map<String, Object>> items = jdbcTemplate.queryForList(dataSql, dataArgs.toArray());
+        return ApiResponse.success(PageResponse.of(items, total == null ? 0 : total, pageNo, pageSize));
+    }
+
+    /**
+     * 按 (created_at, id) 游标查询审计日志。
+     *
+     * <p>每页只沿索引读取 page_size + 1 行，翻到末页与首页代价相同，也不计算总数。
+     *
+     * @param traceId 链路 ID 过滤
+     * @param userId 用户 ID 过滤
+     * @param action 动作编码过滤
+     * @param startAt 起始时间
+     * @param endAt 结束时间
+     * @param cursor 上一页返回的游标，首页为空
+     * @param pageSize 每页大小
+     * @return 审计日志游标分页结果
+     */
+    @GetMapping("/cursor")
+    public ApiResponse<CursorPageResponse<Map<String, Object>>> listByCursor(
+        @RequestParam(value = "trace_id", required = false) String traceId,
+        @RequestParam(value = "user_id", required = false) Long userId,
+        @RequestParam(value = "action", required = false) String action,
+        @RequestParam(value = "start_at", required = false) LocalDateTime startAt,
+        @RequestParam(value = "end_at", required = false) LocalDateTime endAt,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "page_size", defaultValue = "20") long pageSize
+    ) {
+        long normalizedPageSize = Math.max(1L, Math.min(pageSize <= 0 ? DEFAULT_CURSOR_PAGE_SIZE : pageSize, MAX_CURSOR_PAGE_SIZE));
+        AuditLogCursor after = StringUtils.hasText(cursor) ? AuditLogCursor.decode(cursor) : null;
+        JdbcTemplate jdbcTemplate = jdbcTemplateProvider.getIfAvailable();
+        if (jdbcTemplate == null) {
+            return ApiResponse.success(CursorPageResponse.of(List.of(), null, normalizedPageSize));
+        }
+
+        List<Object> args = new ArrayList<>();
+        StringBuilder where = new StringBuilder(buildWhere(traceId, userId, action, startAt, endAt, args));
+        if (after != null) {
+            // MySQL 不会把行值比较 (create_time, id) < (?, ?) 转成索引范围扫描，这里写成展开形式，两种方言都能走索引定位。
+            Timestamp afterCreateTime = Timestamp.valueOf(after.createdAt());
+            where.append(" AND (create_time < ? OR (create_time = ? AND id < ?)) ");
+            args.add(afterCreateTime);
+            args.add(afterCreateTime);
+            args.add(after.id());
+        }
+        // 多取一行判断是否还有下一页。
+        args.add(normalizedPageSize + 1);
 
+        String dataSql = SELECT_COLUMNS + "FROM AUD_LOG" + where + ORDER_BY + " LIMIT ?";
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(dataSql, args.toArray());
+        if (rows.size() <= normalizedPageSize) {
+            return ApiResponse.success(CursorPageResponse.of(rows, null, normalizedPageSize));
+        }
+        List<Map<String, Object>> items = rows.subList(0, (int) normalizedPageSize);
+        Map<String, Object> last = items.get(items.size() - 1);
+        String nextCursor = new AuditLogCursor(toLocalDateTime(last.get("created_at")), ((Number) last.get("id")).longValue()).encode();
+        return ApiResponse.success(CursorPageResponse.of(new ArrayList<>(items), nextCursor, normalizedPageSize));
+    }
+
+    /**
+     * 动态拼接 where 条件，避免为可选查询参数写多套 SQL。
+     *
+     * @param traceId 链路 ID 过滤
+     * @param userId 用户 ID 过滤
+     * @param action 动作编码过滤
+     * @param startAt 起始时间
+     * @param endAt 结束时间
+     * @param args 参数收集列表
+     * @return where 子句
+     */
+    private static String buildWhere(String traceId,
+                                     Long userId,
+                                     String action,
+                                     LocalDateTime startAt,
+                                     LocalDateTime endAt,
+                                     List<Object> args) {
+        StringBuilder where = new StringBuilder(" WHERE 1=1 ");
         if (StringUtils.hasText(traceId)) {
             where.append(" AND trace_code = ? ");
             args.add(traceId);
@@ -91,22 +216,22 @@ public class AuditLogQueryController {
             where.append(" AND create_time <= ? ");
             args.add(Timestamp.valueOf(endAt));
         }
+        return where.toString();
+    }
 
-        String countSql = "SELECT COUNT(1) FROM AUD_LOG" + where;
-        Long total = jdbcTemplate.queryForObject(countSql, args.toArray(), Long.class);
-
-        long offset = (pageNo - 1) * pageSize;
-        // 字段别名统一成 API 返回约定的 snake_case 字段名。
-        String dataSql = "SELECT id, trace_code AS trace_id, user_id, action_code AS action_name, "
-            + "resource_code AS resource_name, result_status AS result, error_code, cost_value AS cost_ms, "
-            + "create_time AS created_at "
-            + "FROM AUD_LOG" + where + " ORDER BY id DESC LIMIT ? OFFSET ?";
-
-        List<Object> dataArgs = new ArrayList<>(args);
-        dataArgs.add(pageSize);
-        dataArgs.add(offset);
-
-        List<Map<String, Object>> items = jdbcTemplate.queryForList(dataSql, dataArgs.toArray());
-        return ApiResponse.success(PageResponse.of(items, total == null ? 0 : total, pageNo, pageSize));
+    /**
+     * 将驱动返回的时间值转换为 LocalDateTime。
+     *
+     * @param value 驱动返回的时间值
+     * @return LocalDateTime
+     */
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime;
+        }
+        return LocalDateTime.parse(String.valueOf(value).replace(' ', 'T'));
     }
 }
@@ -0,0 +1,42 @@
+package io.github.shizuki.common.audit.model;
+
+import io.github.shizuki.common.core.error.BusinessException;
+import io.github.shizuki.common.core.error.ErrorCode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 审计日志列表游标，按 (created_at, id) 降序定位上一页最后一条。
+ *
+ * @param createdAt 上一页最后一条的创建时间
+ * @param id 上一页最后一条的主键
+ */
+public record AuditLogCursor(LocalDateTime createdAt, long id) {
+
+    /**
+     * 编码为 URL 安全的游标字符串。
+     *
+     * @return 游标字符串
+     */
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标字符串。
+     *
+     * @param cursor 游标字符串
+     * @return 审计日志游标
+     */
+    public static AuditLogCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new AuditLogCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException exception) {
+            throw new BusinessException(ErrorCode.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
@@ -11,6 +11,7 @@ import java.time.Instant;
  * @param status 事件状态
  * @param retryCount 重试次数
  * @param createdAt 创建时间
+ * @param aggregateKey 聚合键（审计事件为操作用户），同一聚合内的事件按 id 顺序发布，为空时不约束顺序
  */
 public record AuditOutboxEvent(
     Long id,
@@ -18,6 +19,23 @@ public record AuditOutboxEvent(
     String payloadJson,
     String status,
     int retryCount,
-    Instant createdAt
+    Instant createdAt,
+    String aggregateKey
 ) {
+
+    /**
+     * 构造不带聚合键的事件。
+     */
+    public AuditOutboxEvent(Long id, String eventType, String payloadJson, String status, int retryCount, Instant createdAt) {
+        this(id, eventType, payloadJson, status, retryCount, createdAt, null);
+    }
+
+    /**
+     * 分区键：聚合键，缺少聚合键时同类型事件落在同一分区。
+     *
+     * @return 分区键
+     */
+    public String partitionKey() {
+        return aggregateKey == null ? eventType : aggregateKey;
+    }
 }
@@ -0,0 +1,21 @@
+package io.github.shizuki.common.audit.model;
+
+import java.util.List;
+
+/**
+ * 一次审计保留执行的结果。
+ *
+ * @param createdPartitions 新建的审计日志分区
+ * @param expiredPartitions 删除或归档的审计日志分区
+ * @param logRowsDeleted 未分区时逐批删除的审计日志行数
+ * @param outboxRowsDeleted 逐批删除的已成功 outbox 事件行数
+ * @param deleteBatches 执行的 DELETE 批数
+ */
+public record AuditRetentionReport(
+    List<String> createdPartitions,
+    List<String> expiredPartitions,
+    long logRowsDeleted,
+    long outboxRowsDeleted,
+    int deleteBatches
+) {
+}
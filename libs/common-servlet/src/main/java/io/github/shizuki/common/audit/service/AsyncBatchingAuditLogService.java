@@ -0,0 +1,277 @@
+package io.github.shizuki.common.audit.service;
+
+import io.github.shizuki.common.audit.config.AuditAsyncProperties;
+import io.github.shizuki.common.audit.config.AuditAsyncProperties.OverflowPolicy;
+import io.github.shizuki.common.audit.model.AuditLogEntry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * 异步批量审计日志服务。
+ *
+ * <p>请求线程只把审计记录放入有界缓冲区，由单个后台线程按 batchSize / lingerMs 攒批后
+ * 调用 {@link JdbcAuditLogService#saveBatch(List)}。缓冲区满时按 {@link OverflowPolicy} 处理；
+ * 关闭时先停止接收（后续调用改为同步写入），再把缓冲区中的记录全部刷盘。
+ */
+@Component
+@Primary
+public class AsyncBatchingAuditLogService implements AuditLogService {
+
+    /**
+     * 日志组件。
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncBatchingAuditLogService.class);
+    /**
+     * 后台线程空闲时的轮询间隔，决定停止信号的最大感知延迟。
+     */
+    private static final long IDLE_POLL_MILLIS = 100L;
+
+    /**
+     * 异步写入配置。
+     */
+    private final AuditAsyncProperties properties;
+    /**
+     * 实际落库实现。
+     */
+    private final JdbcAuditLogService delegate;
+    /**
+     * 已入队条数。
+     */
+    private final AtomicLong enqueued = new AtomicLong();
+    /**
+     * 因缓冲区满被丢弃的条数。
+     */
+    private final AtomicLong dropped = new AtomicLong();
+    /**
+     * 在请求线程同步写入的条数。
+     */
+    private final AtomicLong syncWrites = new AtomicLong();
+    /**
+     * 已提交的批次数。
+     */
+    private final AtomicLong batches = new AtomicLong();
+    /**
+     * 经批量写入的条数。
+     */
+    private final AtomicLong batched = new AtomicLong();
+    /**
+     * 有界缓冲区，未启用时为 null。
+     */
+    private volatile BlockingQueue<AuditLogEntry> buffer;
+    /**
+     * 是否仍接收新记录。
+     */
+    private volatile boolean accepting;
+    /**
+     * 后台刷盘线程。
+     */
+    private Thread worker;
+
+    /**
+     * 构造异步批量审计日志服务。
+     *
+     * @param properties 异步写入配置
+     * @param delegate 实际落库实现
+     */
+    public AsyncBatchingAuditLogService(AuditAsyncProperties properties, JdbcAuditLogService delegate) {
+        this.properties = properties;
+        this.delegate = delegate;
+    }
+
+    /**
+     * 按配置启动后台刷盘线程。
+     */
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled() || accepting) {
+            return;
+        }
+        buffer = new ArrayBlockingQueue<>(properties.getCapacity());
+        accepting = true;
+        worker = new Thread(this::drainLoop, "audit-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 停止接收新记录，并在超时时间内把缓冲区全部刷盘。
+     */
+    @PreDestroy
+    public void stop() {
+        if (!accepting) {
+            return;
+        }
+        accepting = false;
+        Thread current = worker;
+        try {
+            current.join(properties.getShutdownTimeoutMs());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (current.isAlive()) {
+            current.interrupt();
+        }
+        // 后台线程超时或被中断时，剩余记录由关闭线程兜底写完。
+        List<AuditLogEntry> rest = new ArrayList<>();
+        while (buffer.drainTo(rest, properties.getBatchSize()) > 0) {
+            flush(rest);
+            rest.clear();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void save(AuditLogEntry entry) {
+        BlockingQueue<AuditLogEntry> queue = buffer;
+        if (!accepting || queue == null) {
+            saveNow(entry);
+            return;
+        }
+        if (!queue.offer(entry) && !offerOnOverflow(queue, entry)) {
+            return;
+        }
+        enqueued.incrementAndGet();
+        // 与 stop() 的最终 drain 竞争：若关闭已开始且记录仍在队列中，则自行取回同步写入。
+        if (!accepting && queue.remove(entry)) {
+            enqueued.decrementAndGet();
+            saveNow(entry);
+        }
+    }
+
+    /**
+     * 获取运行统计。
+     *
+     * @return 运行统计
+     */
+    public Stats stats() {
+        BlockingQueue<AuditLogEntry> queue = buffer;
+        return new Stats(
+            enqueued.get(),
+            dropped.get(),
+            syncWrites.get(),
+            batches.get(),
+            batched.get(),
+            queue == null ? 0 : queue.size()
+        );
+    }
+
+    /**
+     * 缓冲区满时按策略处理。
+     *
+     * @param queue 缓冲区
+     * @param entry 审计日志实体
+     * @return true 表示最终入队
+     */
+    private boolean offerOnOverflow(BlockingQueue<AuditLogEntry> queue, AuditLogEntry entry) {
+        OverflowPolicy policy = properties.getOverflowPolicy();
+        if (policy == OverflowPolicy.DROP) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        if (policy == OverflowPolicy.BLOCK) {
+            try {
+                while (accepting) {
+                    if (queue.offer(entry, IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        saveNow(entry);
+        return false;
+    }
+
+    /**
+     * 在调用线程同步写入单条记录。
+     *
+     * @param entry 审计日志实体
+     */
+    private void saveNow(AuditLogEntry entry) {
+        syncWrites.incrementAndGet();
+        delegate.save(entry);
+    }
+
+    /**
+     * 后台线程主循环：取到首条记录后最多等待 lingerMs 凑满一批。
+     */
+    private void drainLoop() {
+        BlockingQueue<AuditLogEntry> queue = buffer;
+        int batchSize = properties.getBatchSize();
+        long lingerNanos = TimeUnit.MILLISECONDS.toNanos(properties.getLingerMs());
+        List<AuditLogEntry> batch = new ArrayList<>(batchSize);
+        try {
+            while (accepting || !queue.isEmpty()) {
+                AuditLogEntry head = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (head == null) {
+                    continue;
+                }
+                batch.add(head);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0L || !accepting) {
+                        break;
+                    }
+                    AuditLogEntry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // 被中断时手里已取出的记录也要写完。
+            flush(batch);
+        }
+    }
+
+    /**
+     * 提交一批记录；异常只记录日志，不终止后台线程。
+     *
+     * @param batch 待写入记录
+     */
+    private void flush(List<AuditLogEntry> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            delegate.saveBatch(batch);
+            batches.incrementAndGet();
+            batched.addAndGet(batch.size());
+        } catch (RuntimeException ex) {
+            LOGGER.warn("audit batch write failed size={}", batch.size(), ex);
+        }
+    }
+
+    /**
+     * 运行统计快照。
+     *
+     * @param enqueued 已入队条数
+     * @param dropped 被丢弃条数
+     * @param syncWrites 同步写入条数
+     * @param batches 已提交批次数
+     * @param batched 经批量写入条数
+     * @param pending 缓冲区中待写入条数
+     */
+    public record Stats(long enqueued, long dropped, long syncWrites, long batches, long batched, int pending) {
+    }
+}
@@ -1,6 +1,10 @@
 package io.github.shizuki.common.audit.service;
 
 import io.github.shizuki.common.audit.model.AuditOutboxEvent;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 审计 outbox 发布器接口。
@@ -20,4 +24,34 @@ public interface AuditOutboxPublisher {
      * @param event outbox 事件
      */
     void publish(AuditOutboxEvent event);
+
+    /**
+     * 批量发布审计 outbox 事件，逐条给出结果，失败事件由调用方各自进入重试退避。
+     *
+     * <p>默认实现逐条调用 {@link #publish(AuditOutboxEvent)}，某个聚合的事件失败后不再发布该聚合的后续事件，
+     * 后续事件同样记为失败，由调用方放回队列；支持异步发送的实现应覆盖本方法，先发出整批再统一等待。
+     *
+     * @param events outbox 事件列表，按 id 升序
+     * @return 发布失败的事件 id 与异常，全部成功时为空
+     */
+    default Map<Long, Exception> publishAll(List<AuditOutboxEvent> events) {
+        Map<Long, Exception> failures = new LinkedHashMap<>();
+        Map<String, Exception> failedAggregates = new HashMap<>();
+        for (AuditOutboxEvent event : events) {
+            Exception earlier = event.aggregateKey() == null ? null : failedAggregates.get(event.aggregateKey());
+            if (earlier != null) {
+                failures.put(event.id(), earlier);
+                continue;
+            }
+            try {
+                publish(event);
+            } catch (Exception ex) {
+                failures.put(event.id(), ex);
+                if (event.aggregateKey() != null) {
+                    failedAggregates.put(event.aggregateKey(), ex);
+                }
+            }
+        }
+        return failures;
+    }
 }
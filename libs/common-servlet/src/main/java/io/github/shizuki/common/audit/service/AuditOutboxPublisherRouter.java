@@ -59,13 +59,32 @@ public class AuditOutboxPublisherRouter {
      * @param event outbox 事件
      */
     public void publish(AuditOutboxEvent event) {
+        resolvePublisher().publish(event);
+    }
+
+    /**
+     * 路由并批量发布 outbox 事件。
+     *
+     * @param events outbox 事件列表
+     * @return 发布失败的事件 id 与异常，全部成功时为空
+     */
+    public Map<Long, Exception> publishAll(List<AuditOutboxEvent> events) {
+        return resolvePublisher().publishAll(events);
+    }
+
+    /**
+     * 按配置解析当前发布器，未知类型回退 noop。
+     *
+     * @return 发布器
+     */
+    private AuditOutboxPublisher resolvePublisher() {
         String configuredType = normalizeType(properties.getType());
         AuditOutboxPublisher publisher = publisherByType.get(configuredType);
         if (publisher == null) {
             LOGGER.warn("Unknown audit publisher type={}, fallback to noop", configuredType);
             publisher = defaultPublisher;
         }
-        publisher.publish(event);
+        return publisher;
     }
 
     /**
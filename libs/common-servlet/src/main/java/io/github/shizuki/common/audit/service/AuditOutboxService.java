@@ -6,7 +6,9 @@ package io.github.shizuki.common.audit.service;
 public interface AuditOutboxService {
 
     /**
-     * 扫描并分发待处理 outbox 事件。
+     * 抢占并分发一批待处理 outbox 事件。
+     *
+     * @return 本次抢占到的事件数，等于批量大小时说明可能还有积压
      */
-    void dispatchPendingEvents();
+    int dispatchPendingEvents();
 }
@@ -0,0 +1,16 @@
+package io.github.shizuki.common.audit.service;
+
+import io.github.shizuki.common.audit.model.AuditRetentionReport;
+
+/**
+ * 审计数据保留服务接口。
+ */
+public interface AuditRetentionService {
+
+    /**
+     * 维护审计日志分区并清理保留期外的数据。
+     *
+     * @return 本次执行结果
+     */
+    AuditRetentionReport enforceRetention();
+}
@@ -5,21 +5,35 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.shizuki.common.audit.model.AuditLogEntry;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import org.springframework.beans.factory.ObjectProvider;
-import org.springframework.context.annotation.Primary;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * 基于 JDBC 的审计日志服务实现。
  *
  * <p>优先写入 AUD_LOG 和 AUD_EVENT_OUTBOX，失败时回退到日志输出实现。
+ * 请求链路默认经由 {@link AsyncBatchingAuditLogService} 调用 {@link #saveBatch(List)}。
  */
 @Component
-@Primary
 public class JdbcAuditLogService implements AuditLogService {
 
+    /**
+     * 审计主表写入 SQL。
+     */
+    private static final String INSERT_LOG_SQL =
+        "INSERT INTO AUD_LOG(trace_code, user_id, action_code, resource_code, result_status, error_code, cost_value, create_time) "
+            + "VALUES(?, ?, ?, ?, ?, ?, ?, ?)";
+    /**
+     * outbox 写入 SQL。
+     */
+    private static final String INSERT_OUTBOX_SQL =
+        "INSERT INTO AUD_EVENT_OUTBOX(event_type, payload_json, event_status, create_time) VALUES(?, CAST(? AS JSON), ?, ?)";
+
     /**
      * JdbcTemplate 延迟提供者。
      */
@@ -32,6 +46,10 @@ public class JdbcAuditLogService implements AuditLogService {
      * JSON 序列化器。
      */
     private final ObjectMapper objectMapper;
+    /**
+     * 事务模板延迟提供者，保证 AUD_LOG 与 outbox 同成同败。
+     */
+    private final ObjectProvider<TransactionTemplate> transactionTemplateProvider;
 
     /**
      * 构造 JDBC 审计日志服务。
@@ -39,13 +57,16 @@ public class JdbcAuditLogService implements AuditLogService {
      * @param jdbcTemplateProvider JdbcTemplate 延迟提供者
      * @param fallback 日志回退实现
      * @param objectMapper JSON 序列化器
+     * @param transactionTemplateProvider 事务模板延迟提供者
      */
     public JdbcAuditLogService(ObjectProvider<JdbcTemplate> jdbcTemplateProvider,
                                LoggingAuditLogService fallback,
-                               ObjectMapper objectMapper) {
+                               ObjectMapper objectMapper,
+                               ObjectProvider<TransactionTemplate> transactionTemplateProvider) {
         this.jdbcTemplateProvider = jdbcTemplateProvider;
         this.fallback = fallback;
         this.objectMapper = objectMapper;
+        this.transactionTemplateProvider = transactionTemplateProvider;
     }
 
     /**
@@ -60,34 +81,106 @@ public class JdbcAuditLogService implements AuditLogService {
         }
 
         try {
-            // 主表落审计记录。
-            jdbcTemplate.update(
-                "INSERT INTO AUD_LOG(trace_code, user_id, action_code, resource_code, result_status, error_code, cost_value, create_time) "
-                    + "VALUES(?, ?, ?, ?, ?, ?, ?, ?)",
-                entry.getTraceId(),
-                entry.getUserId(),
-                entry.getAction(),
-                entry.getResource(),
-                entry.getResult(),
-                entry.getErrorCode(),
-                entry.getCostMs(),
-                Timestamp.from(entry.getCreatedAt() == null ? Instant.now() : entry.getCreatedAt())
-            );
-
-            // outbox 落盘，交由异步任务可靠发布。
-            jdbcTemplate.update(
-                "INSERT INTO AUD_EVENT_OUTBOX(event_type, payload_json, event_status, create_time) VALUES(?, CAST(? AS JSON), ?, ?)",
-                "AUDIT_LOG",
-                toPayloadJson(entry),
-                "NEW",
-                Timestamp.from(Instant.now())
-            );
+            inTransaction(() -> {
+                // 主表落审计记录。
+                jdbcTemplate.update(INSERT_LOG_SQL, logArgs(entry));
+                // outbox 落盘，交由异步任务可靠发布。
+                jdbcTemplate.update(INSERT_OUTBOX_SQL, outboxArgs(entry));
+            });
         } catch (Exception ex) {
             // 任意 DB 异常都降级到日志输出，避免影响业务主流程。
             fallback.save(entry);
         }
     }
 
+    /**
+     * 批量保存审计日志：两张表各一次 batchUpdate 并在同一事务内提交。
+     * 整批失败时逐条改走 {@link #save(AuditLogEntry)} 重试，只有仍然失败的记录才降级到日志输出。
+     *
+     * @param entries 审计日志列表
+     */
+    public void saveBatch(List<AuditLogEntry> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+        JdbcTemplate jdbcTemplate = jdbcTemplateProvider.getIfAvailable();
+        if (jdbcTemplate == null) {
+            entries.forEach(fallback::save);
+            return;
+        }
+
+        List<AuditLogEntry> accepted = new ArrayList<>(entries.size());
+        List<Object[]> logBatch = new ArrayList<>(entries.size());
+        List<Object[]> outboxBatch = new ArrayList<>(entries.size());
+        for (AuditLogEntry entry : entries) {
+            try {
+                Object[] logArgs = logArgs(entry);
+                Object[] outboxArgs = outboxArgs(entry);
+                accepted.add(entry);
+                logBatch.add(logArgs);
+                outboxBatch.add(outboxArgs);
+            } catch (Exception ex) {
+                // 单条脏数据不拖累整批。
+                fallback.save(entry);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+        try {
+            inTransaction(() -> {
+                jdbcTemplate.batchUpdate(INSERT_LOG_SQL, logBatch);
+                jdbcTemplate.batchUpdate(INSERT_OUTBOX_SQL, outboxBatch);
+            });
+        } catch (Exception ex) {
+            // 事务已回滚，两张表都没有这批数据；逐条重试不会重复落库，一条坏数据也不会让整批都只进日志。
+            accepted.forEach(this::save);
+        }
+    }
+
+    /**
+     * 在事务内执行写入；没有事务管理器时（例如未启用 JDBC 事务的独立部署）直接执行。
+     *
+     * @param writes 写入动作
+     */
+    private void inTransaction(Runnable writes) {
+        TransactionTemplate transactionTemplate = transactionTemplateProvider.getIfAvailable();
+        if (transactionTemplate == null) {
+            writes.run();
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> writes.run());
+    }
+
+    /**
+     * 构造审计主表参数。
+     *
+     * @param entry 审计日志实体
+     * @return SQL 参数
+     */
+    private Object[] logArgs(AuditLogEntry entry) {
+        return new Object[] {
+            entry.getTraceId(),
+            entry.getUserId(),
+            entry.getAction(),
+            entry.getResource(),
+            entry.getResult(),
+            entry.getErrorCode(),
+            entry.getCostMs(),
+            Timestamp.from(entry.getCreatedAt() == null ? Instant.now() : entry.getCreatedAt())
+        };
+    }
+
+    /**
+     * 构造 outbox 参数。
+     *
+     * @param entry 审计日志实体
+     * @return SQL 参数
+     */
+    private Object[] outboxArgs(AuditLogEntry entry) {
+        return new Object[] {"AUDIT_LOG", toPayloadJson(entry), "NEW", Timestamp.from(Instant.now())};
+    }
+
     /**
      * 构造 outbox payload JSON。
      *
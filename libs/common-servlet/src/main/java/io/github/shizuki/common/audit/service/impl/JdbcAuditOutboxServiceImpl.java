@@ -4,22 +4,47 @@ import io.github.shizuki.common.audit.config.AuditOutboxProperties;
 import io.github.shizuki.common.audit.model.AuditOutboxEvent;
 import io.github.shizuki.common.audit.service.AuditOutboxPublisherRouter;
 import io.github.shizuki.common.audit.service.AuditOutboxService;
+import jakarta.annotation.PreDestroy;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
 /**
  * 基于 JDBC 的 outbox 调度服务实现。
  *
- * <p>负责扫描待处理事件、抢占处理权、分发发布、并按指数退避更新重试状态。
+ * <p>负责整批抢占待处理事件、分发发布、并按指数退避更新重试状态。抢占使用
+ * {@code FOR UPDATE SKIP LOCKED}（PostgreSQL 额外合并为 {@code UPDATE ... RETURNING}），
+ * 多实例并发时各自拿到互不重叠的一批；批内按聚合键分区并行发布，发布结果按状态各一次批量回写。
+ *
+ * <p>同一聚合（审计事件为操作用户）跨实例也按 id 顺序发布：跳锁抢占只取各聚合的队首事件，
+ * 即前面没有待处理或处理中事件的那一条；队首已被本实例抢到后，再顺带抢占该聚合紧随其后、已到重试时间的事件。
+ * 其他实例看到队首未结束，会跳过整个聚合。某条事件发布失败后，同聚合的后续事件不记成功，放回队列排在它之后。
+ * 已达最大重试次数的事件视为已结束，不再阻塞所在聚合。
  */
 @Service
 public class JdbcAuditOutboxServiceImpl implements AuditOutboxService {
@@ -30,47 +55,155 @@ public class JdbcAuditOutboxServiceImpl implements AuditOutboxService {
     private static final Logger LOGGER = LoggerFactory.getLogger(JdbcAuditOutboxServiceImpl.class);
 
     /**
-     * 查询待处理 outbox 事件 SQL。
+     * MySQL：在事务内锁定一批各聚合的队首事件，已被其他实例锁住的行直接跳过；
+     * 聚合内存在更早的待处理或处理中事件时整个聚合跳过，判断用不加锁的一致性读。
      */
-    private static final String SELECT_PENDING_SQL = """
-        SELECT id, event_type, CAST(payload_json AS CHAR) AS payload_json, event_status,
-               COALESCE(retry_count, 0) AS retry_count, create_time
-        FROM AUD_EVENT_OUTBOX
-        WHERE event_status IN ('NEW', 'FAILED')
-          AND (next_retry_datetime IS NULL OR next_retry_datetime <= NOW())
-          AND COALESCE(retry_count, 0) < ?
-        ORDER BY id ASC
+    private static final String MYSQL_SELECT_PENDING_FOR_UPDATE_SQL = """
+        SELECT o.id, o.event_type, CAST(o.payload_json AS CHAR) AS payload_json, o.event_status,
+               COALESCE(o.retry_count, 0) AS retry_count, o.create_time,
+               JSON_UNQUOTE(JSON_EXTRACT(o.payload_json, '$.user_id')) AS aggregate_key
+        FROM AUD_EVENT_OUTBOX o
+        WHERE o.event_status IN ('NEW', 'FAILED')
+          AND (o.next_retry_datetime IS NULL OR o.next_retry_datetime <= NOW())
+          AND COALESCE(o.retry_count, 0) < ?
+          AND NOT EXISTS (
+              SELECT 1
+              FROM AUD_EVENT_OUTBOX prior
+              WHERE prior.id < o.id
+                AND (prior.event_status = 'PROCESSING'
+                     OR (prior.event_status IN ('NEW', 'FAILED') AND COALESCE(prior.retry_count, 0) < ?))
+                AND JSON_UNQUOTE(JSON_EXTRACT(prior.payload_json, '$.user_id'))
+                    = JSON_UNQUOTE(JSON_EXTRACT(o.payload_json, '$.user_id'))
+          )
+        ORDER BY o.id ASC
         LIMIT ?
+        FOR UPDATE OF o SKIP LOCKED
         """;
 
     /**
-     * 抢占事件处理权 SQL。
+     * MySQL：查询已抢到队首的聚合中排在队首之后、尚未结束的事件，聚合键 IN 列表由调用方拼接。
+     * 未到重试时间的事件状态返回 WAITING，调用方据此截断。
+     */
+    private static final String MYSQL_SELECT_FOLLOWERS_SQL_PREFIX = """
+        SELECT id, event_type, CAST(payload_json AS CHAR) AS payload_json,
+               CASE WHEN next_retry_datetime > NOW() THEN 'WAITING' ELSE event_status END AS event_status,
+               COALESCE(retry_count, 0) AS retry_count, create_time,
+               JSON_UNQUOTE(JSON_EXTRACT(payload_json, '$.user_id')) AS aggregate_key
+        FROM AUD_EVENT_OUTBOX
+        WHERE (event_status = 'PROCESSING' OR (event_status IN ('NEW', 'FAILED') AND COALESCE(retry_count, 0) < ?))
+          AND id > ?
+          AND JSON_UNQUOTE(JSON_EXTRACT(payload_json, '$.user_id')) IN\s""";
+
+    /**
+     * MySQL：把已锁定的一批事件标记为 PROCESSING，IN 列表由调用方拼接。
+     */
+    private static final String MARK_PROCESSING_SQL_PREFIX = """
+        UPDATE AUD_EVENT_OUTBOX
+        SET event_status = 'PROCESSING', last_error_memo = NULL, update_time = NOW()
+        WHERE id IN\s""";
+
+    /**
+     * 无事务管理器时的逐行抢占 SQL，依靠状态条件保证同一事件只被一个实例抢到。
      */
     private static final String CLAIM_SQL = """
         UPDATE AUD_EVENT_OUTBOX
-        SET event_status = 'PROCESSING', last_error_memo = NULL
+        SET event_status = 'PROCESSING', last_error_memo = NULL, update_time = NOW()
         WHERE id = ? AND event_status IN ('NEW', 'FAILED')
         """;
 
     /**
-     * 标记处理成功 SQL。
+     * PostgreSQL：单条语句完成各聚合队首事件的跳锁选取与抢占，并直接返回被抢到的事件。
      */
-    private static final String SUCCESS_SQL = """
+    private static final String PG_CLAIM_RETURNING_SQL = """
+        UPDATE AUD_EVENT_OUTBOX o
+        SET event_status = 'PROCESSING', last_error_memo = NULL, update_time = NOW()
+        FROM (
+            SELECT c.id
+            FROM AUD_EVENT_OUTBOX c
+            WHERE c.event_status IN ('NEW', 'FAILED')
+              AND (c.next_retry_datetime IS NULL OR c.next_retry_datetime <= NOW())
+              AND COALESCE(c.retry_count, 0) < ?
+              AND NOT EXISTS (
+                  SELECT 1
+                  FROM AUD_EVENT_OUTBOX prior
+                  WHERE prior.id < c.id
+                    AND (prior.event_status = 'PROCESSING'
+                         OR (prior.event_status IN ('NEW', 'FAILED') AND COALESCE(prior.retry_count, 0) < ?))
+                    AND prior.payload_json ->> 'user_id' = c.payload_json ->> 'user_id'
+              )
+            ORDER BY c.id ASC
+            LIMIT ?
+            FOR UPDATE OF c SKIP LOCKED
+        ) picked
+        WHERE o.id = picked.id
+        RETURNING o.id, o.event_type, CAST(o.payload_json AS TEXT) AS payload_json, o.event_status,
+                  COALESCE(o.retry_count, 0) AS retry_count, o.create_time,
+                  o.payload_json ->> 'user_id' AS aggregate_key
+        """;
+
+    /**
+     * PostgreSQL：查询已抢到队首的聚合中排在队首之后、尚未结束的事件，含义同 MySQL 版本。
+     */
+    private static final String PG_SELECT_FOLLOWERS_SQL_PREFIX = """
+        SELECT id, event_type, CAST(payload_json AS TEXT) AS payload_json,
+               CASE WHEN next_retry_datetime > NOW() THEN 'WAITING' ELSE event_status END AS event_status,
+               COALESCE(retry_count, 0) AS retry_count, create_time,
+               payload_json ->> 'user_id' AS aggregate_key
+        FROM AUD_EVENT_OUTBOX
+        WHERE (event_status = 'PROCESSING' OR (event_status IN ('NEW', 'FAILED') AND COALESCE(retry_count, 0) < ?))
+          AND id > ?
+          AND payload_json ->> 'user_id' IN\s""";
+
+    /**
+     * 队首之后事件查询的排序与条数限制。
+     */
+    private static final String SELECT_FOLLOWERS_SQL_SUFFIX = """
+
+        ORDER BY id ASC
+        LIMIT ?
+        """;
+
+    /**
+     * 把排在失败事件之后的同聚合事件放回队列，不计重试次数，IN 列表由调用方拼接。
+     */
+    private static final String REQUEUE_SQL_PREFIX = """
+        UPDATE AUD_EVENT_OUTBOX
+        SET event_status = 'NEW', last_error_memo = 'requeued_behind_failed_event', update_time = NOW()
+        WHERE id IN\s""";
+
+    /**
+     * 批量标记处理成功 SQL，IN 列表由调用方拼接。
+     */
+    private static final String SUCCESS_SQL_PREFIX = """
+        UPDATE AUD_EVENT_OUTBOX
+        SET event_status = 'SUCCESS', processed_datetime = NOW(), last_error_memo = NULL, update_time = NOW()
+        WHERE id IN\s""";
+
+    /**
+     * MySQL：标记失败并安排下次重试 SQL。
+     */
+    private static final String MYSQL_FAIL_RETRY_SQL = """
         UPDATE AUD_EVENT_OUTBOX
-        SET event_status = 'SUCCESS', processed_datetime = NOW(), last_error_memo = NULL
+        SET event_status = 'FAILED',
+            retry_count = ?,
+            next_retry_datetime = DATE_ADD(NOW(), INTERVAL ? SECOND),
+            last_error_memo = ?,
+            processed_datetime = NOW(),
+            update_time = NOW()
         WHERE id = ?
         """;
 
     /**
-     * 标记失败并安排下次重试 SQL。
+     * PostgreSQL：标记失败并安排下次重试 SQL。
      */
-    private static final String FAIL_RETRY_SQL = """
+    private static final String PG_FAIL_RETRY_SQL = """
         UPDATE AUD_EVENT_OUTBOX
         SET event_status = 'FAILED',
             retry_count = ?,
-            next_retry_datetime = DATE_ADD(NOW(), INTERVAL ? SECOND),
+            next_retry_datetime = NOW() + ? * INTERVAL '1 second',
             last_error_memo = ?,
-            processed_datetime = NOW()
+            processed_datetime = NOW(),
+            update_time = NOW()
         WHERE id = ?
         """;
 
@@ -83,14 +216,15 @@ public class JdbcAuditOutboxServiceImpl implements AuditOutboxService {
             retry_count = ?,
             next_retry_datetime = NULL,
             last_error_memo = ?,
-            processed_datetime = NOW()
+            processed_datetime = NOW(),
+            update_time = NOW()
         WHERE id = ?
         """;
 
     /**
-     * 回收长时间卡在 PROCESSING 的事件。
+     * MySQL：回收长时间卡在 PROCESSING 的事件。
      */
-    private static final String RECLAIM_STUCK_PROCESSING_SQL = """
+    private static final String MYSQL_RECLAIM_STUCK_PROCESSING_SQL = """
         UPDATE AUD_EVENT_OUTBOX
         SET event_status = 'FAILED',
             next_retry_datetime = NOW(),
@@ -100,6 +234,20 @@ public class JdbcAuditOutboxServiceImpl implements AuditOutboxService {
           AND update_time <= DATE_SUB(NOW(), INTERVAL ? SECOND)
         """;
 
+    /**
+     * PostgreSQL：回收长时间卡在 PROCESSING 的事件。
+     */
+    private static final String PG_RECLAIM_STUCK_PROCESSING_SQL = """
+        UPDATE AUD_EVENT_OUTBOX
+        SET event_status = 'FAILED',
+            next_retry_datetime = NOW(),
+            last_error_memo = 'processing_timeout_reclaimed',
+            processed_datetime = NOW(),
+            update_time = NOW()
+        WHERE event_status = 'PROCESSING'
+          AND update_time <= NOW() - ? * INTERVAL '1 second'
+        """;
+
     /**
      * outbox 事件行映射器。
      */
@@ -117,6 +265,22 @@ public class JdbcAuditOutboxServiceImpl implements AuditOutboxService {
      * outbox 配置。
      */
     private final AuditOutboxProperties properties;
+    /**
+     * 事务模板延迟提供者，MySQL 跳锁抢占需要在事务内持有行锁。
+     */
+    private final ObjectProvider<TransactionTemplate> transactionTemplateProvider;
+    /**
+     * 串行化本实例内的分发，保证同一聚合的事件不会被两批并发发布而乱序。
+     */
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+    /**
+     * 首次分发时探测到的数据库方言。
+     */
+    private volatile Dialect dialect;
+    /**
+     * 分区发布线程池，首次需要并行发布时创建。
+     */
+    private volatile ExecutorService workerPool;
 
     /**
      * 构造 JDBC outbox 调度服务。
@@ -124,38 +288,78 @@ public class JdbcAuditOutboxServiceImpl implements AuditOutboxService {
      * @param jdbcTemplateProvider JdbcTemplate 延迟提供者
      * @param publisherRouter 发布器路由器
      * @param properties outbox 配置
+     * @param transactionTemplateProvider 事务模板延迟提供者
      */
     public JdbcAuditOutboxServiceImpl(ObjectProvider<JdbcTemplate> jdbcTemplateProvider,
                                       AuditOutboxPublisherRouter publisherRouter,
-                                      AuditOutboxProperties properties) {
+                                      AuditOutboxProperties properties,
+                                      ObjectProvider<TransactionTemplate> transactionTemplateProvider) {
         this.jdbcTemplateProvider = jdbcTemplateProvider;
         this.publisherRouter = publisherRouter;
         this.properties = properties;
+        this.transactionTemplateProvider = transactionTemplateProvider;
     }
 
     /**
-     * 调度入口：扫描待处理事件并逐条分发。
+     * 调度入口：整批抢占待处理事件，整批发布后按逐条结果批量回写状态。
      */
     @Override
-    public void dispatchPendingEvents() {
+    public int dispatchPendingEvents() {
         JdbcTemplate jdbcTemplate = jdbcTemplateProvider.getIfAvailable();
         if (jdbcTemplate == null || !properties.isEnabled()) {
-            return;
+            return 0;
         }
 
+        dispatchLock.lock();
         try {
-            reclaimStuckProcessingEvents(jdbcTemplate);
-            var events = jdbcTemplate.query(
-                SELECT_PENDING_SQL,
-                EVENT_ROW_MAPPER,
-                properties.getMaxRetries(),
-                properties.getBatchSize()
-            );
+            Dialect current = resolveDialect(jdbcTemplate);
+            reclaimStuckProcessingEvents(jdbcTemplate, current);
+            List<AuditOutboxEvent> events = claimBatch(jdbcTemplate, current);
+            if (events.isEmpty()) {
+                return 0;
+            }
+
+            Map<Long, Exception> failures = publishPartitioned(events);
+            List<Long> succeeded = new ArrayList<>(events.size());
+            List<Long> requeued = new ArrayList<>();
+            List<Object[]> retries = new ArrayList<>();
+            List<Object[]> finals = new ArrayList<>();
+            Set<String> failedAggregates = new HashSet<>();
             for (AuditOutboxEvent event : events) {
-                processSingleEvent(jdbcTemplate, event);
+                String aggregateKey = event.aggregateKey();
+                if (aggregateKey != null && failedAggregates.contains(aggregateKey)) {
+                    // 排在失败事件之后：即使已发出也不记成功，随失败事件重试后按序重发。
+                    requeued.add(event.id());
+                    continue;
+                }
+                Exception failure = failures == null ? null : failures.get(event.id());
+                if (failure == null) {
+                    succeeded.add(event.id());
+                } else {
+                    collectFailure(event, failure, retries, finals);
+                    if (aggregateKey != null) {
+                        failedAggregates.add(aggregateKey);
+                    }
+                }
             }
+            markResults(jdbcTemplate, current, succeeded, requeued, retries, finals);
+            return events.size();
         } catch (Exception ex) {
             LOGGER.warn("审计 outbox 事件分发失败：{}", ex.getMessage());
+            return 0;
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    /**
+     * 关闭分区发布线程池。
+     */
+    @PreDestroy
+    public void shutdown() {
+        ExecutorService pool = workerPool;
+        if (pool != null) {
+            pool.shutdown();
         }
     }
 
@@ -163,10 +367,11 @@ public class JdbcAuditOutboxServiceImpl implements AuditOutboxService {
      * 回收异常实例退出后长期滞留的 PROCESSING 事件，重新放回重试通道。
      *
      * @param jdbcTemplate jdbcTemplate
+     * @param current 数据库方言
      */
-    private void reclaimStuckProcessingEvents(JdbcTemplate jdbcTemplate) {
+    private void reclaimStuckProcessingEvents(JdbcTemplate jdbcTemplate, Dialect current) {
         int reclaimed = jdbcTemplate.update(
-            RECLAIM_STUCK_PROCESSING_SQL,
+            current == Dialect.POSTGRESQL ? PG_RECLAIM_STUCK_PROCESSING_SQL : MYSQL_RECLAIM_STUCK_PROCESSING_SQL,
             properties.getProcessingTimeoutSeconds()
         );
         if (reclaimed > 0) {
@@ -175,46 +380,332 @@ public class JdbcAuditOutboxServiceImpl implements AuditOutboxService {
     }
 
     /**
-     * 处理单条 outbox 事件。
+     * 原子地抢占一批事件，多实例并发时各自拿到互不重叠的行：先抢各聚合的队首，再顺带抢占其后续事件。
      *
      * @param jdbcTemplate jdbcTemplate
-     * @param event outbox 事件
+     * @param current 数据库方言
+     * @return 本实例抢到的事件，按 id 升序
      */
-    private void processSingleEvent(JdbcTemplate jdbcTemplate, AuditOutboxEvent event) {
-        // 先抢占事件状态，避免多实例并发重复消费同一条 outbox 数据。
-        int claimed = jdbcTemplate.update(CLAIM_SQL, event.id());
-        if (claimed == 0) {
-            return;
+    private List<AuditOutboxEvent> claimBatch(JdbcTemplate jdbcTemplate, Dialect current) {
+        List<AuditOutboxEvent> claimed = new ArrayList<>(claimHeads(jdbcTemplate, current));
+        claimed.addAll(claimFollowers(jdbcTemplate, current, claimed));
+        claimed.sort(Comparator.comparing(AuditOutboxEvent::id));
+        return claimed;
+    }
+
+    /**
+     * 跳锁抢占一批各聚合的队首事件。
+     *
+     * @param jdbcTemplate jdbcTemplate
+     * @param current 数据库方言
+     * @return 本实例抢到的队首事件
+     */
+    private List<AuditOutboxEvent> claimHeads(JdbcTemplate jdbcTemplate, Dialect current) {
+        if (current == Dialect.POSTGRESQL) {
+            return jdbcTemplate.query(
+                PG_CLAIM_RETURNING_SQL,
+                EVENT_ROW_MAPPER,
+                properties.getMaxRetries(),
+                properties.getMaxRetries(),
+                properties.getBatchSize()
+            );
         }
 
-        try {
-            publisherRouter.publish(event);
-            jdbcTemplate.update(SUCCESS_SQL, event.id());
-        } catch (Exception ex) {
-            handleFailure(jdbcTemplate, event, ex);
+        TransactionTemplate transactionTemplate = transactionTemplateProvider.getIfAvailable();
+        if (transactionTemplate == null) {
+            return claimWithoutTransaction(jdbcTemplate);
         }
+        List<AuditOutboxEvent> claimed = transactionTemplate.execute(status -> {
+            List<AuditOutboxEvent> locked = selectPending(jdbcTemplate);
+            if (!locked.isEmpty()) {
+                List<Long> ids = locked.stream().map(AuditOutboxEvent::id).toList();
+                jdbcTemplate.update(MARK_PROCESSING_SQL_PREFIX + inClause(ids.size()), ids.toArray());
+            }
+            return locked;
+        });
+        return claimed == null ? List.of() : claimed;
     }
 
     /**
-     * 处理发布失败逻辑。
+     * 没有事务时 SKIP LOCKED 的行锁随语句提交即释放，改为一次批量的条件更新逐行抢占。
      *
      * @param jdbcTemplate jdbcTemplate
+     * @return 本实例抢到的事件
+     */
+    private List<AuditOutboxEvent> claimWithoutTransaction(JdbcTemplate jdbcTemplate) {
+        List<AuditOutboxEvent> candidates = selectPending(jdbcTemplate);
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        List<Object[]> args = candidates.stream().map(event -> new Object[] {event.id()}).toList();
+        int[] counts = jdbcTemplate.batchUpdate(CLAIM_SQL, args);
+        List<AuditOutboxEvent> claimed = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            if (i < counts.length && counts[i] != 0) {
+                claimed.add(candidates.get(i));
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * 抢占已抢到队首的聚合中紧随其后的事件，遇到未到重试时间或处理中的事件即截断该聚合。
+     * 队首处于 PROCESSING 期间其他实例不会抢占这些事件，条件更新只用于防御异常数据。
+     *
+     * @param jdbcTemplate jdbcTemplate
+     * @param current 数据库方言
+     * @param heads 本实例抢到的队首事件
+     * @return 本实例抢到的后续事件
+     */
+    private List<AuditOutboxEvent> claimFollowers(JdbcTemplate jdbcTemplate,
+                                                  Dialect current,
+                                                  List<AuditOutboxEvent> heads) {
+        int capacity = properties.getBatchSize() - heads.size();
+        Map<String, Long> headIdByAggregate = new HashMap<>();
+        for (AuditOutboxEvent head : heads) {
+            if (head.aggregateKey() != null) {
+                headIdByAggregate.put(head.aggregateKey(), head.id());
+            }
+        }
+        if (capacity <= 0 || headIdByAggregate.isEmpty()) {
+            return List.of();
+        }
+
+        List<Object> args = new ArrayList<>(headIdByAggregate.size() + 3);
+        args.add(properties.getMaxRetries());
+        args.add(Collections.min(headIdByAggregate.values()));
+        args.addAll(headIdByAggregate.keySet());
+        // 队首本身也满足查询条件，每个聚合至多多出一行。
+        args.add(capacity + headIdByAggregate.size());
+        String sql = (current == Dialect.POSTGRESQL ? PG_SELECT_FOLLOWERS_SQL_PREFIX : MYSQL_SELECT_FOLLOWERS_SQL_PREFIX)
+            + inClause(headIdByAggregate.size()) + SELECT_FOLLOWERS_SQL_SUFFIX;
+        List<AuditOutboxEvent> candidates = jdbcTemplate.query(sql, EVENT_ROW_MAPPER, args.toArray());
+
+        List<AuditOutboxEvent> followers = new ArrayList<>();
+        Set<String> open = new HashSet<>(headIdByAggregate.keySet());
+        for (AuditOutboxEvent candidate : candidates) {
+            String aggregateKey = candidate.aggregateKey();
+            if (!open.contains(aggregateKey) || candidate.id() <= headIdByAggregate.get(aggregateKey)) {
+                continue;
+            }
+            boolean claimable = "NEW".equals(candidate.status()) || "FAILED".equals(candidate.status());
+            if (!claimable) {
+                open.remove(aggregateKey);
+                continue;
+            }
+            if (followers.size() >= capacity) {
+                break;
+            }
+            followers.add(candidate);
+        }
+        if (followers.isEmpty()) {
+            return followers;
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(CLAIM_SQL, followers.stream().map(event -> new Object[] {event.id()}).toList());
+        List<AuditOutboxEvent> claimed = new ArrayList<>(followers.size());
+        Set<String> broken = new HashSet<>();
+        for (int i = 0; i < followers.size(); i++) {
+            AuditOutboxEvent follower = followers.get(i);
+            if (broken.contains(follower.aggregateKey())) {
+                // 前一条没抢到，后面的抢到了也不能越过它发布，交给回收放回队列。
+                continue;
+            }
+            if (i < counts.length && counts[i] != 0) {
+                claimed.add(follower);
+            } else {
+                broken.add(follower.aggregateKey());
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * 按聚合键把一批事件分到各发布线程：同一聚合始终落在同一分区并按 id 顺序发布，不同分区并行。
+     *
+     * @param events 已抢占的事件，按 id 升序
+     * @return 发布失败的事件 id 与异常
+     */
+    private Map<Long, Exception> publishPartitioned(List<AuditOutboxEvent> events) {
+        int partitionCount = Math.min(properties.getWorkerThreads(), events.size());
+        if (partitionCount <= 1) {
+            return publisherRouter.publishAll(events);
+        }
+
+        List<List<AuditOutboxEvent>> partitions = new ArrayList<>(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (AuditOutboxEvent event : events) {
+            partitions.get(Math.floorMod(event.partitionKey().hashCode(), partitionCount)).add(event);
+        }
+
+        ExecutorService pool = workerPool();
+        List<List<AuditOutboxEvent>> submitted = new ArrayList<>(partitionCount);
+        List<Future<Map<Long, Exception>>> futures = new ArrayList<>(partitionCount);
+        for (List<AuditOutboxEvent> partition : partitions) {
+            if (!partition.isEmpty()) {
+                submitted.add(partition);
+                futures.add(pool.submit(() -> publisherRouter.publishAll(partition)));
+            }
+        }
+
+        Map<Long, Exception> failures = new HashMap<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                Map<Long, Exception> partitionFailures = futures.get(i).get();
+                if (partitionFailures != null) {
+                    failures.putAll(partitionFailures);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                markPartitionFailed(submitted.get(i), ex, failures);
+            } catch (ExecutionException ex) {
+                Exception cause = ex.getCause() instanceof Exception exception ? exception : ex;
+                markPartitionFailed(submitted.get(i), cause, failures);
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * 整个分区都记为失败。
+     *
+     * @param partition 分区事件
+     * @param ex 异常
+     * @param failures 失败汇总
+     */
+    private static void markPartitionFailed(List<AuditOutboxEvent> partition,
+                                            Exception ex,
+                                            Map<Long, Exception> failures) {
+        for (AuditOutboxEvent event : partition) {
+            failures.put(event.id(), ex);
+        }
+    }
+
+    /**
+     * 获取（必要时创建）分区发布线程池。
+     *
+     * @return 线程池
+     */
+    private ExecutorService workerPool() {
+        ExecutorService pool = workerPool;
+        if (pool == null) {
+            synchronized (this) {
+                pool = workerPool;
+                if (pool == null) {
+                    AtomicInteger sequence = new AtomicInteger();
+                    pool = Executors.newFixedThreadPool(properties.getWorkerThreads(), runnable -> {
+                        Thread thread = new Thread(runnable, "audit-outbox-worker-" + sequence.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    workerPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * 查询并锁定一批待处理事件（MySQL）。
+     *
+     * @param jdbcTemplate jdbcTemplate
+     * @return 待处理事件
+     */
+    private List<AuditOutboxEvent> selectPending(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.query(
+            MYSQL_SELECT_PENDING_FOR_UPDATE_SQL,
+            EVENT_ROW_MAPPER,
+            properties.getMaxRetries(),
+            properties.getMaxRetries(),
+            properties.getBatchSize()
+        );
+    }
+
+    /**
+     * 收集发布失败的事件，按是否达到最大重试次数分别归入两组。
+     *
      * @param event outbox 事件
      * @param ex 异常
+     * @param retries 待重试参数
+     * @param finals 最终失败参数
      */
-    private void handleFailure(JdbcTemplate jdbcTemplate, AuditOutboxEvent event, Exception ex) {
+    private void collectFailure(AuditOutboxEvent event,
+                                Exception ex,
+                                List<Object[]> retries,
+                                List<Object[]> finals) {
         int nextRetryCount = event.retryCount() + 1;
         String message = abbreviate(ex.getMessage());
 
         if (nextRetryCount >= properties.getMaxRetries()) {
             // 到达最大重试次数后保留 FAILED，等待人工排查。
-            jdbcTemplate.update(FAIL_FINAL_SQL, nextRetryCount, message, event.id());
+            finals.add(new Object[] {nextRetryCount, message, event.id()});
             return;
         }
 
         // 指数退避，避免下游故障时高频重试放大压力。
-        int delaySeconds = backoffSeconds(nextRetryCount);
-        jdbcTemplate.update(FAIL_RETRY_SQL, nextRetryCount, delaySeconds, message, event.id());
+        retries.add(new Object[] {nextRetryCount, backoffSeconds(nextRetryCount), message, event.id()});
+    }
+
+    /**
+     * 按状态批量回写发布结果，每种状态至多一次往返。
+     *
+     * @param jdbcTemplate jdbcTemplate
+     * @param current 数据库方言
+     * @param succeeded 发布成功的事件 id
+     * @param requeued 排在失败事件之后、放回队列的事件 id
+     * @param retries 待重试参数
+     * @param finals 最终失败参数
+     */
+    private void markResults(JdbcTemplate jdbcTemplate,
+                             Dialect current,
+                             List<Long> succeeded,
+                             List<Long> requeued,
+                             List<Object[]> retries,
+                             List<Object[]> finals) {
+        if (!succeeded.isEmpty()) {
+            jdbcTemplate.update(SUCCESS_SQL_PREFIX + inClause(succeeded.size()), succeeded.toArray());
+        }
+        if (!requeued.isEmpty()) {
+            jdbcTemplate.update(REQUEUE_SQL_PREFIX + inClause(requeued.size()), requeued.toArray());
+        }
+        if (!retries.isEmpty()) {
+            jdbcTemplate.batchUpdate(current == Dialect.POSTGRESQL ? PG_FAIL_RETRY_SQL : MYSQL_FAIL_RETRY_SQL, retries);
+        }
+        if (!finals.isEmpty()) {
+            jdbcTemplate.batchUpdate(FAIL_FINAL_SQL, finals);
+        }
+    }
+
+    /**
+     * 探测并缓存数据库方言，探测失败时按 MySQL 处理。
+     *
+     * @param jdbcTemplate jdbcTemplate
+     * @return 数据库方言
+     */
+    private Dialect resolveDialect(JdbcTemplate jdbcTemplate) {
+        Dialect resolved = dialect;
+        if (resolved == null) {
+            String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()
+            );
+            resolved = product != null && product.toLowerCase(Locale.ROOT).contains("postgres")
+                ? Dialect.POSTGRESQL
+                : Dialect.MYSQL;
+            dialect = resolved;
+        }
+        return resolved;
+    }
+
+    /**
+     * 生成 IN 子句占位符。
+     *
+     * @param size 参数个数
+     * @return 形如 (?, ?, ?) 的占位符
+     */
+    private static String inClause(int size) {
+        return "(" + String.join(", ", Collections.nCopies(size, "?")) + ")";
     }
 
     /**
@@ -243,6 +734,14 @@ public class JdbcAuditOutboxServiceImpl implements AuditOutboxService {
         return message.length() > 1024 ? message.substring(0, 1024) : message;
     }
 
+    /**
+     * 支持的数据库方言。
+     */
+    private enum Dialect {
+        MYSQL,
+        POSTGRESQL
+    }
+
     /**
      * ResultSet 映射为 outbox 事件。
      *
@@ -259,7 +758,8 @@ public class JdbcAuditOutboxServiceImpl implements AuditOutboxService {
             rs.getString("payload_json"),
             rs.getString("event_status"),
             rs.getInt("retry_count"),
-            createdAt == null ? Instant.now() : createdAt.toInstant()
+            createdAt == null ? Instant.now() : createdAt.toInstant(),
+            rs.getString("aggregate_key")
         );
     }
 }
@@ -0,0 +1,664 @@
+package io.github.shizuki.common.audit.service.impl;
+
+import io.github.shizuki.common.audit.config.AuditRetentionProperties;
+import io.github.shizuki.common.audit.model.AuditRetentionReport;
+import io.github.shizuki.common.audit.service.AuditRetentionService;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * 基于 JDBC 的审计数据保留服务实现。
+ *
+ * <p>AUD_LOG 按 create_time 月分区（PostgreSQL 为声明式分区，MySQL 为滚动 RANGE 分区）：
+ * 每次执行先预建后续月份分区，再把上界早于保留期的整个分区删除或归档，不产生逐行删除。
+ * 表未分区时（例如独立部署的模块库）退化为按 create_time 逐批删除。
+ * PostgreSQL 的 DEFAULT 分区收纳任务停摆期间或时间戳异常的写入：新建月份分区前先把 DEFAULT 中落在该月的行迁入，
+ * DEFAULT 中超出保留期的行按批删除（归档模式下移入 AUD_LOG_ARCHIVE_DEFAULT）。
+ * AUD_EVENT_OUTBOX 只清理已成功的事件，按批删除并在批间停顿，单次执行有批数上限。
+ * 多实例部署时每次执行先抢数据库会话级锁（MySQL {@code GET_LOCK}，PostgreSQL {@code pg_try_advisory_lock}），
+ * 抢不到说明其他实例正在执行，本次直接跳过，避免分区 DDL 并发冲突；MySQL 归档可从上次中断处继续。
+ */
+@Service
+public class JdbcAuditRetentionServiceImpl implements AuditRetentionService {
+
+    /**
+     * 日志组件。
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(JdbcAuditRetentionServiceImpl.class);
+
+    /**
+     * PostgreSQL：列出 AUD_LOG 的全部分区及其边界表达式。
+     */
+    private static final String PG_LIST_PARTITIONS_SQL = """
+        SELECT c.relname AS partition_name, pg_get_expr(c.relpartbound, c.oid) AS partition_bound
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = to_regclass('aud_log')
+        """;
+
+    /**
+     * MySQL：列出 AUD_LOG 的全部分区及其上界日期，MAXVALUE 分区上界为空。
+     */
+    private static final String MYSQL_LIST_PARTITIONS_SQL = """
+        SELECT partition_name,
+               CASE WHEN partition_description = 'MAXVALUE' THEN NULL
+                    ELSE CAST(FROM_DAYS(partition_description) AS CHAR) END AS partition_bound
+        FROM information_schema.partitions
+        WHERE table_schema = DATABASE()
+          AND table_name = 'AUD_LOG'
+          AND partition_name IS NOT NULL
+        ORDER BY partition_ordinal_position
+        """;
+
+    /**
+     * MySQL：逐批删除过期审计日志（仅表未分区时使用）。
+     */
+    private static final String MYSQL_DELETE_LOG_SQL = "DELETE FROM AUD_LOG WHERE create_time < ? LIMIT ?";
+
+    /**
+     * PostgreSQL：逐批删除过期审计日志（仅表未分区时使用）。
+     */
+    private static final String PG_DELETE_LOG_SQL =
+        "DELETE FROM AUD_LOG WHERE id IN (SELECT id FROM AUD_LOG WHERE create_time < ? LIMIT ?)";
+
+    /**
+     * PostgreSQL：判断 DEFAULT 分区中是否有落在指定月份的行，%s 为分区名。
+     */
+    private static final String PG_DEFAULT_HAS_ROWS_SQL = "SELECT 1 FROM %s WHERE create_time >= ? AND create_time < ? LIMIT 1";
+
+    /**
+     * PostgreSQL：在一条 DO 语句（单个事务）内摘下 DEFAULT 分区、新建月份分区、迁入该月的行并重新挂回 DEFAULT。
+     * 参数依次为 DEFAULT 分区名、新分区名、月初、下月初。
+     */
+    private static final String PG_CREATE_WITH_DEFAULT_ROWS_SQL = """
+        DO $$
+        BEGIN
+          ALTER TABLE AUD_LOG DETACH PARTITION %1$s;
+          CREATE TABLE IF NOT EXISTS %2$s PARTITION OF AUD_LOG FOR VALUES FROM ('%3$s') TO ('%4$s');
+          INSERT INTO AUD_LOG SELECT * FROM %1$s WHERE create_time >= '%3$s' AND create_time < '%4$s';
+          DELETE FROM %1$s WHERE create_time >= '%3$s' AND create_time < '%4$s';
+          ALTER TABLE AUD_LOG ATTACH PARTITION %1$s DEFAULT;
+        END $$""";
+
+    /**
+     * PostgreSQL：逐批删除 DEFAULT 分区中的过期行，%s 为分区名。
+     */
+    private static final String PG_DELETE_DEFAULT_SQL =
+        "DELETE FROM %1$s WHERE ctid IN (SELECT ctid FROM %1$s WHERE create_time < ? LIMIT ?)";
+
+    /**
+     * PostgreSQL：逐批把 DEFAULT 分区中的过期行移入归档表，%s 为分区名。
+     */
+    private static final String PG_ARCHIVE_DEFAULT_SQL = "WITH moved AS (DELETE FROM %1$s WHERE ctid IN "
+        + "(SELECT ctid FROM %1$s WHERE create_time < ? LIMIT ?) RETURNING *) "
+        + "INSERT INTO AUD_LOG_ARCHIVE_DEFAULT SELECT * FROM moved";
+
+    /**
+     * MySQL：逐批删除过期的已成功 outbox 事件，命中 (event_status, create_time) 索引。
+     */
+    private static final String MYSQL_DELETE_OUTBOX_SQL =
+        "DELETE FROM AUD_EVENT_OUTBOX WHERE event_status = 'SUCCESS' AND create_time < ? LIMIT ?";
+
+    /**
+     * PostgreSQL：逐批删除过期的已成功 outbox 事件，命中 (event_status, create_time) 索引。
+     */
+    private static final String PG_DELETE_OUTBOX_SQL = "DELETE FROM AUD_EVENT_OUTBOX WHERE id IN "
+        + "(SELECT id FROM AUD_EVENT_OUTBOX WHERE event_status = 'SUCCESS' AND create_time < ? LIMIT ?)";
+
+    /**
+     * MySQL：判断 AUD_LOG 指定分区是否有行，%s 为分区名。
+     */
+    private static final String MYSQL_PARTITION_HAS_ROWS_SQL = "SELECT 1 FROM AUD_LOG PARTITION (%s) LIMIT 1";
+
+    /**
+     * MySQL：判断归档表是否有行，%s 为表名。
+     */
+    private static final String MYSQL_TABLE_HAS_ROWS_SQL = "SELECT 1 FROM %s LIMIT 1";
+
+    /**
+     * MySQL：判断归档表是否仍带着从 AUD_LOG 复制来的分区定义。
+     */
+    private static final String MYSQL_TABLE_PARTITIONED_SQL = """
+        SELECT 1
+        FROM information_schema.partitions
+        WHERE table_schema = DATABASE()
+          AND table_name = ?
+          AND partition_name IS NOT NULL
+        LIMIT 1
+        """;
+
+    /**
+     * 保留任务的数据库锁名，PostgreSQL 经 hashtext 换算为 advisory lock 键。
+     */
+    private static final String RETENTION_LOCK_NAME = "shizuki:audit-retention";
+
+    /**
+     * PostgreSQL 分区边界表达式中的上界日期。
+     */
+    private static final Pattern PG_UPPER_BOUND_PATTERN = Pattern.compile("TO \\('(\\d{4}-\\d{2}-\\d{2})");
+    /**
+     * 分区名只允许字母数字下划线，避免拼接进 DDL 时被注入。
+     */
+    private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("[A-Za-z0-9_]{1,64}");
+    /**
+     * 分区名中的年月后缀。
+     */
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    /**
+     * 保留配置。
+     */
+    private final AuditRetentionProperties properties;
+    /**
+     * JdbcTemplate 延迟提供者。
+     */
+    private final ObjectProvider<JdbcTemplate> jdbcTemplateProvider;
+    /**
+     * 数据库方言，首次执行时探测。
+     */
+    private volatile Dialect dialect;
+
+    /**
+     * 构造审计数据保留服务。
+     *
+     * @param properties 保留配置
+     * @param jdbcTemplateProvider JdbcTemplate 延迟提供者
+     */
+    public JdbcAuditRetentionServiceImpl(AuditRetentionProperties properties,
+                                         ObjectProvider<JdbcTemplate> jdbcTemplateProvider) {
+        this.properties = properties;
+        this.jdbcTemplateProvider = jdbcTemplateProvider;
+    }
+
+    @Override
+    public AuditRetentionReport enforceRetention() {
+        JdbcTemplate jdbcTemplate = jdbcTemplateProvider.getIfAvailable();
+        if (jdbcTemplate == null) {
+            return new AuditRetentionReport(List.of(), List.of(), 0L, 0L, 0);
+        }
+        Dialect current = resolveDialect(jdbcTemplate);
+        // 锁挂在单独占用的连接上，执行结束显式释放，实例宕机时随会话断开自动释放。
+        AuditRetentionReport report = jdbcTemplate.execute((ConnectionCallback<AuditRetentionReport>) connection -> {
+            if (!tryLock(connection, current)) {
+                LOGGER.info("其他实例正在执行审计数据保留，跳过本次");
+                return null;
+            }
+            try {
+                return enforceRetention(jdbcTemplate, current);
+            } finally {
+                unlock(connection, current);
+            }
+        });
+        return report == null ? new AuditRetentionReport(List.of(), List.of(), 0L, 0L, 0) : report;
+    }
+
+    /**
+     * 持有保留任务锁后执行一次保留。
+     *
+     * @param jdbcTemplate JdbcTemplate
+     * @param current 数据库方言
+     * @return 执行结果
+     */
+    private AuditRetentionReport enforceRetention(JdbcTemplate jdbcTemplate, Dialect current) {
+        LocalDate today = LocalDate.now();
+
+        List<String> createdPartitions = List.of();
+        List<String> expiredPartitions = List.of();
+        DeleteOutcome logOutcome = DeleteOutcome.NONE;
+        List<Partition> partitions = listPartitions(jdbcTemplate, current);
+        if (!partitions.isEmpty()) {
+            createdPartitions = createUpcomingPartitions(jdbcTemplate, current, partitions, today);
+            if (properties.getLogRetentionDays() > 0) {
+                expiredPartitions = expirePartitions(jdbcTemplate, current, partitions,
+                    today.minusDays(properties.getLogRetentionDays()));
+                if (current == Dialect.POSTGRESQL) {
+                    logOutcome = pruneDefaultPartition(jdbcTemplate, partitions,
+                        LocalDateTime.now().minusDays(properties.getLogRetentionDays()));
+                }
+            }
+        } else if (properties.getLogRetentionDays() > 0) {
+            logOutcome = deleteInBatches(jdbcTemplate,
+                current == Dialect.POSTGRESQL ? PG_DELETE_LOG_SQL : MYSQL_DELETE_LOG_SQL,
+                LocalDateTime.now().minusDays(properties.getLogRetentionDays()));
+        }
+
+        DeleteOutcome outboxOutcome = DeleteOutcome.NONE;
+        if (properties.getOutboxRetentionDays() > 0) {
+            outboxOutcome = deleteInBatches(jdbcTemplate,
+                current == Dialect.POSTGRESQL ? PG_DELETE_OUTBOX_SQL : MYSQL_DELETE_OUTBOX_SQL,
+                LocalDateTime.now().minusDays(properties.getOutboxRetentionDays()));
+        }
+
+        AuditRetentionReport report = new AuditRetentionReport(
+            createdPartitions,
+            expiredPartitions,
+            logOutcome.rows(),
+            outboxOutcome.rows(),
+            logOutcome.batches() + outboxOutcome.batches()
+        );
+        if (!createdPartitions.isEmpty() || !expiredPartitions.isEmpty()
+            || report.logRowsDeleted() > 0 || report.outboxRowsDeleted() > 0) {
+            LOGGER.info("审计数据保留执行完成：新建分区={}，{}分区={}，删除日志行={}，删除 outbox 行={}，批数={}",
+                createdPartitions, properties.isArchive() ? "归档" : "删除", expiredPartitions,
+                report.logRowsDeleted(), report.outboxRowsDeleted(), report.deleteBatches());
+        }
+        return report;
+    }
+
+    /**
+     * 查询 AUD_LOG 的分区，表未分区时返回空列表。
+     *
+     * @param jdbcTemplate JdbcTemplate
+     * @param current 数据库方言
+     * @return 分区列表
+     */
+    private List<Partition> listPartitions(JdbcTemplate jdbcTemplate, Dialect current) {
+        List<Map<String, Object>> rows;
+        try {
+            rows = jdbcTemplate.queryForList(current == Dialect.POSTGRESQL ? PG_LIST_PARTITIONS_SQL : MYSQL_LIST_PARTITIONS_SQL);
+        } catch (RuntimeException ex) {
+            LOGGER.warn("查询审计日志分区失败，跳过分区维护：{}", ex.getMessage());
+            return List.of();
+        }
+        List<Partition> partitions = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            String name = String.valueOf(row.get("partition_name"));
+            Object bound = row.get("partition_bound");
+            partitions.add(new Partition(name, parseUpperBound(current, bound == null ? null : bound.toString())));
+        }
+        return partitions;
+    }
+
+    /**
+     * 预建当前月到 {@code partitionMonthsAhead} 个月之后的分区。
+     *
+     * @param jdbcTemplate JdbcTemplate
+     * @param current 数据库方言
+     * @param partitions 现有分区
+     * @param today 当前日期
+     * @return 新建的分区名
+     */
+    private List<String> createUpcomingPartitions(JdbcTemplate jdbcTemplate,
+                                                  Dialect current,
+                                                  List<Partition> partitions,
+                                                  LocalDate today) {
+        LocalDate firstMonth = today.withDayOfMonth(1);
+        LocalDate coverUntil = firstMonth.plusMonths(properties.getPartitionMonthsAhead() + 1L);
+        List<String> created = new ArrayList<>();
+        try {
+            if (current == Dialect.POSTGRESQL) {
+                Set<String> existing = partitions.stream()
+                    .map(partition -> partition.name().toLowerCase(Locale.ROOT))
+                    .collect(Collectors.toSet());
+                String defaultPartition = defaultPartitionName(partitions);
+                for (LocalDate monthStart = firstMonth; monthStart.isBefore(coverUntil); monthStart = monthStart.plusMonths(1)) {
+                    String name = "aud_log_p" + monthStart.format(MONTH_SUFFIX);
+                    if (existing.contains(name)) {
+                        continue;
+                    }
+                    LocalDate monthEnd = monthStart.plusMonths(1);
+                    if (defaultPartition != null && defaultHasRows(jdbcTemplate, defaultPartition, monthStart, monthEnd)) {
+                        // DEFAULT 中已有该月的行时 PostgreSQL 拒绝直接建分区，需要在同一事务内把这些行迁入新分区。
+                        jdbcTemplate.execute(String.format(PG_CREATE_WITH_DEFAULT_ROWS_SQL, defaultPartition, name, monthStart, monthEnd));
+                    } else {
+                        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF AUD_LOG FOR VALUES FROM ('"
+                            + monthStart + "') TO ('" + monthEnd + "')");
+                    }
+                    created.add(name);
+                }
+                return created;
+            }
+
+            // MySQL 只能在已有上界之后追加分区：从最大上界开始补到目标月份，再拆分 MAXVALUE 分区。
+            LocalDate coveredUntil = partitions.stream()
+                .map(Partition::upperBound)
+                .filter(bound -> bound != null)
+                .max(LocalDate::compareTo)
+                .orElse(null);
+            if (coveredUntil == null) {
+                return created;
+            }
+            List<String> definitions = new ArrayList<>();
+            for (LocalDate start = coveredUntil; start.isBefore(coverUntil); start = start.plusMonths(1)) {
+                String name = "p" + start.format(MONTH_SUFFIX);
+                definitions.add("PARTITION " + name + " VALUES LESS THAN (TO_DAYS('" + start.plusMonths(1) + "'))");
+                created.add(name);
+            }
+            if (definitions.isEmpty()) {
+                return created;
+            }
+            Partition catchAll = partitions.stream().filter(partition -> partition.upperBound() == null).findFirst().orElse(null);
+            if (catchAll != null && IDENTIFIER_PATTERN.matcher(catchAll.name()).matches()) {
+                jdbcTemplate.execute("ALTER TABLE AUD_LOG REORGANIZE PARTITION " + catchAll.name() + " INTO ("
+                    + String.join(", ", definitions) + ", PARTITION " + catchAll.name() + " VALUES LESS THAN MAXVALUE)");
+            } else {
+                jdbcTemplate.execute("ALTER TABLE AUD_LOG ADD PARTITION (" + String.join(", ", definitions) + ")");
+            }
+            return created;
+        } catch (RuntimeException ex) {
+            LOGGER.warn("预建审计日志分区失败：{}", ex.getMessage());
+            return created;
+        }
+    }
+
+    /**
+     * 删除或归档上界不晚于截止日期的分区，分区内的行都已超出保留期。
+     *
+     * @param jdbcTemplate JdbcTemplate
+     * @param current 数据库方言
+     * @param partitions 现有分区
+     * @param cutoff 截止日期
+     * @return 处理的分区名
+     */
+    private List<String> expirePartitions(JdbcTemplate jdbcTemplate,
+                                          Dialect current,
+                                          List<Partition> partitions,
+                                          LocalDate cutoff) {
+        List<String> expired = new ArrayList<>();
+        for (Partition partition : partitions) {
+            if (partition.upperBound() == null || partition.upperBound().isAfter(cutoff)) {
+                continue;
+            }
+            String name = partition.name();
+            if (!IDENTIFIER_PATTERN.matcher(name).matches()) {
+                LOGGER.warn("审计日志分区名非法，跳过：{}", name);
+                continue;
+            }
+            try {
+                if (current == Dialect.POSTGRESQL) {
+                    if (properties.isArchive()) {
+                        jdbcTemplate.execute("ALTER TABLE AUD_LOG DETACH PARTITION " + name);
+                        jdbcTemplate.execute("ALTER TABLE " + name + " RENAME TO " + archiveName(name));
+                    } else {
+                        jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+                    }
+                } else {
+                    if (properties.isArchive() && !archiveMysqlPartition(jdbcTemplate, name)) {
+                        continue;
+                    }
+                    jdbcTemplate.execute("ALTER TABLE AUD_LOG DROP PARTITION " + name);
+                }
+                expired.add(name);
+            } catch (RuntimeException ex) {
+                LOGGER.warn("处理过期审计日志分区失败，partition={}：{}", name, ex.getMessage());
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * 把 MySQL 过期分区交换进同名归档表，每一步都可重复执行：归档表已存在时沿用，已去掉分区定义时不再去掉；
+     * 归档表已有数据说明上次已交换、只是没来得及删除分区，此时分区里是交换进来的空表，不再交换。
+     *
+     * @param jdbcTemplate JdbcTemplate
+     * @param name 分区名
+     * @return true 表示分区数据已在归档表中，可以删除分区
+     */
+    private boolean archiveMysqlPartition(JdbcTemplate jdbcTemplate, String name) {
+        String archive = archiveName(name);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + archive + " LIKE AUD_LOG");
+        if (!jdbcTemplate.queryForList(MYSQL_TABLE_PARTITIONED_SQL, archive).isEmpty()) {
+            jdbcTemplate.execute("ALTER TABLE " + archive + " REMOVE PARTITIONING");
+        }
+        if (jdbcTemplate.queryForList(String.format(MYSQL_TABLE_HAS_ROWS_SQL, archive)).isEmpty()) {
+            jdbcTemplate.execute("ALTER TABLE AUD_LOG EXCHANGE PARTITION " + name + " WITH TABLE " + archive);
+            return true;
+        }
+        if (!jdbcTemplate.queryForList(String.format(MYSQL_PARTITION_HAS_ROWS_SQL, name)).isEmpty()) {
+            // 归档表与分区都有数据，交换会把归档数据换回线上表，留给人工处理。
+            LOGGER.warn("审计日志归档表已有数据且分区非空，跳过归档：partition={}，archive={}", name, archive);
+            return false;
+        }
+        LOGGER.info("审计日志分区此前已交换到归档表，继续删除分区：partition={}，archive={}", name, archive);
+        return true;
+    }
+
+    /**
+     * 逐批删除（或归档）PostgreSQL DEFAULT 分区中超出保留期的行，这些行不属于任何月份分区，不会随分区整体删除。
+     *
+     * @param jdbcTemplate JdbcTemplate
+     * @param partitions 现有分区
+     * @param cutoff 截止时间
+     * @return 删除结果
+     */
+    private DeleteOutcome pruneDefaultPartition(JdbcTemplate jdbcTemplate, List<Partition> partitions, LocalDateTime cutoff) {
+        String defaultPartition = defaultPartitionName(partitions);
+        if (defaultPartition == null) {
+            return DeleteOutcome.NONE;
+        }
+        if (!properties.isArchive()) {
+            return deleteInBatches(jdbcTemplate, String.format(PG_DELETE_DEFAULT_SQL, defaultPartition), cutoff);
+        }
+        try {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS AUD_LOG_ARCHIVE_DEFAULT (LIKE AUD_LOG)");
+        } catch (RuntimeException ex) {
+            LOGGER.warn("创建 DEFAULT 分区归档表失败：{}", ex.getMessage());
+            return DeleteOutcome.NONE;
+        }
+        return deleteInBatches(jdbcTemplate, String.format(PG_ARCHIVE_DEFAULT_SQL, defaultPartition), cutoff);
+    }
+
+    /**
+     * 判断 DEFAULT 分区中是否有落在 [monthStart, monthEnd) 的行。
+     *
+     * @param jdbcTemplate JdbcTemplate
+     * @param defaultPartition DEFAULT 分区名
+     * @param monthStart 月初
+     * @param monthEnd 下月初
+     * @return 是否有行
+     */
+    private static boolean defaultHasRows(JdbcTemplate jdbcTemplate, String defaultPartition, LocalDate monthStart, LocalDate monthEnd) {
+        return !jdbcTemplate.queryForList(
+            String.format(PG_DEFAULT_HAS_ROWS_SQL, defaultPartition),
+            Timestamp.valueOf(monthStart.atStartOfDay()),
+            Timestamp.valueOf(monthEnd.atStartOfDay())
+        ).isEmpty();
+    }
+
+    /**
+     * PostgreSQL DEFAULT 分区名（没有上界的分区），不存在或名称非法时返回 null。
+     *
+     * @param partitions 现有分区
+     * @return DEFAULT 分区名
+     */
+    private static String defaultPartitionName(List<Partition> partitions) {
+        return partitions.stream()
+            .filter(partition -> partition.upperBound() == null)
+            .map(Partition::name)
+            .filter(name -> IDENTIFIER_PATTERN.matcher(name).matches())
+            .findFirst()
+            .orElse(null);
+    }
+
+    /**
+     * 逐批执行带 {@code create_time < ? LIMIT ?} 参数的删除语句，直到一批未满或达到单次批数上限。
+     *
+     * @param jdbcTemplate JdbcTemplate
+     * @param sql 删除语句
+     * @param cutoff 截止时间
+     * @return 删除结果
+     */
+    private DeleteOutcome deleteInBatches(JdbcTemplate jdbcTemplate, String sql, LocalDateTime cutoff) {
+        int batchSize = properties.getBatchSize();
+        long rows = 0L;
+        int batches = 0;
+        try {
+            while (batches < properties.getMaxBatchesPerRun()) {
+                int deleted = jdbcTemplate.update(sql, Timestamp.valueOf(cutoff), batchSize);
+                batches++;
+                rows += deleted;
+                if (deleted < batchSize || !pauseBetweenBatches()) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            LOGGER.warn("审计数据批量删除失败，已删除 {} 行：{}", rows, ex.getMessage());
+        }
+        return new DeleteOutcome(rows, batches);
+    }
+
+    /**
+     * 批间停顿。
+     *
+     * @return false 表示线程被中断，应停止本次删除
+     */
+    private boolean pauseBetweenBatches() {
+        if (properties.getBatchPauseMs() <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(properties.getBatchPauseMs());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 尝试获取保留任务锁，不等待。
+     *
+     * @param connection 持有锁的连接
+     * @param current 数据库方言
+     * @return true 表示获取成功
+     * @throws SQLException SQL 异常
+     */
+    private static boolean tryLock(Connection connection, Dialect current) throws SQLException {
+        return queryLockFunction(connection, current == Dialect.POSTGRESQL
+            ? "SELECT pg_try_advisory_lock(hashtext(?))"
+            : "SELECT GET_LOCK(?, 0)");
+    }
+
+    /**
+     * 释放保留任务锁，失败时只记录日志，会话结束后数据库同样会释放。
+     *
+     * @param connection 持有锁的连接
+     * @param current 数据库方言
+     */
+    private static void unlock(Connection connection, Dialect current) {
+        try {
+            queryLockFunction(connection, current == Dialect.POSTGRESQL
+                ? "SELECT pg_advisory_unlock(hashtext(?))"
+                : "SELECT RELEASE_LOCK(?)");
+        } catch (SQLException ex) {
+            LOGGER.warn("释放审计数据保留锁失败：{}", ex.getMessage());
+        }
+    }
+
+    /**
+     * 以锁名调用加锁/解锁函数。
+     *
+     * @param connection 连接
+     * @param sql 只有一个锁名参数的查询
+     * @return 函数返回 true（PostgreSQL）或 1（MySQL）
+     * @throws SQLException SQL 异常
+     */
+    private static boolean queryLockFunction(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, RETENTION_LOCK_NAME);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                // MySQL GET_LOCK 出错时返回 NULL，getBoolean 读作 false。
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    /**
+     * 解析分区上界。
+     *
+     * @param current 数据库方言
+     * @param bound 分区边界（PostgreSQL 为边界表达式，MySQL 为上界日期）
+     * @return 上界日期，DEFAULT/MAXVALUE 分区为 null
+     */
+    private static LocalDate parseUpperBound(Dialect current, String bound) {
+        if (bound == null) {
+            return null;
+        }
+        if (current == Dialect.POSTGRESQL) {
+            Matcher matcher = PG_UPPER_BOUND_PATTERN.matcher(bound);
+            return matcher.find() ? LocalDate.parse(matcher.group(1)) : null;
+        }
+        return LocalDate.parse(bound.substring(0, Math.min(bound.length(), 10)));
+    }
+
+    /**
+     * 归档表名：AUD_LOG_ARCHIVE_ 加分区名中的月份部分。
+     *
+     * @param partitionName 分区名
+     * @return 归档表名
+     */
+    private static String archiveName(String partitionName) {
+        String suffix = partitionName.toLowerCase(Locale.ROOT).startsWith("aud_log_")
+            ? partitionName.substring("aud_log_".length())
+            : partitionName;
+        return "AUD_LOG_ARCHIVE_" + suffix;
+    }
+
+    /**
+     * 解析数据库方言并缓存。
+     *
+     * @param jdbcTemplate JdbcTemplate
+     * @return 数据库方言
+     */
+    private Dialect resolveDialect(JdbcTemplate jdbcTemplate) {
+        Dialect resolved = dialect;
+        if (resolved == null) {
+            String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()
+            );
+            resolved = product != null && product.toLowerCase(Locale.ROOT).contains("postgres")
+                ? Dialect.POSTGRESQL
+                : Dialect.MYSQL;
+            dialect = resolved;
+        }
+        return resolved;
+    }
+
+    /**
+     * 审计日志分区。
+     *
+     * @param name 分区名
+     * @param upperBound 上界日期（不含），DEFAULT/MAXVALUE 分区为 null
+     */
+    private record Partition(String name, LocalDate upperBound) {
+    }
+
+    /**
+     * 批量删除结果。
+     *
+     * @param rows 删除行数
+     * @param batches 执行批数
+     */
+    private record DeleteOutcome(long rows, int batches) {
+
+        private static final DeleteOutcome NONE = new DeleteOutcome(0L, 0);
+    }
+
+    /**
+     * 支持的数据库方言。
+     */
+    private enum Dialect {
+        MYSQL,
+        POSTGRESQL
+    }
+}
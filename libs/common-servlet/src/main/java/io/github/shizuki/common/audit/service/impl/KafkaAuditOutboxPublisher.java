@@ -3,7 +3,14 @@ package io.github.shizuki.common.audit.service.impl;
 import io.github.shizuki.common.audit.config.AuditPublisherProperties;
 import io.github.shizuki.common.audit.model.AuditOutboxEvent;
 import io.github.shizuki.common.audit.service.AuditOutboxPublisher;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
@@ -11,6 +18,10 @@ import org.springframework.stereotype.Component;
 
 /**
  * Kafka 审计发布器实现。
+ *
+ * <p>批量发布时先把整批记录交给 producer 异步发送，再在同一个超时窗口内统一等待，
+ * 一批的耗时约为一次 broker 往返而不是逐条往返之和。记录以聚合键为消息键，同一聚合落在同一 Kafka 分区，
+ * 由 producer 保证分区内的发送顺序；某条记录发送失败后，同一聚合的后续记录由 outbox 调度放回队列重发。
  */
 @Component
 public class KafkaAuditOutboxPublisher implements AuditOutboxPublisher {
@@ -75,12 +86,71 @@ public class KafkaAuditOutboxPublisher implements AuditOutboxPublisher {
     }
 
     /**
-     * 生成 Kafka 消息键。
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Long, Exception> publishAll(List<AuditOutboxEvent> events) {
+        KafkaTemplate<String, String> kafkaTemplate = kafkaTemplateProvider.getIfAvailable();
+        Map<Long, Exception> failures = new LinkedHashMap<>();
+        if (kafkaTemplate == null) {
+            IllegalStateException missing = new IllegalStateException("KafkaTemplate not configured");
+            events.forEach(event -> failures.put(event.id(), missing));
+            return failures;
+        }
+
+        // 先全部发出，让 producer 按分区攒批、并行飞行；同步发送失败的聚合不再发出后续记录。
+        List<CompletableFuture<SendResult<String, String>>> futures = new ArrayList<>(events.size());
+        Map<String, Exception> failedAggregates = new HashMap<>();
+        for (AuditOutboxEvent event : events) {
+            Exception earlier = event.aggregateKey() == null ? null : failedAggregates.get(event.aggregateKey());
+            if (earlier != null) {
+                futures.add(CompletableFuture.failedFuture(earlier));
+                continue;
+            }
+            try {
+                futures.add(kafkaTemplate.send(properties.getKafkaTopic(), buildKey(event), event.payloadJson()));
+            } catch (Exception ex) {
+                futures.add(CompletableFuture.failedFuture(ex));
+                if (event.aggregateKey() != null) {
+                    failedAggregates.put(event.aggregateKey(), ex);
+                }
+            }
+        }
+
+        // 整批共用一个截止时间，超时未确认的事件单独记为失败。
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getKafkaSendTimeoutMs());
+        for (int i = 0; i < events.size(); i++) {
+            AuditOutboxEvent event = events.get(i);
+            try {
+                long remaining = Math.max(0L, deadline - System.nanoTime());
+                SendResult<String, String> result = futures.get(i).get(remaining, TimeUnit.NANOSECONDS);
+                if (result == null || result.getRecordMetadata() == null) {
+                    failures.put(event.id(), new IllegalStateException("Kafka send result is empty"));
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                IllegalStateException interrupted = new IllegalStateException("Kafka publish interrupted", ex);
+                for (int j = i; j < events.size(); j++) {
+                    failures.put(events.get(j).id(), interrupted);
+                }
+                return failures;
+            } catch (TimeoutException ex) {
+                futures.get(i).cancel(false);
+                failures.put(event.id(), new IllegalStateException("Kafka publish timed out", ex));
+            } catch (Exception ex) {
+                failures.put(event.id(), new IllegalStateException("Kafka publish failed", ex));
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * 生成 Kafka 消息键：聚合键，使同一聚合的记录进入同一分区；没有聚合键的事件不约束顺序，按事件分散。
      *
      * @param event outbox 事件
      * @return 消息键
      */
     private String buildKey(AuditOutboxEvent event) {
-        return event.eventType() + ":" + event.id();
+        return event.aggregateKey() != null ? event.aggregateKey() : event.eventType() + ":" + event.id();
     }
 }
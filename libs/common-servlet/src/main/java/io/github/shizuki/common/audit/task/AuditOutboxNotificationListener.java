@@ -0,0 +1,197 @@
+package io.github.shizuki.common.audit.task;
+
+import io.github.shizuki.common.audit.config.AuditOutboxProperties;
+import io.github.shizuki.common.audit.service.AuditOutboxService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * 审计 outbox 插入通知监听器。
+ *
+ * <p>在 PostgreSQL 上占用一条连接执行 {@code LISTEN}，outbox 表的插入触发器发出 {@code NOTIFY} 后
+ * 立即分发积压事件，不必等待下一次定时扫描。非 PostgreSQL 或驱动不可用时直接退出，
+ * 由 {@link AuditOutboxRetryTask} 的定时轮询兜底。
+ */
+@Component
+public class AuditOutboxNotificationListener {
+
+    /**
+     * 日志组件。
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditOutboxNotificationListener.class);
+    /**
+     * 通道名只允许小写标识符，避免拼接进 LISTEN 语句时被注入。
+     */
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    /**
+     * 连接失败后的重连间隔毫秒数。
+     */
+    private static final long RECONNECT_DELAY_MILLIS = 5000L;
+
+    /**
+     * outbox 配置。
+     */
+    private final AuditOutboxProperties properties;
+    /**
+     * outbox 调度服务。
+     */
+    private final AuditOutboxService auditOutboxService;
+    /**
+     * 数据源延迟提供者。
+     */
+    private final ObjectProvider<DataSource> dataSourceProvider;
+    /**
+     * 监听线程是否继续运行。
+     */
+    private volatile boolean running;
+    /**
+     * 监听线程。
+     */
+    private Thread listener;
+
+    /**
+     * 构造 outbox 插入通知监听器。
+     *
+     * @param properties outbox 配置
+     * @param auditOutboxService outbox 调度服务
+     * @param dataSourceProvider 数据源延迟提供者
+     */
+    public AuditOutboxNotificationListener(AuditOutboxProperties properties,
+                                           AuditOutboxService auditOutboxService,
+                                           ObjectProvider<DataSource> dataSourceProvider) {
+        this.properties = properties;
+        this.auditOutboxService = auditOutboxService;
+        this.dataSourceProvider = dataSourceProvider;
+    }
+
+    /**
+     * 按配置启动监听线程。
+     */
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled() || !properties.isNotifyEnabled() || running) {
+            return;
+        }
+        if (!CHANNEL_PATTERN.matcher(String.valueOf(properties.getNotifyChannel())).matches()) {
+            LOGGER.warn("审计 outbox 通知通道名非法，仅使用定时轮询：{}", properties.getNotifyChannel());
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listenLoop, "audit-outbox-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    /**
+     * 停止监听线程。
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread current = listener;
+        if (current == null) {
+            return;
+        }
+        current.interrupt();
+        try {
+            current.join(properties.getListenTimeoutMs() + 1000L);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 监听主循环：连接断开后按固定间隔重连。
+     */
+    private void listenLoop() {
+        while (running) {
+            DataSource dataSource = dataSourceProvider.getIfAvailable();
+            if (dataSource == null) {
+                running = false;
+                return;
+            }
+            try (Connection connection = dataSource.getConnection()) {
+                if (!supportsNotifications(connection)) {
+                    LOGGER.info("当前数据源不支持 LISTEN/NOTIFY，审计 outbox 仅使用定时轮询");
+                    running = false;
+                    return;
+                }
+                listen(connection);
+            } catch (SQLException ex) {
+                if (!running) {
+                    return;
+                }
+                LOGGER.warn("审计 outbox 通知监听中断，{}ms 后重连：{}", RECONNECT_DELAY_MILLIS, ex.getMessage());
+                sleepBeforeReconnect();
+            }
+        }
+    }
+
+    /**
+     * 在一条连接上持续等待通知。
+     *
+     * @param connection 数据库连接
+     * @throws SQLException SQL 异常
+     */
+    private void listen(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + properties.getNotifyChannel());
+        }
+        // (重)连接前的通知已经丢失，先补一次分发。
+        drain();
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(properties.getListenTimeoutMs());
+            if (notifications != null && notifications.length > 0) {
+                drain();
+            }
+        }
+    }
+
+    /**
+     * 连续分发直至一批未满，说明积压已清空。
+     */
+    private void drain() {
+        int batchSize = properties.getBatchSize();
+        while (running && auditOutboxService.dispatchPendingEvents() >= batchSize) {
+            // 继续下一批。
+        }
+    }
+
+    /**
+     * 判断连接是否为 PostgreSQL 驱动连接。
+     *
+     * @param connection 数据库连接
+     * @return true 表示可监听通知
+     */
+    private static boolean supportsNotifications(Connection connection) {
+        try {
+            return connection.isWrapperFor(PGConnection.class);
+        } catch (SQLException | NoClassDefFoundError ex) {
+            return false;
+        }
+    }
+
+    /**
+     * 重连前等待。
+     */
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MILLIS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.shizuki.common.audit.task;
+
+import io.github.shizuki.common.audit.config.AuditRetentionProperties;
+import io.github.shizuki.common.audit.service.AuditRetentionService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 审计数据保留任务。
+ *
+ * <p>每个实例都会触发，由保留服务内的数据库会话级锁保证同一时刻只有一个实例真正执行。
+ */
+@Component
+public class AuditRetentionTask {
+
+    /**
+     * 保留配置。
+     */
+    private final AuditRetentionProperties properties;
+    /**
+     * 保留服务。
+     */
+    private final AuditRetentionService auditRetentionService;
+
+    /**
+     * 构造审计数据保留任务。
+     *
+     * @param properties 保留配置
+     * @param auditRetentionService 保留服务
+     */
+    public AuditRetentionTask(AuditRetentionProperties properties,
+                              AuditRetentionService auditRetentionService) {
+        this.properties = properties;
+        this.auditRetentionService = auditRetentionService;
+    }
+
+    /**
+     * 定时预建分区并清理保留期外的审计数据。
+     */
+    @Scheduled(
+        initialDelayString = "${shizuki.audit.retention.initial-delay-ms:60000}",
+        fixedDelayString = "${shizuki.audit.retention.interval-ms:3600000}"
+    )
+    public void enforceRetention() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        auditRetentionService.enforceRetention();
+    }
+}
@@ -23,4 +23,14 @@ public @interface RateLimit {
      * 窗口大小（秒）。
      */
     int windowSeconds() default 60;
+
+    /**
+     * 限流算法，默认固定窗口，与原有 INCR + EXPIRE 行为一致；需要消除窗口交界突发的接口显式选择其它算法。
+     */
+    RateLimitAlgorithm algorithm() default RateLimitAlgorithm.FIXED_WINDOW;
+
+    /**
+     * 令牌桶允许的最大突发次数；仅 {@link RateLimitAlgorithm#TOKEN_BUCKET} 生效，小于等于 0 时取 limit。
+     */
+    int burst() default 0;
 }
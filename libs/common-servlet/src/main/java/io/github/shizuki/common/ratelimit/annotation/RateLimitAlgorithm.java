@@ -0,0 +1,37 @@
+package io.github.shizuki.common.ratelimit.annotation;
+
+/**
+ * 限流算法。
+ */
+public enum RateLimitAlgorithm {
+
+    /**
+     * 固定窗口计数：开销最小，但窗口交界处最多放行 2 倍流量。
+     * 沿用原有的无后缀键，升级前后的计数互通。
+     */
+    FIXED_WINDOW(""),
+
+    /**
+     * 分桶滑动窗口：窗口切成固定个数的桶计数，任意长度为窗口的区间内不超过 limit 次；
+     * 每个键的内存只与桶数有关，与 limit 无关。
+     */
+    SLIDING_WINDOW("sw"),
+
+    /**
+     * GCRA 令牌桶：按 limit / window 的速率匀速补充，允许最多 burst 次突发。
+     */
+    TOKEN_BUCKET("tb");
+
+    private final String keySuffix;
+
+    RateLimitAlgorithm(String keySuffix) {
+        this.keySuffix = keySuffix;
+    }
+
+    /**
+     * 算法对应的 Redis 键；不同算法的数据结构不同，除固定窗口外都加后缀，切换算法不会撞上 WRONGTYPE。
+     */
+    public String redisKey(String baseKey) {
+        return keySuffix.isEmpty() ? baseKey : baseKey + ":" + keySuffix;
+    }
+}
@@ -4,9 +4,11 @@ import io.github.shizuki.common.core.error.BusinessException;
 import io.github.shizuki.common.core.error.ErrorCode;
 import io.github.shizuki.common.ratelimit.annotation.RateLimit;
 import io.github.shizuki.common.ratelimit.support.LocalRateLimiter;
+import io.github.shizuki.common.ratelimit.support.RateLimitDecision;
+import io.github.shizuki.common.ratelimit.support.RedisRateLimiter;
 import io.github.shizuki.common.security.context.LoginUserContext;
 import io.github.shizuki.common.security.model.LoginUser;
-import java.time.Duration;
+import jakarta.servlet.http.HttpServletResponse;
 import java.util.Map;
 import java.util.Comparator;
 import java.util.stream.Collectors;
@@ -14,19 +16,20 @@ import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 @Aspect
 @Component
 public class RateLimitAspect {
 
-    private final StringRedisTemplate redisTemplate;
+    private final RedisRateLimiter redisRateLimiter;
     private final LocalRateLimiter localRateLimiter = new LocalRateLimiter();
 
-    public RateLimitAspect(StringRedisTemplate redisTemplate) {
-        this.redisTemplate = redisTemplate;
+    public RateLimitAspect(RedisRateLimiter redisRateLimiter) {
+        this.redisRateLimiter = redisRateLimiter;
     }
 
     /**
@@ -35,11 +38,18 @@ public class RateLimitAspect {
     @Around("@annotation(rateLimit)")
     public Object around(ProceedingJoinPoint joinPoint, RateLimit rateLimit) throws Throwable {
         String key = buildKey(joinPoint, rateLimit);
-        if (!tryAcquire(key, rateLimit.limit(), rateLimit.windowSeconds())) {
+        RateLimitDecision decision = tryAcquire(key, rateLimit);
+        writeRateLimitHeaders(rateLimit, decision);
+        if (!decision.allowed()) {
             throw new BusinessException(
                 ErrorCode.TOO_MANY_REQUESTS,
                 "Rate limit exceeded",
-                Map.of("remaining", 0, "limit_key", key, "window_seconds", rateLimit.windowSeconds())
+                Map.of(
+                    "remaining", 0,
+                    "limit_key", key,
+                    "window_seconds", rateLimit.windowSeconds(),
+                    "retry_after_seconds", decision.retryAfterSeconds()
+                )
             );
         }
         return joinPoint.proceed();
@@ -65,17 +75,30 @@ public class RateLimitAspect {
         return "rate-limit:" + baseKey + ":u:" + userPart + ":g:" + groupPart;
     }
 
-    private boolean tryAcquire(String key, int limit, int windowSeconds) {
+    private RateLimitDecision tryAcquire(String key, RateLimit rateLimit) {
         try {
-            // Redis 可用时优先使用 Redis，支持多实例共享限流状态。
-            Long count = redisTemplate.opsForValue().increment(key);
-            if (count != null && count == 1L) {
-                redisTemplate.expire(key, Duration.ofSeconds(windowSeconds));
-            }
-            return count != null && count <= limit;
+            // Redis 可用时优先使用 Redis：判定与计数在同一段 Lua 脚本中原子完成，多实例共享限流状态。
+            return redisRateLimiter.tryAcquire(
+                key, rateLimit.algorithm(), rateLimit.limit(), rateLimit.windowSeconds(), rateLimit.burst()
+            );
         } catch (Exception ignored) {
             // Redis 异常时降级到进程内限流，保证核心接口仍可运行。
-            return localRateLimiter.tryAcquire(key, limit, windowSeconds);
+            return localRateLimiter.tryAcquire(key, rateLimit.limit(), rateLimit.windowSeconds());
+        }
+    }
+
+    private void writeRateLimitHeaders(RateLimit rateLimit, RateLimitDecision decision) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        HttpServletResponse response = attributes.getResponse();
+        if (response == null || response.isCommitted()) {
+            return;
+        }
+        response.setHeader("X-RateLimit-Limit", String.valueOf(rateLimit.limit()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
+        if (!decision.allowed()) {
+            response.setHeader("Retry-After", String.valueOf(decision.retryAfterSeconds()));
         }
     }
 }
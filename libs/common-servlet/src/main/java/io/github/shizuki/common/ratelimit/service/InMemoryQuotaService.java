@@ -2,38 +2,49 @@ package io.github.shizuki.common.ratelimit.service;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.springframework.stereotype.Component;
 
 @Component
 public class InMemoryQuotaService implements QuotaService {
 
     /**
-     * 本地进程内额度存储，仅用于单机或兜底场景。
+     * 本地进程内额度存储，仅用于单机或兜底场景；多实例部署应启用 {@link RedisQuotaService}。
      */
-    private final Map<String, Long> quota = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> quota = new ConcurrentHashMap<>();
 
     @Override
     public boolean consume(Long userId, String quotaCode, long amount) {
-        String key = key(userId, quotaCode);
-        // 这里先读后写，适合低并发兜底；严格分布式场景应走 DB/Redis 原子扣减。
-        long current = quota.getOrDefault(key, 0L);
-        if (current < amount) {
+        if (amount <= 0) {
+            return true;
+        }
+        AtomicLong balance = quota.get(key(userId, quotaCode));
+        if (balance == null) {
             return false;
         }
-        quota.put(key, current - amount);
-        return true;
+        // 检查与扣减在同一次 CAS 中完成，并发请求不会超额扣减。
+        while (true) {
+            long current = balance.get();
+            if (current < amount) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - amount)) {
+                return true;
+            }
+        }
     }
 
     @Override
     public long remaining(Long userId, String quotaCode) {
-        return quota.getOrDefault(key(userId, quotaCode), 0L);
+        AtomicLong balance = quota.get(key(userId, quotaCode));
+        return balance == null ? 0L : balance.get();
     }
 
     /**
      * 直接授予额度，常用于初始化或测试。
      */
     public void grant(Long userId, String quotaCode, long amount) {
-        quota.put(key(userId, quotaCode), amount);
+        quota.computeIfAbsent(key(userId, quotaCode), ignored -> new AtomicLong()).set(amount);
     }
 
     private String key(Long userId, String quotaCode) {
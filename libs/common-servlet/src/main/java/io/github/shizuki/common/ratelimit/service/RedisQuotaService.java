@@ -0,0 +1,73 @@
+package io.github.shizuki.common.ratelimit.service;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis 额度存储，多实例共享余额。
+ *
+ * <p>扣减通过 Lua 脚本“检查余额 + DECRBY”一次完成，余额不足时不做任何写入。
+ * 通过 {@code shizuki.quota.store=redis} 启用，启用后优先于 {@link InMemoryQuotaService} 注入。
+ */
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "shizuki.quota", name = "store", havingValue = "redis")
+public class RedisQuotaService implements QuotaService {
+
+    /**
+     * ARGV: amount。返回扣减后的余额，余额不足时返回 -1。
+     */
+    static final RedisScript<Long> CONSUME_SCRIPT = new DefaultRedisScript<>("""
+        local amount = tonumber(ARGV[1])
+        local balance = tonumber(redis.call('GET', KEYS[1]) or '0')
+        if balance < amount then
+          return -1
+        end
+        return redis.call('DECRBY', KEYS[1], amount)
+        """, Long.class);
+
+    private static final String KEY_PREFIX = "shizuki:quota:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisQuotaService(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public boolean consume(Long userId, String quotaCode, long amount) {
+        if (amount <= 0) {
+            return true;
+        }
+        Long balance = redisTemplate.execute(CONSUME_SCRIPT, List.of(key(userId, quotaCode)), String.valueOf(amount));
+        return balance != null && balance >= 0;
+    }
+
+    @Override
+    public long remaining(Long userId, String quotaCode) {
+        String balance = redisTemplate.opsForValue().get(key(userId, quotaCode));
+        return balance == null ? 0L : Long.parseLong(balance);
+    }
+
+    /**
+     * 直接设置额度；{@code ttl} 为空时额度长期有效，否则到期后余额归零。
+     */
+    public void grant(Long userId, String quotaCode, long amount, Duration ttl) {
+        String key = key(userId, quotaCode);
+        if (ttl == null) {
+            redisTemplate.opsForValue().set(key, String.valueOf(amount));
+        } else {
+            redisTemplate.opsForValue().set(key, String.valueOf(amount), ttl);
+        }
+    }
+
+    private String key(Long userId, String quotaCode) {
+        return KEY_PREFIX + userId + ":" + quotaCode;
+    }
+}
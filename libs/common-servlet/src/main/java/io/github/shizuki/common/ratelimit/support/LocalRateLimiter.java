@@ -1,42 +1,148 @@
 package io.github.shizuki.common.ratelimit.support;
 
+import io.github.shizuki.common.core.time.ClockProvider;
+import java.time.Instant;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * 进程内令牌桶限流器，作为 Redis 不可用时的兜底。
+ *
+ * <p>每个 key 的状态是一个打包的 long（高 40 位为相对毫秒时间戳，低 24 位为以 1/64 令牌计的余额），
+ * 通过 CAS 更新，无需加锁。桶数量有上限：已回满的桶与新建桶等价，可无损淘汰；
+ * 超出上限且全部活跃时才淘汰活跃桶（此时限流会短暂放宽，以换取内存有界）。
+ */
 public class LocalRateLimiter {
 
-    /**
-     * 按 key 维护本地固定窗口计数器。
-     */
-    private final Map<String, WindowCounter> counter = new ConcurrentHashMap<>();
+    static final int DEFAULT_MAX_ENTRIES = 100_000;
+
+    private static final int UNITS_PER_TOKEN = 64;
+    private static final int UNIT_BITS = 24;
+    private static final long UNIT_MASK = (1L << UNIT_BITS) - 1;
+    private static final int MAX_LIMIT = (int) (UNIT_MASK / UNITS_PER_TOKEN);
+    private static final int SWEEP_EVERY_INSERTS = 1024;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger insertions = new AtomicInteger();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final int maxEntries;
+    private final ClockProvider clockProvider;
+    private final long baseMillis;
+
+    public LocalRateLimiter() {
+        this(DEFAULT_MAX_ENTRIES, Instant::now);
+    }
+
+    public LocalRateLimiter(int maxEntries, ClockProvider clockProvider) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.clockProvider = clockProvider;
+        this.baseMillis = clockProvider.now().toEpochMilli();
+    }
 
     /**
-     * 固定窗口限流算法：
-     * 1. 每个 key 对应一个窗口开始时间 + 计数。
-     * 2. 窗口过期后重置计数。
-     * 3. 当前窗口内计数超过 limit 即拒绝。
+     * 令牌桶：容量为 limit，每个窗口匀速补充 limit 个令牌。
      */
-    public boolean tryAcquire(String key, int limit, int windowSeconds) {
-        long nowSeconds = System.currentTimeMillis() / 1000;
-        WindowCounter windowCounter = counter.computeIfAbsent(key, ignored -> new WindowCounter(nowSeconds, 0));
-        // 针对同一 key 的窗口计数更新需要串行，避免并发下超发。
-        synchronized (windowCounter) {
-            if (nowSeconds - windowCounter.windowStart >= windowSeconds) {
-                windowCounter.windowStart = nowSeconds;
-                windowCounter.count = 0;
+    public RateLimitDecision tryAcquire(String key, int limit, int windowSeconds) {
+        int capacity = Math.min(Math.max(1, limit), MAX_LIMIT);
+        long capacityUnits = (long) capacity * UNITS_PER_TOKEN;
+        long windowMillis = Math.max(1, windowSeconds) * 1000L;
+        long now = relativeNow();
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = insert(key, windowMillis, now, capacityUnits);
+        }
+        if (bucket.windowMillis != windowMillis) {
+            bucket.windowMillis = windowMillis;
+        }
+        AtomicLong state = bucket.state;
+        while (true) {
+            long current = state.get();
+            long last = current >>> UNIT_BITS;
+            long units = current & UNIT_MASK;
+            long elapsed = Math.max(0L, now - last);
+            long gained = elapsed * capacityUnits / windowMillis;
+            if (gained > 0 || units > capacityUnits) {
+                long refilled = Math.min(capacityUnits, units + gained);
+                // 只推进赚取这些余额所需的时间（向上取整），零头留给下次，避免高频调用时补充被截断。
+                last = refilled == capacityUnits ? now : last + ceilDiv(gained * windowMillis, capacityUnits);
+                units = refilled;
+            }
+            if (units < UNITS_PER_TOKEN) {
+                long retryAfterMillis = ceilDiv((UNITS_PER_TOKEN - units) * windowMillis, capacityUnits);
+                return new RateLimitDecision(false, 0L, Math.max(1L, retryAfterMillis));
+            }
+            long remainingUnits = units - UNITS_PER_TOKEN;
+            if (state.compareAndSet(current, pack(last, remainingUnits))) {
+                return new RateLimitDecision(true, remainingUnits / UNITS_PER_TOKEN, 0L);
             }
-            windowCounter.count++;
-            return windowCounter.count <= limit;
         }
     }
 
-    private static class WindowCounter {
-        private long windowStart;
-        private int count;
+    int size() {
+        return buckets.size();
+    }
+
+    private Bucket insert(String key, long windowMillis, long now, long capacityUnits) {
+        Bucket created = new Bucket(windowMillis, pack(now, capacityUnits));
+        Bucket existing = buckets.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        if (buckets.size() > maxEntries || insertions.incrementAndGet() % SWEEP_EVERY_INSERTS == 0) {
+            sweep(now);
+        }
+        return created;
+    }
+
+    private void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Iterator<Map.Entry<String, Bucket>> iterator = buckets.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Bucket bucket = iterator.next().getValue();
+                long last = bucket.state.get() >>> UNIT_BITS;
+                if (now - last >= bucket.windowMillis) {
+                    iterator.remove();
+                }
+            }
+            // 仍超限时一次回收到上限的九成，避免此后每次插入都触发全表扫描。
+            int target = maxEntries - maxEntries / 10;
+            Iterator<String> overflow = buckets.keySet().iterator();
+            while (buckets.size() > target && overflow.hasNext()) {
+                overflow.next();
+                overflow.remove();
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private long relativeNow() {
+        return Math.max(0L, clockProvider.now().toEpochMilli() - baseMillis);
+    }
+
+    private static long pack(long relativeMillis, long units) {
+        return (relativeMillis << UNIT_BITS) | (units & UNIT_MASK);
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+
+    private static final class Bucket {
+
+        private final AtomicLong state;
+        private volatile long windowMillis;
 
-        private WindowCounter(long windowStart, int count) {
-            this.windowStart = windowStart;
-            this.count = count;
+        private Bucket(long windowMillis, long initialState) {
+            this.windowMillis = windowMillis;
+            this.state = new AtomicLong(initialState);
         }
     }
 }
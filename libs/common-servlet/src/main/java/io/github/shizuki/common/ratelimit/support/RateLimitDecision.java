@@ -0,0 +1,15 @@
+package io.github.shizuki.common.ratelimit.support;
+
+/**
+ * 单次限流判定结果。
+ *
+ * @param allowed 是否放行
+ * @param remaining 判定后剩余可用次数
+ * @param retryAfterMillis 被拒绝时距下次可放行的毫秒数，放行时为 0
+ */
+public record RateLimitDecision(boolean allowed, long remaining, long retryAfterMillis) {
+
+    public long retryAfterSeconds() {
+        return (retryAfterMillis + 999) / 1000;
+    }
+}
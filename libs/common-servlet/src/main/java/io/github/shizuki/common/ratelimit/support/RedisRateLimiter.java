@@ -0,0 +1,167 @@
+package io.github.shizuki.common.ratelimit.support;
+
+import io.github.shizuki.common.core.time.ClockProvider;
+import io.github.shizuki.common.ratelimit.annotation.RateLimitAlgorithm;
+import java.util.List;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * 基于 Lua 脚本的 Redis 限流器：判定与状态更新在一次往返内原子完成，且每个键都带 TTL。
+ *
+ * <p>脚本统一返回 {@code {allowed, remaining, retryAfterMillis}}；当前时间由调用方传入，
+ * 多实例之间依赖 NTP 对时。
+ */
+@Component
+public class RedisRateLimiter {
+
+    /**
+     * 固定窗口：INCR 与 PEXPIRE 同在脚本内，进程中途退出也不会留下无 TTL 的计数键。
+     * ARGV: limit, windowMillis
+     */
+    static final RedisScript<List<Long>> FIXED_WINDOW_SCRIPT = script("""
+        local limit = tonumber(ARGV[1])
+        local window = tonumber(ARGV[2])
+        local count = redis.call('INCR', KEYS[1])
+        local ttl = redis.call('PTTL', KEYS[1])
+        if ttl < 0 then
+          redis.call('PEXPIRE', KEYS[1], window)
+          ttl = window
+        end
+        if count <= limit then
+          return {1, limit - count, 0}
+        end
+        return {0, 0, ttl}
+        """);
+
+    /**
+     * 分桶滑动窗口：哈希字段为桶序号、值为桶内放行次数，只统计覆盖整个窗口的最近 buckets + 1 个桶，
+     * 过期桶在同一脚本内删除。统计范围比窗口最多多出一个桶，宁可偏严也不放出交界突发；
+     * 每个键最多 buckets + 1 个字段，不随 limit 增长。
+     * ARGV: limit, windowMillis, nowMillis, buckets
+     */
+    static final RedisScript<List<Long>> SLIDING_WINDOW_SCRIPT = script("""
+        local limit = tonumber(ARGV[1])
+        local window = tonumber(ARGV[2])
+        local now = tonumber(ARGV[3])
+        local buckets = tonumber(ARGV[4])
+        local size = math.ceil(window / buckets)
+        local current = math.floor(now / size)
+        local oldest = current - buckets
+        local fields = redis.call('HGETALL', KEYS[1])
+        local total = 0
+        local live = {}
+        for i = 1, #fields, 2 do
+          local bucket = tonumber(fields[i])
+          local count = tonumber(fields[i + 1])
+          if bucket < oldest then
+            redis.call('HDEL', KEYS[1], fields[i])
+          else
+            total = total + count
+            live[#live + 1] = {bucket, count}
+          end
+        end
+        if total < limit then
+          redis.call('HINCRBY', KEYS[1], current, 1)
+          redis.call('PEXPIRE', KEYS[1], (current + buckets + 1) * size - now)
+          return {1, limit - total - 1, 0}
+        end
+        table.sort(live, function(left, right) return left[1] < right[1] end)
+        local excess = total - limit + 1
+        for _, entry in ipairs(live) do
+          excess = excess - entry[2]
+          if excess <= 0 then
+            return {0, 0, (entry[1] + buckets + 1) * size - now}
+          end
+        end
+        return {0, 0, window}
+        """);
+
+    /**
+     * GCRA：只保存理论到达时间（TAT），按发射间隔匀速补充，容差为 burst 个间隔。
+     * ARGV: emissionIntervalMillis, burst, nowMillis
+     */
+    static final RedisScript<List<Long>> TOKEN_BUCKET_SCRIPT = script("""
+        local interval = tonumber(ARGV[1])
+        local burst = tonumber(ARGV[2])
+        local now = tonumber(ARGV[3])
+        local tat = tonumber(redis.call('GET', KEYS[1]) or now)
+        if tat < now then
+          tat = now
+        end
+        local next_tat = tat + interval
+        local allow_at = next_tat - interval * burst
+        if allow_at > now then
+          return {0, 0, allow_at - now}
+        end
+        redis.call('SET', KEYS[1], next_tat, 'PX', next_tat - now)
+        return {1, math.floor((now - allow_at) / interval), 0}
+        """);
+
+    /**
+     * 分桶滑动窗口的桶数，决定统计精度（窗口 / 桶数）与每个键的字段上限。
+     */
+    static final int SLIDING_WINDOW_BUCKETS = 10;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ClockProvider clockProvider;
+
+    public RedisRateLimiter(StringRedisTemplate redisTemplate, ClockProvider clockProvider) {
+        this.redisTemplate = redisTemplate;
+        this.clockProvider = clockProvider;
+    }
+
+    /**
+     * 按指定算法抢占一次配额。Redis 不可用时抛出底层异常，由调用方决定降级策略。
+     */
+    public RateLimitDecision tryAcquire(String key,
+                                        RateLimitAlgorithm algorithm,
+                                        int limit,
+                                        int windowSeconds,
+                                        int burst) {
+        int safeLimit = Math.max(1, limit);
+        long windowMillis = Math.max(1, windowSeconds) * 1000L;
+        long nowMillis = clockProvider.now().toEpochMilli();
+        List<String> keys = List.of(algorithm.redisKey(key));
+        List<Long> result = switch (algorithm) {
+            case FIXED_WINDOW -> redisTemplate.execute(
+                FIXED_WINDOW_SCRIPT, keys, String.valueOf(safeLimit), String.valueOf(windowMillis)
+            );
+            case SLIDING_WINDOW -> redisTemplate.execute(
+                SLIDING_WINDOW_SCRIPT,
+                keys,
+                String.valueOf(safeLimit),
+                String.valueOf(windowMillis),
+                String.valueOf(nowMillis),
+                String.valueOf(SLIDING_WINDOW_BUCKETS)
+            );
+            case TOKEN_BUCKET -> redisTemplate.execute(
+                TOKEN_BUCKET_SCRIPT,
+                keys,
+                String.valueOf(Math.max(1L, windowMillis / safeLimit)),
+                String.valueOf(burst > 0 ? burst : safeLimit),
+                String.valueOf(nowMillis)
+            );
+        };
+        return toDecision(result);
+    }
+
+    private static RateLimitDecision toDecision(List<Long> result) {
+        if (result == null || result.size() < 3) {
+            throw new IllegalStateException("Unexpected rate limit script result: " + result);
+        }
+        return new RateLimitDecision(
+            result.get(0) == 1L,
+            Math.max(0L, result.get(1)),
+            Math.max(0L, result.get(2))
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RedisScript<List<Long>> script(String source) {
+        // 脚本返回整数数组，Redis 整数回复反序列化为 Long。
+        return new DefaultRedisScript<>(source, (Class<List<Long>>) (Class<?>) List.class);
+    }
+}
@@ -12,6 +12,8 @@ import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 @Aspect
 @Component
@@ -25,7 +27,7 @@ public class PermissionAspect {
 
     @Before("@annotation(requirePermission)")
     public void checkPermission(JoinPoint joinPoint, RequirePermission requirePermission) {
-        LoginUser loginUser = LoginUserContext.get().orElse(null);
+        LoginUser loginUser = currentLoginUser();
         if (loginUser == null) {
             throw new BusinessException(ErrorCode.UNAUTHORIZED, "Login required");
         }
@@ -46,7 +48,7 @@ public class PermissionAspect {
 
     @Before("@annotation(requireGroup)")
     public void checkGroup(JoinPoint joinPoint, RequireGroup requireGroup) {
-        LoginUser loginUser = LoginUserContext.get().orElse(null);
+        LoginUser loginUser = currentLoginUser();
         if (loginUser == null) {
             throw new BusinessException(ErrorCode.UNAUTHORIZED, "Login required");
         }
@@ -61,4 +63,17 @@ public class PermissionAspect {
                 "Group required: " + requireGroup.value());
         }
     }
+
+    private LoginUser currentLoginUser() {
+        LoginUser loginUser = LoginUserContext.get().orElse(null);
+        if (loginUser != null) {
+            return loginUser;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+            && attributes.getAttribute(LoginUserContext.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof LoginUser principal) {
+            return principal;
+        }
+        return null;
+    }
 }
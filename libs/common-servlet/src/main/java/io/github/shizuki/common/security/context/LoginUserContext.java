@@ -5,6 +5,11 @@ import java.util.Optional;
 
 public final class LoginUserContext {
 
+    /**
+     * 网关已解析的登录主体所在的请求属性键；下游优先读取该属性，X-User-* 请求头仅为旧消费方保留。
+     */
+    public static final String REQUEST_ATTRIBUTE = LoginUser.class.getName();
+
     private static final ThreadLocal<LoginUser> CONTEXT = new ThreadLocal<>();
 
     private LoginUserContext() {
@@ -20,13 +20,10 @@ public class LoginUserContextFilter extends OncePerRequestFilter {
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
         throws ServletException, IOException {
-        String userIdHeader = request.getHeader("X-User-Id");
         try {
-            if (StringUtils.hasText(userIdHeader)) {
-                Long userId = Long.parseLong(userIdHeader);
-                Set<String> groups = splitHeader(request.getHeader("X-User-Groups"));
-                Set<String> permissions = splitHeader(request.getHeader("X-User-Permissions"));
-                LoginUserContext.set(new LoginUser(userId, groups, permissions));
+            LoginUser loginUser = resolveLoginUser(request);
+            if (loginUser != null) {
+                LoginUserContext.set(loginUser);
             }
             filterChain.doFilter(request, response);
         } finally {
@@ -34,6 +31,20 @@ public class LoginUserContextFilter extends OncePerRequestFilter {
         }
     }
 
+    private LoginUser resolveLoginUser(HttpServletRequest request) {
+        if (request.getAttribute(LoginUserContext.REQUEST_ATTRIBUTE) instanceof LoginUser loginUser) {
+            return loginUser;
+        }
+        String userIdHeader = request.getHeader("X-User-Id");
+        if (!StringUtils.hasText(userIdHeader)) {
+            return null;
+        }
+        Long userId = Long.parseLong(userIdHeader);
+        Set<String> groups = splitHeader(request.getHeader("X-User-Groups"));
+        Set<String> permissions = splitHeader(request.getHeader("X-User-Permissions"));
+        return new LoginUser(userId, groups, permissions);
+    }
+
     private Set<String> splitHeader(String raw) {
         if (!StringUtils.hasText(raw)) {
             return Set.of();
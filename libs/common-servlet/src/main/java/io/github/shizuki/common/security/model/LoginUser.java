@@ -1,7 +1,5 @@
 package io.github.shizuki.common.security.model;
 
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.Set;
 
 public class LoginUser {
@@ -12,8 +10,9 @@ public class LoginUser {
 
     public LoginUser(Long userId, Set<String> groups, Set<String> permissions) {
         this.userId = userId;
-        this.groups = groups == null ? Collections.emptySet() : new HashSet<>(groups);
-        this.permissions = permissions == null ? Collections.emptySet() : new HashSet<>(permissions);
+        // Set.copyOf 对已是不可变副本的集合直接复用，网关缓存的上下文不会在每个请求上重复拷贝。
+        this.groups = groups == null ? Set.of() : Set.copyOf(groups);
+        this.permissions = permissions == null ? Set.of() : Set.copyOf(permissions);
     }
 
     public Long getUserId() {
@@ -21,18 +20,18 @@ public class LoginUser {
     }
 
     public Set<String> getGroups() {
-        return Collections.unmodifiableSet(groups);
+        return groups;
     }
 
     public Set<String> getPermissions() {
-        return Collections.unmodifiableSet(permissions);
+        return permissions;
     }
 
     public boolean hasPermission(String permission) {
-        return permissions.contains(permission);
+        return permission != null && permissions.contains(permission);
     }
 
     public boolean inGroup(String groupCode) {
-        return groups.contains(groupCode);
+        return groupCode != null && groups.contains(groupCode);
     }
 }
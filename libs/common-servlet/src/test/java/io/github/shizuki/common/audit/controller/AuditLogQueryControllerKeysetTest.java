@@ -0,0 +1,227 @@
+package io.github.shizuki.common.audit.controller;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.github.shizuki.common.core.error.BusinessException;
+import io.github.shizuki.common.core.response.CursorPageResponse;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * {@link AuditLogQueryController} 游标分页测试。
+ *
+ * <p>构建内没有嵌入式数据库，用按 (create_time DESC, id DESC) 排好序的 10 万行内存表模拟复合索引：
+ * 游标条件对应一次索引定位，OFFSET 对应从索引头逐行跳过。断言只看读取行数与生成的 SQL，不比较耗时。
+ */
+class AuditLogQueryControllerKeysetTest {
+
+    private static final int ROWS = 100_000;
+    private static final int PAGE_SIZE = 50;
+
+    private final IndexedAuditLogTable table = new IndexedAuditLogTable(ROWS);
+    private final AuditLogQueryController controller = controller(table);
+
+    /**
+     * 目标：从首页翻到末页每页只从索引定位处读取一页数据，不重复、不遗漏。
+     */
+    @Test
+    void shouldReadOnePageOfRowsPerCursorPageFromFirstToLastPage() {
+        Set<Object> seen = new HashSet<>();
+        int pages = 0;
+        String cursor = null;
+        do {
+            table.rowsVisited = 0;
+            CursorPageResponse<Map<String, Object>> page = listByCursor(cursor);
+            Assertions.assertTrue(table.rowsVisited <= PAGE_SIZE + 1, "rowsVisited=" + table.rowsVisited);
+            page.items().forEach(item -> Assertions.assertTrue(seen.add(item.get("id"))));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+        Assertions.assertEquals(ROWS, seen.size());
+        Assertions.assertEquals(ROWS / PAGE_SIZE, pages);
+    }
+
+    /**
+     * 目标：下一页请求使用展开形式的 seek 条件，参数取自上一页最后一行，且不带 OFFSET。
+     */
+    @Test
+    void shouldSeekFromTheLastRowOfThePreviousPage() {
+        CursorPageResponse<Map<String, Object>> first = listByCursor(null);
+        Map<String, Object> last = first.items().get(first.items().size() - 1);
+
+        listByCursor(first.nextCursor());
+
+        Assertions.assertTrue(table.lastSql.contains("AND (create_time < ? OR (create_time = ? AND id < ?))"), table.lastSql);
+        Assertions.assertTrue(table.lastSql.contains("ORDER BY create_time DESC, id DESC LIMIT ?"), table.lastSql);
+        Assertions.assertFalse(table.lastSql.contains("OFFSET"), table.lastSql);
+        Assertions.assertEquals(
+            List.of(last.get("created_at"), last.get("created_at"), last.get("id"), (long) PAGE_SIZE + 1),
+            Arrays.asList(table.lastArgs)
+        );
+    }
+
+    /**
+     * 目标：游标与过滤条件组合时只返回匹配行，且按 (created_at, id) 降序无重复。
+     */
+    @Test
+    void shouldCombineCursorWithUserFilter() {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageResponse<Map<String, Object>> page = controller.listByCursor(null, 7L, null, null, null, cursor, 100).data();
+            page.items().forEach(item -> {
+                Assertions.assertEquals(7L, item.get("user_id"));
+                ids.add((Long) item.get("id"));
+            });
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        Assertions.assertEquals(ROWS / 10, ids.size());
+        Assertions.assertEquals(ROWS / 10, new HashSet<>(ids).size());
+    }
+
+    /**
+     * 目标：无法解析的游标返回参数错误。
+     */
+    @Test
+    void shouldRejectMalformedCursor() {
+        Assertions.assertThrows(BusinessException.class, () -> listByCursor("not-a-cursor"));
+    }
+
+    private CursorPageResponse<Map<String, Object>> listByCursor(String cursor) {
+        return controller.listByCursor(null, null, null, null, null, cursor, PAGE_SIZE).data();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AuditLogQueryController controller(JdbcTemplate jdbcTemplate) {
+        ObjectProvider<JdbcTemplate> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(jdbcTemplate);
+        return new AuditLogQueryController(provider);
+    }
+
+    /**
+     * 审计日志内存表，行按 (create_time DESC, id DESC) 排列，只解释控制器生成的查询形态。
+     */
+    private static final class IndexedAuditLogTable extends JdbcTemplate {
+
+        private static final Comparator<Row> INDEX_ORDER = Comparator.comparing(Row::createTime)
+            .thenComparingLong(Row::id)
+            .reversed();
+
+        private final Row[] index;
+        private int rowsVisited;
+        private String lastSql;
+        private Object[] lastArgs;
+
+        private IndexedAuditLogTable(int rows) {
+            LocalDateTime base = LocalDateTime.of(2026, 1, 1, 0, 0);
+            index = new Row[rows];
+            for (int i = 0; i < rows; i++) {
+                // 每 4 行共用同一秒，覆盖 create_time 相同时按 id 决胜的情况。
+                index[i] = new Row(i + 1L, base.plusSeconds(i / 4), (long) (i % 10));
+            }
+            Arrays.sort(index, INDEX_ORDER);
+        }
+
+        @Override
+        public <T> T queryForObject(String sql, Object[] args, Class<T> requiredType) {
+            Query query = Query.parse(sql, args);
+            long counted = 0;
+            for (int position = 0; position < index.length && counted < query.limit; position++) {
+                if (query.matches(index[position])) {
+                    counted++;
+                }
+            }
+            return requiredType.cast(counted);
+        }
+
+        @Override
+        public List<Map<String, Object>> queryForList(String sql, Object... args) {
+            lastSql = sql;
+            lastArgs = args;
+            Query query = Query.parse(sql, args);
+            int position = 0;
+            if (query.after != null) {
+                // 游标条件走索引定位：二分找到第一条排在游标之后的行。
+                int found = Arrays.binarySearch(index, query.after, INDEX_ORDER);
+                position = found >= 0 ? found + 1 : -found - 1;
+            }
+            List<Map<String, Object>> result = new ArrayList<>();
+            long skipped = 0;
+            for (; position < index.length && result.size() < query.limit; position++) {
+                Row row = index[position];
+                rowsVisited++;
+                if (!query.matches(row)) {
+                    continue;
+                }
+                if (skipped < query.offset) {
+                    skipped++;
+                    continue;
+                }
+                result.add(row.toMap());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 从 SQL 文本与参数还原出的查询条件。
+     */
+    private static final class Query {
+
+        private Long userId;
+        private Row after;
+        private long limit = Long.MAX_VALUE;
+        private long offset;
+
+        private static Query parse(String sql, Object[] args) {
+            Query query = new Query();
+            int next = 0;
+            if (sql.contains("user_id = ?")) {
+                query.userId = (Long) args[next++];
+            }
+            // 只有展开形式的游标条件才在 MySQL 上走索引定位，其它写法按全表扫描处理。
+            Assertions.assertFalse(sql.contains("(create_time, id) <"), sql);
+            if (sql.contains("(create_time < ? OR (create_time = ? AND id < ?))")) {
+                LocalDateTime createTime = ((Timestamp) args[next++]).toLocalDateTime();
+                Assertions.assertEquals(createTime, ((Timestamp) args[next++]).toLocalDateTime());
+                query.after = new Row((Long) args[next++], createTime, 0L);
+            }
+            if (sql.contains("LIMIT ?")) {
+                query.limit = ((Number) args[next++]).longValue();
+            }
+            if (sql.contains("OFFSET ?")) {
+                query.offset = ((Number) args[next]).longValue();
+            }
+            return query;
+        }
+
+        private boolean matches(Row row) {
+            return userId == null || userId.equals(row.userId());
+        }
+    }
+
+    private record Row(long id, LocalDateTime createTime, Long userId) {
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("id", id);
+            map.put("user_id", userId);
+            map.put("created_at", Timestamp.valueOf(createTime));
+            return map;
+        }
+    }
+}
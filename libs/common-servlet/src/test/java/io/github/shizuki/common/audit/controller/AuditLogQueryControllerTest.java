@@ -51,7 +51,8 @@ class AuditLogQueryControllerTest {
             null,
             null,
             1L,
-            20L
+            20L,
+            false
         );
 
         Assertions.assertEquals("OK", response.code());
@@ -67,4 +68,29 @@ class AuditLogQueryControllerTest {
             ArgumentMatchers.any(Object[].class)
         );
     }
+
+    @Test
+    void shouldBoundCountQueryWhenTotalIsEstimated() {
+        Mockito.when(jdbcTemplateProvider.getIfAvailable()).thenReturn(jdbcTemplate);
+        Mockito.when(jdbcTemplate.queryForObject(
+            ArgumentMatchers.any(String.class),
+            ArgumentMatchers.any(Object[].class),
+            ArgumentMatchers.eq(Long.class)
+        )).thenReturn(200L);
+        Mockito.when(jdbcTemplate.queryForList(
+            ArgumentMatchers.any(String.class),
+            ArgumentMatchers.any(Object[].class)
+        )).thenReturn(List.of());
+
+        ApiResponse<PageResponse<Map<String, Object>>> response = controller.list(
+            null, 1L, null, null, null, 3L, 20L, true
+        );
+
+        Assertions.assertEquals(200L, response.data().total());
+        Mockito.verify(jdbcTemplate).queryForObject(
+            ArgumentMatchers.eq("SELECT COUNT(1) FROM (SELECT 1 FROM AUD_LOG WHERE 1=1  AND user_id = ?  LIMIT ?) counted"),
+            ArgumentMatchers.eq(new Object[] {1L, 240L}),
+            ArgumentMatchers.eq(Long.class)
+        );
+    }
 }
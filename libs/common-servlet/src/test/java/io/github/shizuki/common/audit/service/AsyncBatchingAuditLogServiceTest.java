@@ -0,0 +1,312 @@
+package io.github.shizuki.common.audit.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.shizuki.common.audit.config.AuditAsyncProperties;
+import io.github.shizuki.common.audit.config.AuditAsyncProperties.OverflowPolicy;
+import io.github.shizuki.common.audit.model.AuditLogEntry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link AsyncBatchingAuditLogService} 单元测试。
+ *
+ * <p>构建内没有嵌入式数据库，使用按语句计延迟的 JdbcTemplate 桩模拟一次网络往返。
+ */
+class AsyncBatchingAuditLogServiceTest {
+
+    private final LatencyJdbcTemplate jdbcTemplate = new LatencyJdbcTemplate(1L);
+    private final JdbcAuditLogService jdbcService = jdbcService(jdbcTemplate);
+
+    /**
+     * 目标：请求线程不再承担落库往返，且攒批后语句数远少于记录数。
+     *
+     * <p>后台写入线程卡在第一条语句上，调用方的 100 次 save 仍然全部返回，说明请求线程不等待落库。
+     */
+    @Test
+    void shouldTakeDatabaseRoundTripsOffTheRequestPath() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        jdbcTemplate.gate = gate;
+        AsyncBatchingAuditLogService async = start(properties(8192, 200, 50L, OverflowPolicy.SYNC));
+        try {
+            async.save(entry());
+            Assertions.assertTrue(jdbcTemplate.entered.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < 100; i++) {
+                async.save(entry());
+            }
+            Assertions.assertEquals(0, jdbcTemplate.logRows.get(), "writer is still blocked");
+        } finally {
+            gate.countDown();
+        }
+        async.stop();
+
+        Assertions.assertEquals(100, jdbcTemplate.logRows.get());
+        Assertions.assertEquals(100, jdbcTemplate.outboxRows.get());
+        Assertions.assertTrue(jdbcTemplate.statements.get() <= 2 * 5, "statements=" + jdbcTemplate.statements.get());
+        Assertions.assertEquals(0L, async.stats().syncWrites());
+    }
+
+    /**
+     * 目标：并发写入后立即优雅关闭，缓冲区中的记录一条不丢。
+     */
+    @Test
+    void shouldFlushEveryBufferedEntryOnGracefulShutdown() throws Exception {
+        AsyncBatchingAuditLogService async = start(properties(8192, 64, 1_000L, OverflowPolicy.SYNC));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> producers = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                producers.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        async.save(entry());
+                    }
+                }));
+            }
+            for (Future<?> producer : producers) {
+                producer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        async.stop();
+
+        Assertions.assertEquals(4_000, jdbcTemplate.logRows.get());
+        Assertions.assertEquals(4_000, jdbcTemplate.outboxRows.get());
+        Assertions.assertEquals(0, async.stats().pending());
+
+        // 关闭后的调用改为同步写入。
+        async.save(entry());
+        Assertions.assertEquals(4_001, jdbcTemplate.logRows.get());
+        Assertions.assertEquals(1L, async.stats().syncWrites());
+    }
+
+    /**
+     * 目标：缓冲区满时 DROP 只计数，SYNC 在请求线程落库，BLOCK 等待空位。
+     */
+    @Test
+    void shouldApplyOverflowPolicyWhenBufferIsFull() throws Exception {
+        Assertions.assertEquals(1L, overflow(OverflowPolicy.DROP).dropped());
+        Assertions.assertEquals(1L, overflow(OverflowPolicy.SYNC).syncWrites());
+        AsyncBatchingAuditLogService.Stats blocked = overflow(OverflowPolicy.BLOCK);
+        Assertions.assertEquals(0L, blocked.dropped());
+        Assertions.assertEquals(0L, blocked.syncWrites());
+        Assertions.assertEquals(18L, blocked.batched());
+    }
+
+    /**
+     * 后台线程卡在第一批时填满容量为 16 的缓冲区，再多写一条触发溢出策略。
+     */
+    private AsyncBatchingAuditLogService.Stats overflow(OverflowPolicy policy) throws Exception {
+        jdbcTemplate.reset();
+        CountDownLatch gate = new CountDownLatch(1);
+        jdbcTemplate.gate = gate;
+        AsyncBatchingAuditLogService async = start(properties(16, 1, 0L, policy));
+        async.save(entry());
+        Assertions.assertTrue(jdbcTemplate.entered.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 16; i++) {
+            async.save(entry());
+        }
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> overflowing = executor.submit(() -> async.save(entry()));
+            if (policy == OverflowPolicy.BLOCK) {
+                Thread.sleep(200L);
+                Assertions.assertFalse(overflowing.isDone());
+            }
+            gate.countDown();
+            overflowing.get(5, TimeUnit.SECONDS);
+        } finally {
+            gate.countDown();
+            executor.shutdownNow();
+        }
+        async.stop();
+        return async.stats();
+    }
+
+    private AsyncBatchingAuditLogService start(AuditAsyncProperties properties) {
+        AsyncBatchingAuditLogService async = new AsyncBatchingAuditLogService(properties, jdbcService);
+        async.start();
+        return async;
+    }
+
+    private static AuditAsyncProperties properties(int capacity, int batchSize, long lingerMs, OverflowPolicy policy) {
+        AuditAsyncProperties properties = new AuditAsyncProperties();
+        properties.setCapacity(capacity);
+        properties.setBatchSize(batchSize);
+        properties.setLingerMs(lingerMs);
+        properties.setOverflowPolicy(policy);
+        return properties;
+    }
+
+    /**
+     * 目标：AUD_LOG 与 outbox 两次 batchUpdate 在同一事务内提交，outbox 失败时整批回滚。
+     */
+    @Test
+    void shouldWriteLogAndOutboxBatchesInOneTransaction() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        JdbcAuditLogService service = jdbcService(jdbcTemplate, new TransactionTemplate(transactionManager));
+
+        service.saveBatch(List.of(entry(), entry()));
+        Assertions.assertEquals(2, jdbcTemplate.outboxRows.get());
+        verify(transactionManager).commit(any());
+        verify(transactionManager, never()).rollback(any());
+
+        jdbcTemplate.failOutbox = true;
+        service.saveBatch(List.of(entry(), entry()));
+        verify(transactionManager).rollback(any());
+        // 整批回滚后逐条重试，单条写入成功的记录照常落库。
+        Assertions.assertEquals(4, jdbcTemplate.outboxRows.get());
+    }
+
+    /**
+     * 目标：整批失败后逐条重试，只有仍然失败的那一条进入日志降级。
+     */
+    @Test
+    void shouldRetryFailedBatchRowByRowAndFallBackOnlyForRowsThatStillFail() {
+        LoggingAuditLogService fallback = mock(LoggingAuditLogService.class);
+        JdbcAuditLogService service = jdbcService(jdbcTemplate, null, fallback);
+        AuditLogEntry poison = entry();
+        poison.setAction("posts.poison");
+        jdbcTemplate.poisonAction = "posts.poison";
+
+        List<AuditLogEntry> batch = List.of(entry(), poison, entry());
+        service.saveBatch(batch);
+
+        Assertions.assertEquals(2, jdbcTemplate.logRows.get());
+        verify(fallback).save(poison);
+        verify(fallback, never()).save(batch.get(0));
+        verify(fallback, never()).save(batch.get(2));
+    }
+
+    private static JdbcAuditLogService jdbcService(JdbcTemplate jdbcTemplate) {
+        return jdbcService(jdbcTemplate, null);
+    }
+
+    private static JdbcAuditLogService jdbcService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        return jdbcService(jdbcTemplate, transactionTemplate, new LoggingAuditLogService());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JdbcAuditLogService jdbcService(JdbcTemplate jdbcTemplate,
+                                                   TransactionTemplate transactionTemplate,
+                                                   LoggingAuditLogService fallback) {
+        ObjectProvider<JdbcTemplate> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(jdbcTemplate);
+        ObjectProvider<TransactionTemplate> transactionProvider = mock(ObjectProvider.class);
+        when(transactionProvider.getIfAvailable()).thenReturn(transactionTemplate);
+        return new JdbcAuditLogService(provider, fallback, new ObjectMapper().findAndRegisterModules(), transactionProvider);
+    }
+
+    private static AuditLogEntry entry() {
+        AuditLogEntry entry = new AuditLogEntry();
+        entry.setTraceId("trace");
+        entry.setUserId(1L);
+        entry.setAction("posts.publish");
+        entry.setResource("post");
+        entry.setResult("SUCCESS");
+        entry.setErrorCode("");
+        entry.setCostMs(3L);
+        entry.setCreatedAt(Instant.now());
+        return entry;
+    }
+
+    /**
+     * 每条语句（含一次 batchUpdate）固定耗时的 JdbcTemplate 桩，按表统计写入行数。
+     */
+    private static final class LatencyJdbcTemplate extends JdbcTemplate {
+
+        private final long latencyMillis;
+        private final AtomicInteger logRows = new AtomicInteger();
+        private final AtomicInteger outboxRows = new AtomicInteger();
+        private final AtomicInteger statements = new AtomicInteger();
+        private volatile CountDownLatch gate;
+        private volatile CountDownLatch entered = new CountDownLatch(1);
+        private volatile boolean failOutbox;
+        private volatile String poisonAction;
+
+        private LatencyJdbcTemplate(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            rejectPoison(sql, List.<Object[]>of(args));
+            record(sql, 1);
+            return 1;
+        }
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            if (failOutbox && sql.contains("AUD_EVENT_OUTBOX")) {
+                throw new DataAccessResourceFailureException("outbox unavailable");
+            }
+            rejectPoison(sql, batchArgs);
+            record(sql, batchArgs.size());
+            int[] counts = new int[batchArgs.size()];
+            Arrays.fill(counts, 1);
+            return counts;
+        }
+
+        /**
+         * 模拟一条违反约束的坏数据：含它的语句（无论单条还是整批）都被数据库拒绝。
+         */
+        private void rejectPoison(String sql, List<Object[]> rows) {
+            String poison = poisonAction;
+            if (poison == null || !sql.contains("AUD_LOG(")) {
+                return;
+            }
+            for (Object[] row : rows) {
+                if (Arrays.asList(row).contains(poison)) {
+                    throw new DataIntegrityViolationException("action rejected");
+                }
+            }
+        }
+
+        private void record(String sql, int rows) {
+            entered.countDown();
+            try {
+                CountDownLatch current = gate;
+                if (current != null) {
+                    current.await();
+                }
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            statements.incrementAndGet();
+            (sql.contains("AUD_EVENT_OUTBOX") ? outboxRows : logRows).addAndGet(rows);
+        }
+
+        private void reset() {
+            logRows.set(0);
+            outboxRows.set(0);
+            statements.set(0);
+            gate = null;
+            entered = new CountDownLatch(1);
+        }
+    }
+}
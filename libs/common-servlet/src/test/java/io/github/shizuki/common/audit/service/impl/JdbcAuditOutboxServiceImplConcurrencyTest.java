@@ -0,0 +1,459 @@
+package io.github.shizuki.common.audit.service.impl;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.github.shizuki.common.audit.config.AuditOutboxProperties;
+import io.github.shizuki.common.audit.config.AuditPublisherProperties;
+import io.github.shizuki.common.audit.model.AuditOutboxEvent;
+import io.github.shizuki.common.audit.service.AuditOutboxPublisher;
+import io.github.shizuki.common.audit.service.AuditOutboxPublisherRouter;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link JdbcAuditOutboxServiceImpl} 多实例并发抢占测试。
+ *
+ * <p>构建内没有可用数据库，使用在内存中模拟行锁与 SKIP LOCKED 语义的 outbox 表。
+ */
+class JdbcAuditOutboxServiceImplConcurrencyTest {
+
+    private static final int EVENTS = 600;
+
+    private final AtomicInteger failedOnce = new AtomicInteger();
+    private final Map<Long, AtomicInteger> published = new ConcurrentHashMap<>();
+    private final Map<Long, Boolean> failing = new ConcurrentHashMap<>();
+    private final Map<String, List<Long>> publishOrder = new ConcurrentHashMap<>();
+
+    /**
+     * 目标：MySQL 事务内 FOR UPDATE SKIP LOCKED 抢占，两个实例对同一张表每条事件恰好发布一次。
+     */
+    @Test
+    void shouldPublishEachEventExactlyOnceAcrossDispatchersOnMysql() throws Exception {
+        OutboxTable table = new OutboxTable("MySQL", EVENTS);
+        runTwoDispatchers(table, true);
+        assertExactlyOnce(table);
+    }
+
+    /**
+     * 目标：PostgreSQL 单条 UPDATE ... RETURNING 抢占，两个实例每条事件恰好发布一次。
+     */
+    @Test
+    void shouldPublishEachEventExactlyOnceAcrossDispatchersOnPostgres() throws Exception {
+        OutboxTable table = new OutboxTable("PostgreSQL", EVENTS);
+        runTwoDispatchers(table, false);
+        assertExactlyOnce(table);
+    }
+
+    /**
+     * 目标：没有事务管理器时退化为条件更新逐行抢占，仍然不会重复发布。
+     */
+    @Test
+    void shouldFallBackToGuardedClaimWithoutTransactionManager() throws Exception {
+        OutboxTable table = new OutboxTable("MySQL", EVENTS);
+        runTwoDispatchers(table, false);
+        assertExactlyOnce(table);
+    }
+
+    /**
+     * 目标：一批事件的抢占与结果回写各只有一次往返，不再随事件条数增长；
+     * 失败事件之后的同聚合事件不发布、不记成功，放回队列。
+     */
+    @Test
+    void shouldClaimAndMarkWholeBatchInConstantRoundTrips() {
+        OutboxTable table = new OutboxTable("MySQL", 10);
+        failing.put(3L, Boolean.TRUE);
+        failing.put(7L, Boolean.TRUE);
+        JdbcAuditOutboxServiceImpl service = service(table, true);
+
+        Assertions.assertEquals(10, service.dispatchPendingEvents());
+
+        Assertions.assertEquals(List.of(1L, 2L, 4L, 5L, 6L, 8L, 9L), published.keySet().stream().sorted().toList());
+        // 回收 + 队首查询 + 标记 PROCESSING + 后续事件查询 + 后续事件抢占 + 成功回写 + 放回回写 + 重试回写。
+        Assertions.assertEquals(8, table.statements.get());
+        Assertions.assertEquals("FAILED", table.rows.get(3L).status);
+        Assertions.assertEquals(1, table.rows.get(7L).retryCount);
+        Assertions.assertEquals("SUCCESS", table.rows.get(9L).status);
+        // 10 与失败的 3 同属一个聚合，排在 3 之后。
+        Assertions.assertEquals("NEW", table.rows.get(10L).status);
+        Assertions.assertEquals(0, table.rows.get(10L).retryCount);
+        Assertions.assertEquals(0, table.violations.get());
+    }
+
+    /**
+     * 目标：聚合内更早的事件仍在处理（例如被另一实例抢到）或等待重试时，整个聚合都不会被抢占。
+     */
+    @Test
+    void shouldSkipAggregateWhileAnOlderEventIsUnfinished() {
+        OutboxTable table = new OutboxTable("PostgreSQL", 21);
+        table.rows.get(1L).status = "PROCESSING";
+        table.rows.get(2L).status = "FAILED";
+        table.rows.get(2L).retryCount = 1;
+        table.rows.get(3L).status = "FAILED";
+        table.rows.get(3L).retryCount = 8;
+        AuditOutboxProperties properties = properties();
+        properties.setBatchSize(100);
+        JdbcAuditOutboxServiceImpl service = service(table, false, properties, new RecordingPublisher());
+
+        service.dispatchPendingEvents();
+
+        // u1 被处理中的 1 阻塞；u2 从重试的 2 开始按序发布；3 已达最大重试次数，不再阻塞 u3。
+        Assertions.assertFalse(published.containsKey(8L));
+        Assertions.assertFalse(published.containsKey(15L));
+        Assertions.assertEquals(List.of(2L, 9L, 16L), publishOrder.get("u2"));
+        Assertions.assertEquals(List.of(10L, 17L), publishOrder.get("u3"));
+        Assertions.assertEquals("NEW", table.rows.get(8L).status);
+        Assertions.assertEquals(0, table.violations.get());
+    }
+
+    /**
+     * 目标：批内按聚合键分区并行发布，同一聚合仍按 id 顺序发布。
+     */
+    @Test
+    void shouldPublishPartitionsInParallelButKeepAggregateOrder() {
+        OutboxTable table = new OutboxTable("PostgreSQL", 100);
+        Map<String, List<Long>> orderByAggregate = new ConcurrentHashMap<>();
+        Map<String, Boolean> threads = new ConcurrentHashMap<>();
+        AuditOutboxPublisher slowPublisher = new AuditOutboxPublisher() {
+            @Override
+            public String type() {
+                return "noop";
+            }
+
+            @Override
+            public void publish(AuditOutboxEvent event) {
+                threads.put(Thread.currentThread().getName(), Boolean.TRUE);
+                orderByAggregate.computeIfAbsent(event.partitionKey(), ignored -> new CopyOnWriteArrayList<>())
+                    .add(event.id());
+                try {
+                    Thread.sleep(1L);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        AuditOutboxProperties properties = properties();
+        properties.setBatchSize(100);
+        properties.setWorkerThreads(4);
+        JdbcAuditOutboxServiceImpl service = service(table, false, properties, slowPublisher);
+
+        Assertions.assertEquals(100, service.dispatchPendingEvents());
+        service.shutdown();
+
+        Assertions.assertEquals(7, orderByAggregate.size());
+        orderByAggregate.values().forEach(ids -> Assertions.assertEquals(ids.stream().sorted().toList(), ids));
+        Assertions.assertTrue(threads.size() > 1, "threads=" + threads.keySet());
+        table.rows.values().forEach(row -> Assertions.assertEquals("SUCCESS", row.status));
+    }
+
+    private void runTwoDispatchers(OutboxTable table, boolean transactional) throws Exception {
+        for (long id = 25; id <= EVENTS; id += 50) {
+            failing.put(id, Boolean.TRUE);
+        }
+        // 两个实例各自持有不同聚合，但同一聚合的事件仍需按 id 顺序发布。
+        List<JdbcAuditOutboxServiceImpl> dispatchers = List.of(
+            service(table, transactional),
+            service(table, transactional)
+        );
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int worker = 0; worker < 4; worker++) {
+                JdbcAuditOutboxServiceImpl dispatcher = dispatchers.get(worker % 2);
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int round = 0; round < 10_000 && published.size() < EVENTS; round++) {
+                        dispatcher.dispatchPendingEvents();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertExactlyOnce(OutboxTable table) {
+        Assertions.assertEquals(0, table.violations.get());
+        Assertions.assertEquals(EVENTS, published.size());
+        published.forEach((id, count) -> Assertions.assertEquals(1, count.get(), "event " + id));
+        publishOrder.forEach((aggregate, ids) -> Assertions.assertEquals(ids.stream().sorted().toList(), ids, aggregate));
+        Assertions.assertEquals(EVENTS / 50, failedOnce.get());
+        table.rows.values().forEach(row -> Assertions.assertEquals("SUCCESS", row.status, "event " + row.id));
+    }
+
+    private JdbcAuditOutboxServiceImpl service(OutboxTable table, boolean transactional) {
+        return service(table, transactional, properties(), new RecordingPublisher());
+    }
+
+    private static AuditOutboxProperties properties() {
+        AuditOutboxProperties properties = new AuditOutboxProperties();
+        properties.setEnabled(true);
+        properties.setBatchSize(10);
+        properties.setMaxRetries(8);
+        return properties;
+    }
+
+    @SuppressWarnings("unchecked")
+    private JdbcAuditOutboxServiceImpl service(OutboxTable table,
+                                               boolean transactional,
+                                               AuditOutboxProperties properties,
+                                               AuditOutboxPublisher publisher) {
+        ObjectProvider<JdbcTemplate> jdbcTemplateProvider = mock(ObjectProvider.class);
+        when(jdbcTemplateProvider.getIfAvailable()).thenReturn(table);
+        ObjectProvider<TransactionTemplate> transactionTemplateProvider = mock(ObjectProvider.class);
+        when(transactionTemplateProvider.getIfAvailable())
+            .thenReturn(transactional ? new TransactionTemplate(new RowLockTransactionManager(table)) : null);
+
+        AuditOutboxPublisherRouter router = new AuditOutboxPublisherRouter(
+            new AuditPublisherProperties(),
+            List.of(publisher)
+        );
+        return new JdbcAuditOutboxServiceImpl(jdbcTemplateProvider, router, properties, transactionTemplateProvider);
+    }
+
+    /**
+     * 记录每条事件成功发布次数；标记为失败的事件首次发布抛出异常。
+     */
+    private final class RecordingPublisher implements AuditOutboxPublisher {
+
+        @Override
+        public String type() {
+            return "noop";
+        }
+
+        @Override
+        public void publish(AuditOutboxEvent event) {
+            if (failing.remove(event.id()) != null) {
+                failedOnce.incrementAndGet();
+                throw new IllegalStateException("broker unavailable");
+            }
+            published.computeIfAbsent(event.id(), ignored -> new AtomicInteger()).incrementAndGet();
+            publishOrder.computeIfAbsent(event.aggregateKey(), ignored -> new CopyOnWriteArrayList<>()).add(event.id());
+        }
+    }
+
+    /**
+     * 提交或回滚时释放当前线程持有的行锁。
+     */
+    private static final class RowLockTransactionManager extends AbstractPlatformTransactionManager {
+
+        private final OutboxTable table;
+
+        private RowLockTransactionManager(OutboxTable table) {
+            this.table = table;
+        }
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            table.releaseLocks();
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            table.releaseLocks();
+        }
+    }
+
+    /**
+     * 内存 outbox 表：按 SQL 识别语句，FOR UPDATE 在事务内把行锁给当前线程直到提交，
+     * SKIP LOCKED 跳过他人持有的行，NOT EXISTS 按一致性读跳过更早事件未结束的聚合；
+     * 状态机违规（如非本线程锁定的行被标记）计入 violations。
+     */
+    private static final class OutboxTable extends JdbcTemplate {
+
+        private final String productName;
+        private final Map<Long, Row> rows = new TreeMap<>();
+        private final AtomicInteger statements = new AtomicInteger();
+        private final AtomicInteger violations = new AtomicInteger();
+
+        private OutboxTable(String productName, int events) {
+            this.productName = productName;
+            for (long id = 1; id <= events; id++) {
+                rows.put(id, new Row(id));
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(ConnectionCallback<T> action) {
+            return (T) productName;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            statements.incrementAndGet();
+            int maxRetries = (Integer) args[0];
+            int limit = (Integer) args[args.length - 1];
+            if (sql.contains("'WAITING'")) {
+                return (List<T>) followers(maxRetries, (Long) args[1], List.of(args).subList(2, args.length - 1), limit);
+            }
+            boolean returning = sql.contains("RETURNING");
+            boolean holdLocks = sql.contains("FOR UPDATE") && TransactionSynchronizationManager.isActualTransactionActive();
+            List<AuditOutboxEvent> picked = new ArrayList<>();
+            synchronized (this) {
+                for (Row row : rows.values()) {
+                    if (picked.size() >= limit) {
+                        break;
+                    }
+                    boolean pending = "NEW".equals(row.status) || "FAILED".equals(row.status);
+                    if (!pending || row.retryCount >= maxRetries || (row.lockedBy != null && row.lockedBy != Thread.currentThread())) {
+                        continue;
+                    }
+                    if (hasUnfinishedPredecessor(row, maxRetries)) {
+                        continue;
+                    }
+                    if (returning) {
+                        row.status = "PROCESSING";
+                    } else if (holdLocks) {
+                        row.lockedBy = Thread.currentThread();
+                    }
+                    picked.add(row.toEvent());
+                }
+            }
+            // 让出 CPU，放大两次语句之间的竞争窗口。
+            Thread.yield();
+            return (List<T>) picked;
+        }
+
+        private synchronized List<AuditOutboxEvent> followers(int maxRetries, long afterId, List<Object> aggregates, int limit) {
+            List<AuditOutboxEvent> matched = new ArrayList<>();
+            for (Row row : rows.values()) {
+                if (matched.size() >= limit) {
+                    break;
+                }
+                if (row.id > afterId && aggregates.contains(row.aggregateKey()) && row.unfinished(maxRetries)) {
+                    matched.add(row.toEvent());
+                }
+            }
+            return matched;
+        }
+
+        private boolean hasUnfinishedPredecessor(Row row, int maxRetries) {
+            for (Row prior : rows.values()) {
+                if (prior.id >= row.id) {
+                    return false;
+                }
+                if (prior.aggregateKey().equals(row.aggregateKey()) && prior.unfinished(maxRetries)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public synchronized int update(String sql, Object... args) {
+            statements.incrementAndGet();
+            if (sql.contains("processing_timeout_reclaimed")) {
+                return 0;
+            }
+            String target = sql.contains("'SUCCESS'") ? "SUCCESS" : sql.contains("requeued_behind_failed_event") ? "NEW" : "PROCESSING";
+            for (Object arg : args) {
+                Row row = rows.get((Long) arg);
+                boolean allowed = "PROCESSING".equals(target)
+                    ? row.lockedBy == Thread.currentThread()
+                    : "PROCESSING".equals(row.status);
+                if (!allowed) {
+                    violations.incrementAndGet();
+                }
+                row.status = target;
+            }
+            return args.length;
+        }
+
+        @Override
+        public synchronized int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            statements.incrementAndGet();
+            int[] counts = new int[batchArgs.size()];
+            for (int i = 0; i < counts.length; i++) {
+                Object[] args = batchArgs.get(i);
+                Row row = rows.get((Long) args[args.length - 1]);
+                if (sql.contains("'PROCESSING'")) {
+                    boolean pending = "NEW".equals(row.status) || "FAILED".equals(row.status);
+                    if (pending) {
+                        row.status = "PROCESSING";
+                        counts[i] = 1;
+                    }
+                    continue;
+                }
+                if (!"PROCESSING".equals(row.status)) {
+                    violations.incrementAndGet();
+                }
+                row.status = "FAILED";
+                row.retryCount = (Integer) args[0];
+                counts[i] = 1;
+            }
+            return counts;
+        }
+
+        private synchronized void releaseLocks() {
+            for (Row row : rows.values()) {
+                if (row.lockedBy == Thread.currentThread()) {
+                    row.lockedBy = null;
+                }
+            }
+        }
+    }
+
+    private static final class Row {
+
+        private final long id;
+        private String status = "NEW";
+        private int retryCount;
+        private Thread lockedBy;
+
+        private Row(long id) {
+            this.id = id;
+        }
+
+        private String aggregateKey() {
+            return "u" + id % 7;
+        }
+
+        private boolean unfinished(int maxRetries) {
+            return "PROCESSING".equals(status)
+                || (("NEW".equals(status) || "FAILED".equals(status)) && retryCount < maxRetries);
+        }
+
+        private AuditOutboxEvent toEvent() {
+            return new AuditOutboxEvent(id, "AUDIT_LOG", "{}", status, retryCount, Instant.EPOCH, aggregateKey());
+        }
+    }
+}
@@ -21,6 +21,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * {@link JdbcAuditOutboxServiceImpl} 单元测试。
@@ -36,6 +37,8 @@ class JdbcAuditOutboxServiceImplTest {
     private JdbcTemplate jdbcTemplate;
     @Mock
     private AuditOutboxPublisherRouter publisherRouter;
+    @Mock
+    private ObjectProvider<TransactionTemplate> transactionTemplateProvider;
 
     private AuditOutboxProperties properties;
     private JdbcAuditOutboxServiceImpl service;
@@ -51,10 +54,10 @@ class JdbcAuditOutboxServiceImplTest {
         properties.setMaxRetries(3);
         properties.setProcessingTimeoutSeconds(180);
 
-        service = new JdbcAuditOutboxServiceImpl(jdbcTemplateProvider, publisherRouter, properties);
+        service = new JdbcAuditOutboxServiceImpl(jdbcTemplateProvider, publisherRouter, properties, transactionTemplateProvider);
         when(jdbcTemplateProvider.getIfAvailable()).thenReturn(jdbcTemplate);
         when(jdbcTemplate.update(contains("WHERE event_status = 'PROCESSING'"), anyInt())).thenReturn(0);
-        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any())).thenReturn(List.of());
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any(), any())).thenReturn(List.of());
     }
 
     /**
@@ -66,7 +69,7 @@ class JdbcAuditOutboxServiceImplTest {
 
         InOrder order = inOrder(jdbcTemplate);
         order.verify(jdbcTemplate).update(contains("WHERE event_status = 'PROCESSING'"), eq(180));
-        order.verify(jdbcTemplate).query(anyString(), any(RowMapper.class), eq(3), eq(10));
+        order.verify(jdbcTemplate).query(anyString(), any(RowMapper.class), eq(3), eq(3), eq(10));
     }
 
     /**
@@ -79,6 +82,6 @@ class JdbcAuditOutboxServiceImplTest {
         service.dispatchPendingEvents();
 
         verify(jdbcTemplate).update(contains("DATE_SUB(NOW(), INTERVAL ? SECOND)"), eq(420));
-        verify(jdbcTemplate).query(anyString(), any(RowMapper.class), anyInt(), anyInt());
+        verify(jdbcTemplate).query(anyString(), any(RowMapper.class), anyInt(), anyInt(), anyInt());
     }
 }
@@ -0,0 +1,625 @@
+package io.github.shizuki.common.audit.service.impl;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.github.shizuki.common.audit.config.AuditRetentionProperties;
+import io.github.shizuki.common.audit.model.AuditRetentionReport;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * {@link JdbcAuditRetentionServiceImpl} 单元测试。
+ *
+ * <p>构建内没有 PostgreSQL/MySQL，用内存审计库解释保留任务发出的分区 DDL 与带 LIMIT 的 DELETE：
+ * 分区按上下界路由行，DELETE 每次最多删除 LIMIT 行，并记录每条语句实际删除的行数。
+ */
+class JdbcAuditRetentionServiceImplTest {
+
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final AuditRetentionProperties properties = properties();
+
+    /**
+     * 目标：一年数据中保留期外的月份整分区删除，outbox 成功事件按批删除，保留期内的查询结果不变。
+     */
+    @Test
+    void shouldDropExpiredPartitionsAndDeleteOutboxInBatchesOnPostgres() {
+        AuditDatabase database = AuditDatabase.postgres();
+        database.seedYear();
+        LocalDateTime logCutoff = LocalDateTime.now().minusDays(properties.getLogRetentionDays());
+        LocalDateTime outboxCutoff = LocalDateTime.now().minusDays(properties.getOutboxRetentionDays());
+        Set<Long> logWindow = database.logIdsSince(logCutoff);
+        Set<Long> outboxRetained = database.outboxIdsRetainedAfter(outboxCutoff);
+        long expiredSuccess = database.outbox.size() - outboxRetained.size();
+
+        AuditRetentionReport report = service(database).enforceRetention();
+
+        Assertions.assertEquals(logWindow, database.logIdsSince(logCutoff));
+        Assertions.assertEquals(outboxRetained, database.outboxIds());
+        Assertions.assertFalse(report.expiredPartitions().isEmpty());
+        Assertions.assertTrue(database.logRows().stream().allMatch(row ->
+            !row.createTime().toLocalDate().isBefore(logCutoff.toLocalDate().withDayOfMonth(1))));
+        Assertions.assertTrue(database.ddl.stream().noneMatch(sql -> sql.startsWith("DELETE FROM AUD_LOG ")));
+        Assertions.assertEquals(0L, report.logRowsDeleted());
+
+        Assertions.assertEquals(expiredSuccess, report.outboxRowsDeleted());
+        Assertions.assertTrue(database.deletedPerStatement.stream().allMatch(rows -> rows <= properties.getBatchSize()),
+            "deletedPerStatement=" + database.deletedPerStatement);
+        // outbox 按批删除，另有一批清理 DEFAULT 分区（此时为空）。
+        Assertions.assertEquals(expiredSuccess / properties.getBatchSize() + 2, database.deletedPerStatement.size());
+        Assertions.assertEquals(database.deletedPerStatement.size(), report.deleteBatches());
+
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        Assertions.assertEquals(
+            List.of("aud_log_p" + month.plusMonths(1).format(MONTH_SUFFIX), "aud_log_p" + month.plusMonths(2).format(MONTH_SUFFIX)),
+            report.createdPartitions()
+        );
+
+        // 再次执行没有可处理的分区，DEFAULT 与 outbox 各空跑一批。
+        AuditRetentionReport again = service(database).enforceRetention();
+        Assertions.assertTrue(again.createdPartitions().isEmpty());
+        Assertions.assertTrue(again.expiredPartitions().isEmpty());
+        Assertions.assertEquals(0L, again.outboxRowsDeleted());
+        Assertions.assertEquals(2, again.deleteBatches());
+    }
+
+    /**
+     * 目标：任务停摆导致近几个月写入 DEFAULT 分区后，预建分区会把当月的行迁出 DEFAULT，
+     * DEFAULT 中超出保留期的行（如时间戳异常的旧数据）按批删除。
+     */
+    @Test
+    void shouldMoveDefaultRowsIntoNewPartitionsAndPruneExpiredDefaultRows() {
+        LocalDate current = LocalDate.now().withDayOfMonth(1);
+        AuditDatabase database = AuditDatabase.postgres();
+        for (LocalDate month = current.minusMonths(2); !month.isAfter(current); month = month.plusMonths(1)) {
+            database.partitions.remove("aud_log_p" + month.format(MONTH_SUFFIX));
+        }
+        database.seedYear();
+        database.insertLog(new LogRow(0L, LocalDateTime.now().minusYears(3)));
+        LocalDateTime logCutoff = LocalDateTime.now().minusDays(properties.getLogRetentionDays());
+        Set<Long> logWindow = database.logIdsSince(logCutoff);
+        String currentPartition = "aud_log_p" + current.format(MONTH_SUFFIX);
+        long currentMonthRows = database.partitions.get("aud_log_default").rows.stream()
+            .filter(row -> !row.createTime().toLocalDate().isBefore(current))
+            .count();
+        Assertions.assertTrue(currentMonthRows > 0);
+
+        AuditRetentionReport report = service(database).enforceRetention();
+
+        Assertions.assertEquals(
+            List.of(currentPartition, "aud_log_p" + current.plusMonths(1).format(MONTH_SUFFIX), "aud_log_p" + current.plusMonths(2).format(MONTH_SUFFIX)),
+            report.createdPartitions()
+        );
+        Assertions.assertEquals(currentMonthRows, database.partitions.get(currentPartition).rows.size());
+        Assertions.assertTrue(database.partitions.get("aud_log_default").rows.stream()
+            .allMatch(row -> !row.createTime().isBefore(logCutoff) && row.createTime().toLocalDate().isBefore(current)));
+        Assertions.assertEquals(1L, report.logRowsDeleted());
+        Assertions.assertEquals(logWindow, database.logIdsSince(logCutoff));
+        Assertions.assertEquals(1L, database.ddl.stream().filter(sql -> sql.startsWith("DO $$")).count());
+    }
+
+    /**
+     * 目标：归档模式把过期分区摘下另存，行数据完整保留在归档表中。
+     */
+    @Test
+    void shouldDetachExpiredPartitionsIntoArchiveTablesWhenArchiving() {
+        properties.setArchive(true);
+        AuditDatabase database = AuditDatabase.postgres();
+        database.seedYear();
+        int before = database.logRows().size();
+
+        AuditRetentionReport report = service(database).enforceRetention();
+
+        int archived = database.archives.values().stream().mapToInt(List::size).sum();
+        Assertions.assertTrue(archived > 0);
+        Assertions.assertEquals(before, database.logRows().size() + archived);
+        Assertions.assertEquals(
+            report.expiredPartitions().stream().map(name -> "aud_log_archive_" + name.substring("aud_log_".length())).collect(Collectors.toSet()),
+            database.archives.keySet()
+        );
+    }
+
+    /**
+     * 目标：MySQL 从 MAXVALUE 分区拆出后续月份，整分区删除包括迁移前的 p_history。
+     */
+    @Test
+    void shouldRollMysqlPartitionsForwardAndDropExpiredOnes() {
+        AuditDatabase database = AuditDatabase.mysql(LocalDate.now().withDayOfMonth(1).minusMonths(5));
+        database.seedYear();
+        LocalDateTime logCutoff = LocalDateTime.now().minusDays(properties.getLogRetentionDays());
+        Set<Long> logWindow = database.logIdsSince(logCutoff);
+
+        AuditRetentionReport report = service(database).enforceRetention();
+
+        Assertions.assertEquals(logWindow, database.logIdsSince(logCutoff));
+        Assertions.assertTrue(report.expiredPartitions().contains("p_history"));
+        Assertions.assertTrue(database.ddl.stream().anyMatch(sql -> sql.startsWith("ALTER TABLE AUD_LOG REORGANIZE PARTITION p_future")));
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        Assertions.assertEquals(
+            List.of("p" + month.plusMonths(1).format(MONTH_SUFFIX), "p" + month.plusMonths(2).format(MONTH_SUFFIX)),
+            report.createdPartitions()
+        );
+        Assertions.assertTrue(database.partitions.containsKey("p_future"));
+    }
+
+    /**
+     * 目标：MySQL 归档在交换分区之后、删除分区之前中断，下次执行沿用已存在的归档表，
+     * 识别出分区已被换成空表，直接删除分区，不再交换也不丢数据。
+     */
+    @Test
+    void shouldResumeInterruptedMysqlArchiveWithoutSwappingDataBack() {
+        properties.setArchive(true);
+        AuditDatabase database = AuditDatabase.mysql(LocalDate.now().withDayOfMonth(1).minusMonths(5));
+        database.seedYear();
+        int before = database.logRows().size();
+        database.failNextDropPartition = true;
+
+        AuditRetentionReport interrupted = service(database).enforceRetention();
+        Assertions.assertFalse(interrupted.expiredPartitions().contains("p_history"));
+        Assertions.assertTrue(database.partitions.get("p_history").rows.isEmpty());
+        Assertions.assertFalse(database.archives.get("aud_log_archive_p_history").isEmpty());
+
+        AuditRetentionReport resumed = service(database).enforceRetention();
+
+        Assertions.assertTrue(resumed.expiredPartitions().contains("p_history"));
+        Assertions.assertFalse(database.partitions.containsKey("p_history"));
+        int archived = database.archives.values().stream().mapToInt(List::size).sum();
+        Assertions.assertEquals(before, database.logRows().size() + archived);
+        Assertions.assertEquals(1L, database.ddl.stream()
+            .filter(sql -> sql.equals("ALTER TABLE AUD_LOG EXCHANGE PARTITION p_history WITH TABLE AUD_LOG_ARCHIVE_p_history"))
+            .count());
+        Assertions.assertEquals(1L, database.ddl.stream()
+            .filter(sql -> sql.equals("ALTER TABLE AUD_LOG_ARCHIVE_p_history REMOVE PARTITIONING"))
+            .count());
+        Assertions.assertTrue(database.partitionedArchives.isEmpty());
+    }
+
+    /**
+     * 目标：另一实例持有保留锁时本次不做任何改动；自己执行完后释放锁。
+     */
+    @Test
+    void shouldSkipRunWhileAnotherInstanceHoldsTheRetentionLock() {
+        AuditDatabase database = AuditDatabase.postgres();
+        database.seedYear();
+        database.lockedByOtherSession = true;
+
+        AuditRetentionReport skipped = service(database).enforceRetention();
+
+        Assertions.assertTrue(skipped.createdPartitions().isEmpty());
+        Assertions.assertTrue(skipped.expiredPartitions().isEmpty());
+        Assertions.assertTrue(database.ddl.isEmpty());
+
+        database.lockedByOtherSession = false;
+        AuditRetentionReport report = service(database).enforceRetention();
+        Assertions.assertFalse(report.expiredPartitions().isEmpty());
+        Assertions.assertFalse(database.locked);
+        Assertions.assertEquals(List.of("pg_try_advisory_lock", "pg_advisory_unlock"),
+            database.lockCalls.subList(database.lockCalls.size() - 2, database.lockCalls.size()));
+    }
+
+    /**
+     * 目标：表未分区时逐批删除过期日志，单次执行不超过批数上限，剩余部分留给下一次。
+     */
+    @Test
+    void shouldDeleteUnpartitionedLogsInBoundedBatches() {
+        properties.setOutboxRetentionDays(0);
+        properties.setMaxBatchesPerRun(3);
+        AuditDatabase database = AuditDatabase.unpartitionedMysql();
+        database.seedYear();
+        LocalDateTime logCutoff = LocalDateTime.now().minusDays(properties.getLogRetentionDays());
+        Set<Long> logWindow = database.logIdsSince(logCutoff);
+
+        AuditRetentionReport first = service(database).enforceRetention();
+
+        Assertions.assertEquals(List.of(500, 500, 500), database.deletedPerStatement);
+        Assertions.assertEquals(1_500L, first.logRowsDeleted());
+        Assertions.assertTrue(database.ddl.stream().allMatch(sql -> sql.startsWith("DELETE FROM AUD_LOG WHERE create_time < ? LIMIT ?")));
+
+        for (int run = 0; run < 10; run++) {
+            service(database).enforceRetention();
+        }
+        Assertions.assertEquals(logWindow, database.logIdsSince(LocalDateTime.MIN));
+    }
+
+    private JdbcAuditRetentionServiceImpl service(JdbcTemplate jdbcTemplate) {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<JdbcTemplate> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(jdbcTemplate);
+        return new JdbcAuditRetentionServiceImpl(properties, provider);
+    }
+
+    private static AuditRetentionProperties properties() {
+        AuditRetentionProperties properties = new AuditRetentionProperties();
+        properties.setLogRetentionDays(90);
+        properties.setOutboxRetentionDays(7);
+        properties.setBatchSize(500);
+        properties.setBatchPauseMs(0L);
+        properties.setMaxBatchesPerRun(1_000);
+        return properties;
+    }
+
+    private record LogRow(long id, LocalDateTime createTime) {
+    }
+
+    private record OutboxRow(long id, String status, LocalDateTime createTime) {
+    }
+
+    /**
+     * 分区：[lower, upper)，边界为空表示无下界或 DEFAULT/MAXVALUE。
+     */
+    private static final class PartitionState {
+
+        private final LocalDate lower;
+        private final LocalDate upper;
+        private final boolean catchAll;
+        private final List<LogRow> rows = new ArrayList<>();
+
+        private PartitionState(LocalDate lower, LocalDate upper, boolean catchAll) {
+            this.lower = lower;
+            this.upper = upper;
+            this.catchAll = catchAll;
+        }
+
+        private boolean accepts(LocalDateTime createTime) {
+            LocalDate date = createTime.toLocalDate();
+            return !catchAll && (lower == null || !date.isBefore(lower)) && date.isBefore(upper);
+        }
+    }
+
+    /**
+     * 内存审计库：AUD_LOG（可分区）、归档表与 AUD_EVENT_OUTBOX。
+     */
+    private static final class AuditDatabase extends JdbcTemplate {
+
+        private static final Pattern PG_CREATE = Pattern.compile(
+            "CREATE TABLE IF NOT EXISTS (\\w+) PARTITION OF AUD_LOG FOR VALUES FROM \\('([\\d-]+)'\\) TO \\('([\\d-]+)'\\)");
+        private static final Pattern PG_DEFAULT_PROBE = Pattern.compile(
+            "SELECT 1 FROM (\\w+) WHERE create_time >= \\? AND create_time < \\? LIMIT 1");
+        private static final Pattern PG_MOVE_DEFAULT = Pattern.compile(
+            "ALTER TABLE AUD_LOG DETACH PARTITION (\\w+);\\s*CREATE TABLE IF NOT EXISTS (\\w+) PARTITION OF AUD_LOG "
+                + "FOR VALUES FROM \\('([\\d-]+)'\\) TO \\('([\\d-]+)'\\)");
+        private static final Pattern MYSQL_DEFINITION = Pattern.compile(
+            "PARTITION (\\w+) VALUES LESS THAN \\(TO_DAYS\\('([\\d-]+)'\\)\\)");
+        private static final Pattern LOCK_FUNCTION = Pattern.compile("SELECT (\\w+)\\(");
+
+        private final String product;
+        private final Map<String, PartitionState> partitions = new LinkedHashMap<>();
+        private final List<LogRow> unpartitioned = new ArrayList<>();
+        private final Map<String, List<LogRow>> archives = new HashMap<>();
+        private final List<OutboxRow> outbox = new ArrayList<>();
+        private final List<String> ddl = new ArrayList<>();
+        private final List<Integer> deletedPerStatement = new ArrayList<>();
+        private final Set<String> partitionedArchives = new HashSet<>();
+        private final List<String> lockCalls = new ArrayList<>();
+        private final boolean partitioned;
+        private boolean locked;
+        private boolean lockedByOtherSession;
+        private boolean failNextDropPartition;
+        private long nextId = 1;
+
+        private AuditDatabase(String product, boolean partitioned) {
+            this.product = product;
+            this.partitioned = partitioned;
+        }
+
+        /**
+         * 与迁移脚本一致：覆盖一年前到当前月的月分区加 DEFAULT 分区，后续月份留给任务预建。
+         */
+        private static AuditDatabase postgres() {
+            AuditDatabase database = new AuditDatabase("PostgreSQL", true);
+            LocalDate current = LocalDate.now().withDayOfMonth(1);
+            for (LocalDate month = current.minusMonths(13); !month.isAfter(current); month = month.plusMonths(1)) {
+                database.partitions.put("aud_log_p" + month.format(MONTH_SUFFIX), new PartitionState(month, month.plusMonths(1), false));
+            }
+            database.partitions.put("aud_log_default", new PartitionState(null, null, true));
+            return database;
+        }
+
+        /**
+         * 与迁移脚本一致：p_history 收纳迁移月之前的数据，之后按月分区直到当前月，p_future 兜底。
+         */
+        private static AuditDatabase mysql(LocalDate migratedMonth) {
+            AuditDatabase database = new AuditDatabase("MySQL", true);
+            database.partitions.put("p_history", new PartitionState(null, migratedMonth, false));
+            LocalDate current = LocalDate.now().withDayOfMonth(1);
+            for (LocalDate month = migratedMonth; !month.isAfter(current); month = month.plusMonths(1)) {
+                database.partitions.put("p" + month.format(MONTH_SUFFIX), new PartitionState(month, month.plusMonths(1), false));
+            }
+            database.partitions.put("p_future", new PartitionState(null, null, true));
+            return database;
+        }
+
+        private static AuditDatabase unpartitionedMysql() {
+            return new AuditDatabase("MySQL", false);
+        }
+
+        /**
+         * 写入一年的数据：每天 24 条审计日志与 24 条 outbox 事件，outbox 状态按 SUCCESS/SUCCESS/FAILED/NEW 轮换。
+         */
+        private void seedYear() {
+            LocalDateTime now = LocalDateTime.now();
+            String[] statuses = {"SUCCESS", "SUCCESS", "FAILED", "NEW"};
+            for (int day = 365; day >= 0; day--) {
+                for (int hour = 0; hour < 24; hour++) {
+                    LocalDateTime createTime = now.minusDays(day).minusHours(hour);
+                    insertLog(new LogRow(nextId, createTime));
+                    outbox.add(new OutboxRow(nextId, statuses[hour % statuses.length], createTime));
+                    nextId++;
+                }
+            }
+        }
+
+        private void insertLog(LogRow row) {
+            if (!partitioned) {
+                unpartitioned.add(row);
+                return;
+            }
+            partitions.values().stream()
+                .filter(partition -> partition.accepts(row.createTime()))
+                .findFirst()
+                .orElseGet(() -> partitions.values().stream().filter(partition -> partition.catchAll).findFirst().orElseThrow())
+                .rows.add(row);
+        }
+
+        private List<LogRow> logRows() {
+            if (!partitioned) {
+                return unpartitioned;
+            }
+            return partitions.values().stream().flatMap(partition -> partition.rows.stream()).toList();
+        }
+
+        private Set<Long> logIdsSince(LocalDateTime since) {
+            return logRows().stream().filter(row -> !row.createTime().isBefore(since)).map(LogRow::id).collect(Collectors.toSet());
+        }
+
+        private Set<Long> outboxIds() {
+            return outbox.stream().map(OutboxRow::id).collect(Collectors.toSet());
+        }
+
+        private Set<Long> outboxIdsRetainedAfter(LocalDateTime cutoff) {
+            return outbox.stream()
+                .filter(row -> !"SUCCESS".equals(row.status()) || !row.createTime().isBefore(cutoff))
+                .map(OutboxRow::id)
+                .collect(Collectors.toSet());
+        }
+
+        private boolean isPostgres() {
+            return "PostgreSQL".equals(product);
+        }
+
+        @Override
+        public <T> T execute(ConnectionCallback<T> action) {
+            DatabaseMetaData metaData = (DatabaseMetaData) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[] {DatabaseMetaData.class},
+                (proxy, method, args) -> "getDatabaseProductName".equals(method.getName()) ? product : null
+            );
+            Connection connection = (Connection) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getMetaData" -> metaData;
+                    case "prepareStatement" -> lockStatement((String) args[0]);
+                    default -> null;
+                }
+            );
+            try {
+                return action.doInConnection(connection);
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        /**
+         * 会话级锁：GET_LOCK / pg_try_advisory_lock 在其他会话持有或本会话已持有时返回 false。
+         */
+        private PreparedStatement lockStatement(String sql) {
+            Matcher function = LOCK_FUNCTION.matcher(sql);
+            Assertions.assertTrue(function.find(), sql);
+            String name = function.group(1);
+            ResultSet resultSet = (ResultSet) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[] {ResultSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "next" -> true;
+                    case "getBoolean" -> {
+                        lockCalls.add(name);
+                        boolean acquire = "GET_LOCK".equals(name) || "pg_try_advisory_lock".equals(name);
+                        boolean result = acquire ? !lockedByOtherSession && !locked : locked;
+                        locked = acquire ? locked || result : false;
+                        yield result;
+                    }
+                    default -> null;
+                }
+            );
+            return (PreparedStatement) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[] {PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if ("setString".equals(method.getName())) {
+                        Assertions.assertEquals("shizuki:audit-retention", args[1]);
+                    }
+                    return "executeQuery".equals(method.getName()) ? resultSet : null;
+                }
+            );
+        }
+
+        @Override
+        public List<Map<String, Object>> queryForList(String sql) {
+            List<Map<String, Object>> rows = new ArrayList<>();
+            Matcher probe;
+            if ((probe = Pattern.compile("SELECT 1 FROM AUD_LOG PARTITION \\((\\w+)\\) LIMIT 1").matcher(sql)).matches()) {
+                return partitions.get(probe.group(1)).rows.stream().limit(1).map(row -> Map.<String, Object>of("1", 1)).toList();
+            }
+            if ((probe = Pattern.compile("SELECT 1 FROM (AUD_LOG_ARCHIVE_\\w+) LIMIT 1").matcher(sql)).matches()) {
+                return archives.get(probe.group(1).toLowerCase()).stream().limit(1).map(row -> Map.<String, Object>of("1", 1)).toList();
+            }
+            if (!partitioned) {
+                return rows;
+            }
+            partitions.forEach((name, partition) -> {
+                Map<String, Object> row = new HashMap<>();
+                row.put("partition_name", name);
+                if (isPostgres()) {
+                    row.put("partition_bound", partition.catchAll
+                        ? "DEFAULT"
+                        : "FOR VALUES FROM ('" + partition.lower + " 00:00:00') TO ('" + partition.upper + " 00:00:00')");
+                } else {
+                    row.put("partition_bound", partition.catchAll ? null : partition.upper.toString());
+                }
+                rows.add(row);
+            });
+            return rows;
+        }
+
+        @Override
+        public List<Map<String, Object>> queryForList(String sql, Object... args) {
+            if (sql.contains("information_schema.partitions")) {
+                String table = String.valueOf(args[0]).toLowerCase();
+                return partitionedArchives.contains(table) ? List.of(Map.of("1", 1)) : List.of();
+            }
+            Matcher matcher = PG_DEFAULT_PROBE.matcher(sql);
+            Assertions.assertTrue(matcher.matches(), sql);
+            PartitionState probe = new PartitionState(
+                ((Timestamp) args[0]).toLocalDateTime().toLocalDate(),
+                ((Timestamp) args[1]).toLocalDateTime().toLocalDate(),
+                false
+            );
+            return partitions.get(matcher.group(1)).rows.stream()
+                .filter(row -> probe.accepts(row.createTime()))
+                .limit(1)
+                .map(row -> Map.<String, Object>of("?column?", 1))
+                .toList();
+        }
+
+        @Override
+        public void execute(String sql) {
+            ddl.add(sql);
+            Matcher matcher;
+            if ((matcher = PG_MOVE_DEFAULT.matcher(sql)).find()) {
+                Assertions.assertTrue(sql.contains("ALTER TABLE AUD_LOG ATTACH PARTITION " + matcher.group(1) + " DEFAULT;"), sql);
+                PartitionState created = new PartitionState(LocalDate.parse(matcher.group(3)), LocalDate.parse(matcher.group(4)), false);
+                PartitionState catchAll = partitions.get(matcher.group(1));
+                catchAll.rows.stream().filter(row -> created.accepts(row.createTime())).forEach(created.rows::add);
+                catchAll.rows.removeAll(created.rows);
+                partitions.put(matcher.group(2), created);
+            } else if ("CREATE TABLE IF NOT EXISTS AUD_LOG_ARCHIVE_DEFAULT (LIKE AUD_LOG)".equals(sql)) {
+                return;
+            } else if ((matcher = PG_CREATE.matcher(sql)).matches()) {
+                LocalDate lower = LocalDate.parse(matcher.group(2));
+                LocalDate upper = LocalDate.parse(matcher.group(3));
+                PartitionState created = new PartitionState(lower, upper, false);
+                if (partitions.get("aud_log_default").rows.stream().anyMatch(row -> created.accepts(row.createTime()))) {
+                    throw new IllegalStateException("default partition contains rows for " + matcher.group(1));
+                }
+                partitions.put(matcher.group(1), created);
+            } else if ((matcher = Pattern.compile("CREATE TABLE IF NOT EXISTS (AUD_LOG_ARCHIVE_\\w+) LIKE AUD_LOG").matcher(sql)).matches()) {
+                String archive = matcher.group(1).toLowerCase();
+                if (!archives.containsKey(archive)) {
+                    archives.put(archive, new ArrayList<>());
+                    partitionedArchives.add(archive);
+                }
+            } else if ((matcher = Pattern.compile("ALTER TABLE (\\w+) REMOVE PARTITIONING").matcher(sql)).matches()) {
+                Assertions.assertTrue(partitionedArchives.remove(matcher.group(1).toLowerCase()), "not partitioned: " + sql);
+            } else if ((matcher = Pattern.compile("ALTER TABLE AUD_LOG EXCHANGE PARTITION (\\w+) WITH TABLE (\\w+)").matcher(sql)).matches()) {
+                String archive = matcher.group(2).toLowerCase();
+                Assertions.assertFalse(partitionedArchives.contains(archive), sql);
+                PartitionState partition = partitions.get(matcher.group(1));
+                List<LogRow> swapped = new ArrayList<>(partition.rows);
+                partition.rows.clear();
+                partition.rows.addAll(archives.get(archive));
+                archives.put(archive, swapped);
+            } else if (failNextDropPartition && sql.startsWith("ALTER TABLE AUD_LOG DROP PARTITION ")) {
+                failNextDropPartition = false;
+                throw new IllegalStateException("Lost connection to MySQL server during query");
+            } else if ((matcher = Pattern.compile("DROP TABLE IF EXISTS (\\w+)").matcher(sql)).matches()
+                || (matcher = Pattern.compile("ALTER TABLE AUD_LOG DROP PARTITION (\\w+)").matcher(sql)).matches()) {
+                Assertions.assertNotNull(partitions.remove(matcher.group(1)), sql);
+            } else if ((matcher = Pattern.compile("ALTER TABLE AUD_LOG DETACH PARTITION (\\w+)").matcher(sql)).matches()) {
+                archives.put(matcher.group(1), partitions.remove(matcher.group(1)).rows);
+            } else if ((matcher = Pattern.compile("ALTER TABLE (\\w+) RENAME TO (\\w+)").matcher(sql)).matches()) {
+                archives.put(matcher.group(2).toLowerCase(), archives.remove(matcher.group(1)));
+            } else if ((matcher = Pattern.compile("ALTER TABLE AUD_LOG REORGANIZE PARTITION (\\w+) INTO \\((.*)\\)").matcher(sql)).matches()) {
+                PartitionState catchAll = partitions.remove(matcher.group(1));
+                Matcher definition = MYSQL_DEFINITION.matcher(matcher.group(2));
+                LocalDate lower = partitions.values().stream().map(partition -> partition.upper).max(LocalDate::compareTo).orElseThrow();
+                while (definition.find()) {
+                    LocalDate upper = LocalDate.parse(definition.group(2));
+                    partitions.put(definition.group(1), new PartitionState(lower, upper, false));
+                    lower = upper;
+                }
+                Assertions.assertTrue(matcher.group(2).endsWith("PARTITION " + matcher.group(1) + " VALUES LESS THAN MAXVALUE"), sql);
+                partitions.put(matcher.group(1), new PartitionState(null, null, true));
+                catchAll.rows.forEach(this::insertLog);
+            } else {
+                throw new IllegalStateException("unexpected DDL: " + sql);
+            }
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            ddl.add(sql);
+            LocalDateTime cutoff = ((Timestamp) args[0]).toLocalDateTime();
+            int limit = (Integer) args[1];
+            int deleted = 0;
+            if (sql.contains("AUD_EVENT_OUTBOX")) {
+                Iterator<OutboxRow> iterator = outbox.iterator();
+                while (iterator.hasNext() && deleted < limit) {
+                    OutboxRow row = iterator.next();
+                    if ("SUCCESS".equals(row.status()) && row.createTime().isBefore(cutoff)) {
+                        iterator.remove();
+                        deleted++;
+                    }
+                }
+            } else if (sql.contains("aud_log_default")) {
+                Iterator<LogRow> iterator = partitions.get("aud_log_default").rows.iterator();
+                List<LogRow> moved = new ArrayList<>();
+                while (iterator.hasNext() && deleted < limit) {
+                    LogRow row = iterator.next();
+                    if (row.createTime().isBefore(cutoff)) {
+                        iterator.remove();
+                        moved.add(row);
+                        deleted++;
+                    }
+                }
+                if (sql.startsWith("WITH moved AS") && !moved.isEmpty()) {
+                    archives.computeIfAbsent("aud_log_archive_default", key -> new ArrayList<>()).addAll(moved);
+                }
+            } else {
+                Iterator<LogRow> iterator = unpartitioned.iterator();
+                while (iterator.hasNext() && deleted < limit) {
+                    if (iterator.next().createTime().isBefore(cutoff)) {
+                        iterator.remove();
+                        deleted++;
+                    }
+                }
+            }
+            deletedPerStatement.add(deleted);
+            return deleted;
+        }
+    }
+}
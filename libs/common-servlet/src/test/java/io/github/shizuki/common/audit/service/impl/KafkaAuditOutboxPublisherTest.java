@@ -0,0 +1,156 @@
+package io.github.shizuki.common.audit.service.impl;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.github.shizuki.common.audit.config.AuditPublisherProperties;
+import io.github.shizuki.common.audit.model.AuditOutboxEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+/**
+ * {@link KafkaAuditOutboxPublisher} 单元测试。
+ *
+ * <p>使用手动确认的 {@link MockProducer} 代替 broker：由测试决定每条记录成功、失败或一直不确认。
+ */
+class KafkaAuditOutboxPublisherTest {
+
+    private final SharedMockProducer producer = new SharedMockProducer();
+    private final AuditPublisherProperties properties = new AuditPublisherProperties();
+    private final KafkaAuditOutboxPublisher publisher = publisher();
+    /**
+     * 目标：部分失败与超时只影响对应事件，其余事件照常成功。
+     */
+    @Test
+    void shouldReportPerEventOutcomesForPartiallyFailedBatch() throws Exception {
+        properties.setKafkaSendTimeoutMs(300);
+        CompletableFuture<Map<Long, Exception>> outcome = CompletableFuture.supplyAsync(
+            () -> publisher.publishAll(events(5))
+        );
+        awaitSent(5);
+        producer.completeNext();
+        producer.errorNext(new IllegalStateException("NOT_LEADER_OR_FOLLOWER"));
+        producer.completeNext();
+        producer.completeNext();
+        // 第 5 条一直不确认，等待整批截止时间后记为超时。
+
+        Map<Long, Exception> failures = outcome.get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(List.of(2L, 5L), new ArrayList<>(failures.keySet()));
+        Assertions.assertEquals("Kafka publish failed", failures.get(2L).getMessage());
+        Assertions.assertEquals("Kafka publish timed out", failures.get(5L).getMessage());
+        Assertions.assertEquals("shizuki.audit.log", producer.history().get(0).topic());
+        Assertions.assertEquals("AUDIT_LOG:1", producer.history().get(0).key());
+    }
+
+    /**
+     * 目标：整批记录在第一条确认之前全部发出，而不是每条等待一次 broker 往返。
+     */
+    @Test
+    void shouldPipelineBatchInsteadOfOneRoundTripPerEvent() throws Exception {
+        properties.setKafkaSendTimeoutMs(5_000);
+        CompletableFuture<Map<Long, Exception>> outcome = CompletableFuture.supplyAsync(
+            () -> publisher.publishAll(events(100))
+        );
+
+        // 此时 broker 尚未确认任何记录，逐条同步发送会停在第 1 条。
+        awaitSent(100);
+        Assertions.assertFalse(outcome.isDone());
+        while (producer.completeNext()) {
+            // 逐条确认直至没有未决记录。
+        }
+
+        Assertions.assertTrue(outcome.get(5, TimeUnit.SECONDS).isEmpty());
+        Assertions.assertEquals(100, producer.history().size());
+    }
+
+    /**
+     * 目标：带聚合键的事件以聚合键为消息键，同一聚合进入同一 Kafka 分区；没有聚合键时仍按事件分散。
+     */
+    @Test
+    void shouldKeyRecordsByAggregate() throws Exception {
+        properties.setKafkaSendTimeoutMs(5_000);
+        List<AuditOutboxEvent> events = List.of(
+            new AuditOutboxEvent(1L, "AUDIT_LOG", "{}", "PROCESSING", 0, Instant.EPOCH, "42"),
+            new AuditOutboxEvent(2L, "LOGIN", "{}", "PROCESSING", 0, Instant.EPOCH, "42"),
+            new AuditOutboxEvent(3L, "AUDIT_LOG", "{}", "PROCESSING", 0, Instant.EPOCH)
+        );
+        CompletableFuture<Map<Long, Exception>> outcome = CompletableFuture.supplyAsync(() -> publisher.publishAll(events));
+        awaitSent(3);
+        while (producer.completeNext()) {
+            // 逐条确认直至没有未决记录。
+        }
+
+        Assertions.assertTrue(outcome.get(5, TimeUnit.SECONDS).isEmpty());
+        Assertions.assertEquals(List.of("42", "42", "AUDIT_LOG:3"),
+            producer.history().stream().map(record -> record.key()).toList());
+    }
+
+    /**
+     * 目标：未配置 KafkaTemplate 时整批记为失败，交由 outbox 重试。
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFailWholeBatchWhenKafkaTemplateMissing() {
+        ObjectProvider<KafkaTemplate<String, String>> provider = mock(ObjectProvider.class);
+        KafkaAuditOutboxPublisher unconfigured = new KafkaAuditOutboxPublisher(properties, provider);
+
+        Assertions.assertEquals(3, unconfigured.publishAll(events(3)).size());
+    }
+
+    private void awaitSent(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (producer.history().size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(1L);
+        }
+        Assertions.assertEquals(count, producer.history().size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private KafkaAuditOutboxPublisher publisher() {
+        ProducerFactory<String, String> factory = new ProducerFactory<>() {
+            @Override
+            public Producer<String, String> createProducer() {
+                return producer;
+            }
+        };
+        ObjectProvider<KafkaTemplate<String, String>> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(new KafkaTemplate<>(factory));
+        return new KafkaAuditOutboxPublisher(properties, provider);
+    }
+
+    private static List<AuditOutboxEvent> events(int count) {
+        List<AuditOutboxEvent> events = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            events.add(new AuditOutboxEvent(id, "AUDIT_LOG", "{\"id\":" + id + "}", "PROCESSING", 0, Instant.EPOCH));
+        }
+        return events;
+    }
+
+    /**
+     * KafkaTemplate 每次发送后都会 close 非事务 producer，共享实例需要忽略 close。
+     */
+    private static final class SharedMockProducer extends MockProducer<String, String> {
+
+        private SharedMockProducer() {
+            super(false, new StringSerializer(), new StringSerializer());
+        }
+
+        @Override
+        public void close(Duration timeout) {
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package io.github.shizuki.common.audit.task;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.github.shizuki.common.audit.config.AuditOutboxProperties;
+import io.github.shizuki.common.audit.service.AuditOutboxService;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * {@link AuditOutboxNotificationListener} 单元测试。
+ *
+ * <p>构建内没有 PostgreSQL，用代理连接模拟驱动的 {@code getNotifications}：
+ * 每次"插入"同时投递一条通知，等价于 outbox 表上的插入触发器。
+ */
+class AuditOutboxNotificationListenerTest {
+
+    private final AuditOutboxProperties properties = new AuditOutboxProperties();
+    private final BlockingQueue<PGNotification> notifications = new LinkedBlockingQueue<>();
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+    private final FakeOutbox outbox = new FakeOutbox();
+    private AuditOutboxNotificationListener listener;
+
+    @AfterEach
+    void tearDown() {
+        if (listener != null) {
+            listener.stop();
+        }
+    }
+
+    /**
+     * 目标：开启通知后，从插入到发布的端到端延迟远小于轮询间隔。
+     */
+    @Test
+    void shouldPublishWithinMillisecondsOfInsertWhenNotified() throws Exception {
+        properties.setBatchSize(10);
+        listener = start(dataSource(true));
+
+        for (int i = 0; i < 200; i++) {
+            outbox.insert();
+            notifications.add(notification());
+            Thread.sleep(1L);
+        }
+        awaitPublished(200);
+
+        List<Long> latencies = new ArrayList<>(outbox.latencyNanos);
+        Collections.sort(latencies);
+        long p50Millis = TimeUnit.NANOSECONDS.toMillis(latencies.get(latencies.size() / 2));
+        long p99Millis = TimeUnit.NANOSECONDS.toMillis(latencies.get(latencies.size() * 99 / 100));
+        Assertions.assertEquals(List.of("LISTEN aud_event_outbox"), executed);
+        Assertions.assertTrue(p99Millis < properties.getPollInterval() / 20,
+            "p50Ms=" + p50Millis + " p99Ms=" + p99Millis + " pollIntervalMs=" + properties.getPollInterval());
+    }
+
+    /**
+     * 目标：积压超过一批时连续分发直至清空；连接建立时先补一次分发。
+     */
+    @Test
+    void shouldDrainBacklogOnConnectAndAfterSingleNotification() throws Exception {
+        properties.setBatchSize(10);
+        for (int i = 0; i < 35; i++) {
+            outbox.insert();
+        }
+        listener = start(dataSource(true));
+        awaitPublished(35);
+
+        for (int i = 0; i < 25; i++) {
+            outbox.insert();
+        }
+        notifications.add(notification());
+        awaitPublished(60);
+    }
+
+    /**
+     * 目标：非 PostgreSQL 数据源不监听，交给定时轮询。
+     */
+    @Test
+    void shouldLeavePollingInChargeOnNonPostgresDataSource() throws Exception {
+        outbox.insert();
+        listener = start(dataSource(false));
+        Thread.sleep(200L);
+
+        Assertions.assertTrue(executed.isEmpty());
+        Assertions.assertEquals(0, outbox.latencyNanos.size());
+    }
+
+    private AuditOutboxNotificationListener start(DataSource dataSource) {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<DataSource> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(dataSource);
+        AuditOutboxNotificationListener started = new AuditOutboxNotificationListener(properties, outbox, provider);
+        started.start();
+        return started;
+    }
+
+    private void awaitPublished(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (outbox.latencyNanos.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(1L);
+        }
+        Assertions.assertEquals(count, outbox.latencyNanos.size());
+    }
+
+    private DataSource dataSource(boolean postgres) {
+        Statement statement = (Statement) Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class<?>[] {Statement.class},
+            (proxy, method, args) -> {
+                if ("execute".equals(method.getName())) {
+                    executed.add((String) args[0]);
+                    return false;
+                }
+                return null;
+            }
+        );
+        Connection connection = (Connection) Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class<?>[] {Connection.class, PGConnection.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "isWrapperFor" -> postgres;
+                case "unwrap" -> proxy;
+                case "createStatement" -> statement;
+                case "getNotifications" -> {
+                    PGNotification first = notifications.poll((Integer) args[0], TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        yield new PGNotification[0];
+                    }
+                    List<PGNotification> batch = new ArrayList<>(List.of(first));
+                    notifications.drainTo(batch);
+                    yield batch.toArray(new PGNotification[0]);
+                }
+                default -> null;
+            }
+        );
+        DataSource dataSource = mock(DataSource.class);
+        try {
+            when(dataSource.getConnection()).thenReturn(connection);
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return dataSource;
+    }
+
+    private static PGNotification notification() {
+        return (PGNotification) Proxy.newProxyInstance(
+            AuditOutboxNotificationListenerTest.class.getClassLoader(),
+            new Class<?>[] {PGNotification.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "getName" -> "aud_event_outbox";
+                case "getPID" -> 1;
+                default -> "";
+            }
+        );
+    }
+
+    /**
+     * 记录插入时间的 outbox：每次分发取出至多一批，并记录插入到发布的延迟。
+     */
+    private final class FakeOutbox implements AuditOutboxService {
+
+        private final ConcurrentLinkedQueue<Long> pending = new ConcurrentLinkedQueue<>();
+        private final List<Long> latencyNanos = new CopyOnWriteArrayList<>();
+
+        private void insert() {
+            pending.add(System.nanoTime());
+        }
+
+        @Override
+        public int dispatchPendingEvents() {
+            int claimed = 0;
+            Long insertedAt;
+            while (claimed < properties.getBatchSize() && (insertedAt = pending.poll()) != null) {
+                latencyNanos.add(System.nanoTime() - insertedAt);
+                claimed++;
+            }
+            return claimed;
+        }
+    }
+}
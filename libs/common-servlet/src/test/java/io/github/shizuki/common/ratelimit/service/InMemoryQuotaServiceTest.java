@@ -0,0 +1,62 @@
+package io.github.shizuki.common.ratelimit.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class InMemoryQuotaServiceTest {
+
+    @Test
+    void shouldGrantExactlyTheQuotaUnderContention() throws Exception {
+        InMemoryQuotaService quotaService = new InMemoryQuotaService();
+        quotaService.grant(7L, "ai.chat", 100L);
+
+        Assertions.assertEquals(100, consumeConcurrently(quotaService, 64, 10));
+        Assertions.assertEquals(0L, quotaService.remaining(7L, "ai.chat"));
+    }
+
+    @Test
+    void shouldRejectWithoutSpendingWhenBalanceIsShort() {
+        InMemoryQuotaService quotaService = new InMemoryQuotaService();
+        quotaService.grant(7L, "ai.chat", 5L);
+
+        Assertions.assertFalse(quotaService.consume(7L, "ai.chat", 6L));
+        Assertions.assertTrue(quotaService.consume(7L, "ai.chat", 5L));
+        Assertions.assertFalse(quotaService.consume(8L, "ai.chat", 1L));
+        Assertions.assertEquals(0L, quotaService.remaining(7L, "ai.chat"));
+    }
+
+    static int consumeConcurrently(QuotaService quotaService, int threads, int attemptsPerThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int succeeded = 0;
+                    for (int attempt = 0; attempt < attemptsPerThread; attempt++) {
+                        if (quotaService.consume(7L, "ai.chat", 1L)) {
+                            succeeded++;
+                        }
+                    }
+                    return succeeded;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get(30, TimeUnit.SECONDS);
+            }
+            return total;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.shizuki.common.ratelimit.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+class RedisQuotaServiceTest {
+
+    private final ScriptedRedis redis = new ScriptedRedis();
+    private final RedisQuotaService quotaService = new RedisQuotaService(redis);
+
+    @Test
+    void shouldGrantExactlyTheQuotaUnderContention() throws Exception {
+        quotaService.grant(7L, "ai.chat", 100L, Duration.ofDays(1));
+
+        Assertions.assertEquals(100, InMemoryQuotaServiceTest.consumeConcurrently(quotaService, 64, 10));
+        Assertions.assertEquals(0L, quotaService.remaining(7L, "ai.chat"));
+        Assertions.assertEquals(640, redis.scriptCalls.get());
+    }
+
+    @Test
+    void shouldRejectWithoutWritingWhenBalanceIsShort() {
+        quotaService.grant(7L, "ai.chat", 5L, null);
+
+        Assertions.assertFalse(quotaService.consume(7L, "ai.chat", 6L));
+        Assertions.assertEquals(5L, quotaService.remaining(7L, "ai.chat"));
+        Assertions.assertFalse(quotaService.consume(8L, "ai.chat", 1L));
+        Assertions.assertFalse(redis.values.containsKey("shizuki:quota:8:ai.chat"));
+    }
+
+    /**
+     * Redis runs each script serially; the fake mirrors the consume script under a single lock.
+     */
+    private static final class ScriptedRedis extends StringRedisTemplate {
+
+        private final Map<String, String> values = new ConcurrentHashMap<>();
+        private final AtomicInteger scriptCalls = new AtomicInteger();
+        @SuppressWarnings("unchecked")
+        private final ValueOperations<String, String> valueOperations = Mockito.mock(ValueOperations.class);
+
+        private ScriptedRedis() {
+            Mockito.doAnswer(invocation -> values.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(valueOperations).set(Mockito.anyString(), Mockito.anyString());
+            Mockito.doAnswer(invocation -> values.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(valueOperations).set(Mockito.anyString(), Mockito.anyString(), Mockito.any(Duration.class));
+            Mockito.when(valueOperations.get(Mockito.anyString()))
+                .thenAnswer(invocation -> values.get(invocation.<String>getArgument(0)));
+        }
+
+        @Override
+        public ValueOperations<String, String> opsForValue() {
+            return valueOperations;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public synchronized <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            Assertions.assertSame(RedisQuotaService.CONSUME_SCRIPT, script);
+            scriptCalls.incrementAndGet();
+            long amount = Long.parseLong(String.valueOf(args[0]));
+            long balance = Long.parseLong(values.getOrDefault(keys.get(0), "0"));
+            if (balance < amount) {
+                return (T) Long.valueOf(-1L);
+            }
+            values.put(keys.get(0), String.valueOf(balance - amount));
+            return (T) Long.valueOf(balance - amount);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.shizuki.common.ratelimit.support;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LocalRateLimiterTest {
+
+    private final AtomicLong nowMillis = new AtomicLong(1_000_000L);
+
+    @Test
+    void shouldRefillAtConfiguredRateAndReportRetryAfter() {
+        LocalRateLimiter limiter = new LocalRateLimiter(100, this::now);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(2 - i, limiter.tryAcquire("k", 3, 3).remaining());
+        }
+
+        RateLimitDecision rejected = limiter.tryAcquire("k", 3, 3);
+        Assertions.assertFalse(rejected.allowed());
+        Assertions.assertEquals(1_000L, rejected.retryAfterMillis());
+
+        nowMillis.addAndGet(999L);
+        Assertions.assertFalse(limiter.tryAcquire("k", 3, 3).allowed());
+        nowMillis.addAndGet(1L);
+        Assertions.assertTrue(limiter.tryAcquire("k", 3, 3).allowed());
+    }
+
+    @Test
+    void shouldNotLoseRefillUnderHighFrequencyCalls() {
+        LocalRateLimiter limiter = new LocalRateLimiter(100, this::now);
+        int allowed = 0;
+        // 60 次/分钟，每毫秒调用一次：单次调用只能攒下零头，长期看仍应按速率补充。
+        for (int tick = 0; tick < 120_000; tick++) {
+            if (limiter.tryAcquire("k", 60, 60).allowed()) {
+                allowed++;
+            }
+            nowMillis.incrementAndGet();
+        }
+
+        Assertions.assertTrue(allowed >= 60 + 119 && allowed <= 60 + 120, "allowed=" + allowed);
+    }
+
+    @Test
+    void shouldHoldLimitUnderConcurrentCallers() throws Exception {
+        LocalRateLimiter frozen = new LocalRateLimiter(100, this::now);
+        Assertions.assertEquals(1_000, hammer(frozen, 16, 20_000, 1_000, 60));
+
+        LocalRateLimiter live = new LocalRateLimiter(100, Instant::now);
+        long started = System.nanoTime();
+        int allowed = hammer(live, 16, 50_000, 200, 1);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        long ceiling = 200 + 200 * (elapsedMillis + 1) / 1000 + 1;
+        Assertions.assertTrue(allowed >= 200 && allowed <= ceiling,
+            "allowed=" + allowed + " ceiling=" + ceiling + " elapsedMs=" + elapsedMillis);
+    }
+
+    @Test
+    void shouldEvictRefilledBucketsAndStayBounded() {
+        LocalRateLimiter limiter = new LocalRateLimiter(5_000, this::now);
+        for (int user = 0; user < 3_000; user++) {
+            limiter.tryAcquire("rate-limit:posts.list:u:" + user, 60, 60);
+        }
+        Assertions.assertEquals(3_000, limiter.size());
+
+        nowMillis.addAndGet(60_000L);
+        for (int user = 3_000; user < 3_000 + 1_024; user++) {
+            limiter.tryAcquire("rate-limit:posts.list:u:" + user, 60, 60);
+        }
+        Assertions.assertTrue(limiter.size() <= 1_024, "size=" + limiter.size());
+
+        for (int user = 0; user < 50_000; user++) {
+            limiter.tryAcquire("rate-limit:posts.detail:u:" + user, 60, 60);
+            Assertions.assertTrue(limiter.size() <= 5_000);
+        }
+    }
+
+    private int hammer(LocalRateLimiter limiter, int threads, int callsPerThread, int limit, int windowSeconds)
+        throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int allowed = 0;
+                    for (int call = 0; call < callsPerThread; call++) {
+                        if (limiter.tryAcquire("shared", limit, windowSeconds).allowed()) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get(30, TimeUnit.SECONDS);
+            }
+            return total;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Instant now() {
+        return Instant.ofEpochMilli(nowMillis.get());
+    }
+}
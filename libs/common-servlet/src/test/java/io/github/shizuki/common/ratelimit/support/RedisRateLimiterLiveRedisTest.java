@@ -0,0 +1,118 @@
+package io.github.shizuki.common.ratelimit.support;
+
+import io.github.shizuki.common.ratelimit.annotation.RateLimitAlgorithm;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 在真实 Redis 上执行限流 Lua 脚本，校验脚本本身而不是 {@link RedisRateLimiterTest} 里的 Java 镜像。
+ * 需要可用的 Redis：{@code mvn test -Dredis.host=localhost [-Dredis.port=6379]}。
+ */
+@Tag("redis")
+@EnabledIfSystemProperty(named = "redis.host", matches = ".+")
+class RedisRateLimiterLiveRedisTest {
+
+    private final AtomicLong nowMillis = new AtomicLong(System.currentTimeMillis() / 1_000L * 1_000L);
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redis;
+    private RedisRateLimiter limiter;
+    private String key;
+
+    @BeforeEach
+    void connect() {
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(
+            System.getProperty("redis.host"), Integer.getInteger("redis.port", 6379));
+        connectionFactory = new LettuceConnectionFactory(configuration);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redis = new StringRedisTemplate(connectionFactory);
+        limiter = new RedisRateLimiter(redis, () -> Instant.ofEpochMilli(nowMillis.get()));
+        key = "rate-limit:live-test:" + UUID.randomUUID();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        redis.delete(List.of(key, key + ":sw", key + ":tb"));
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void fixedWindowScriptShouldCountOnTheLegacyKeyAndExpireIt() {
+        Assertions.assertEquals(1L, limiter.tryAcquire(key, RateLimitAlgorithm.FIXED_WINDOW, 2, 10, 0).remaining());
+        Assertions.assertTrue(limiter.tryAcquire(key, RateLimitAlgorithm.FIXED_WINDOW, 2, 10, 0).allowed());
+
+        RateLimitDecision rejected = limiter.tryAcquire(key, RateLimitAlgorithm.FIXED_WINDOW, 2, 10, 0);
+        Assertions.assertFalse(rejected.allowed());
+        Assertions.assertTrue(rejected.retryAfterMillis() > 0 && rejected.retryAfterMillis() <= 10_000L);
+        Assertions.assertEquals("3", redis.opsForValue().get(key));
+        Long ttl = redis.getExpire(key, TimeUnit.MILLISECONDS);
+        Assertions.assertTrue(ttl != null && ttl > 0 && ttl <= 10_000L, "ttl=" + ttl);
+    }
+
+    @Test
+    void slidingWindowScriptShouldRejectBurstAcrossWindowEdge() {
+        nowMillis.addAndGet(9_900L);
+        Assertions.assertEquals(5, burst(RateLimitAlgorithm.SLIDING_WINDOW, 5, 10, 5));
+        nowMillis.addAndGet(200L);
+
+        RateLimitDecision rejected = limiter.tryAcquire(key, RateLimitAlgorithm.SLIDING_WINDOW, 5, 10, 0);
+        Assertions.assertFalse(rejected.allowed());
+        Assertions.assertEquals(9_900L, rejected.retryAfterMillis());
+
+        nowMillis.addAndGet(9_900L);
+        RateLimitDecision reopened = limiter.tryAcquire(key, RateLimitAlgorithm.SLIDING_WINDOW, 5, 10, 0);
+        Assertions.assertTrue(reopened.allowed());
+        Assertions.assertEquals(4L, reopened.remaining());
+    }
+
+    @Test
+    void slidingWindowScriptShouldKeepBoundedStateForLargeLimits() {
+        for (int second = 0; second < 30; second++) {
+            Assertions.assertEquals(20, burst(RateLimitAlgorithm.SLIDING_WINDOW, 10_000, 10, 20));
+            nowMillis.addAndGet(1_000L);
+        }
+
+        Long fields = redis.opsForHash().size(key + ":sw");
+        Assertions.assertTrue(fields != null && fields <= RedisRateLimiter.SLIDING_WINDOW_BUCKETS + 1,
+            "fields=" + fields);
+    }
+
+    @Test
+    void tokenBucketScriptShouldCapBurstAndRefillAtConfiguredRate() {
+        Assertions.assertEquals(3, burst(RateLimitAlgorithm.TOKEN_BUCKET, 10, 10, 5, 3));
+
+        RateLimitDecision rejected = limiter.tryAcquire(key, RateLimitAlgorithm.TOKEN_BUCKET, 10, 10, 3);
+        Assertions.assertFalse(rejected.allowed());
+        Assertions.assertEquals(1_000L, rejected.retryAfterMillis());
+
+        nowMillis.addAndGet(1_000L);
+        Assertions.assertTrue(limiter.tryAcquire(key, RateLimitAlgorithm.TOKEN_BUCKET, 10, 10, 3).allowed());
+        Assertions.assertFalse(limiter.tryAcquire(key, RateLimitAlgorithm.TOKEN_BUCKET, 10, 10, 3).allowed());
+    }
+
+    private int burst(RateLimitAlgorithm algorithm, int limit, int windowSeconds, int requests) {
+        return burst(algorithm, limit, windowSeconds, requests, 0);
+    }
+
+    private int burst(RateLimitAlgorithm algorithm, int limit, int windowSeconds, int requests, int burst) {
+        int allowed = 0;
+        for (int i = 0; i < requests; i++) {
+            if (limiter.tryAcquire(key, algorithm, limit, windowSeconds, burst).allowed()) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+}
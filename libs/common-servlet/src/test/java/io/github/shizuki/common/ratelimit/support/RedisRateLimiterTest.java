@@ -0,0 +1,262 @@
+package io.github.shizuki.common.ratelimit.support;
+
+import io.github.shizuki.common.ratelimit.annotation.RateLimitAlgorithm;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+class RedisRateLimiterTest {
+
+    private static final String KEY = "rate-limit:posts.list:u:1:g:USER";
+
+    private final AtomicLong nowMillis = new AtomicLong(1_000_000L);
+    private final LuaScriptRedis redis = new LuaScriptRedis(nowMillis);
+    private final RedisRateLimiter limiter = new RedisRateLimiter(redis, () -> Instant.ofEpochMilli(nowMillis.get()));
+
+    @Test
+    void fixedWindowShouldExpireCounterEvenOnFirstHit() {
+        RateLimitDecision first = acquire(RateLimitAlgorithm.FIXED_WINDOW, 2, 10);
+
+        Assertions.assertTrue(first.allowed());
+        Assertions.assertEquals(1L, first.remaining());
+        Assertions.assertEquals(10_000L, redis.pttl(KEY));
+        acquire(RateLimitAlgorithm.FIXED_WINDOW, 2, 10);
+        RateLimitDecision rejected = acquire(RateLimitAlgorithm.FIXED_WINDOW, 2, 10);
+        Assertions.assertFalse(rejected.allowed());
+        Assertions.assertEquals(10_000L, rejected.retryAfterMillis());
+    }
+
+    @Test
+    void fixedWindowShouldAllowDoubleBurstAcrossWindowEdge() {
+        acquire(RateLimitAlgorithm.FIXED_WINDOW, 5, 10);
+        nowMillis.addAndGet(9_900L);
+        int allowed = burst(RateLimitAlgorithm.FIXED_WINDOW, 5, 10, 5);
+        nowMillis.addAndGet(200L);
+        allowed += burst(RateLimitAlgorithm.FIXED_WINDOW, 5, 10, 5);
+
+        Assertions.assertEquals(9, allowed);
+    }
+
+    @Test
+    void slidingWindowShouldRejectBurstAcrossWindowEdge() {
+        nowMillis.addAndGet(9_900L);
+        Assertions.assertEquals(5, burst(RateLimitAlgorithm.SLIDING_WINDOW, 5, 10, 5));
+        nowMillis.addAndGet(200L);
+
+        RateLimitDecision rejected = acquire(RateLimitAlgorithm.SLIDING_WINDOW, 5, 10);
+        Assertions.assertFalse(rejected.allowed());
+        // 1 秒一个桶：放行发生在 1009 号桶，等到 1020 号桶它才移出统计范围。
+        Assertions.assertEquals(9_900L, rejected.retryAfterMillis());
+        Assertions.assertEquals(10L, rejected.retryAfterSeconds());
+        Assertions.assertEquals(0, burst(RateLimitAlgorithm.SLIDING_WINDOW, 5, 10, 4));
+
+        nowMillis.addAndGet(9_800L);
+        Assertions.assertFalse(acquire(RateLimitAlgorithm.SLIDING_WINDOW, 5, 10).allowed());
+        nowMillis.addAndGet(100L);
+        RateLimitDecision reopened = acquire(RateLimitAlgorithm.SLIDING_WINDOW, 5, 10);
+        Assertions.assertTrue(reopened.allowed());
+        Assertions.assertEquals(4L, reopened.remaining());
+    }
+
+    @Test
+    void slidingWindowShouldReportRemainingQuota() {
+        Assertions.assertEquals(2L, acquire(RateLimitAlgorithm.SLIDING_WINDOW, 3, 60).remaining());
+        nowMillis.addAndGet(1_000L);
+        Assertions.assertEquals(1L, acquire(RateLimitAlgorithm.SLIDING_WINDOW, 3, 60).remaining());
+        Assertions.assertEquals(61_000L, redis.pttl(KEY + ":sw"));
+    }
+
+    @Test
+    void slidingWindowShouldKeepBoundedStateForLargeLimits() {
+        for (int second = 0; second < 120; second++) {
+            Assertions.assertEquals(50, burst(RateLimitAlgorithm.SLIDING_WINDOW, 10_000, 60, 50));
+            nowMillis.addAndGet(1_000L);
+        }
+
+        Assertions.assertTrue(redis.hashSize(KEY + ":sw") <= RedisRateLimiter.SLIDING_WINDOW_BUCKETS + 1,
+            "fields=" + redis.hashSize(KEY + ":sw"));
+    }
+
+    @Test
+    void slidingWindowShouldNeverAdmitMoreThanLimitInAnyWindow() {
+        Random random = new Random(15L);
+        List<Long> admitted = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            nowMillis.addAndGet(random.nextInt(400));
+            if (acquire(RateLimitAlgorithm.SLIDING_WINDOW, 20, 10).allowed()) {
+                admitted.add(nowMillis.get());
+            }
+        }
+
+        for (int start = 0; start < admitted.size(); start++) {
+            int end = start;
+            while (end < admitted.size() && admitted.get(end) < admitted.get(start) + 10_000L) {
+                end++;
+            }
+            Assertions.assertTrue(end - start <= 20, "window starting at " + admitted.get(start));
+        }
+    }
+
+    @Test
+    void tokenBucketShouldCapBurstAndRefillAtConfiguredRate() {
+        RateLimitDecision first = limiter.tryAcquire(KEY, RateLimitAlgorithm.TOKEN_BUCKET, 10, 10, 3);
+        Assertions.assertTrue(first.allowed());
+        Assertions.assertEquals(2L, first.remaining());
+        limiter.tryAcquire(KEY, RateLimitAlgorithm.TOKEN_BUCKET, 10, 10, 3);
+        limiter.tryAcquire(KEY, RateLimitAlgorithm.TOKEN_BUCKET, 10, 10, 3);
+
+        RateLimitDecision rejected = limiter.tryAcquire(KEY, RateLimitAlgorithm.TOKEN_BUCKET, 10, 10, 3);
+        Assertions.assertFalse(rejected.allowed());
+        Assertions.assertEquals(1_000L, rejected.retryAfterMillis());
+
+        nowMillis.addAndGet(1_000L);
+        Assertions.assertTrue(limiter.tryAcquire(KEY, RateLimitAlgorithm.TOKEN_BUCKET, 10, 10, 3).allowed());
+        Assertions.assertFalse(limiter.tryAcquire(KEY, RateLimitAlgorithm.TOKEN_BUCKET, 10, 10, 3).allowed());
+
+        // 空闲足够久后桶被填满，TAT 键随之过期。
+        nowMillis.addAndGet(3_000L);
+        Assertions.assertEquals(-2L, redis.pttl(KEY + ":tb"));
+        Assertions.assertEquals(3, burst(RateLimitAlgorithm.TOKEN_BUCKET, 10, 10, 5, 3));
+    }
+
+    private RateLimitDecision acquire(RateLimitAlgorithm algorithm, int limit, int windowSeconds) {
+        return limiter.tryAcquire(KEY, algorithm, limit, windowSeconds, 0);
+    }
+
+    private int burst(RateLimitAlgorithm algorithm, int limit, int windowSeconds, int requests) {
+        return burst(algorithm, limit, windowSeconds, requests, 0);
+    }
+
+    private int burst(RateLimitAlgorithm algorithm, int limit, int windowSeconds, int requests, int burst) {
+        int allowed = 0;
+        for (int i = 0; i < requests; i++) {
+            if (limiter.tryAcquire(KEY, algorithm, limit, windowSeconds, burst).allowed()) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+
+    /**
+     * In-memory Redis that evaluates the limiter's Lua scripts. No Lua engine is available in the
+     * build, so each script is mirrored statement by statement over the same command set, with
+     * key expiry driven by the test clock. {@link RedisRateLimiterLiveRedisTest} runs the real
+     * scripts against a Redis server when one is configured.
+     */
+    private static final class LuaScriptRedis extends StringRedisTemplate {
+
+        private final AtomicLong nowMillis;
+        private final Map<String, String> strings = new HashMap<>();
+        private final Map<String, TreeMap<Long, Long>> hashes = new HashMap<>();
+        private final Map<String, Long> expireAt = new HashMap<>();
+
+        private LuaScriptRedis(AtomicLong nowMillis) {
+            this.nowMillis = nowMillis;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            String key = keys.get(0);
+            evictExpired(key);
+            if (script == RedisRateLimiter.FIXED_WINDOW_SCRIPT) {
+                return (T) fixedWindow(key, arg(args, 0), arg(args, 1));
+            }
+            if (script == RedisRateLimiter.SLIDING_WINDOW_SCRIPT) {
+                return (T) slidingWindow(key, arg(args, 0), arg(args, 1), arg(args, 2), arg(args, 3));
+            }
+            if (script == RedisRateLimiter.TOKEN_BUCKET_SCRIPT) {
+                return (T) tokenBucket(key, arg(args, 0), arg(args, 1), arg(args, 2));
+            }
+            throw new IllegalArgumentException("unknown script");
+        }
+
+        private List<Long> fixedWindow(String key, long limit, long window) {
+            long count = Long.parseLong(strings.getOrDefault(key, "0")) + 1;
+            strings.put(key, String.valueOf(count));
+            long ttl = pttl(key);
+            if (ttl < 0) {
+                expireAt.put(key, nowMillis.get() + window);
+                ttl = window;
+            }
+            if (count <= limit) {
+                return List.of(1L, limit - count, 0L);
+            }
+            return List.of(0L, 0L, ttl);
+        }
+
+        private List<Long> slidingWindow(String key, long limit, long window, long now, long buckets) {
+            long size = (window + buckets - 1) / buckets;
+            long current = Math.floorDiv(now, size);
+            TreeMap<Long, Long> hash = hashes.computeIfAbsent(key, ignored -> new TreeMap<>());
+            hash.headMap(current - buckets).clear();
+            long total = hash.values().stream().mapToLong(Long::longValue).sum();
+            if (total < limit) {
+                hash.merge(current, 1L, Long::sum);
+                expireAt.put(key, nowMillis.get() + (current + buckets + 1) * size - now);
+                return List.of(1L, limit - total - 1, 0L);
+            }
+            long excess = total - limit + 1;
+            for (Map.Entry<Long, Long> entry : hash.entrySet()) {
+                excess -= entry.getValue();
+                if (excess <= 0) {
+                    return List.of(0L, 0L, (entry.getKey() + buckets + 1) * size - now);
+                }
+            }
+            return List.of(0L, 0L, window);
+        }
+
+        private int hashSize(String key) {
+            evictExpired(key);
+            TreeMap<Long, Long> hash = hashes.get(key);
+            return hash == null ? 0 : hash.size();
+        }
+
+        private List<Long> tokenBucket(String key, long interval, long burst, long now) {
+            String stored = strings.get(key);
+            long tat = stored == null ? now : Long.parseLong(stored);
+            if (tat < now) {
+                tat = now;
+            }
+            long nextTat = tat + interval;
+            long allowAt = nextTat - interval * burst;
+            if (allowAt > now) {
+                return List.of(0L, 0L, allowAt - now);
+            }
+            strings.put(key, String.valueOf(nextTat));
+            expireAt.put(key, nowMillis.get() + (nextTat - now));
+            return List.of(1L, Math.floorDiv(now - allowAt, interval), 0L);
+        }
+
+        private long pttl(String key) {
+            evictExpired(key);
+            Long deadline = expireAt.get(key);
+            if (deadline == null) {
+                return strings.containsKey(key) || hashes.containsKey(key) ? -1L : -2L;
+            }
+            return deadline - nowMillis.get();
+        }
+
+        private void evictExpired(String key) {
+            Long deadline = expireAt.get(key);
+            if (deadline != null && deadline <= nowMillis.get()) {
+                expireAt.remove(key);
+                strings.remove(key);
+                hashes.remove(key);
+            }
+        }
+
+        private static long arg(Object[] args, int index) {
+            return Long.parseLong(String.valueOf(args[index]));
+        }
+    }
+}
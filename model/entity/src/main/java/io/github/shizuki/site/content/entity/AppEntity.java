@@ -1,5 +1,6 @@
 package io.github.shizuki.site.content.entity;
 
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableName;
 import io.github.shizuki.common.core.model.BaseEntity;
@@ -25,9 +26,12 @@ public class AppEntity extends BaseEntity {
     @TableField("pin_flag")
     private Boolean pinAble;
 
-    @TableField("like_value")
+    @TableField(value = "like_value", updateStrategy = FieldStrategy.NEVER)
     private Long likeCount;
 
+    @TableField(value = "like_flush_token", updateStrategy = FieldStrategy.NEVER)
+    private String likeFlushToken;
+
     public Long getAppNum() {
         return appNum;
     }
@@ -84,4 +88,12 @@ public class AppEntity extends BaseEntity {
         this.likeCount = likeCount;
     }
 
+    public String getLikeFlushToken() {
+        return likeFlushToken;
+    }
+
+    public void setLikeFlushToken(String likeFlushToken) {
+        this.likeFlushToken = likeFlushToken;
+    }
+
 }
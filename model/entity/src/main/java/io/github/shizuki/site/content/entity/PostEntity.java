@@ -1,5 +1,6 @@
 package io.github.shizuki.site.content.entity;
 
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableName;
 import io.github.shizuki.common.core.model.BaseEntity;
@@ -50,12 +51,18 @@ public class PostEntity extends BaseEntity {
     @TableField("reading_minutes")
     private Integer readingMinutes;
 
+    @TableField("metrics_version")
+    private Integer metricsVersion;
+
     @TableField("published_time")
     private LocalDateTime publishedAt;
 
-    @TableField("like_value")
+    @TableField(value = "like_value", updateStrategy = FieldStrategy.NEVER)
     private Long likeCount;
 
+    @TableField(value = "like_flush_token", updateStrategy = FieldStrategy.NEVER)
+    private String likeFlushToken;
+
     @TableField("notion_page_id")
     private String notionPageId;
 
@@ -189,6 +196,14 @@ public class PostEntity extends BaseEntity {
         this.readingMinutes = readingMinutes;
     }
 
+    public Integer getMetricsVersion() {
+        return metricsVersion;
+    }
+
+    public void setMetricsVersion(Integer metricsVersion) {
+        this.metricsVersion = metricsVersion;
+    }
+
     public LocalDateTime getPublishedAt() {
         return publishedAt;
     }
@@ -205,6 +220,14 @@ public class PostEntity extends BaseEntity {
         this.likeCount = likeCount;
     }
 
+    public String getLikeFlushToken() {
+        return likeFlushToken;
+    }
+
+    public void setLikeFlushToken(String likeFlushToken) {
+        this.likeFlushToken = likeFlushToken;
+    }
+
     public String getNotionPageId() {
         return notionPageId;
     }
@@ -14,6 +14,7 @@ public record MusicSearchResponse(
     @Schema(description = "每页数量") int limit,
     @Schema(description = "是否部分成功") boolean partial,
     @Schema(description = "失败平台列表") List<String> failedProviders,
+    @Schema(description = "超过搜索时限被放弃的平台列表（同时计入失败平台）") List<String> timedOutProviders,
     @Schema(description = "歌单是否还有下一页") boolean hasMorePlaylists,
     @Schema(description = "歌曲是否还有下一页") boolean hasMoreTracks,
     @Schema(description = "歌手是否还有下一页") boolean hasMoreArtists,
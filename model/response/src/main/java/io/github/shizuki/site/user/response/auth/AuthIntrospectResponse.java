@@ -2,5 +2,14 @@ package io.github.shizuki.site.user.response.auth;
 
 import java.util.Set;
 
-public record AuthIntrospectResponse(Long userId, Set<String> groups, Set<String> permissions) {
+/**
+ * token 内省结果。
+ *
+ * @param tokenExpiresInSec access token 剩余有效期（秒）；-1 表示永不过期，null 表示未知
+ */
+public record AuthIntrospectResponse(Long userId, Set<String> groups, Set<String> permissions, Long tokenExpiresInSec) {
+
+    public AuthIntrospectResponse(Long userId, Set<String> groups, Set<String> permissions) {
+        this(userId, groups, permissions, null);
+    }
 }
@@ -2,6 +2,7 @@ package io.github.shizuki.site.content.controller;
 
 import io.github.shizuki.common.audit.annotation.AuditLog;
 import io.github.shizuki.common.core.response.ApiResponse;
+import io.github.shizuki.common.core.response.CursorPageResponse;
 import io.github.shizuki.common.core.response.PageResponse;
 import io.github.shizuki.common.ratelimit.annotation.RateLimit;
 import io.github.shizuki.site.content.response.AuthorWhisperItemResponse;
@@ -73,6 +74,26 @@ public class PostController {
         return ApiResponse.success(contentService.listPosts(pageNo, pageSize, keyword, category, tag, publishedFrom, publishedTo));
     }
 
+    /**
+     * 游标分页查询帖子列表。
+     *
+     * @param cursor 上一页返回的游标，首页留空
+     * @param pageSize 分页大小
+     * @return 帖子游标分页结果
+     */
+    @GetMapping("/cursor")
+    @RateLimit(key = "posts.list", limit = 60, windowSeconds = 60)
+    @Operation(summary = "游标分页查询帖子", description = "按 (发布时间, ID) 游标翻页，翻页期间新发布的文章不会造成重复或遗漏")
+    public ApiResponse<CursorPageResponse<PostSummary>> listByCursor(@RequestParam(name = "cursor", required = false) String cursor,
+                                                                     @RequestParam(name = "page_size", defaultValue = "10") long pageSize,
+                                                                     @RequestParam(name = "keyword", required = false) String keyword,
+                                                                     @RequestParam(name = "category", required = false) String category,
+                                                                     @RequestParam(name = "tag", required = false) String tag,
+                                                                     @RequestParam(name = "published_from", required = false) String publishedFrom,
+                                                                     @RequestParam(name = "published_to", required = false) String publishedTo) {
+        return ApiResponse.success(contentService.listPostsByCursor(cursor, pageSize, keyword, category, tag, publishedFrom, publishedTo));
+    }
+
     @GetMapping("/sidebar")
     @RateLimit(key = "posts.sidebar", limit = 60, windowSeconds = 60)
     @Operation(summary = "查询博客侧栏聚合信息", description = "返回最新文章、分类统计、标签统计和归档统计")
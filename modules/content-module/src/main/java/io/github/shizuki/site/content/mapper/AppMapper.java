@@ -7,6 +7,7 @@ import java.util.Set;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
 @Mapper
 public interface AppMapper extends BaseMapper<AppEntity> {
@@ -93,4 +94,14 @@ public interface AppMapper extends BaseMapper<AppEntity> {
                                       @Param("groupCodes") Set<String> groupCodes,
                                       @Param("offset") long offset,
                                       @Param("limit") long limit);
+
+    /**
+     * 原子累加点赞数，并记下最近落库的批次令牌；批次去重由 CTN_LIKE_FLUSH_LOG 在同一事务内完成。
+     */
+    @Update("""
+        UPDATE CTN_APP
+        SET like_value = COALESCE(like_value, 0) + #{delta}, like_flush_token = #{flushToken}
+        WHERE id = #{appId}
+        """)
+    int increaseLikeCount(@Param("appId") Long appId, @Param("delta") Long delta, @Param("flushToken") String flushToken);
 }
@@ -0,0 +1,26 @@
+package io.github.shizuki.site.content.mapper;
+
+import java.time.LocalDateTime;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+@Mapper
+public interface LikeFlushLogMapper {
+
+    /**
+     * 记下已落库的点赞批次；同一批次再次写入时主键冲突，抛出 DuplicateKeyException。
+     */
+    @Insert("""
+        INSERT INTO CTN_LIKE_FLUSH_LOG (target_code, target_id, flush_token, create_time)
+        VALUES (#{targetCode}, #{targetId}, #{flushToken}, CURRENT_TIMESTAMP)
+        """)
+    int insert(@Param("targetCode") String targetCode, @Param("targetId") Long targetId, @Param("flushToken") String flushToken);
+
+    @Delete("""
+        DELETE FROM CTN_LIKE_FLUSH_LOG
+        WHERE create_time < #{before}
+        """)
+    int deleteBefore(@Param("before") LocalDateTime before);
+}
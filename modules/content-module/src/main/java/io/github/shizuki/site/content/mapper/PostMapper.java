@@ -7,6 +7,7 @@ import java.util.Set;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
 @Mapper
 public interface PostMapper extends BaseMapper<PostEntity> {
@@ -144,4 +145,28 @@ public interface PostMapper extends BaseMapper<PostEntity> {
         ORDER BY p.update_time DESC, p.id DESC
         """)
     List<PostEntity> selectAuthorPosts(@Param("userId") Long userId);
+
+    /**
+     * 原子累加点赞数，并记下最近落库的批次令牌；批次去重由 CTN_LIKE_FLUSH_LOG 在同一事务内完成。
+     */
+    @Update("""
+        UPDATE CTN_POST
+        SET like_value = COALESCE(like_value, 0) + #{delta}, like_flush_token = #{flushToken}
+        WHERE id = #{postId}
+        """)
+    int increaseLikeCount(@Param("postId") Long postId, @Param("delta") Long delta, @Param("flushToken") String flushToken);
+
+    /**
+     * 回填正文统计列。
+     */
+    @Update("""
+        UPDATE CTN_POST
+        SET word_count = #{wordCount}, line_count = #{lineCount}, reading_minutes = #{readingMinutes}, metrics_version = #{metricsVersion}
+        WHERE id = #{postId}
+        """)
+    int updateMarkdownMetrics(@Param("postId") Long postId,
+                              @Param("wordCount") Long wordCount,
+                              @Param("lineCount") Long lineCount,
+                              @Param("readingMinutes") Integer readingMinutes,
+                              @Param("metricsVersion") Integer metricsVersion);
 }
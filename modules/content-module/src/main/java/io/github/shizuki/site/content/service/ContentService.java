@@ -1,5 +1,6 @@
 package io.github.shizuki.site.content.service;
 
+import io.github.shizuki.common.core.response.CursorPageResponse;
 import io.github.shizuki.common.core.response.PageResponse;
 import io.github.shizuki.site.content.response.AppLikeResponse;
 import io.github.shizuki.site.content.response.AuthorProfileResponse;
@@ -55,6 +56,20 @@ public interface ContentService {
         String publishedTo
     );
 
+    /**
+     * 游标分页查询帖子，按 (发布时间, ID) 降序定位，翻页期间新发布的文章不会造成重复或遗漏。
+     * 关键词筛选在游标模式下同样按发布时间排序。
+     */
+    CursorPageResponse<PostSummary> listPostsByCursor(
+        String cursor,
+        long pageSize,
+        String keyword,
+        String categoryCode,
+        String tagCode,
+        String publishedFrom,
+        String publishedTo
+    );
+
     /**
      * 查询公开帖子详情。
      */
@@ -244,4 +259,9 @@ public interface ContentService {
      * 删除博客分类展示元数据与策略；若分类仍被文章使用则拒绝删除。
      */
     void deletePostCategoryMeta(String categoryCode);
+
+    /**
+     * 为统计口径落后的历史文章回填字数、行数与阅读时长，返回回填条数。
+     */
+    int backfillPostMarkdownMetrics(int batchSize);
 }
@@ -7,6 +7,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.shizuki.common.core.error.BusinessException;
 import io.github.shizuki.common.core.error.ErrorCode;
+import io.github.shizuki.common.core.response.CursorPageResponse;
 import io.github.shizuki.common.core.response.PageResponse;
 import io.github.shizuki.common.security.context.LoginUserContext;
 import io.github.shizuki.common.security.model.LoginUser;
@@ -74,6 +75,15 @@ import io.github.shizuki.site.content.support.PostPresentationGeneratorClient;
 import io.github.shizuki.site.content.support.PostNotionSyncService;
 import io.github.shizuki.site.content.support.PostPresentationTemplateService;
 import io.github.shizuki.site.content.support.PostPresentationTemplateService.PresentationDeck;
+import io.github.shizuki.site.content.support.LikeCounterService;
+import io.github.shizuki.site.content.support.MarkdownMetrics;
+import io.github.shizuki.site.content.support.PostMarkdownCache;
+import io.github.shizuki.site.content.support.PostCategoryCodes;
+import io.github.shizuki.site.content.support.PostKeywordIndex;
+import io.github.shizuki.site.content.support.PostListCursor;
+import io.github.shizuki.site.content.support.PostSidebarAggregateStore;
+import io.github.shizuki.site.content.support.PostVisibilityResolver;
+import io.github.shizuki.site.content.support.PublishedPostIndex;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -81,13 +91,18 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
@@ -95,6 +110,7 @@ import java.util.concurrent.Executor;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -127,10 +143,8 @@ public class ContentServiceImpl implements ContentService {
     private static final String PPT_CONTENT_TYPE =
         "application/vnd.openxmlformats-officedocument.presentationml.presentation";
 
-    private static final Pattern ASCII_WORD_PATTERN = Pattern.compile("[A-Za-z0-9_]+(?:'[A-Za-z0-9_]+)?");
     private static final Pattern MARKDOWN_IMAGE_PATTERN = Pattern.compile("!\\[[^\\]]*]\\(([^)\\s]+)(?:\\s+\"[^\"]*\")?\\)");
     private static final DateTimeFormatter ARCHIVE_MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
-    private static final double AVG_READING_UNITS_PER_MINUTE = 300.0d;
 
     private final PostMapper postMapper;
     private final AppMapper appMapper;
@@ -152,6 +166,11 @@ public class ContentServiceImpl implements ContentService {
     private final PostNotionSyncService postNotionSyncService;
     private final PostPresentationTemplateService postPresentationTemplateService;
     private final PostPresentationGeneratorClient postPresentationGeneratorClient;
+    private final PublishedPostIndex publishedPostIndex;
+    private final PostVisibilityResolver postVisibilityResolver;
+    private final PostSidebarAggregateStore postSidebarAggregateStore;
+    private final LikeCounterService likeCounterService;
+    private final PostMarkdownCache postMarkdownCache;
     private final Executor postPresentationExecutor;
     private final Executor notionSyncExecutor;
 
@@ -167,6 +186,15 @@ public class ContentServiceImpl implements ContentService {
     @Value("${shizuki.content.author-profile.cache.ttl-seconds:120}")
     private long authorProfileCacheTtlSeconds;
 
+    @Value("${shizuki.blog.post-index.enabled:true}")
+    private boolean publishedPostIndexEnabled = true;
+
+    @Value("${shizuki.blog.post-index.total-cache-ttl-seconds:30}")
+    private long postListingTotalCacheTtlSeconds = 30L;
+
+    @Value("${shizuki.blog.sidebar-aggregate.enabled:true}")
+    private boolean postSidebarAggregateEnabled = true;
+
     private final Object authorProfileCacheLock = new Object();
     private volatile AuthorProfileCacheSnapshot authorProfileCacheSnapshot;
 
@@ -190,6 +218,11 @@ public class ContentServiceImpl implements ContentService {
                               PostNotionSyncService postNotionSyncService,
                               PostPresentationTemplateService postPresentationTemplateService,
                               PostPresentationGeneratorClient postPresentationGeneratorClient,
+                              PublishedPostIndex publishedPostIndex,
+                              PostVisibilityResolver postVisibilityResolver,
+                              PostSidebarAggregateStore postSidebarAggregateStore,
+                              LikeCounterService likeCounterService,
+                              PostMarkdownCache postMarkdownCache,
                               @Qualifier("postPresentationExecutor") Executor postPresentationExecutor,
                               @Qualifier("notionSyncExecutor") Executor notionSyncExecutor) {
         this.postMapper = postMapper;
@@ -212,6 +245,11 @@ public class ContentServiceImpl implements ContentService {
         this.postNotionSyncService = postNotionSyncService;
         this.postPresentationTemplateService = postPresentationTemplateService;
         this.postPresentationGeneratorClient = postPresentationGeneratorClient;
+        this.publishedPostIndex = publishedPostIndex;
+        this.postVisibilityResolver = postVisibilityResolver;
+        this.postSidebarAggregateStore = postSidebarAggregateStore;
+        this.likeCounterService = likeCounterService;
+        this.postMarkdownCache = postMarkdownCache;
         this.postPresentationExecutor = postPresentationExecutor;
         this.notionSyncExecutor = notionSyncExecutor;
     }
@@ -238,6 +276,9 @@ public class ContentServiceImpl implements ContentService {
     ) {
         long normalizedPageNo = pageNo <= 0 ? 1 : pageNo;
         long normalizedPageSize = Math.max(1L, Math.min(pageSize <= 0 ? 10L : pageSize, 100L));
+        if (publishedPostIndexEnabled) {
+            return listPostsFromIndex(normalizedPageNo, normalizedPageSize, keyword, categoryCode, tagCode, publishedFrom, publishedTo);
+        }
 
         List<PostEntity> candidates = loadPublishedPostCandidates();
 
@@ -263,29 +304,291 @@ public class ContentServiceImpl implements ContentService {
         int toIndex = (int) Math.min(fromIndex + normalizedPageSize, total);
 
         List<PostSummary> items = filtered.subList(fromIndex, toIndex).stream()
-            .map(post -> {
-                MarkdownMetrics summaryMetrics = resolveSummaryMetrics(post);
-                return new PostSummary(
-                    post.getId(),
-                    post.getTitle(),
-                    post.getSummary(),
-                    post.getCoverImageUrl(),
-                    normalizeVisibility(post.getVisibility()).name(),
-                    post.getCategoryCode(),
-                    loadPostTags(post.getId(), tagCache),
-                    summaryMetrics.wordCount(),
-                    summaryMetrics.readingMinutes(),
-                    post.getLikeCount() == null ? 0L : post.getLikeCount(),
-                    resolvePostPublishTimeForDisplay(post)
-                );
-            })
+            .map(post -> toPostSummary(post, tagCache))
             .toList();
 
         return PageResponse.of(items, total, normalizedPageNo, normalizedPageSize);
     }
 
+    private PageResponse<PostSummary> listPostsFromIndex(
+        long normalizedPageNo,
+        long normalizedPageSize,
+        String keyword,
+        String categoryCode,
+        String tagCode,
+        String publishedFrom,
+        String publishedTo
+    ) {
+        String normalizedKeyword = normalizeKeyword(keyword);
+        String normalizedCategory = normalizeCategoryCode(categoryCode, false);
+        String normalizedTag = normalizeTagCode(tagCode);
+        PublishedRange range = resolvePublishedRange(publishedFrom, publishedTo);
+        ViewerContext viewer = currentViewer();
+
+        PublishedPostIndex.Snapshot snapshot = publishedPostIndex.snapshot();
+        Map<Long, List<String>> tagCache = snapshot.tagsByPostId();
+        long[] candidateIds = snapshot.candidateIds(normalizedCategory, normalizedTag);
+        long fromIndex = (normalizedPageNo - 1) * normalizedPageSize;
+        long toIndex = fromIndex + normalizedPageSize;
+
+        PostKeywordIndex.Matches keywordMatches = StringUtils.hasText(normalizedKeyword)
+            ? snapshot.keywordMatches(normalizedKeyword)
+            : null;
+        Iterator<PostEntity> matches;
+        if (keywordMatches != null) {
+            // 关键词命中需要按标题得分重排，只能先收齐命中集；命中集本身远小于全部候选。
+            List<PostEntity> matched = new ArrayList<>();
+            List<PublishedPostIndex.Entry> hits = new ArrayList<>();
+            Map<Long, Integer> titleScores = new HashMap<>();
+            for (long postId : keywordMatches.ids()) {
+                PublishedPostIndex.Entry entry = snapshot.get(postId);
+                if (entry == null) {
+                    continue;
+                }
+                PostEntity post = entry.post();
+                if (matchesCategory(post, normalizedCategory)
+                    && matchesTag(post.getId(), normalizedTag, tagCache)
+                    && matchesPublishedRange(post, range)) {
+                    hits.add(entry);
+                    titleScores.put(postId, keywordMatches.titleScore(postId));
+                }
+            }
+            hits.sort(
+                Comparator.comparing((PublishedPostIndex.Entry entry) -> titleScores.get(entry.postId()), Comparator.reverseOrder())
+                    .thenComparing(PublishedPostIndex.Entry::sortTime, Comparator.reverseOrder())
+                    .thenComparing(PublishedPostIndex.Entry::postId, Comparator.reverseOrder())
+            );
+            for (PublishedPostIndex.Entry entry : hits) {
+                matched.add(entry.post());
+            }
+            matches = matched.iterator();
+        } else {
+            matches = new IndexedPostIterator(snapshot, candidateIds, post ->
+                matchesCategory(post, normalizedCategory)
+                    && matchesTag(post.getId(), normalizedTag, tagCache)
+                    && matchesPublishedRange(post, range));
+        }
+
+        // 候选按需惰性过滤，只对填满当前页所需的前缀做可见性判断，按块推进；没走完的部分交给缓存的总数。
+        List<PostEntity> page = new ArrayList<>((int) normalizedPageSize);
+        long accessible = 0L;
+        while (matches.hasNext() && accessible < toIndex) {
+            int chunkSize = (int) Math.max((toIndex - accessible) * 2, 20L);
+            List<PostEntity> chunk = new ArrayList<>(chunkSize);
+            while (matches.hasNext() && chunk.size() < chunkSize) {
+                chunk.add(matches.next());
+            }
+            PostVisibilityResolver.Batch visibility = resolveVisibility(chunk, viewer);
+            for (PostEntity post : chunk) {
+                if (!canAccessPublishedPost(post, viewer, visibility)) {
+                    continue;
+                }
+                if (accessible >= fromIndex && accessible < toIndex) {
+                    page.add(post);
+                }
+                accessible++;
+            }
+        }
+        long total = accessible;
+        if (matches.hasNext()) {
+            long walked = accessible;
+            total = snapshot.cachedTotal(
+                new ListingTotalKey(normalizedKeyword, normalizedCategory, normalizedTag, range, viewer.userId(), viewer.groups(), viewer.admin()),
+                Math.max(0L, postListingTotalCacheTtlSeconds) * 1000L,
+                () -> {
+                    List<PostEntity> rest = new ArrayList<>();
+                    matches.forEachRemaining(rest::add);
+                    return walked + countAccessiblePosts(rest, viewer);
+                }
+            );
+        }
+
+        List<PostSummary> items = page.stream()
+            .map(post -> toPostSummary(post, tagCache))
+            .toList();
+        return PageResponse.of(items, total, normalizedPageNo, normalizedPageSize);
+    }
+
+    @Override
+    public CursorPageResponse<PostSummary> listPostsByCursor(
+        String cursor,
+        long pageSize,
+        String keyword,
+        String categoryCode,
+        String tagCode,
+        String publishedFrom,
+        String publishedTo
+    ) {
+        long normalizedPageSize = Math.max(1L, Math.min(pageSize <= 0 ? 10L : pageSize, 100L));
+        PostListCursor after = StringUtils.hasText(cursor) ? PostListCursor.decode(cursor) : null;
+        String normalizedKeyword = normalizeKeyword(keyword);
+        String normalizedCategory = normalizeCategoryCode(categoryCode, false);
+        String normalizedTag = normalizeTagCode(tagCode);
+        PublishedRange range = resolvePublishedRange(publishedFrom, publishedTo);
+        ViewerContext viewer = currentViewer();
+        int limit = (int) normalizedPageSize + 1;
+
+        Map<Long, List<String>> tagCache;
+        List<PostEntity> page;
+        if (publishedPostIndexEnabled) {
+            PublishedPostIndex.Snapshot snapshot = publishedPostIndex.snapshot();
+            tagCache = snapshot.tagsByPostId();
+            page = seekPublishedPostsFromIndex(snapshot, after, limit, normalizedKeyword, normalizedCategory, normalizedTag, range, viewer);
+        } else {
+            tagCache = new HashMap<>();
+            page = seekPublishedPostsFromDatabase(after, limit, normalizedKeyword, normalizedCategory, normalizedTag, range, viewer, tagCache);
+        }
+
+        String nextCursor = null;
+        if (page.size() > normalizedPageSize) {
+            page = page.subList(0, (int) normalizedPageSize);
+            PostEntity last = page.get(page.size() - 1);
+            nextCursor = PostListCursor.after(last).encode();
+        }
+        List<PostSummary> items = page.stream()
+            .map(post -> toPostSummary(post, tagCache))
+            .toList();
+        return CursorPageResponse.of(items, nextCursor, normalizedPageSize);
+    }
+
+    private List<PostEntity> seekPublishedPostsFromIndex(
+        PublishedPostIndex.Snapshot snapshot,
+        PostListCursor after,
+        int limit,
+        String normalizedKeyword,
+        String normalizedCategory,
+        String normalizedTag,
+        PublishedRange range,
+        ViewerContext viewer
+    ) {
+        Map<Long, List<String>> tagCache = snapshot.tagsByPostId();
+        long[] candidateIds = snapshot.candidateIds(normalizedCategory, normalizedTag);
+        PostKeywordIndex.Matches keywordMatches = StringUtils.hasText(normalizedKeyword)
+            ? snapshot.keywordMatches(normalizedKeyword)
+            : null;
+        long[] keywordIds = keywordMatches == null ? null : keywordMatches.ids();
+
+        List<PostEntity> page = new ArrayList<>(limit);
+        int position = snapshot.seek(candidateIds, after);
+        while (position < candidateIds.length && page.size() < limit) {
+            List<PostEntity> chunk = new ArrayList<>(limit * 2);
+            while (position < candidateIds.length && chunk.size() < limit * 2) {
+                PublishedPostIndex.Entry entry = snapshot.get(candidateIds[position++]);
+                if (entry == null) {
+                    continue;
+                }
+                PostEntity post = entry.post();
+                boolean keywordHit = keywordIds == null
+                    ? matchesKeyword(post, normalizedKeyword, tagCache)
+                    : Arrays.binarySearch(keywordIds, entry.postId()) >= 0;
+                if (keywordHit
+                    && PostListCursor.seekable(post)
+                    && matchesCategory(post, normalizedCategory)
+                    && matchesTag(post.getId(), normalizedTag, tagCache)
+                    && matchesPublishedRange(post, range)) {
+                    chunk.add(post);
+                }
+            }
+            collectAccessiblePosts(chunk, viewer, page, limit);
+        }
+        return page;
+    }
+
+    private List<PostEntity> seekPublishedPostsFromDatabase(
+        PostListCursor after,
+        int limit,
+        String normalizedKeyword,
+        String normalizedCategory,
+        String normalizedTag,
+        PublishedRange range,
+        ViewerContext viewer,
+        Map<Long, List<String>> tagCache
+    ) {
+        int batchSize = Math.max(limit * 2, 20);
+        List<PostEntity> page = new ArrayList<>(limit);
+        PostListCursor seek = after;
+        while (page.size() < limit) {
+            LambdaQueryWrapper<PostEntity> query = new LambdaQueryWrapper<PostEntity>()
+                .eq(PostEntity::getDeleted, 0)
+                .eq(PostEntity::getStatusCode, POST_STATUS_PUBLISHED)
+                .isNotNull(PostEntity::getPublishedAt);
+            if (seek != null) {
+                // MySQL 不会把行值比较 (published_time, id) < (?, ?) 转成索引范围扫描，这里写成展开形式。
+                query.apply(
+                    "(published_time < {0} OR (published_time = {1} AND id < {2}))",
+                    seek.publishedAt(),
+                    seek.publishedAt(),
+                    seek.postId()
+                );
+            }
+            query.orderByDesc(PostEntity::getPublishedAt)
+                .orderByDesc(PostEntity::getId)
+                .last("LIMIT " + batchSize);
+            List<PostEntity> batch = postMapper.selectList(query);
+            List<PostEntity> matched = batch.stream()
+                .filter(post -> matchesKeyword(post, normalizedKeyword, tagCache))
+                .filter(post -> matchesCategory(post, normalizedCategory))
+                .filter(post -> matchesTag(post.getId(), normalizedTag, tagCache))
+                .filter(post -> matchesPublishedRange(post, range))
+                .toList();
+            collectAccessiblePosts(matched, viewer, page, limit);
+            if (batch.size() < batchSize) {
+                break;
+            }
+            PostEntity last = batch.get(batch.size() - 1);
+            seek = PostListCursor.after(last);
+        }
+        return page;
+    }
+
+    private long countAccessiblePosts(List<PostEntity> candidates, ViewerContext viewer) {
+        if (viewer.admin()) {
+            return candidates.size();
+        }
+        PostVisibilityResolver.Batch visibility = resolveVisibility(candidates, viewer);
+        long count = 0L;
+        for (PostEntity post : candidates) {
+            if (canAccessPublishedPost(post, viewer, visibility)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void collectAccessiblePosts(List<PostEntity> candidates, ViewerContext viewer, List<PostEntity> page, int limit) {
+        PostVisibilityResolver.Batch visibility = resolveVisibility(candidates, viewer);
+        for (PostEntity post : candidates) {
+            if (page.size() >= limit) {
+                return;
+            }
+            if (canAccessPublishedPost(post, viewer, visibility)) {
+                page.add(post);
+            }
+        }
+    }
+
+    private PostSummary toPostSummary(PostEntity post, Map<Long, List<String>> tagCache) {
+        MarkdownMetrics summaryMetrics = resolveSummaryMetrics(post);
+        return new PostSummary(
+            post.getId(),
+            post.getTitle(),
+            post.getSummary(),
+            post.getCoverImageUrl(),
+            normalizeVisibility(post.getVisibility()).name(),
+            post.getCategoryCode(),
+            loadPostTags(post.getId(), tagCache),
+            summaryMetrics.wordCount(),
+            summaryMetrics.readingMinutes(),
+            post.getLikeCount() == null ? 0L : post.getLikeCount(),
+            resolvePostPublishTimeForDisplay(post)
+        );
+    }
+
     @Override
     public PostSidebarResponse getPostSidebar() {
+        if (postSidebarAggregateEnabled) {
+            return getPostSidebarFromAggregates();
+        }
         List<PostEntity> candidates = loadPublishedPostCandidates();
 
         Map<Long, List<String>> tagCache = new HashMap<>();
@@ -327,6 +630,59 @@ public class ContentServiceImpl implements ContentService {
             }
         }
 
+        return buildPostSidebarResponse(latestPosts, categoryCounter, tagCounter, archiveCounter);
+    }
+
+    private PostSidebarResponse getPostSidebarFromAggregates() {
+        ViewerContext viewer = currentViewer();
+        PostSidebarAggregateStore.Aggregate aggregate = postSidebarAggregateStore.aggregate(
+            visibilityClasses -> resolveSidebarAccess(visibilityClasses, viewer),
+            5
+        );
+        List<PostSidebarResponse.LatestPostItem> latestPosts = aggregate.latestPosts().stream()
+            .map(post -> new PostSidebarResponse.LatestPostItem(
+                post.postId(),
+                normalizePostTitle(post.title()),
+                post.publishTime(),
+                post.coverImageUrl()
+            ))
+            .toList();
+        return buildPostSidebarResponse(latestPosts, aggregate.categoryCounts(), aggregate.tagCounts(), aggregate.archiveCounts());
+    }
+
+    private Predicate<PostSidebarAggregateStore.VisibilityClass> resolveSidebarAccess(
+        Set<PostSidebarAggregateStore.VisibilityClass> visibilityClasses,
+        ViewerContext viewer
+    ) {
+        if (viewer.admin()) {
+            return visibilityClass -> true;
+        }
+        Set<String> categoryCodes = new HashSet<>();
+        for (PostSidebarAggregateStore.VisibilityClass visibilityClass : visibilityClasses) {
+            if (visibilityClass.visibility() == ContentVisibilityEnum.PUBLIC) {
+                String categoryCode = normalizeCategoryCode(visibilityClass.categoryCode(), false);
+                if (StringUtils.hasText(categoryCode)) {
+                    categoryCodes.add(categoryCode);
+                }
+            }
+        }
+        PostVisibilityResolver.Batch visibility = categoryCodes.isEmpty()
+            ? PostVisibilityResolver.Batch.empty()
+            : postVisibilityResolver.load(categoryCodes, List.of(), viewer.groups());
+        return visibilityClass -> switch (visibilityClass.visibility()) {
+            case PUBLIC -> visibility.allowsCategory(normalizeCategoryCode(visibilityClass.categoryCode(), false));
+            case PRIVATE -> viewer.userId() != null && viewer.userId().equals(visibilityClass.ownerUserId());
+            case GROUP -> (viewer.userId() != null && viewer.userId().equals(visibilityClass.ownerUserId()))
+                || viewer.groups().stream().anyMatch(visibilityClass.aclGroups()::contains);
+        };
+    }
+
+    private PostSidebarResponse buildPostSidebarResponse(
+        List<PostSidebarResponse.LatestPostItem> latestPosts,
+        Map<String, Long> categoryCounter,
+        Map<String, Long> tagCounter,
+        Map<String, Long> archiveCounter
+    ) {
         Set<String> knownCategoryCodes = new LinkedHashSet<>(collectKnownCategoryCodes());
         knownCategoryCodes.addAll(categoryCounter.keySet());
         Map<String, PostCategoryMetaEntity> categoryMetaMap = loadCategoryMetaMap(knownCategoryCodes);
@@ -384,27 +740,14 @@ public class ContentServiceImpl implements ContentService {
 
     private MarkdownMetrics resolveSummaryMetrics(PostEntity post) {
         if (post == null) {
-            return new MarkdownMetrics(0L, 0L, 1);
-        }
-        long persistedWordCount = post.getWordCount() == null ? 0L : post.getWordCount();
-        long persistedLineCount = post.getLineCount() == null ? 0L : post.getLineCount();
-        int persistedReadingMinutes = post.getReadingMinutes() == null ? 0 : post.getReadingMinutes();
-        if (persistedWordCount > 0 && persistedLineCount > 0 && persistedReadingMinutes > 0) {
-            return new MarkdownMetrics(persistedWordCount, persistedLineCount, persistedReadingMinutes);
+            return MarkdownMetrics.empty();
         }
-
-        MarkdownMetrics calculated;
-        try {
-            String markdown = readPostMarkdown(post);
-            calculated = computeMarkdownMetrics(markdown);
-        } catch (BusinessException ignored) {
-            calculated = new MarkdownMetrics(0L, 0L, 1);
-        }
-
-        long finalWordCount = persistedWordCount > 0 ? persistedWordCount : calculated.wordCount();
-        long finalLineCount = persistedLineCount > 0 ? persistedLineCount : calculated.lineCount();
-        int finalReadingMinutes = persistedReadingMinutes > 0 ? persistedReadingMinutes : calculated.readingMinutes();
-        return new MarkdownMetrics(finalWordCount, finalLineCount, finalReadingMinutes);
+        long wordCount = post.getWordCount() == null ? 0L : post.getWordCount();
+        long lineCount = post.getLineCount() == null ? 0L : post.getLineCount();
+        int readingMinutes = post.getReadingMinutes() == null || post.getReadingMinutes() <= 0
+            ? MarkdownMetrics.readingMinutes(wordCount)
+            : post.getReadingMinutes();
+        return new MarkdownMetrics(wordCount, lineCount, readingMinutes);
     }
 
     @Override
@@ -843,34 +1186,21 @@ public class ContentServiceImpl implements ContentService {
 
     private List<PostEntity> loadPublishedPostCandidates() {
         ViewerContext viewer = currentViewer();
-        return postMapper.selectList(
+        List<PostEntity> posts = postMapper.selectList(
             new LambdaQueryWrapper<PostEntity>()
                 .eq(PostEntity::getDeleted, 0)
                 .eq(PostEntity::getStatusCode, POST_STATUS_PUBLISHED)
                 .orderByDesc(PostEntity::getPublishedAt)
                 .orderByDesc(PostEntity::getId)
-        ).stream()
-            .filter(post -> canAccessPublishedPost(post, viewer))
+        );
+        PostVisibilityResolver.Batch visibility = resolveVisibility(posts, viewer);
+        return posts.stream()
+            .filter(post -> canAccessPublishedPost(post, viewer, visibility))
             .toList();
     }
 
     private LocalDateTime resolvePostPublishTimeForDisplay(PostEntity post) {
-        if (post == null) {
-            return null;
-        }
-        LocalDateTime publishedAt = normalizePublishTime(post.getPublishedAt());
-        if (publishedAt != null) {
-            return publishedAt;
-        }
-        LocalDateTime createdAt = normalizePublishTime(post.getCreatedAt());
-        if (createdAt != null) {
-            return createdAt;
-        }
-        LocalDateTime updatedAt = normalizePublishTime(post.getUpdatedAt());
-        if (updatedAt != null) {
-            return updatedAt;
-        }
-        return null;
+        return PublishedPostIndex.resolvePublishTime(post);
     }
 
     private LocalDateTime resolvePostPublishTimeForSort(PostEntity post) {
@@ -878,22 +1208,6 @@ public class ContentServiceImpl implements ContentService {
         return publishTime == null ? LocalDateTime.MIN : publishTime;
     }
 
-    private LocalDateTime normalizePublishTime(LocalDateTime value) {
-        if (value == null) {
-            return null;
-        }
-        if (value.getYear() <= 0) {
-            return null;
-        }
-        if (value.equals(LocalDateTime.MIN)) {
-            return null;
-        }
-        if (value.equals(LocalDateTime.MAX)) {
-            return null;
-        }
-        return value;
-    }
-
     private LocalDateTime resolvePostPublishTimeForFilter(PostEntity post) {
         LocalDateTime publishTime = resolvePostPublishTimeForDisplay(post);
         if (publishTime != null) {
@@ -1205,6 +1519,7 @@ public class ContentServiceImpl implements ContentService {
         post.setWordCount(payload.wordCount());
         post.setLineCount(payload.lineCount());
         post.setReadingMinutes(payload.readingMinutes());
+        post.setMetricsVersion(MarkdownMetrics.CURRENT_VERSION);
         post.setLikeCount(0L);
         post.setNotionDataSourceId(isNotionOwnerScoped(userId) ? notionProperties.getDataSourceId() : null);
         post.setSyncStatusCode(PostNotionSyncService.SYNC_STATUS_LOCAL_ONLY);
@@ -1254,6 +1569,7 @@ public class ContentServiceImpl implements ContentService {
         post.setWordCount(payload.wordCount());
         post.setLineCount(payload.lineCount());
         post.setReadingMinutes(payload.readingMinutes());
+        post.setMetricsVersion(MarkdownMetrics.CURRENT_VERSION);
         post.setUpdatedAt(now);
         postMapper.updateById(post);
         upsertPostContent(post.getId(), findPostContent(post.getId()), payload, now);
@@ -1265,6 +1581,8 @@ public class ContentServiceImpl implements ContentService {
         }
         replacePostTags(post.getId(), payload.tags());
         runSaveSync(post.getId());
+        postMarkdownCache.invalidate(post.getId());
+        refreshPublishedPostViews(post.getId());
 
         return toAuthorPostItemResponse(reloadPost(post.getId()));
     }
@@ -1301,6 +1619,9 @@ public class ContentServiceImpl implements ContentService {
             postPresentationMapper.deleteById(presentation.getId());
         }
         postMapper.deleteById(postId);
+        publishedPostIndex.removePost(postId);
+        postSidebarAggregateStore.removePost(postId);
+        postMarkdownCache.invalidate(postId);
 
         deleteStoredObjectQuietly(markdownBucket, markdownKey, "", "");
         if (presentation != null) {
@@ -1332,6 +1653,7 @@ public class ContentServiceImpl implements ContentService {
         post.setUpdatedAt(LocalDateTime.now());
         postMapper.updateById(post);
         runSaveSync(post.getId());
+        refreshPublishedPostViews(post.getId());
         return toAuthorPostItemResponse(reloadPost(post.getId()));
     }
 
@@ -1354,6 +1676,7 @@ public class ContentServiceImpl implements ContentService {
         post.setUpdatedAt(LocalDateTime.now());
         postMapper.updateById(post);
         runSaveSync(post.getId());
+        refreshPublishedPostViews(post.getId());
         return toAuthorPostItemResponse(reloadPost(post.getId()));
     }
 
@@ -1386,7 +1709,14 @@ public class ContentServiceImpl implements ContentService {
             targetPostId,
             notionProperties.getOwnerUserId()
         );
-        notionSyncExecutor.execute(() -> postNotionSyncService.executeJob(job.getId()));
+        notionSyncExecutor.execute(() -> {
+            try {
+                postNotionSyncService.executeJob(job.getId());
+            } finally {
+                publishedPostIndex.invalidate();
+                postSidebarAggregateStore.invalidate();
+            }
+        });
         return toPostNotionSyncJobResponse(job);
     }
 
@@ -1506,9 +1836,8 @@ public class ContentServiceImpl implements ContentService {
             throw new BusinessException(ErrorCode.FORBIDDEN, "No permission to access this post");
         }
 
-        post.setLikeCount((post.getLikeCount() == null ? 0L : post.getLikeCount()) + 1);
-        postMapper.updateById(post);
-        return new PostLikeResponse(postId, true, post.getLikeCount());
+        long likeCount = likeCounterService.increment(LikeCounterService.Target.POST, postId, post.getLikeCount(), post.getLikeFlushToken());
+        return new PostLikeResponse(postId, true, likeCount);
     }
 
     @Override
@@ -1521,9 +1850,8 @@ public class ContentServiceImpl implements ContentService {
             throw new BusinessException(ErrorCode.FORBIDDEN, "No permission to access this app");
         }
 
-        app.setLikeCount((app.getLikeCount() == null ? 0L : app.getLikeCount()) + 1);
-        appMapper.updateById(app);
-        return new AppLikeResponse(appId, true, app.getLikeCount());
+        long likeCount = likeCounterService.increment(LikeCounterService.Target.APP, appId, app.getLikeCount(), app.getLikeFlushToken());
+        return new AppLikeResponse(appId, true, likeCount);
     }
 
     @Override
@@ -1785,6 +2113,7 @@ public class ContentServiceImpl implements ContentService {
         } else {
             clearPostAcl(postId);
         }
+        refreshPublishedPostViews(postId);
         return new ContentVisibilityResponse(postId, visibility.name(), visibility == ContentVisibilityEnum.GROUP ? allowedGroups : Set.of());
     }
 
@@ -1965,46 +2294,99 @@ public class ContentServiceImpl implements ContentService {
         }
     }
 
+    @Override
+    public int backfillPostMarkdownMetrics(int batchSize) {
+        int limit = Math.max(1, batchSize);
+        long lastId = 0L;
+        int updated = 0;
+        while (true) {
+            List<PostEntity> batch = postMapper.selectList(
+                new LambdaQueryWrapper<PostEntity>()
+                    .eq(PostEntity::getDeleted, 0)
+                    .gt(PostEntity::getId, lastId)
+                    .and(wrapper -> wrapper.isNull(PostEntity::getMetricsVersion)
+                        .or()
+                        .lt(PostEntity::getMetricsVersion, MarkdownMetrics.CURRENT_VERSION))
+                    .orderByAsc(PostEntity::getId)
+                    .last("LIMIT " + limit)
+            );
+            for (PostEntity post : batch) {
+                lastId = Math.max(lastId, post.getId());
+                String markdown;
+                try {
+                    markdown = readPostMarkdown(post);
+                } catch (RuntimeException ignored) {
+                    continue;
+                }
+                MarkdownMetrics metrics = MarkdownMetrics.of(markdown);
+                postMapper.updateMarkdownMetrics(
+                    post.getId(),
+                    metrics.wordCount(),
+                    metrics.lineCount(),
+                    metrics.readingMinutes(),
+                    MarkdownMetrics.CURRENT_VERSION
+                );
+                updated++;
+            }
+            if (batch.size() < limit) {
+                break;
+            }
+        }
+        if (updated > 0) {
+            publishedPostIndex.invalidate();
+        }
+        return updated;
+    }
+
     private boolean canAccessPublishedPost(PostEntity post, ViewerContext viewer) {
+        return canAccessPublishedPost(post, viewer, resolveVisibility(post == null ? List.of() : List.of(post), viewer));
+    }
+
+    private boolean canAccessPublishedPost(PostEntity post, ViewerContext viewer, PostVisibilityResolver.Batch visibility) {
         if (post == null || !POST_STATUS_PUBLISHED.equalsIgnoreCase(readString(post.getStatusCode(), POST_STATUS_DRAFT))) {
             return false;
         }
-        ContentVisibilityEnum visibility = normalizeVisibility(post.getVisibility());
-        if (visibility == ContentVisibilityEnum.PUBLIC) {
-            return canAccessByCategoryPolicy(post.getCategoryCode(), viewer);
+        if (viewer.admin()) {
+            return true;
         }
-        boolean owner = viewer.userId() != null && viewer.userId().equals(post.getUserId());
-        if (owner || viewer.admin()) {
+        ContentVisibilityEnum postVisibility = normalizeVisibility(post.getVisibility());
+        if (postVisibility == ContentVisibilityEnum.PUBLIC) {
+            return visibility.allowsCategory(normalizeCategoryCode(post.getCategoryCode(), false));
+        }
+        if (isPostOwner(post, viewer)) {
             return true;
         }
-        if (visibility != ContentVisibilityEnum.GROUP) {
+        if (postVisibility != ContentVisibilityEnum.GROUP) {
             return false;
         }
-        Set<String> allowedGroups = loadPostAclGroups(post.getId());
-        return viewer.groups().stream().anyMatch(allowedGroups::contains);
+        return visibility.allowsAcl(post.getId());
     }
 
-    private boolean canAccessByCategoryPolicy(String categoryCode, ViewerContext viewer) {
-        if (viewer.admin()) {
-            return true;
+    private PostVisibilityResolver.Batch resolveVisibility(Collection<PostEntity> posts, ViewerContext viewer) {
+        if (viewer.admin() || posts.isEmpty()) {
+            return PostVisibilityResolver.Batch.empty();
         }
-        String normalizedCategory = normalizeCategoryCode(categoryCode, false);
-        if (!StringUtils.hasText(normalizedCategory)) {
-            return true;
+        Set<String> categoryCodes = new HashSet<>();
+        List<Long> aclPostIds = new ArrayList<>();
+        for (PostEntity post : posts) {
+            ContentVisibilityEnum postVisibility = normalizeVisibility(post.getVisibility());
+            if (postVisibility == ContentVisibilityEnum.PUBLIC) {
+                String categoryCode = normalizeCategoryCode(post.getCategoryCode(), false);
+                if (StringUtils.hasText(categoryCode)) {
+                    categoryCodes.add(categoryCode);
+                }
+            } else if (postVisibility == ContentVisibilityEnum.GROUP && !isPostOwner(post, viewer)) {
+                aclPostIds.add(post.getId());
+            }
         }
-
-        PostCategoryPolicyEntity policy = postCategoryPolicyMapper.selectOne(
-            new LambdaQueryWrapper<PostCategoryPolicyEntity>().eq(PostCategoryPolicyEntity::getCategoryCode, normalizedCategory)
-        );
-        if (policy == null || policy.getEnabledFlag() == null || policy.getEnabledFlag() != 1) {
-            return true;
+        if (categoryCodes.isEmpty() && aclPostIds.isEmpty()) {
+            return PostVisibilityResolver.Batch.empty();
         }
+        return postVisibilityResolver.load(categoryCodes, aclPostIds, viewer.groups());
+    }
 
-        Set<String> allowedGroups = loadCategoryPolicyGroups(normalizedCategory);
-        if (allowedGroups.isEmpty()) {
-            return false;
-        }
-        return viewer.groups().stream().anyMatch(allowedGroups::contains);
+    private boolean isPostOwner(PostEntity post, ViewerContext viewer) {
+        return viewer.userId() != null && viewer.userId().equals(post.getUserId());
     }
 
     private boolean isPostEditable(PostEntity post, ViewerContext viewer) {
@@ -2238,7 +2620,7 @@ public class ContentServiceImpl implements ContentService {
         validateSlugUnique(slugCode, updatingPostId);
         String markdown = normalizeMarkdownContent(request.getMarkdown());
         assertMarkdownEditable(updatingPostId, markdown);
-        MarkdownMetrics metrics = computeMarkdownMetrics(markdown);
+        MarkdownMetrics metrics = MarkdownMetrics.of(markdown);
         String coverImageUrl = resolveCoverImageUrl(request.getCoverImageUrl(), markdown);
         NotionBlockCodec.EncodeResult encodeResult = notionBlockCodec.encodeMarkdown(markdown);
 
@@ -2337,6 +2719,11 @@ public class ContentServiceImpl implements ContentService {
         return post;
     }
 
+    private void refreshPublishedPostViews(Long postId) {
+        publishedPostIndex.refreshPost(postId);
+        postSidebarAggregateStore.refreshPost(postId);
+    }
+
     private void runSaveSync(Long postId) {
         if (postId == null || postId <= 0 || !notionProperties.isConfigured()) {
             return;
@@ -2441,9 +2828,7 @@ public class ContentServiceImpl implements ContentService {
     }
 
     private String normalizeCategoryCode(String raw, boolean required) {
-        String normalized = readString(raw, "").trim().toLowerCase(Locale.ROOT);
-        normalized = normalized.replaceAll("\\s+", "-");
-        normalized = normalized.replaceAll("[^\\p{L}\\p{N}_-]", "");
+        String normalized = PostCategoryCodes.normalize(raw);
         if (!StringUtils.hasText(normalized)) {
             if (required) {
                 throw new BusinessException(ErrorCode.BAD_REQUEST, "Category code is required");
@@ -2522,7 +2907,7 @@ public class ContentServiceImpl implements ContentService {
         if (!StringUtils.hasText(categoryCode)) {
             return true;
         }
-        return categoryCode.equalsIgnoreCase(readString(post.getCategoryCode(), ""));
+        return categoryCode.equals(PostCategoryCodes.normalize(post.getCategoryCode()));
     }
 
     private boolean matchesTag(Long postId, String tagCode, Map<Long, List<String>> tagCache) {
@@ -2859,7 +3244,7 @@ public class ContentServiceImpl implements ContentService {
             post.getWordCount() == null ? 0L : post.getWordCount(),
             post.getLineCount() == null ? 0L : post.getLineCount(),
             post.getReadingMinutes() == null ? 1 : post.getReadingMinutes(),
-            post.getLikeCount() == null ? 0L : post.getLikeCount(),
+            likeCounterService.likeCount(LikeCounterService.Target.POST, post.getId(), post.getLikeCount(), post.getLikeFlushToken()),
             resolvePostPublishTimeForDisplay(post),
             editable,
             markdown,
@@ -2905,7 +3290,7 @@ public class ContentServiceImpl implements ContentService {
         String bucket = readString(post.getMarkdownBucket(), "").trim();
         String key = readString(post.getMarkdownKey(), "").trim();
         if (StringUtils.hasText(bucket) && StringUtils.hasText(key)) {
-            return readMarkdownObject(bucket, key);
+            return postMarkdownCache.read(post.getId(), content == null ? null : content.getContentHash(), bucket, key);
         }
         if (isInitialSeedPost(post)) {
             return readInitialSeedMarkdown();
@@ -2946,25 +3331,6 @@ public class ContentServiceImpl implements ContentService {
         }
     }
 
-    private MarkdownMetrics computeMarkdownMetrics(String markdown) {
-        String safeMarkdown = readString(markdown, "");
-        long lineCount = safeMarkdown.isEmpty() ? 0L : safeMarkdown.split("\\R", -1).length;
-
-        long cjkCharCount = safeMarkdown.codePoints()
-            .filter(this::isCjkCodePoint)
-            .count();
-
-        Matcher matcher = ASCII_WORD_PATTERN.matcher(safeMarkdown);
-        long asciiWordCount = 0L;
-        while (matcher.find()) {
-            asciiWordCount++;
-        }
-
-        long wordCount = cjkCharCount + asciiWordCount;
-        int readingMinutes = (int) Math.max(1L, (long) Math.ceil(Math.max(1L, wordCount) / AVG_READING_UNITS_PER_MINUTE));
-        return new MarkdownMetrics(wordCount, lineCount, readingMinutes);
-    }
-
     private String resolveCoverImageUrl(String requestedCoverImageUrl, String markdown) {
         String normalizedCover = normalizeCoverImageUrl(requestedCoverImageUrl);
         if (StringUtils.hasText(normalizedCover)) {
@@ -3007,15 +3373,6 @@ public class ContentServiceImpl implements ContentService {
         return normalized.startsWith("http://") || normalized.startsWith("https://") || normalized.startsWith("/");
     }
 
-    private boolean isCjkCodePoint(int codePoint) {
-        Character.UnicodeBlock block = Character.UnicodeBlock.of(codePoint);
-        return block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS
-            || block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS_EXTENSION_A
-            || block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS_EXTENSION_B
-            || block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS_EXTENSION_C
-            || block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS_EXTENSION_D
-            || block == Character.UnicodeBlock.CJK_COMPATIBILITY_IDEOGRAPHS;
-    }
 
     private long generatePostNum() {
         long now = System.currentTimeMillis();
@@ -3128,7 +3485,54 @@ public class ContentServiceImpl implements ContentService {
     private record ViewerContext(Long userId, Set<String> groups, boolean admin, boolean guestAuthor, Set<String> permissions) {
     }
 
-    private record MarkdownMetrics(long wordCount, long lineCount, int readingMinutes) {
+    /**
+     * 按索引顺序惰性遍历候选 ID，只在被取用时才做条件过滤，翻页只为实际走到的前缀付费。
+     */
+    private static final class IndexedPostIterator implements Iterator<PostEntity> {
+
+        private final PublishedPostIndex.Snapshot snapshot;
+        private final long[] candidateIds;
+        private final Predicate<PostEntity> filter;
+        private int position;
+        private PostEntity next;
+
+        private IndexedPostIterator(PublishedPostIndex.Snapshot snapshot, long[] candidateIds, Predicate<PostEntity> filter) {
+            this.snapshot = snapshot;
+            this.candidateIds = candidateIds;
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && position < candidateIds.length) {
+                PublishedPostIndex.Entry entry = snapshot.get(candidateIds[position++]);
+                if (entry != null && filter.test(entry.post())) {
+                    next = entry.post();
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public PostEntity next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            PostEntity current = next;
+            next = null;
+            return current;
+        }
+    }
+
+    private record ListingTotalKey(
+        String keyword,
+        String categoryCode,
+        String tagCode,
+        PublishedRange range,
+        Long viewerUserId,
+        Set<String> viewerGroups,
+        boolean admin
+    ) {
     }
 
     private record PublishedRange(LocalDateTime from, LocalDateTime to) {
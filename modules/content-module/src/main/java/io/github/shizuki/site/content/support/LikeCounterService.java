@@ -0,0 +1,358 @@
+package io.github.shizuki.site.content.support;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+@Component
+public class LikeCounterService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LikeCounterService.class);
+    private static final String REDIS_KEY_PREFIX = "shizuki:content:like:";
+    private static final long FLUSH_LEASE_MS = 30_000L;
+
+    /**
+     * KEYS: delta, dirty, flushing；ARGV: id, persistedToken。INCRBY 与 SADD 在同一脚本内完成，
+     * 返回尚未体现在该令牌对应行里的增量：delta 加上令牌不同的 flushing 批次。
+     */
+    static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>("""
+        local pending = redis.call('INCRBY', KEYS[1], 1)
+        redis.call('SADD', KEYS[2], ARGV[1])
+        local flushing = redis.call('HMGET', KEYS[3], 'delta', 'token')
+        if flushing[1] and flushing[2] ~= ARGV[2] then
+          pending = pending + tonumber(flushing[1])
+        end
+        return pending
+        """, Long.class);
+
+    /**
+     * KEYS: delta, flushing；ARGV: persistedToken。与 INCREMENT_SCRIPT 同口径地只读未落库增量，
+     * 一次读完 delta 和 flushing，不会因为中途被 TAKE 搬运而重复计数。
+     */
+    static final RedisScript<Long> PEEK_SCRIPT = new DefaultRedisScript<>("""
+        local pending = tonumber(redis.call('GET', KEYS[1]) or '0')
+        local flushing = redis.call('HMGET', KEYS[2], 'delta', 'token')
+        if flushing[1] and flushing[2] ~= ARGV[1] then
+          pending = pending + tonumber(flushing[1])
+        end
+        return pending
+        """, Long.class);
+
+    /**
+     * KEYS: delta, flushing, lease；ARGV: leaseMs, token。抢到租约后返回 "增量:令牌"，未抢到返回 nil。
+     * 上一批次还挂在 flushing 上时原样返回它（含原令牌），否则把 delta 连同新令牌冻结进 flushing；
+     * 落库按 CTN_LIKE_FLUSH_LOG 里的令牌去重，所以上一轮落库后没来得及提交的批次重放时不会重复累加。
+     */
+    static final RedisScript<String> TAKE_SCRIPT = new DefaultRedisScript<>("""
+        if not redis.call('SET', KEYS[3], '1', 'NX', 'PX', ARGV[1]) then
+          return false
+        end
+        local flushing = redis.call('HMGET', KEYS[2], 'delta', 'token')
+        if flushing[1] and flushing[2] then
+          return flushing[1] .. ':' .. flushing[2]
+        end
+        local moved = redis.call('GET', KEYS[1])
+        if not moved then
+          return '0:'
+        end
+        redis.call('DEL', KEYS[1])
+        redis.call('HSET', KEYS[2], 'delta', moved, 'token', ARGV[2])
+        return moved .. ':' .. ARGV[2]
+        """, String.class);
+
+    /**
+     * KEYS: delta, flushing, lease, dirty；ARGV: token, id。落库成功后删除该令牌的 flushing 批次、释放租约，
+     * 没有剩余增量时才把 id 移出 dirty 集合。
+     */
+    static final RedisScript<Long> COMMIT_SCRIPT = new DefaultRedisScript<>("""
+        if redis.call('HGET', KEYS[2], 'token') == ARGV[1] then
+          redis.call('DEL', KEYS[2])
+        end
+        redis.call('DEL', KEYS[3])
+        if redis.call('EXISTS', KEYS[1]) == 0 and redis.call('EXISTS', KEYS[2]) == 0 then
+          redis.call('SREM', KEYS[4], ARGV[2])
+        end
+        return 1
+        """, Long.class);
+
+    public enum Target {
+        POST,
+        APP
+    }
+
+    private final LikeFlushWriter likeFlushWriter;
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private final PublishedPostIndex publishedPostIndex;
+    private final Map<Target, ConcurrentHashMap<Long, LocalCounter>> localCounters = new EnumMap<>(Target.class);
+    private final Object flushLock = new Object();
+
+    @Value("${shizuki.blog.like-counter.redis-enabled:true}")
+    private boolean redisEnabled = true;
+
+    public LikeCounterService(LikeFlushWriter likeFlushWriter,
+                              ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                              PublishedPostIndex publishedPostIndex) {
+        this.likeFlushWriter = likeFlushWriter;
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.publishedPostIndex = publishedPostIndex;
+        for (Target target : Target.values()) {
+            localCounters.put(target, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * 记一次点赞并返回最新总数。persistedCount/persistedFlushToken 取自同一次读到的行，
+     * 令牌相同说明 flushing 批次已计入 persistedCount，不再重复相加。
+     */
+    public long increment(Target target, Long id, Long persistedCount, String persistedFlushToken) {
+        long persisted = persistedCount == null ? 0L : persistedCount;
+        StringRedisTemplate redisTemplate = redisTemplate();
+        if (redisTemplate != null) {
+            try {
+                Long pending = redisTemplate.execute(
+                    INCREMENT_SCRIPT,
+                    List.of(deltaKey(target, id), dirtyKey(target), flushingKey(target, id)),
+                    String.valueOf(id),
+                    tokenArg(persistedFlushToken)
+                );
+                return persisted + (pending == null ? 0L : pending) + localDelta(target, id, persistedFlushToken);
+            } catch (RuntimeException exception) {
+                LOGGER.warn("LIKE_COUNTER_REDIS_INCR_FAIL target={} id={} reason={}", target, id, exception.getMessage());
+            }
+        }
+        localCounters.get(target).compute(id, (key, current) -> {
+            LocalCounter counter = current == null ? new LocalCounter() : current;
+            counter.pending.incrementAndGet();
+            return counter;
+        });
+        return likeCount(target, id, persistedCount, persistedFlushToken);
+    }
+
+    /**
+     * 当前点赞总数：行上的持久值加上尚未体现在该行里的增量，口径同 {@link #increment}。
+     */
+    public long likeCount(Target target, Long id, Long persistedCount, String persistedFlushToken) {
+        long persisted = persistedCount == null ? 0L : persistedCount;
+        if (id == null) {
+            return persisted;
+        }
+        return persisted + localDelta(target, id, persistedFlushToken) + redisDelta(target, id, persistedFlushToken);
+    }
+
+    public long pendingDelta(Target target, Long id) {
+        if (id == null) {
+            return 0L;
+        }
+        return localDelta(target, id, null) + redisDelta(target, id, null);
+    }
+
+    public void flush() {
+        synchronized (flushLock) {
+            for (Target target : Target.values()) {
+                List<Long> flushed = new ArrayList<>();
+                flushLocal(target, flushed);
+                flushRedis(target, flushed);
+                if (target == Target.POST && !flushed.isEmpty()) {
+                    publishedPostIndex.refreshPosts(flushed);
+                }
+            }
+            likeFlushWriter.pruneIfDue();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * 本地增量先连同新令牌冻结为 inFlight，落库失败时保留原令牌下轮重放；
+     * 落库后没有新增量的计数器直接移除，map 只保留仍有待落库增量的 id。
+     */
+    private void flushLocal(Target target, List<Long> flushed) {
+        ConcurrentHashMap<Long, LocalCounter> counters = localCounters.get(target);
+        for (Map.Entry<Long, LocalCounter> entry : counters.entrySet()) {
+            Long id = entry.getKey();
+            LocalCounter counter = entry.getValue();
+            if (counter.inFlight == null) {
+                long delta = counter.pending.getAndSet(0L);
+                if (delta != 0) {
+                    counter.inFlight = new InFlight(delta, newFlushToken());
+                }
+            }
+            InFlight inFlight = counter.inFlight;
+            if (inFlight != null) {
+                if (!applyDelta(target, id, inFlight.delta(), inFlight.token())) {
+                    continue;
+                }
+                counter.inFlight = null;
+                flushed.add(id);
+            }
+            counters.computeIfPresent(id, (key, current) ->
+                current.pending.get() == 0 && current.inFlight == null ? null : current);
+        }
+    }
+
+    private void flushRedis(Target target, List<Long> flushed) {
+        StringRedisTemplate redisTemplate = redisTemplate();
+        if (redisTemplate == null) {
+            return;
+        }
+        Set<String> dirtyIds;
+        try {
+            dirtyIds = redisTemplate.opsForSet().members(dirtyKey(target));
+        } catch (RuntimeException exception) {
+            LOGGER.warn("LIKE_COUNTER_REDIS_SCAN_FAIL target={} reason={}", target, exception.getMessage());
+            return;
+        }
+        if (dirtyIds == null) {
+            return;
+        }
+        for (String rawId : dirtyIds) {
+            Long id = parseId(rawId);
+            if (id == null) {
+                redisTemplate.opsForSet().remove(dirtyKey(target), rawId);
+                continue;
+            }
+            try {
+                flushRedisDelta(redisTemplate, target, id, flushed);
+            } catch (RuntimeException exception) {
+                LOGGER.warn("LIKE_COUNTER_REDIS_FLUSH_FAIL target={} id={} reason={}", target, id, exception.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 先用脚本把 delta 连同令牌原子地冻结进 flushing，按令牌落库后再删除 flushing 并移出 dirty 集合；
+     * 任一步失败时批次仍挂在 flushing 上且 id 留在 dirty 集合，下一轮用同一令牌重放，批次记录里已有该令牌时不再累加。
+     */
+    private void flushRedisDelta(StringRedisTemplate redisTemplate, Target target, Long id, List<Long> flushed) {
+        List<String> keys = List.of(deltaKey(target, id), flushingKey(target, id), leaseKey(target, id));
+        String taken = redisTemplate.execute(TAKE_SCRIPT, keys, String.valueOf(FLUSH_LEASE_MS), newFlushToken());
+        if (taken == null) {
+            return;
+        }
+        int separator = taken.indexOf(':');
+        long delta = parseDelta(taken.substring(0, separator));
+        String token = taken.substring(separator + 1);
+        if (delta != 0 && !applyDelta(target, id, delta, token)) {
+            redisTemplate.delete(leaseKey(target, id));
+            return;
+        }
+        redisTemplate.execute(
+            COMMIT_SCRIPT,
+            List.of(deltaKey(target, id), flushingKey(target, id), leaseKey(target, id), dirtyKey(target)),
+            token,
+            String.valueOf(id)
+        );
+        if (delta != 0) {
+            flushed.add(id);
+        }
+    }
+
+    private boolean applyDelta(Target target, Long id, long delta, String token) {
+        try {
+            likeFlushWriter.apply(target, id, delta, token);
+            return true;
+        } catch (DuplicateKeyException exception) {
+            LOGGER.info("LIKE_COUNTER_FLUSH_REPLAY_SKIPPED target={} id={} token={}", target, id, token);
+            return true;
+        } catch (RuntimeException exception) {
+            LOGGER.warn("LIKE_COUNTER_FLUSH_FAIL target={} id={} delta={} reason={}", target, id, delta, exception.getMessage());
+            return false;
+        }
+    }
+
+    private long localDelta(Target target, Long id, String persistedFlushToken) {
+        LocalCounter counter = localCounters.get(target).get(id);
+        if (counter == null) {
+            return 0L;
+        }
+        InFlight inFlight = counter.inFlight;
+        long unapplied = inFlight == null || inFlight.token().equals(persistedFlushToken) ? 0L : inFlight.delta();
+        return counter.pending.get() + unapplied;
+    }
+
+    private long redisDelta(Target target, Long id, String persistedFlushToken) {
+        StringRedisTemplate redisTemplate = redisTemplate();
+        if (redisTemplate == null) {
+            return 0L;
+        }
+        try {
+            Long pending = redisTemplate.execute(
+                PEEK_SCRIPT,
+                List.of(deltaKey(target, id), flushingKey(target, id)),
+                tokenArg(persistedFlushToken)
+            );
+            return pending == null ? 0L : pending;
+        } catch (RuntimeException exception) {
+            return 0L;
+        }
+    }
+
+    private static String newFlushToken() {
+        return UUID.randomUUID().toString();
+    }
+
+    private static String tokenArg(String persistedFlushToken) {
+        return persistedFlushToken == null ? "" : persistedFlushToken;
+    }
+
+    private static long parseDelta(String value) {
+        return StringUtils.hasText(value) ? Long.parseLong(value.trim()) : 0L;
+    }
+
+    private StringRedisTemplate redisTemplate() {
+        return redisEnabled ? redisTemplateProvider.getIfAvailable() : null;
+    }
+
+    private static Long parseId(String raw) {
+        try {
+            return StringUtils.hasText(raw) ? Long.valueOf(raw.trim()) : null;
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+
+    private static String deltaKey(Target target, Long id) {
+        return REDIS_KEY_PREFIX + target.name().toLowerCase(Locale.ROOT) + ":" + id;
+    }
+
+    private static String flushingKey(Target target, Long id) {
+        return deltaKey(target, id) + ":flushing";
+    }
+
+    private static String leaseKey(Target target, Long id) {
+        return deltaKey(target, id) + ":lease";
+    }
+
+    private static String dirtyKey(Target target) {
+        return REDIS_KEY_PREFIX + target.name().toLowerCase(Locale.ROOT) + ":dirty";
+    }
+
+    private record InFlight(long delta, String token) {
+    }
+
+    private static final class LocalCounter {
+
+        private final AtomicLong pending = new AtomicLong();
+        private volatile InFlight inFlight;
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.shizuki.site.content.support;
+
+import io.github.shizuki.site.content.mapper.AppMapper;
+import io.github.shizuki.site.content.mapper.LikeFlushLogMapper;
+import io.github.shizuki.site.content.mapper.PostMapper;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 点赞增量落库：批次令牌写入 CTN_LIKE_FLUSH_LOG 与 like_value 累加在同一事务内。
+ * 令牌已存在时插入因主键冲突失败、整个事务回滚，同一批次无论从哪个节点、隔多少轮重放都只累加一次。
+ */
+@Component
+public class LikeFlushWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LikeFlushWriter.class);
+    private static final long PRUNE_INTERVAL_MS = 3_600_000L;
+
+    private final PostMapper postMapper;
+    private final AppMapper appMapper;
+    private final LikeFlushLogMapper likeFlushLogMapper;
+    private final AtomicLong lastPrunedAtMs = new AtomicLong();
+
+    @Value("${shizuki.blog.like-counter.flush-log-retention-days:7}")
+    private long flushLogRetentionDays = 7L;
+
+    public LikeFlushWriter(PostMapper postMapper, AppMapper appMapper, LikeFlushLogMapper likeFlushLogMapper) {
+        this.postMapper = postMapper;
+        this.appMapper = appMapper;
+        this.likeFlushLogMapper = likeFlushLogMapper;
+    }
+
+    /**
+     * 累加一个批次；批次已落库过时抛出 DuplicateKeyException，调用方按已落库处理。
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void apply(LikeCounterService.Target target, Long id, long delta, String token) {
+        likeFlushLogMapper.insert(target.name(), id, token);
+        if (target == LikeCounterService.Target.POST) {
+            postMapper.increaseLikeCount(id, delta, token);
+        } else {
+            appMapper.increaseLikeCount(id, delta, token);
+        }
+    }
+
+    /**
+     * 每小时至多清理一次超出保留期的批次记录；重放只发生在 flushing 批次或本地 inFlight 落库失败之后，远短于保留期。
+     */
+    public void pruneIfDue() {
+        long now = System.currentTimeMillis();
+        long last = lastPrunedAtMs.get();
+        if (now - last < PRUNE_INTERVAL_MS || !lastPrunedAtMs.compareAndSet(last, now)) {
+            return;
+        }
+        try {
+            likeFlushLogMapper.deleteBefore(LocalDateTime.now().minusDays(Math.max(1L, flushLogRetentionDays)));
+        } catch (RuntimeException exception) {
+            LOGGER.warn("LIKE_FLUSH_LOG_PRUNE_FAIL reason={}", exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.shizuki.site.content.support;
+
+import io.github.shizuki.site.content.entity.PostEntity;
+
+/**
+ * 正文统计：字数（CJK 表意字符数 + ASCII 单词数）、行数与阅读时长。
+ */
+public record MarkdownMetrics(long wordCount, long lineCount, int readingMinutes) {
+
+    /**
+     * 统计口径版本，口径变化时递增，回填任务据此重算历史数据。
+     */
+    public static final int CURRENT_VERSION = 1;
+
+    private static final double AVG_READING_UNITS_PER_MINUTE = 300.0d;
+
+    private static final int OUTSIDE = 0;
+    private static final int IN_WORD = 1;
+    private static final int AFTER_APOSTROPHE = 2;
+    private static final int IN_SUFFIX = 3;
+
+    public static MarkdownMetrics empty() {
+        return new MarkdownMetrics(0L, 0L, 1);
+    }
+
+    /**
+     * 单次遍历统计，结果与 {@code \R} 切行、{@code [A-Za-z0-9_]+(?:'[A-Za-z0-9_]+)?} 计词的旧口径一致。
+     */
+    public static MarkdownMetrics of(String markdown) {
+        if (markdown == null || markdown.isEmpty()) {
+            return new MarkdownMetrics(0L, 0L, 1);
+        }
+        long lineBreaks = 0L;
+        long cjkCount = 0L;
+        long asciiWords = 0L;
+        int state = OUTSIDE;
+        int length = markdown.length();
+        int index = 0;
+        while (index < length) {
+            char current = markdown.charAt(index);
+            if (current < 0x80) {
+                index++;
+                if (isAsciiWordChar(current)) {
+                    if (state == OUTSIDE) {
+                        asciiWords++;
+                        state = IN_WORD;
+                    } else if (state == AFTER_APOSTROPHE) {
+                        state = IN_SUFFIX;
+                    }
+                    continue;
+                }
+                state = current == '\'' && state == IN_WORD ? AFTER_APOSTROPHE : OUTSIDE;
+                if (current == '\n' || current == 0x0B || current == 0x0C) {
+                    lineBreaks++;
+                } else if (current == '\r') {
+                    lineBreaks++;
+                    if (index < length && markdown.charAt(index) == '\n') {
+                        index++;
+                    }
+                }
+                continue;
+            }
+            state = OUTSIDE;
+            int codePoint = markdown.codePointAt(index);
+            index += Character.charCount(codePoint);
+            if (isCjkIdeograph(codePoint)) {
+                cjkCount++;
+            } else if (codePoint == 0x85 || codePoint == 0x2028 || codePoint == 0x2029) {
+                lineBreaks++;
+            }
+        }
+        long wordCount = cjkCount + asciiWords;
+        return new MarkdownMetrics(wordCount, lineBreaks + 1, readingMinutes(wordCount));
+    }
+
+    public static int readingMinutes(long wordCount) {
+        return (int) Math.max(1L, (long) Math.ceil(Math.max(1L, wordCount) / AVG_READING_UNITS_PER_MINUTE));
+    }
+
+    public void applyTo(PostEntity post) {
+        post.setWordCount(wordCount);
+        post.setLineCount(lineCount);
+        post.setReadingMinutes(readingMinutes);
+        post.setMetricsVersion(CURRENT_VERSION);
+    }
+
+    public static boolean isCurrent(PostEntity post) {
+        return post != null
+            && post.getMetricsVersion() != null
+            && post.getMetricsVersion() >= CURRENT_VERSION
+            && post.getReadingMinutes() != null
+            && post.getReadingMinutes() > 0;
+    }
+
+    private static boolean isAsciiWordChar(char value) {
+        return (value >= 'a' && value <= 'z')
+            || (value >= 'A' && value <= 'Z')
+            || (value >= '0' && value <= '9')
+            || value == '_';
+    }
+
+    private static boolean isCjkIdeograph(int codePoint) {
+        return (codePoint >= 0x4E00 && codePoint <= 0x9FFF)
+            || (codePoint >= 0x3400 && codePoint <= 0x4DBF)
+            || (codePoint >= 0xF900 && codePoint <= 0xFAFF)
+            || (codePoint >= 0x20000 && codePoint <= 0x2A6DF)
+            || (codePoint >= 0x2A700 && codePoint <= 0x2B81F);
+    }
+}
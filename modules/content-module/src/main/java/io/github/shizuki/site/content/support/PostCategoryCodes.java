@@ -0,0 +1,24 @@
+package io.github.shizuki.site.content.support;
+
+import java.util.Locale;
+
+/**
+ * 分类编码归一化规则。写入、查询、内存索引和侧栏聚合都走这一处，保证同一分类只有一个键。
+ */
+public final class PostCategoryCodes {
+
+    private PostCategoryCodes() {
+    }
+
+    /**
+     * 小写、空白折叠为连字符、去掉字母数字/下划线/连字符以外的字符；空值返回空串。
+     */
+    public static String normalize(String raw) {
+        if (raw == null) {
+            return "";
+        }
+        String normalized = raw.trim().toLowerCase(Locale.ROOT);
+        normalized = normalized.replaceAll("\\s+", "-");
+        return normalized.replaceAll("[^\\p{L}\\p{N}_-]", "");
+    }
+}
@@ -0,0 +1,284 @@
+package io.github.shizuki.site.content.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+public final class PostKeywordIndex {
+
+    private static final long[] EMPTY_IDS = new long[0];
+    private static final PostKeywordIndex EMPTY = new PostKeywordIndex(Map.of(), Map.of());
+
+    private final Map<String, long[]> postings;
+    private final Map<String, long[]> titlePostings;
+
+    private PostKeywordIndex(Map<String, long[]> postings, Map<String, long[]> titlePostings) {
+        this.postings = postings;
+        this.titlePostings = titlePostings;
+    }
+
+    public static PostKeywordIndex empty() {
+        return EMPTY;
+    }
+
+    public static PostKeywordIndex build(Collection<Document> documents) {
+        Map<String, List<Long>> postingBuckets = new HashMap<>();
+        Map<String, List<Long>> titleBuckets = new HashMap<>();
+        List<Document> sorted = new ArrayList<>(documents);
+        sorted.sort((left, right) -> Long.compare(left.postId(), right.postId()));
+        for (Document document : sorted) {
+            for (String token : document.tokens()) {
+                postingBuckets.computeIfAbsent(token, key -> new ArrayList<>()).add(document.postId());
+            }
+            for (String token : document.titleTokens()) {
+                titleBuckets.computeIfAbsent(token, key -> new ArrayList<>()).add(document.postId());
+            }
+        }
+        return new PostKeywordIndex(toIdArrays(postingBuckets), toIdArrays(titleBuckets));
+    }
+
+    public Matches match(String keyword) {
+        List<String> tokens = tokenizeQuery(keyword);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        long[][] lists = new long[tokens.size()][];
+        for (int index = 0; index < tokens.size(); index++) {
+            lists[index] = postings.getOrDefault(tokens.get(index), EMPTY_IDS);
+        }
+        Arrays.sort(lists, (left, right) -> Integer.compare(left.length, right.length));
+        long[] ids = lists[0];
+        for (int index = 1; index < lists.length && ids.length > 0; index++) {
+            ids = intersect(ids, lists[index]);
+        }
+        long[][] titleLists = new long[tokens.size()][];
+        for (int index = 0; index < tokens.size(); index++) {
+            titleLists[index] = titlePostings.getOrDefault(tokens.get(index), EMPTY_IDS);
+        }
+        return new Matches(ids, titleLists);
+    }
+
+    PostKeywordIndex with(Document previous, Document next) {
+        return apply(previous == null ? List.of() : List.of(previous), List.of(next));
+    }
+
+    PostKeywordIndex without(Document previous) {
+        return previous == null ? this : apply(List.of(previous), List.of());
+    }
+
+    PostKeywordIndex apply(Collection<Document> detached, Collection<Document> attached) {
+        if (detached.isEmpty() && attached.isEmpty()) {
+            return this;
+        }
+        Map<String, long[]> nextPostings = new HashMap<>(postings);
+        Map<String, long[]> nextTitlePostings = new HashMap<>(titlePostings);
+        for (Document previous : detached) {
+            detach(nextPostings, previous.tokens(), previous.postId());
+            detach(nextTitlePostings, previous.titleTokens(), previous.postId());
+        }
+        for (Document next : attached) {
+            attach(nextPostings, next.tokens(), next.postId());
+            attach(nextTitlePostings, next.titleTokens(), next.postId());
+        }
+        return new PostKeywordIndex(Map.copyOf(nextPostings), Map.copyOf(nextTitlePostings));
+    }
+
+    public static Set<String> tokenizeDocument(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        tokenize(text, tokens, true);
+        return tokens;
+    }
+
+    public static List<String> tokenizeQuery(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        tokenize(text, tokens, false);
+        return List.copyOf(tokens);
+    }
+
+    private static void tokenize(String text, Set<String> tokens, boolean document) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        List<Integer> cjkRun = new ArrayList<>();
+        int offset = 0;
+        while (offset < lower.length()) {
+            int codePoint = lower.codePointAt(offset);
+            offset += Character.charCount(codePoint);
+            if (isCjk(codePoint)) {
+                flushWord(word, tokens);
+                cjkRun.add(codePoint);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                flushCjk(cjkRun, tokens, document);
+                word.appendCodePoint(codePoint);
+            } else {
+                flushWord(word, tokens);
+                flushCjk(cjkRun, tokens, document);
+            }
+        }
+        flushWord(word, tokens);
+        flushCjk(cjkRun, tokens, document);
+    }
+
+    private static void flushWord(StringBuilder word, Set<String> tokens) {
+        if (word.length() == 0) {
+            return;
+        }
+        tokens.add(stem(word.toString()));
+        word.setLength(0);
+    }
+
+    private static void flushCjk(List<Integer> run, Set<String> tokens, boolean document) {
+        if (run.isEmpty()) {
+            return;
+        }
+        if (document || run.size() == 1) {
+            for (int codePoint : run) {
+                tokens.add(new String(Character.toChars(codePoint)));
+            }
+        }
+        for (int index = 0; index + 1 < run.size(); index++) {
+            tokens.add(new StringBuilder(4).appendCodePoint(run.get(index)).appendCodePoint(run.get(index + 1)).toString());
+        }
+        run.clear();
+    }
+
+    static String stem(String word) {
+        String stem = word;
+        if (stem.length() > 4 && stem.endsWith("ies")) {
+            stem = stem.substring(0, stem.length() - 3) + "y";
+        } else if (stem.length() > 3 && stem.endsWith("s") && !stem.endsWith("ss") && !stem.endsWith("us") && !stem.endsWith("is")) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        if (stem.length() >= 7 && stem.endsWith("ing")) {
+            stem = stem.substring(0, stem.length() - 3);
+        } else if (stem.length() >= 5 && stem.endsWith("ed")) {
+            stem = stem.substring(0, stem.length() - 2);
+        } else if (stem.length() >= 6 && stem.endsWith("ly")) {
+            stem = stem.substring(0, stem.length() - 2);
+        }
+        if (stem.length() > 4 && stem.endsWith("e")) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        return stem;
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+            || script == Character.UnicodeScript.HIRAGANA
+            || script == Character.UnicodeScript.KATAKANA
+            || script == Character.UnicodeScript.HANGUL;
+    }
+
+    private static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int size = 0;
+        int leftIndex = 0;
+        int rightIndex = 0;
+        while (leftIndex < left.length && rightIndex < right.length) {
+            long leftId = left[leftIndex];
+            long rightId = right[rightIndex];
+            if (leftId == rightId) {
+                result[size++] = leftId;
+                leftIndex++;
+                rightIndex++;
+            } else if (leftId < rightId) {
+                leftIndex++;
+            } else {
+                rightIndex++;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private static void detach(Map<String, long[]> buckets, Collection<String> tokens, long postId) {
+        for (String token : tokens) {
+            long[] current = buckets.get(token);
+            if (current == null) {
+                continue;
+            }
+            int position = Arrays.binarySearch(current, postId);
+            if (position < 0) {
+                continue;
+            }
+            if (current.length == 1) {
+                buckets.remove(token);
+                continue;
+            }
+            long[] next = new long[current.length - 1];
+            System.arraycopy(current, 0, next, 0, position);
+            System.arraycopy(current, position + 1, next, position, current.length - position - 1);
+            buckets.put(token, next);
+        }
+    }
+
+    private static void attach(Map<String, long[]> buckets, Collection<String> tokens, long postId) {
+        for (String token : tokens) {
+            long[] current = buckets.getOrDefault(token, EMPTY_IDS);
+            int position = Arrays.binarySearch(current, postId);
+            if (position >= 0) {
+                continue;
+            }
+            int insertAt = -position - 1;
+            long[] next = new long[current.length + 1];
+            System.arraycopy(current, 0, next, 0, insertAt);
+            next[insertAt] = postId;
+            System.arraycopy(current, insertAt, next, insertAt + 1, current.length - insertAt);
+            buckets.put(token, next);
+        }
+    }
+
+    private static Map<String, long[]> toIdArrays(Map<String, List<Long>> buckets) {
+        Map<String, long[]> result = new HashMap<>(Math.max(16, buckets.size() * 2));
+        buckets.forEach((key, ids) -> result.put(key, ids.stream().mapToLong(Long::longValue).toArray()));
+        return Map.copyOf(result);
+    }
+
+    public record Document(long postId, Set<String> tokens, Set<String> titleTokens) {
+
+        public static Document of(long postId, String title, String summary, Collection<String> tags) {
+            Set<String> titleTokens = tokenizeDocument(title);
+            Set<String> tokens = new LinkedHashSet<>(titleTokens);
+            tokens.addAll(tokenizeDocument(summary));
+            if (tags != null) {
+                for (String tag : tags) {
+                    tokens.addAll(tokenizeDocument(tag));
+                }
+            }
+            return new Document(postId, Set.copyOf(tokens), Set.copyOf(titleTokens));
+        }
+    }
+
+    public static final class Matches {
+
+        private final long[] ids;
+        private final long[][] titleLists;
+
+        private Matches(long[] ids, long[][] titleLists) {
+            this.ids = ids;
+            this.titleLists = titleLists;
+        }
+
+        public long[] ids() {
+            return ids;
+        }
+
+        public int titleScore(long postId) {
+            int score = 0;
+            for (long[] titleList : titleLists) {
+                if (Arrays.binarySearch(titleList, postId) >= 0) {
+                    score++;
+                }
+            }
+            return score;
+        }
+    }
+}
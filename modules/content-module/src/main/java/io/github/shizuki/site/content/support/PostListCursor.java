@@ -0,0 +1,49 @@
+package io.github.shizuki.site.content.support;
+
+import io.github.shizuki.common.core.error.BusinessException;
+import io.github.shizuki.common.core.error.ErrorCode;
+import io.github.shizuki.site.content.entity.PostEntity;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 文章列表游标，按 (published_at, id) 降序定位上一页最后一条。
+ */
+public record PostListCursor(LocalDateTime publishedAt, long postId) {
+
+    /**
+     * 游标列表只收录有 published_time 的文章：数据库路径只能在该列上走索引定位，索引路径按同一规则过滤，
+     * 不再回落到 create_time。
+     */
+    public static boolean seekable(PostEntity post) {
+        return post.getPublishedAt() != null;
+    }
+
+    public static PostListCursor after(PostEntity post) {
+        return new PostListCursor(post.getPublishedAt(), post.getId());
+    }
+
+    public String encode() {
+        String raw = publishedAt + "|" + postId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PostListCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new PostListCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException exception) {
+            throw new BusinessException(ErrorCode.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    /**
+     * 判断排序键为 (sortTime, id) 的文章在降序列表中是否排在游标之后。
+     */
+    public boolean follows(LocalDateTime sortTime, long id) {
+        int compared = sortTime.compareTo(publishedAt);
+        return compared < 0 || (compared == 0 && id < postId);
+    }
+}
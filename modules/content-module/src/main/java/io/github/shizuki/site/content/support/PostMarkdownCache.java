@@ -0,0 +1,338 @@
+package io.github.shizuki.site.content.support;
+
+import io.github.shizuki.common.core.error.BusinessException;
+import io.github.shizuki.common.core.error.ErrorCode;
+import io.github.shizuki.common.storage.client.ObjectStorageClient;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * OSS 正文两级缓存：进程内按字节预算淘汰的 LRU，其后可选本地磁盘层。
+ * 键包含文章 ID 与内容版本（内容哈希 + 对象键），正文变更后旧键自然失效。
+ * 磁盘层同样有字节上限，按最近访问时间淘汰，超过 TTL 未被访问的文件在读写时顺带清理；
+ * 访问时间记在文件修改时间上，重启后首次使用时扫描目录重建索引。
+ */
+@Component
+public class PostMarkdownCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostMarkdownCache.class);
+
+    private final ObjectStorageClient objectStorageClient;
+    private final LinkedHashMap<Key, String> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LinkedHashMap<Path, DiskEntry> diskEntries = new LinkedHashMap<>(64, 0.75f, true);
+    private final LongAdder diskEvictions = new LongAdder();
+    private long usedBytes;
+    private long diskUsedBytes;
+    private boolean diskIndexed;
+
+    @Value("${shizuki.blog.markdown-cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${shizuki.blog.markdown-cache.max-bytes:33554432}")
+    private long maxBytes = 33_554_432L;
+
+    @Value("${shizuki.blog.markdown-cache.disk-dir:}")
+    private String diskDirectory = "";
+
+    @Value("${shizuki.blog.markdown-cache.disk-max-bytes:268435456}")
+    private long diskMaxBytes = 268_435_456L;
+
+    @Value("${shizuki.blog.markdown-cache.disk-ttl-seconds:604800}")
+    private long diskTtlSeconds = 604_800L;
+
+    public PostMarkdownCache(ObjectStorageClient objectStorageClient) {
+        this.objectStorageClient = objectStorageClient;
+    }
+
+    public String read(Long postId, String contentHash, String bucket, String key) {
+        if (!enabled || postId == null) {
+            misses.increment();
+            return readObject(bucket, key);
+        }
+        Key cacheKey = new Key(postId, (contentHash == null ? "" : contentHash) + "|" + bucket + "/" + key);
+        String cached;
+        synchronized (entries) {
+            cached = entries.get(cacheKey);
+        }
+        if (cached != null) {
+            memoryHits.increment();
+            return cached;
+        }
+        Path diskFile = diskFile(cacheKey);
+        if (diskFile != null && touchDisk(diskFile)) {
+            try {
+                String markdown = Files.readString(diskFile, StandardCharsets.UTF_8);
+                diskHits.increment();
+                putMemory(cacheKey, markdown);
+                return markdown;
+            } catch (IOException exception) {
+                LOGGER.warn("POST_MARKDOWN_CACHE_DISK_READ_FAIL postId={} reason={}", postId, exception.getMessage());
+            }
+        }
+        misses.increment();
+        String markdown = readObject(bucket, key);
+        putMemory(cacheKey, markdown);
+        writeDisk(diskFile, markdown);
+        return markdown;
+    }
+
+    public void invalidate(Long postId) {
+        if (postId == null) {
+            return;
+        }
+        synchronized (entries) {
+            Iterator<Map.Entry<Key, String>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Key, String> entry = iterator.next();
+                if (entry.getKey().postId() == postId) {
+                    usedBytes -= sizeOf(entry.getValue());
+                    iterator.remove();
+                }
+            }
+        }
+        Path root = diskRoot();
+        if (root == null || !Files.isDirectory(root)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root, postId + "-*.md")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+                forgetDisk(file);
+            }
+        } catch (IOException exception) {
+            LOGGER.warn("POST_MARKDOWN_CACHE_DISK_INVALIDATE_FAIL postId={} reason={}", postId, exception.getMessage());
+        }
+    }
+
+    public Stats stats() {
+        synchronized (entries) {
+            synchronized (diskEntries) {
+                return new Stats(memoryHits.sum(), diskHits.sum(), misses.sum(), evictions.sum(), entries.size(), usedBytes,
+                    diskEvictions.sum(), diskEntries.size(), diskUsedBytes);
+            }
+        }
+    }
+
+    private void putMemory(Key cacheKey, String markdown) {
+        long size = sizeOf(markdown);
+        if (size > maxBytes) {
+            return;
+        }
+        synchronized (entries) {
+            String previous = entries.put(cacheKey, markdown);
+            if (previous != null) {
+                usedBytes -= sizeOf(previous);
+            }
+            usedBytes += size;
+            Iterator<Map.Entry<Key, String>> iterator = entries.entrySet().iterator();
+            while (usedBytes > maxBytes && iterator.hasNext()) {
+                Map.Entry<Key, String> eldest = iterator.next();
+                usedBytes -= sizeOf(eldest.getValue());
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private void writeDisk(Path diskFile, String markdown) {
+        if (diskFile == null) {
+            return;
+        }
+        byte[] bytes = markdown.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > diskMaxBytes) {
+            return;
+        }
+        try {
+            Files.createDirectories(diskFile.getParent());
+            indexDisk(diskFile.getParent());
+            Path temp = Files.createTempFile(diskFile.getParent(), diskFile.getFileName().toString(), ".tmp");
+            Files.write(temp, bytes);
+            Files.move(temp, diskFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException exception) {
+            LOGGER.warn("POST_MARKDOWN_CACHE_DISK_WRITE_FAIL file={} reason={}", diskFile, exception.getMessage());
+            return;
+        }
+        synchronized (diskEntries) {
+            DiskEntry previous = diskEntries.put(diskFile, new DiskEntry(bytes.length, System.currentTimeMillis()));
+            if (previous != null) {
+                diskUsedBytes -= previous.bytes();
+            }
+            diskUsedBytes += bytes.length;
+        }
+        trimDisk();
+    }
+
+    /**
+     * 磁盘文件存在且未过期时刷新其访问时间并返回 true；过期文件直接删除。
+     */
+    private boolean touchDisk(Path diskFile) {
+        indexDisk(diskFile.getParent());
+        long now = System.currentTimeMillis();
+        synchronized (diskEntries) {
+            DiskEntry entry = diskEntries.get(diskFile);
+            if (entry == null) {
+                return false;
+            }
+            if (expired(entry, now)) {
+                deleteDisk(diskFile, entry);
+                return false;
+            }
+            diskEntries.put(diskFile, new DiskEntry(entry.bytes(), now));
+        }
+        try {
+            Files.setLastModifiedTime(diskFile, FileTime.fromMillis(now));
+            return true;
+        } catch (IOException exception) {
+            forgetDisk(diskFile);
+            return false;
+        }
+    }
+
+    /**
+     * 首次使用磁盘层时扫描目录，按修改时间（即最后访问时间）重建 LRU 顺序，并清掉中断写入留下的临时文件。
+     */
+    private void indexDisk(Path root) {
+        synchronized (diskEntries) {
+            if (diskIndexed) {
+                return;
+            }
+            diskIndexed = true;
+            if (!Files.isDirectory(root)) {
+                return;
+            }
+            List<Map.Entry<Path, DiskEntry>> found = new ArrayList<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(root)) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(".tmp")) {
+                        Files.deleteIfExists(file);
+                    } else if (name.endsWith(".md") && Files.isRegularFile(file)) {
+                        found.add(Map.entry(file, new DiskEntry(Files.size(file), Files.getLastModifiedTime(file).toMillis())));
+                    }
+                }
+            } catch (IOException exception) {
+                LOGGER.warn("POST_MARKDOWN_CACHE_DISK_INDEX_FAIL dir={} reason={}", root, exception.getMessage());
+            }
+            found.sort(Comparator.comparingLong(entry -> entry.getValue().accessedAtMillis()));
+            for (Map.Entry<Path, DiskEntry> entry : found) {
+                diskEntries.put(entry.getKey(), entry.getValue());
+                diskUsedBytes += entry.getValue().bytes();
+            }
+        }
+        trimDisk();
+    }
+
+    /**
+     * 从最久未访问的一端删除，直到总字节数回到上限内且最旧的文件也未过期。
+     */
+    private void trimDisk() {
+        long now = System.currentTimeMillis();
+        synchronized (diskEntries) {
+            Iterator<Map.Entry<Path, DiskEntry>> iterator = diskEntries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Path, DiskEntry> eldest = iterator.next();
+                if (diskUsedBytes <= diskMaxBytes && !expired(eldest.getValue(), now)) {
+                    break;
+                }
+                iterator.remove();
+                diskUsedBytes -= eldest.getValue().bytes();
+                diskEvictions.increment();
+                deleteQuietly(eldest.getKey());
+            }
+        }
+    }
+
+    private void deleteDisk(Path diskFile, DiskEntry entry) {
+        diskEntries.remove(diskFile);
+        diskUsedBytes -= entry.bytes();
+        diskEvictions.increment();
+        deleteQuietly(diskFile);
+    }
+
+    private void forgetDisk(Path diskFile) {
+        synchronized (diskEntries) {
+            DiskEntry entry = diskEntries.remove(diskFile);
+            if (entry != null) {
+                diskUsedBytes -= entry.bytes();
+            }
+        }
+    }
+
+    private boolean expired(DiskEntry entry, long now) {
+        return diskTtlSeconds > 0 && now - entry.accessedAtMillis() > diskTtlSeconds * 1_000L;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException exception) {
+            LOGGER.warn("POST_MARKDOWN_CACHE_DISK_EVICT_FAIL file={} reason={}", file, exception.getMessage());
+        }
+    }
+
+    private String readObject(String bucket, String key) {
+        try (InputStream inputStream = objectStorageClient.getObjectStream(bucket, key)) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException exception) {
+            throw new BusinessException(ErrorCode.INTERNAL_ERROR, "Read markdown content failed");
+        }
+    }
+
+    private Path diskFile(Key cacheKey) {
+        Path root = diskRoot();
+        return root == null ? null : root.resolve(cacheKey.postId() + "-" + sha256(cacheKey.version()) + ".md");
+    }
+
+    private Path diskRoot() {
+        return StringUtils.hasText(diskDirectory) ? Paths.get(diskDirectory.trim()) : null;
+    }
+
+    private static long sizeOf(String markdown) {
+        return 2L * markdown.length();
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private record Key(long postId, String version) {
+    }
+
+    private record DiskEntry(long bytes, long accessedAtMillis) {
+    }
+
+    public record Stats(long memoryHits, long diskHits, long misses, long evictions, int entryCount, long usedBytes,
+                        long diskEvictions, int diskEntryCount, long diskUsedBytes) {
+    }
+}
@@ -353,7 +353,11 @@ public class PostNotionSyncService {
         post.setVisibility(normalizeVisibility(readSelect(properties, notionProperties.getProperties().getVisibility())).name());
         post.setStatusCode(normalizeStatus(readSelect(properties, notionProperties.getProperties().getStatus())));
         post.setCoverImageUrl(limit(readUrl(properties, notionProperties.getProperties().getCoverImageUrl()), 512));
-        post.setPublishedAt(readDate(properties, notionProperties.getProperties().getPublishedAt()));
+        LocalDateTime publishedAt = readDate(properties, notionProperties.getProperties().getPublishedAt());
+        if (publishedAt == null && "PUBLISHED".equals(post.getStatusCode())) {
+            publishedAt = post.getPublishedAt() != null ? post.getPublishedAt() : pageData.lastEditedTime();
+        }
+        post.setPublishedAt(publishedAt);
         post.setNotionPageId(pageData.pageId());
         post.setNotionDataSourceId(notionProperties.getDataSourceId());
         post.setNotionLastEditedTime(pageData.lastEditedTime());
@@ -955,13 +959,7 @@ public class PostNotionSyncService {
     }
 
     private void applyMarkdownMetrics(PostEntity post, String markdown) {
-        String safeMarkdown = readString(markdown, "");
-        long lineCount = safeMarkdown.isEmpty() ? 0L : safeMarkdown.split("\\R", -1).length;
-        long wordCount = safeMarkdown.codePoints().count();
-        int readingMinutes = (int) Math.max(1L, Math.ceil(Math.max(1L, wordCount) / 300.0d));
-        post.setLineCount(lineCount);
-        post.setWordCount(wordCount);
-        post.setReadingMinutes(readingMinutes);
+        MarkdownMetrics.of(markdown).applyTo(post);
     }
 
     private String readTitle(Map<String, Object> properties, String propertyName) {
@@ -0,0 +1,395 @@
+package io.github.shizuki.site.content.support;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import io.github.shizuki.site.content.entity.PostEntity;
+import io.github.shizuki.site.content.entity.PostGroupAclEntity;
+import io.github.shizuki.site.content.entity.PostTagEntity;
+import io.github.shizuki.site.content.mapper.PostGroupAclMapper;
+import io.github.shizuki.site.content.mapper.PostMapper;
+import io.github.shizuki.site.content.mapper.PostTagMapper;
+import io.github.shizuki.site.content.model.ContentVisibilityEnum;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+@Component
+public class PostSidebarAggregateStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostSidebarAggregateStore.class);
+    private static final String POST_STATUS_PUBLISHED = "PUBLISHED";
+    private static final DateTimeFormatter ARCHIVE_MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
+    private static final LatestPost[] EMPTY_LATEST = new LatestPost[0];
+    private static final Comparator<LatestPost> LATEST_ORDER = Comparator
+        .comparing((LatestPost item) -> item.publishTime() == null ? LocalDateTime.MIN : item.publishTime(), Comparator.reverseOrder())
+        .thenComparing(LatestPost::postId, Comparator.reverseOrder());
+
+    private final PostMapper postMapper;
+    private final PostTagMapper postTagMapper;
+    private final PostGroupAclMapper postGroupAclMapper;
+    private final Object lock = new Object();
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+    private volatile Map<VisibilityClass, Bucket> buckets;
+
+    public PostSidebarAggregateStore(PostMapper postMapper, PostTagMapper postTagMapper, PostGroupAclMapper postGroupAclMapper) {
+        this.postMapper = postMapper;
+        this.postTagMapper = postTagMapper;
+        this.postGroupAclMapper = postGroupAclMapper;
+    }
+
+    public Aggregate aggregate(Function<Set<VisibilityClass>, Predicate<VisibilityClass>> accessResolver, int latestLimit) {
+        Map<VisibilityClass, Bucket> current = currentBuckets();
+        Predicate<VisibilityClass> accessible = accessResolver.apply(current.keySet());
+        Map<String, Long> categoryCounts = new HashMap<>();
+        Map<String, Long> tagCounts = new HashMap<>();
+        Map<String, Long> archiveCounts = new HashMap<>();
+        List<LatestPost> latest = new ArrayList<>();
+        for (Map.Entry<VisibilityClass, Bucket> entry : current.entrySet()) {
+            if (!accessible.test(entry.getKey())) {
+                continue;
+            }
+            Bucket bucket = entry.getValue();
+            bucket.categoryCounts().forEach((key, value) -> categoryCounts.merge(key, value, Long::sum));
+            bucket.tagCounts().forEach((key, value) -> tagCounts.merge(key, value, Long::sum));
+            bucket.archiveCounts().forEach((key, value) -> archiveCounts.merge(key, value, Long::sum));
+            int limit = Math.min(Math.max(0, latestLimit), bucket.latest().length);
+            latest.addAll(Arrays.asList(bucket.latest()).subList(0, limit));
+        }
+        latest.sort(LATEST_ORDER);
+        List<LatestPost> latestPosts = latest.size() > latestLimit ? List.copyOf(latest.subList(0, Math.max(0, latestLimit))) : List.copyOf(latest);
+        return new Aggregate(categoryCounts, tagCounts, archiveCounts, latestPosts);
+    }
+
+    public void refreshPost(Long postId) {
+        if (postId == null || postId <= 0) {
+            return;
+        }
+        runAfterCommit(() -> applyRefresh(postId));
+    }
+
+    public void removePost(Long postId) {
+        if (postId == null || postId <= 0) {
+            return;
+        }
+        runAfterCommit(() -> applyRemoval(postId));
+    }
+
+    public void invalidate() {
+        synchronized (lock) {
+            buckets = null;
+            contributions.clear();
+        }
+    }
+
+    public void reconcile() {
+        synchronized (lock) {
+            rebuild();
+        }
+    }
+
+    private Map<VisibilityClass, Bucket> currentBuckets() {
+        Map<VisibilityClass, Bucket> current = buckets;
+        if (current != null) {
+            return current;
+        }
+        synchronized (lock) {
+            if (buckets == null) {
+                rebuild();
+            }
+            return buckets;
+        }
+    }
+
+    private void applyRefresh(Long postId) {
+        synchronized (lock) {
+            if (buckets == null) {
+                return;
+            }
+            try {
+                PostEntity post = postMapper.selectById(postId);
+                if (!isAggregatable(post)) {
+                    replaceContribution(postId, null);
+                    return;
+                }
+                List<String> tags = postTagMapper.selectList(
+                        new LambdaQueryWrapper<PostTagEntity>()
+                            .eq(PostTagEntity::getPostId, postId)
+                            .orderByAsc(PostTagEntity::getTagCode)
+                    ).stream()
+                    .map(PostTagEntity::getTagCode)
+                    .toList();
+                List<String> aclGroups = resolveVisibility(post) == ContentVisibilityEnum.GROUP
+                    ? postGroupAclMapper.selectList(
+                            new LambdaQueryWrapper<PostGroupAclEntity>().eq(PostGroupAclEntity::getPostId, postId)
+                        ).stream()
+                        .map(PostGroupAclEntity::getGroupCode)
+                        .toList()
+                    : List.of();
+                replaceContribution(postId, toContribution(post, tags, aclGroups));
+            } catch (RuntimeException exception) {
+                LOGGER.warn("POST_SIDEBAR_AGGREGATE_REFRESH_FAIL postId={} reason={}", postId, exception.getMessage());
+                buckets = null;
+                contributions.clear();
+            }
+        }
+    }
+
+    private void applyRemoval(Long postId) {
+        synchronized (lock) {
+            if (buckets != null) {
+                replaceContribution(postId, null);
+            }
+        }
+    }
+
+    private void replaceContribution(Long postId, Contribution next) {
+        Contribution previous = next == null ? contributions.remove(postId) : contributions.put(postId, next);
+        if (previous == null && next == null) {
+            return;
+        }
+        Map<VisibilityClass, Bucket> updated = new HashMap<>(buckets);
+        if (previous != null) {
+            Bucket bucket = updated.get(previous.visibilityClass()).minus(previous);
+            if (bucket.isEmpty()) {
+                updated.remove(previous.visibilityClass());
+            } else {
+                updated.put(previous.visibilityClass(), bucket);
+            }
+        }
+        if (next != null) {
+            updated.put(next.visibilityClass(), updated.getOrDefault(next.visibilityClass(), Bucket.EMPTY).plus(next));
+        }
+        buckets = Map.copyOf(updated);
+    }
+
+    private void rebuild() {
+        List<PostEntity> posts = postMapper.selectList(
+            new LambdaQueryWrapper<PostEntity>()
+                .eq(PostEntity::getDeleted, 0)
+                .eq(PostEntity::getStatusCode, POST_STATUS_PUBLISHED)
+        );
+        Map<Long, PostEntity> postsById = new HashMap<>();
+        for (PostEntity post : posts) {
+            if (isAggregatable(post)) {
+                postsById.put(post.getId(), post);
+            }
+        }
+
+        Map<Long, List<String>> tagsByPostId = new HashMap<>();
+        Map<Long, List<String>> aclByPostId = new HashMap<>();
+        if (!postsById.isEmpty()) {
+            for (PostTagEntity tag : postTagMapper.selectList(new LambdaQueryWrapper<PostTagEntity>().orderByAsc(PostTagEntity::getTagCode))) {
+                if (postsById.containsKey(tag.getPostId())) {
+                    tagsByPostId.computeIfAbsent(tag.getPostId(), key -> new ArrayList<>()).add(tag.getTagCode());
+                }
+            }
+            for (PostGroupAclEntity acl : postGroupAclMapper.selectList(new LambdaQueryWrapper<PostGroupAclEntity>())) {
+                if (postsById.containsKey(acl.getPostId())) {
+                    aclByPostId.computeIfAbsent(acl.getPostId(), key -> new ArrayList<>()).add(acl.getGroupCode());
+                }
+            }
+        }
+
+        contributions.clear();
+        Map<VisibilityClass, List<Contribution>> grouped = new HashMap<>();
+        for (PostEntity post : postsById.values()) {
+            List<String> aclGroups = resolveVisibility(post) == ContentVisibilityEnum.GROUP
+                ? aclByPostId.getOrDefault(post.getId(), List.of())
+                : List.of();
+            Contribution contribution = toContribution(post, tagsByPostId.getOrDefault(post.getId(), List.of()), aclGroups);
+            contributions.put(post.getId(), contribution);
+            grouped.computeIfAbsent(contribution.visibilityClass(), key -> new ArrayList<>()).add(contribution);
+        }
+        Map<VisibilityClass, Bucket> rebuilt = new HashMap<>();
+        grouped.forEach((visibilityClass, items) -> rebuilt.put(visibilityClass, Bucket.of(items)));
+        buckets = Map.copyOf(rebuilt);
+    }
+
+    private Contribution toContribution(PostEntity post, List<String> tags, List<String> aclGroups) {
+        ContentVisibilityEnum visibility = resolveVisibility(post);
+        VisibilityClass visibilityClass = switch (visibility) {
+            case PUBLIC -> new VisibilityClass(visibility, PostCategoryCodes.normalize(post.getCategoryCode()), null, Set.of());
+            case PRIVATE -> new VisibilityClass(visibility, "", post.getUserId(), Set.of());
+            case GROUP -> new VisibilityClass(visibility, "", post.getUserId(), toGroupSet(aclGroups));
+        };
+        String category = normalizeCategory(post.getCategoryCode());
+        LocalDateTime publishTime = PublishedPostIndex.resolvePublishTime(post);
+        List<String> normalizedTags = tags.stream().filter(StringUtils::hasText).toList();
+        return new Contribution(
+            visibilityClass,
+            StringUtils.hasText(category) ? category : "uncategorized",
+            normalizedTags,
+            publishTime == null ? null : ARCHIVE_MONTH_FORMATTER.format(publishTime),
+            new LatestPost(post.getId(), post.getTitle(), publishTime, post.getCoverImageUrl())
+        );
+    }
+
+    private static Set<String> toGroupSet(Collection<String> groups) {
+        TreeSet<String> sorted = new TreeSet<>();
+        for (String group : groups) {
+            if (StringUtils.hasText(group)) {
+                sorted.add(group);
+            }
+        }
+        return Set.copyOf(sorted);
+    }
+
+    private static String normalizeCategory(String categoryCode) {
+        return categoryCode == null ? "" : categoryCode.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static ContentVisibilityEnum resolveVisibility(PostEntity post) {
+        String raw = post.getVisibility();
+        if (!StringUtils.hasText(raw)) {
+            return ContentVisibilityEnum.PUBLIC;
+        }
+        for (ContentVisibilityEnum value : ContentVisibilityEnum.values()) {
+            if (value.name().equalsIgnoreCase(raw.trim())) {
+                return value;
+            }
+        }
+        return ContentVisibilityEnum.PUBLIC;
+    }
+
+    private boolean isAggregatable(PostEntity post) {
+        return post != null
+            && post.getId() != null
+            && post.getId() > 0
+            && (post.getDeleted() == null || post.getDeleted() == 0)
+            && POST_STATUS_PUBLISHED.equalsIgnoreCase(post.getStatusCode() == null ? "" : post.getStatusCode().trim());
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+
+    public record VisibilityClass(ContentVisibilityEnum visibility, String categoryCode, Long ownerUserId, Set<String> aclGroups) {
+    }
+
+    public record LatestPost(long postId, String title, LocalDateTime publishTime, String coverImageUrl) {
+    }
+
+    public record Aggregate(
+        Map<String, Long> categoryCounts,
+        Map<String, Long> tagCounts,
+        Map<String, Long> archiveCounts,
+        List<LatestPost> latestPosts
+    ) {
+    }
+
+    private record Contribution(
+        VisibilityClass visibilityClass,
+        String category,
+        List<String> tags,
+        String archiveMonth,
+        LatestPost latest
+    ) {
+    }
+
+    private record Bucket(
+        Map<String, Long> categoryCounts,
+        Map<String, Long> tagCounts,
+        Map<String, Long> archiveCounts,
+        LatestPost[] latest
+    ) {
+
+        private static final Bucket EMPTY = new Bucket(Map.of(), Map.of(), Map.of(), EMPTY_LATEST);
+
+        private static Bucket of(List<Contribution> items) {
+            Map<String, Long> categoryCounts = new HashMap<>();
+            Map<String, Long> tagCounts = new HashMap<>();
+            Map<String, Long> archiveCounts = new HashMap<>();
+            LatestPost[] latest = new LatestPost[items.size()];
+            for (int i = 0; i < items.size(); i++) {
+                Contribution item = items.get(i);
+                apply(categoryCounts, tagCounts, archiveCounts, item, 1L);
+                latest[i] = item.latest();
+            }
+            Arrays.sort(latest, LATEST_ORDER);
+            return new Bucket(Map.copyOf(categoryCounts), Map.copyOf(tagCounts), Map.copyOf(archiveCounts), latest);
+        }
+
+        private boolean isEmpty() {
+            return latest.length == 0;
+        }
+
+        private Bucket plus(Contribution item) {
+            Map<String, Long> nextCategories = new HashMap<>(categoryCounts);
+            Map<String, Long> nextTags = new HashMap<>(tagCounts);
+            Map<String, Long> nextArchives = new HashMap<>(archiveCounts);
+            apply(nextCategories, nextTags, nextArchives, item, 1L);
+            int position = Arrays.binarySearch(latest, item.latest(), LATEST_ORDER);
+            int insertAt = position >= 0 ? position : -position - 1;
+            LatestPost[] nextLatest = new LatestPost[latest.length + 1];
+            System.arraycopy(latest, 0, nextLatest, 0, insertAt);
+            nextLatest[insertAt] = item.latest();
+            System.arraycopy(latest, insertAt, nextLatest, insertAt + 1, latest.length - insertAt);
+            return new Bucket(Map.copyOf(nextCategories), Map.copyOf(nextTags), Map.copyOf(nextArchives), nextLatest);
+        }
+
+        private Bucket minus(Contribution item) {
+            Map<String, Long> nextCategories = new HashMap<>(categoryCounts);
+            Map<String, Long> nextTags = new HashMap<>(tagCounts);
+            Map<String, Long> nextArchives = new HashMap<>(archiveCounts);
+            apply(nextCategories, nextTags, nextArchives, item, -1L);
+            LatestPost[] nextLatest = latest;
+            int position = Arrays.binarySearch(latest, item.latest(), LATEST_ORDER);
+            if (position >= 0) {
+                nextLatest = new LatestPost[latest.length - 1];
+                System.arraycopy(latest, 0, nextLatest, 0, position);
+                System.arraycopy(latest, position + 1, nextLatest, position, latest.length - position - 1);
+            }
+            return new Bucket(Map.copyOf(nextCategories), Map.copyOf(nextTags), Map.copyOf(nextArchives), nextLatest);
+        }
+
+        private static void apply(
+            Map<String, Long> categoryCounts,
+            Map<String, Long> tagCounts,
+            Map<String, Long> archiveCounts,
+            Contribution item,
+            long delta
+        ) {
+            adjust(categoryCounts, item.category(), delta);
+            for (String tag : item.tags()) {
+                adjust(tagCounts, tag, delta);
+            }
+            if (item.archiveMonth() != null) {
+                adjust(archiveCounts, item.archiveMonth(), delta);
+            }
+        }
+
+        private static void adjust(Map<String, Long> counters, String key, long delta) {
+            long next = counters.getOrDefault(key, 0L) + delta;
+            if (next <= 0) {
+                counters.remove(key);
+            } else {
+                counters.put(key, next);
+            }
+        }
+    }
+}
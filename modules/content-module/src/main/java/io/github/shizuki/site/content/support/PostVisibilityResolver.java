@@ -0,0 +1,182 @@
+package io.github.shizuki.site.content.support;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import io.github.shizuki.site.content.entity.PostCategoryPolicyEntity;
+import io.github.shizuki.site.content.entity.PostCategoryPolicyGroupEntity;
+import io.github.shizuki.site.content.entity.PostGroupAclEntity;
+import io.github.shizuki.site.content.mapper.PostCategoryPolicyGroupMapper;
+import io.github.shizuki.site.content.mapper.PostCategoryPolicyMapper;
+import io.github.shizuki.site.content.mapper.PostGroupAclMapper;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+@Component
+public class PostVisibilityResolver {
+
+    /**
+     * IN 列表的单批上限，避免文章或分类过多时拼出超长 SQL。
+     */
+    private static final int IN_BATCH_SIZE = 500;
+
+    private final PostCategoryPolicyMapper postCategoryPolicyMapper;
+    private final PostCategoryPolicyGroupMapper postCategoryPolicyGroupMapper;
+    private final PostGroupAclMapper postGroupAclMapper;
+
+    public PostVisibilityResolver(
+        PostCategoryPolicyMapper postCategoryPolicyMapper,
+        PostCategoryPolicyGroupMapper postCategoryPolicyGroupMapper,
+        PostGroupAclMapper postGroupAclMapper
+    ) {
+        this.postCategoryPolicyMapper = postCategoryPolicyMapper;
+        this.postCategoryPolicyGroupMapper = postCategoryPolicyGroupMapper;
+        this.postGroupAclMapper = postGroupAclMapper;
+    }
+
+    public Batch load(Collection<String> categoryCodes, Collection<Long> aclPostIds, Set<String> viewerGroups) {
+        Set<String> categories = new LinkedHashSet<>();
+        if (categoryCodes != null) {
+            for (String categoryCode : categoryCodes) {
+                if (StringUtils.hasText(categoryCode)) {
+                    categories.add(categoryCode);
+                }
+            }
+        }
+        Set<Long> postIds = new LinkedHashSet<>();
+        if (aclPostIds != null) {
+            for (Long postId : aclPostIds) {
+                if (postId != null && postId > 0) {
+                    postIds.add(postId);
+                }
+            }
+        }
+
+        Map<String, Integer> groupIndex = new HashMap<>();
+        Set<String> enabledCategories = loadEnabledCategories(categories);
+        Map<String, BitSet> categoryGroups = new HashMap<>();
+        if (!enabledCategories.isEmpty()) {
+            for (String categoryCode : enabledCategories) {
+                categoryGroups.put(categoryCode, new BitSet());
+            }
+            List<PostCategoryPolicyGroupEntity> rows = selectInBatches(enabledCategories, batch ->
+                postCategoryPolicyGroupMapper.selectList(
+                    new LambdaQueryWrapper<PostCategoryPolicyGroupEntity>()
+                        .in(PostCategoryPolicyGroupEntity::getCategoryCode, batch)
+                )
+            );
+            for (PostCategoryPolicyGroupEntity row : rows) {
+                BitSet groups = categoryGroups.get(row.getCategoryCode());
+                if (groups != null && row.getGroupCode() != null) {
+                    groups.set(indexOf(groupIndex, row.getGroupCode()));
+                }
+            }
+        }
+
+        Map<Long, BitSet> aclGroups = new HashMap<>();
+        if (!postIds.isEmpty()) {
+            List<PostGroupAclEntity> rows = selectInBatches(postIds, batch ->
+                postGroupAclMapper.selectList(
+                    new LambdaQueryWrapper<PostGroupAclEntity>()
+                        .in(PostGroupAclEntity::getPostId, batch)
+                )
+            );
+            for (PostGroupAclEntity row : rows) {
+                if (row.getPostId() == null || row.getGroupCode() == null) {
+                    continue;
+                }
+                aclGroups.computeIfAbsent(row.getPostId(), ignored -> new BitSet())
+                    .set(indexOf(groupIndex, row.getGroupCode()));
+            }
+        }
+
+        BitSet viewerMask = new BitSet();
+        if (viewerGroups != null) {
+            for (String group : viewerGroups) {
+                Integer index = group == null ? null : groupIndex.get(group);
+                if (index != null) {
+                    viewerMask.set(index);
+                }
+            }
+        }
+        return new Batch(categoryGroups, aclGroups, viewerMask);
+    }
+
+    private Set<String> loadEnabledCategories(Set<String> categories) {
+        if (categories.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> enabled = new HashSet<>();
+        List<PostCategoryPolicyEntity> policies = selectInBatches(categories, batch ->
+            postCategoryPolicyMapper.selectList(
+                new LambdaQueryWrapper<PostCategoryPolicyEntity>()
+                    .in(PostCategoryPolicyEntity::getCategoryCode, batch)
+            )
+        );
+        for (PostCategoryPolicyEntity policy : policies) {
+            if (policy.getEnabledFlag() != null && policy.getEnabledFlag() == 1 && policy.getCategoryCode() != null) {
+                enabled.add(policy.getCategoryCode());
+            }
+        }
+        return enabled;
+    }
+
+    private static <K, R> List<R> selectInBatches(Collection<K> keys, Function<List<K>, List<R>> query) {
+        List<K> ordered = new ArrayList<>(keys);
+        if (ordered.size() <= IN_BATCH_SIZE) {
+            return query.apply(ordered);
+        }
+        List<R> rows = new ArrayList<>();
+        for (int offset = 0; offset < ordered.size(); offset += IN_BATCH_SIZE) {
+            rows.addAll(query.apply(ordered.subList(offset, Math.min(ordered.size(), offset + IN_BATCH_SIZE))));
+        }
+        return rows;
+    }
+
+    private static int indexOf(Map<String, Integer> groupIndex, String groupCode) {
+        return groupIndex.computeIfAbsent(groupCode, ignored -> groupIndex.size());
+    }
+
+    public static final class Batch {
+
+        private static final Batch EMPTY = new Batch(Map.of(), Map.of(), new BitSet());
+
+        private final Map<String, BitSet> categoryGroups;
+        private final Map<Long, BitSet> aclGroups;
+        private final BitSet viewerMask;
+
+        private Batch(Map<String, BitSet> categoryGroups, Map<Long, BitSet> aclGroups, BitSet viewerMask) {
+            this.categoryGroups = categoryGroups;
+            this.aclGroups = aclGroups;
+            this.viewerMask = viewerMask;
+        }
+
+        public static Batch empty() {
+            return EMPTY;
+        }
+
+        public boolean allowsCategory(String categoryCode) {
+            if (!StringUtils.hasText(categoryCode)) {
+                return true;
+            }
+            BitSet allowed = categoryGroups.get(categoryCode);
+            if (allowed == null) {
+                return true;
+            }
+            return allowed.intersects(viewerMask);
+        }
+
+        public boolean allowsAcl(Long postId) {
+            BitSet allowed = postId == null ? null : aclGroups.get(postId);
+            return allowed != null && allowed.intersects(viewerMask);
+        }
+    }
+}
@@ -0,0 +1,805 @@
+package io.github.shizuki.site.content.support;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import io.github.shizuki.site.content.entity.PostEntity;
+import io.github.shizuki.site.content.entity.PostTagEntity;
+import io.github.shizuki.site.content.mapper.PostMapper;
+import io.github.shizuki.site.content.mapper.PostTagMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+/**
+ * 已发布文章的进程内索引。刷新在事务提交后先作用于本节点，再经 Redis pub/sub 广播给其他节点，
+ * 其他节点按 id 重新读库；广播丢失时由 max-age 兜底全量重建。
+ * 快照过期或被整体失效后继续提供旧快照，由单个后台线程重建；只有还没有任何快照时读者才会等待。
+ */
+@Component
+public class PublishedPostIndex {
+
+    public static final String CHANNEL = "shizuki:content:published-post-index";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PublishedPostIndex.class);
+    private static final String POST_STATUS_PUBLISHED = "PUBLISHED";
+    private static final long[] EMPTY_IDS = new long[0];
+    private static final int REFRESH_BATCH_SIZE = 500;
+    private static final int MAX_CACHED_TOTALS = 256;
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator
+        .comparing(Entry::sortTime, Comparator.reverseOrder())
+        .thenComparing(Entry::postId, Comparator.reverseOrder());
+
+    private final PostMapper postMapper;
+    private final PostTagMapper postTagMapper;
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private final Executor rebuildExecutor;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Object rebuildLock = new Object();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+    private volatile boolean stale;
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Value("${shizuki.blog.post-index.max-age-seconds:300}")
+    private long maxAgeSeconds = 300L;
+
+    @Value("${shizuki.blog.post-index.broadcast-enabled:true}")
+    private boolean broadcastEnabled = true;
+
+    public PublishedPostIndex(PostMapper postMapper,
+                              PostTagMapper postTagMapper,
+                              ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                              @Qualifier("publishedPostIndexExecutor") Executor rebuildExecutor) {
+        this.postMapper = postMapper;
+        this.postTagMapper = postTagMapper;
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.rebuildExecutor = rebuildExecutor;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        StringRedisTemplate redisTemplate = redisTemplate();
+        if (redisTemplate == null || redisTemplate.getConnectionFactory() == null) {
+            return;
+        }
+        try {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(redisTemplate.getConnectionFactory());
+            container.addMessageListener(
+                (message, pattern) -> onRemoteChange(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CHANNEL)
+            );
+            container.afterPropertiesSet();
+            container.start();
+            listenerContainer = container;
+        } catch (Exception exception) {
+            LOGGER.warn("PUBLISHED_POST_INDEX_SUBSCRIBE_FAIL reason={}", exception.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (listenerContainer == null) {
+            return;
+        }
+        try {
+            listenerContainer.destroy();
+        } catch (Exception exception) {
+            LOGGER.warn("PUBLISHED_POST_INDEX_UNSUBSCRIBE_FAIL reason={}", exception.getMessage());
+        }
+        listenerContainer = null;
+    }
+
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (rebuildLock) {
+                current = snapshot;
+                if (current == null) {
+                    stale = false;
+                    current = buildFullSnapshot();
+                    snapshot = current;
+                }
+            }
+            return current;
+        }
+        if (stale || isExpired(current, System.currentTimeMillis())) {
+            scheduleRebuild();
+            return snapshot;
+        }
+        return current;
+    }
+
+    public void refreshPost(Long postId) {
+        if (postId == null || postId <= 0) {
+            return;
+        }
+        runAfterCommit(() -> {
+            applyRefresh(postId);
+            broadcast(Change.REFRESH, List.of(postId));
+        });
+    }
+
+    /**
+     * 批量刷新：一次查库、一次生成新快照，避免逐个刷新时每个 id 都复制整份快照。
+     */
+    public void refreshPosts(Collection<Long> postIds) {
+        if (postIds == null) {
+            return;
+        }
+        List<Long> ids = postIds.stream()
+            .filter(postId -> postId != null && postId > 0)
+            .distinct()
+            .toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        runAfterCommit(() -> {
+            applyRefresh(ids);
+            broadcast(Change.REFRESH, ids);
+        });
+    }
+
+    public void removePost(Long postId) {
+        if (postId == null || postId <= 0) {
+            return;
+        }
+        runAfterCommit(() -> {
+            applyRemoval(postId);
+            broadcast(Change.REMOVE, List.of(postId));
+        });
+    }
+
+    /**
+     * 标记整体失效：读者继续拿到旧快照，下一次读取触发后台重建。
+     */
+    public void invalidate() {
+        stale = true;
+        broadcast(Change.INVALIDATE, List.of());
+    }
+
+    /**
+     * 处理其他节点广播的变更；本节点发出的消息已在本地生效，直接忽略。
+     */
+    void onRemoteChange(String message) {
+        RemoteChange change = RemoteChange.decode(message);
+        if (change == null || nodeId.equals(change.nodeId())) {
+            return;
+        }
+        switch (change.change()) {
+            case REFRESH -> applyRefresh(change.postIds());
+            case REMOVE -> change.postIds().forEach(this::applyRemoval);
+            case INVALIDATE -> stale = true;
+        }
+    }
+
+    private void scheduleRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        } catch (RuntimeException exception) {
+            rebuilding.set(false);
+            LOGGER.warn("PUBLISHED_POST_INDEX_REBUILD_REJECTED reason={}", exception.getMessage());
+        }
+    }
+
+    /**
+     * 重建期间持有 rebuildLock，其间到达的增量刷新排在重建之后作用到新快照上，不会被覆盖丢失。
+     */
+    private void rebuild() {
+        synchronized (rebuildLock) {
+            boolean wasStale = stale;
+            stale = false;
+            try {
+                snapshot = buildFullSnapshot();
+            } catch (RuntimeException exception) {
+                stale = stale || wasStale;
+                LOGGER.warn("PUBLISHED_POST_INDEX_REBUILD_FAIL reason={}", exception.getMessage());
+            }
+        }
+    }
+
+    private void applyRefresh(Long postId) {
+        synchronized (rebuildLock) {
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            try {
+                PostEntity post = postMapper.selectById(postId);
+                if (!isIndexable(post)) {
+                    snapshot = current.without(postId);
+                    return;
+                }
+                List<String> tags = postTagMapper.selectList(
+                        new LambdaQueryWrapper<PostTagEntity>()
+                            .eq(PostTagEntity::getPostId, postId)
+                            .orderByAsc(PostTagEntity::getTagCode)
+                    ).stream()
+                    .map(PostTagEntity::getTagCode)
+                    .filter(StringUtils::hasText)
+                    .toList();
+                snapshot = current.with(toEntry(post, tags));
+            } catch (RuntimeException exception) {
+                LOGGER.warn("PUBLISHED_POST_INDEX_REFRESH_FAIL postId={} reason={}", postId, exception.getMessage());
+                stale = true;
+            }
+        }
+    }
+
+    private void applyRemoval(Long postId) {
+        synchronized (rebuildLock) {
+            Snapshot current = snapshot;
+            if (current != null) {
+                snapshot = current.without(postId);
+            }
+        }
+    }
+
+    private void applyRefresh(List<Long> postIds) {
+        synchronized (rebuildLock) {
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            try {
+                Map<Long, PostEntity> posts = new HashMap<>();
+                for (int offset = 0; offset < postIds.size(); offset += REFRESH_BATCH_SIZE) {
+                    List<Long> batch = postIds.subList(offset, Math.min(postIds.size(), offset + REFRESH_BATCH_SIZE));
+                    postMapper.selectBatchIds(batch).forEach(post -> posts.put(post.getId(), post));
+                }
+                Map<Long, List<String>> tagsByPostId = loadTags(postIds);
+                List<Entry> upserts = new ArrayList<>();
+                List<Long> removals = new ArrayList<>();
+                for (Long postId : postIds) {
+                    PostEntity post = posts.get(postId);
+                    if (isIndexable(post)) {
+                        upserts.add(toEntry(post, tagsByPostId.getOrDefault(postId, List.of())));
+                    } else {
+                        removals.add(postId);
+                    }
+                }
+                snapshot = current.apply(upserts, removals);
+            } catch (RuntimeException exception) {
+                LOGGER.warn("PUBLISHED_POST_INDEX_REFRESH_FAIL postIds={} reason={}", postIds.size(), exception.getMessage());
+                stale = true;
+            }
+        }
+    }
+
+    private void broadcast(Change change, List<Long> postIds) {
+        StringRedisTemplate redisTemplate = redisTemplate();
+        if (redisTemplate == null) {
+            return;
+        }
+        String message = new RemoteChange(nodeId, change, postIds).encode();
+        try {
+            redisTemplate.convertAndSend(CHANNEL, message);
+        } catch (Exception exception) {
+            LOGGER.warn("PUBLISHED_POST_INDEX_BROADCAST_FAIL change={} postIds={} reason={}", change, postIds.size(), exception.getMessage());
+        }
+    }
+
+    private StringRedisTemplate redisTemplate() {
+        return broadcastEnabled ? redisTemplateProvider.getIfAvailable() : null;
+    }
+
+    private Snapshot buildFullSnapshot() {
+        List<PostEntity> posts = postMapper.selectList(
+            new LambdaQueryWrapper<PostEntity>()
+                .eq(PostEntity::getDeleted, 0)
+                .eq(PostEntity::getStatusCode, POST_STATUS_PUBLISHED)
+                .orderByDesc(PostEntity::getPublishedAt)
+                .orderByDesc(PostEntity::getId)
+        );
+        List<PostEntity> indexable = new ArrayList<>(posts.size());
+        Set<Long> postIds = new LinkedHashSet<>();
+        for (PostEntity post : posts) {
+            if (isIndexable(post) && postIds.add(post.getId())) {
+                indexable.add(post);
+            }
+        }
+
+        Map<Long, List<String>> tagsByPostId = loadTags(new ArrayList<>(postIds));
+        List<Entry> entries = new ArrayList<>(indexable.size());
+        for (PostEntity post : indexable) {
+            entries.add(toEntry(post, tagsByPostId.getOrDefault(post.getId(), List.of())));
+        }
+        return Snapshot.of(entries, System.currentTimeMillis());
+    }
+
+    /**
+     * 只按已发布文章的 id 分批加载标签，不再整表读取 CTN_POST_TAG。
+     */
+    private Map<Long, List<String>> loadTags(List<Long> postIds) {
+        Map<Long, List<String>> tagsByPostId = new HashMap<>();
+        for (int offset = 0; offset < postIds.size(); offset += REFRESH_BATCH_SIZE) {
+            List<Long> batch = postIds.subList(offset, Math.min(postIds.size(), offset + REFRESH_BATCH_SIZE));
+            postTagMapper.selectList(
+                    new LambdaQueryWrapper<PostTagEntity>()
+                        .in(PostTagEntity::getPostId, batch)
+                        .orderByAsc(PostTagEntity::getTagCode)
+                ).stream()
+                .filter(tag -> StringUtils.hasText(tag.getTagCode()))
+                .forEach(tag -> tagsByPostId.computeIfAbsent(tag.getPostId(), key -> new ArrayList<>()).add(tag.getTagCode()));
+        }
+        return tagsByPostId;
+    }
+
+    private boolean isExpired(Snapshot current, long nowEpochMillis) {
+        long maxAgeMs = Math.max(1L, maxAgeSeconds) * 1000L;
+        return nowEpochMillis - current.builtAtMs() >= maxAgeMs;
+    }
+
+    private boolean isIndexable(PostEntity post) {
+        return post != null
+            && post.getId() != null
+            && post.getId() > 0
+            && (post.getDeleted() == null || post.getDeleted() == 0)
+            && POST_STATUS_PUBLISHED.equalsIgnoreCase(post.getStatusCode() == null ? "" : post.getStatusCode().trim());
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+
+    private Entry toEntry(PostEntity source, List<String> tags) {
+        PostEntity copy = new PostEntity();
+        copy.setId(source.getId());
+        copy.setPostNum(source.getPostNum());
+        copy.setUserId(source.getUserId());
+        copy.setTitle(source.getTitle());
+        copy.setSummary(source.getSummary());
+        copy.setVisibility(source.getVisibility());
+        copy.setStatusCode(source.getStatusCode());
+        copy.setCategoryCode(source.getCategoryCode());
+        copy.setSlugCode(source.getSlugCode());
+        copy.setCoverImageUrl(source.getCoverImageUrl());
+        copy.setMarkdownBucket(source.getMarkdownBucket());
+        copy.setMarkdownKey(source.getMarkdownKey());
+        copy.setWordCount(source.getWordCount());
+        copy.setLineCount(source.getLineCount());
+        copy.setReadingMinutes(source.getReadingMinutes());
+        copy.setPublishedAt(source.getPublishedAt());
+        copy.setLikeCount(source.getLikeCount());
+        copy.setLikeFlushToken(source.getLikeFlushToken());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        copy.setDeleted(source.getDeleted());
+        LocalDateTime publishTime = resolvePublishTime(copy);
+        return new Entry(
+            copy.getId(),
+            copy,
+            List.copyOf(tags),
+            PostCategoryCodes.normalize(copy.getCategoryCode()),
+            publishTime == null ? LocalDateTime.MIN : publishTime
+        );
+    }
+
+    public static LocalDateTime resolvePublishTime(PostEntity post) {
+        if (post == null) {
+            return null;
+        }
+        LocalDateTime publishedAt = normalizePublishTime(post.getPublishedAt());
+        if (publishedAt != null) {
+            return publishedAt;
+        }
+        LocalDateTime createdAt = normalizePublishTime(post.getCreatedAt());
+        if (createdAt != null) {
+            return createdAt;
+        }
+        return normalizePublishTime(post.getUpdatedAt());
+    }
+
+    private static LocalDateTime normalizePublishTime(LocalDateTime value) {
+        if (value == null || value.getYear() <= 0) {
+            return null;
+        }
+        if (value.equals(LocalDateTime.MIN) || value.equals(LocalDateTime.MAX)) {
+            return null;
+        }
+        return value;
+    }
+
+    public record Entry(long postId, PostEntity post, List<String> tags, String categoryKey, LocalDateTime sortTime) {
+    }
+
+    enum Change {
+        REFRESH,
+        REMOVE,
+        INVALIDATE
+    }
+
+    /**
+     * 广播消息体，格式 {@code nodeId|CHANGE|id,id,...}。
+     */
+    record RemoteChange(String nodeId, Change change, List<Long> postIds) {
+
+        String encode() {
+            StringBuilder builder = new StringBuilder(nodeId).append('|').append(change.name()).append('|');
+            for (int index = 0; index < postIds.size(); index++) {
+                if (index > 0) {
+                    builder.append(',');
+                }
+                builder.append(postIds.get(index));
+            }
+            return builder.toString();
+        }
+
+        static RemoteChange decode(String message) {
+            if (!StringUtils.hasText(message)) {
+                return null;
+            }
+            String[] parts = message.split("\\|", -1);
+            if (parts.length != 3) {
+                return null;
+            }
+            try {
+                List<Long> postIds = new ArrayList<>();
+                for (String raw : parts[2].split(",")) {
+                    if (StringUtils.hasText(raw)) {
+                        postIds.add(Long.parseLong(raw.trim()));
+                    }
+                }
+                return new RemoteChange(parts[0], Change.valueOf(parts[1]), List.copyOf(postIds));
+            } catch (IllegalArgumentException exception) {
+                return null;
+            }
+        }
+    }
+
+    private record CachedTotal(long total, long expireAtMs) {
+    }
+
+    public static final class Snapshot {
+
+        private final Map<Long, Entry> entries;
+        private final long[] orderedIds;
+        private final Map<String, long[]> categoryIds;
+        private final Map<String, long[]> tagIds;
+        private final Map<Long, List<String>> tagsByPostId;
+        private final PostKeywordIndex keywordIndex;
+        private final long builtAtMs;
+        private final Map<Object, CachedTotal> totals = new ConcurrentHashMap<>();
+
+        private Snapshot(Map<Long, Entry> entries,
+                         long[] orderedIds,
+                         Map<String, long[]> categoryIds,
+                         Map<String, long[]> tagIds,
+                         Map<Long, List<String>> tagsByPostId,
+                         PostKeywordIndex keywordIndex,
+                         long builtAtMs) {
+            this.entries = entries;
+            this.orderedIds = orderedIds;
+            this.categoryIds = categoryIds;
+            this.tagIds = tagIds;
+            this.tagsByPostId = tagsByPostId;
+            this.keywordIndex = keywordIndex;
+            this.builtAtMs = builtAtMs;
+        }
+
+        static Snapshot of(Collection<Entry> source, long builtAtMs) {
+            List<Entry> sorted = new ArrayList<>(source);
+            sorted.sort(ENTRY_ORDER);
+
+            Map<Long, Entry> entries = new HashMap<>(Math.max(16, sorted.size() * 2));
+            Map<Long, List<String>> tagsByPostId = new HashMap<>(Math.max(16, sorted.size() * 2));
+            long[] orderedIds = new long[sorted.size()];
+            Map<String, List<Long>> categoryBuckets = new HashMap<>();
+            Map<String, List<Long>> tagBuckets = new HashMap<>();
+            List<PostKeywordIndex.Document> documents = new ArrayList<>(sorted.size());
+            for (int index = 0; index < sorted.size(); index++) {
+                Entry entry = sorted.get(index);
+                documents.add(toDocument(entry));
+                entries.put(entry.postId(), entry);
+                tagsByPostId.put(entry.postId(), entry.tags());
+                orderedIds[index] = entry.postId();
+                categoryBuckets.computeIfAbsent(entry.categoryKey(), key -> new ArrayList<>()).add(entry.postId());
+                for (String tag : new HashSet<>(entry.tags())) {
+                    tagBuckets.computeIfAbsent(tag, key -> new ArrayList<>()).add(entry.postId());
+                }
+            }
+            return new Snapshot(
+                Map.copyOf(entries),
+                orderedIds,
+                toIdArrays(categoryBuckets),
+                toIdArrays(tagBuckets),
+                Map.copyOf(tagsByPostId),
+                PostKeywordIndex.build(documents),
+                builtAtMs
+            );
+        }
+
+        public int size() {
+            return orderedIds.length;
+        }
+
+        /**
+         * 按查询条件缓存列表总数。快照每次刷新都会换新实例，缓存随之失效；TTL 兜住分类策略这类不经过索引刷新的变更。
+         */
+        public long cachedTotal(Object key, long ttlMs, LongSupplier counter) {
+            long now = System.currentTimeMillis();
+            CachedTotal cached = totals.get(key);
+            if (cached != null && cached.expireAtMs() > now) {
+                return cached.total();
+            }
+            long total = counter.getAsLong();
+            if (totals.size() >= MAX_CACHED_TOTALS) {
+                totals.clear();
+            }
+            totals.put(key, new CachedTotal(total, now + ttlMs));
+            return total;
+        }
+
+        public Entry get(long postId) {
+            return entries.get(postId);
+        }
+
+        public Map<Long, List<String>> tagsByPostId() {
+            return tagsByPostId;
+        }
+
+        public long[] orderedIds() {
+            return orderedIds;
+        }
+
+        public long[] idsForCategory(String categoryCode) {
+            return categoryIds.getOrDefault(PostCategoryCodes.normalize(categoryCode), EMPTY_IDS);
+        }
+
+        public long[] idsForTag(String tagCode) {
+            return tagIds.getOrDefault(tagCode == null ? "" : tagCode, EMPTY_IDS);
+        }
+
+        public PostKeywordIndex.Matches keywordMatches(String keyword) {
+            return keywordIndex.match(keyword);
+        }
+
+        public long[] candidateIds(String categoryCode, String tagCode) {
+            boolean byCategory = StringUtils.hasText(categoryCode);
+            boolean byTag = StringUtils.hasText(tagCode);
+            if (byCategory && byTag) {
+                long[] categoryMatches = idsForCategory(categoryCode);
+                long[] tagMatches = idsForTag(tagCode);
+                return categoryMatches.length <= tagMatches.length ? categoryMatches : tagMatches;
+            }
+            if (byCategory) {
+                return idsForCategory(categoryCode);
+            }
+            if (byTag) {
+                return idsForTag(tagCode);
+            }
+            return orderedIds;
+        }
+
+        /**
+         * 在按发布时间降序排列的 ID 数组中定位游标之后的第一个位置。
+         */
+        public int seek(long[] ids, PostListCursor cursor) {
+            if (cursor == null) {
+                return 0;
+            }
+            int low = 0;
+            int high = ids.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                Entry entry = entries.get(ids[middle]);
+                if (cursor.follows(entry.sortTime(), entry.postId())) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            return low;
+        }
+
+        long builtAtMs() {
+            return builtAtMs;
+        }
+
+        Snapshot with(Entry entry) {
+            return apply(List.of(entry), List.of());
+        }
+
+        Snapshot without(Long postId) {
+            return postId == null ? this : apply(List.of(), List.of(postId));
+        }
+
+        /**
+         * 一次性应用一批新增/更新与删除：各映射只复制一次，有序 ID 数组按过滤加归并一遍完成。
+         */
+        Snapshot apply(Collection<Entry> upserts, Collection<Long> removals) {
+            Map<Long, Entry> nextEntries = new HashMap<>(entries);
+            Map<Long, List<String>> nextTags = new HashMap<>(tagsByPostId);
+            Map<String, long[]> nextCategories = new HashMap<>(categoryIds);
+            Map<String, long[]> nextTagIds = new HashMap<>(tagIds);
+            List<PostKeywordIndex.Document> detached = new ArrayList<>();
+            Map<Long, Entry> upserted = new LinkedHashMap<>();
+            upserts.forEach(entry -> upserted.put(entry.postId(), entry));
+            Set<Long> touched = new HashSet<>();
+            for (Long postId : removals) {
+                Entry previous = upserted.containsKey(postId) ? null : nextEntries.remove(postId);
+                if (previous != null) {
+                    touched.add(postId);
+                    detachEntry(previous, nextTags, nextCategories, nextTagIds, detached);
+                }
+            }
+            for (Entry entry : upserted.values()) {
+                Entry previous = nextEntries.put(entry.postId(), entry);
+                if (previous != null) {
+                    detachEntry(previous, nextTags, nextCategories, nextTagIds, detached);
+                }
+                touched.add(entry.postId());
+            }
+            if (touched.isEmpty()) {
+                return this;
+            }
+            Comparator<Long> order = (left, right) -> ENTRY_ORDER.compare(nextEntries.get(left), nextEntries.get(right));
+            List<PostKeywordIndex.Document> attached = new ArrayList<>(upserted.size());
+            for (Entry entry : upserted.values()) {
+                nextTags.put(entry.postId(), entry.tags());
+                attach(nextCategories, List.of(entry.categoryKey()), entry.postId(), order);
+                attach(nextTagIds, entry.tags(), entry.postId(), order);
+                attached.add(toDocument(entry));
+            }
+            long[] inserted = upserted.keySet().stream().sorted(order).mapToLong(Long::longValue).toArray();
+            return new Snapshot(
+                Map.copyOf(nextEntries),
+                mergeSorted(removeIds(orderedIds, touched), inserted, order),
+                Map.copyOf(nextCategories),
+                Map.copyOf(nextTagIds),
+                Map.copyOf(nextTags),
+                keywordIndex.apply(detached, attached),
+                builtAtMs
+            );
+        }
+
+        private static void detachEntry(Entry previous,
+                                        Map<Long, List<String>> nextTags,
+                                        Map<String, long[]> nextCategories,
+                                        Map<String, long[]> nextTagIds,
+                                        List<PostKeywordIndex.Document> detached) {
+            nextTags.remove(previous.postId());
+            detach(nextCategories, List.of(previous.categoryKey()), previous.postId());
+            detach(nextTagIds, previous.tags(), previous.postId());
+            detached.add(toDocument(previous));
+        }
+
+        private static PostKeywordIndex.Document toDocument(Entry entry) {
+            return PostKeywordIndex.Document.of(entry.postId(), entry.post().getTitle(), entry.post().getSummary(), entry.tags());
+        }
+
+        private static void detach(Map<String, long[]> buckets, Collection<String> keys, long postId) {
+            for (String key : new HashSet<>(keys)) {
+                long[] current = buckets.get(key);
+                if (current == null) {
+                    continue;
+                }
+                long[] next = removeId(current, postId);
+                if (next.length == 0) {
+                    buckets.remove(key);
+                } else {
+                    buckets.put(key, next);
+                }
+            }
+        }
+
+        private static void attach(Map<String, long[]> buckets, Collection<String> keys, long postId, Comparator<Long> order) {
+            for (String key : new HashSet<>(keys)) {
+                buckets.put(key, insertSorted(buckets.getOrDefault(key, EMPTY_IDS), postId, order));
+            }
+        }
+
+        private static long[] removeId(long[] ids, long postId) {
+            for (int index = 0; index < ids.length; index++) {
+                if (ids[index] == postId) {
+                    long[] next = new long[ids.length - 1];
+                    System.arraycopy(ids, 0, next, 0, index);
+                    System.arraycopy(ids, index + 1, next, index, ids.length - index - 1);
+                    return next;
+                }
+            }
+            return ids;
+        }
+
+        private static long[] removeIds(long[] ids, Set<Long> postIds) {
+            long[] next = new long[ids.length];
+            int size = 0;
+            for (long id : ids) {
+                if (!postIds.contains(id)) {
+                    next[size++] = id;
+                }
+            }
+            return size == ids.length ? ids : Arrays.copyOf(next, size);
+        }
+
+        private static long[] mergeSorted(long[] left, long[] right, Comparator<Long> order) {
+            long[] merged = new long[left.length + right.length];
+            int leftIndex = 0;
+            int rightIndex = 0;
+            int index = 0;
+            while (leftIndex < left.length && rightIndex < right.length) {
+                if (order.compare(left[leftIndex], right[rightIndex]) <= 0) {
+                    merged[index++] = left[leftIndex++];
+                } else {
+                    merged[index++] = right[rightIndex++];
+                }
+            }
+            while (leftIndex < left.length) {
+                merged[index++] = left[leftIndex++];
+            }
+            while (rightIndex < right.length) {
+                merged[index++] = right[rightIndex++];
+            }
+            return merged;
+        }
+
+        private static long[] insertSorted(long[] ids, long postId, Comparator<Long> order) {
+            int low = 0;
+            int high = ids.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (order.compare(ids[middle], postId) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            long[] next = Arrays.copyOf(ids, ids.length + 1);
+            System.arraycopy(ids, low, next, low + 1, ids.length - low);
+            next[low] = postId;
+            return next;
+        }
+
+        private static Map<String, long[]> toIdArrays(Map<String, List<Long>> buckets) {
+            Map<String, long[]> result = new HashMap<>(Math.max(16, buckets.size() * 2));
+            buckets.forEach((key, ids) -> result.put(key, ids.stream().mapToLong(Long::longValue).toArray()));
+            return Map.copyOf(result);
+        }
+    }
+}
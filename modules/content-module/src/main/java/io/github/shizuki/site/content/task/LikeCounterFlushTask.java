@@ -0,0 +1,31 @@
+package io.github.shizuki.site.content.task;
+
+import io.github.shizuki.site.content.support.LikeCounterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LikeCounterFlushTask {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LikeCounterFlushTask.class);
+
+    private final LikeCounterService likeCounterService;
+
+    public LikeCounterFlushTask(LikeCounterService likeCounterService) {
+        this.likeCounterService = likeCounterService;
+    }
+
+    @Scheduled(
+        initialDelayString = "${shizuki.blog.like-counter.flush-interval-ms:2000}",
+        fixedDelayString = "${shizuki.blog.like-counter.flush-interval-ms:2000}"
+    )
+    public void flush() {
+        try {
+            likeCounterService.flush();
+        } catch (Exception exception) {
+            LOGGER.warn("LIKE_COUNTER_FLUSH_TASK_FAIL reason={}", exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.shizuki.site.content.task;
+
+import io.github.shizuki.site.content.service.ContentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PostMarkdownMetricsBackfillTask {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostMarkdownMetricsBackfillTask.class);
+
+    private final ContentService contentService;
+
+    @Value("${shizuki.blog.post-metrics.backfill-batch-size:200}")
+    private int batchSize = 200;
+
+    public PostMarkdownMetricsBackfillTask(ContentService contentService) {
+        this.contentService = contentService;
+    }
+
+    @Scheduled(
+        initialDelayString = "${shizuki.blog.post-metrics.backfill-initial-delay-ms:60000}",
+        fixedDelayString = "${shizuki.blog.post-metrics.backfill-interval-ms:3600000}"
+    )
+    public void backfill() {
+        try {
+            int updated = contentService.backfillPostMarkdownMetrics(batchSize);
+            if (updated > 0) {
+                LOGGER.info("POST_MARKDOWN_METRICS_BACKFILL updated={}", updated);
+            }
+        } catch (Exception exception) {
+            LOGGER.warn("POST_MARKDOWN_METRICS_BACKFILL_FAIL reason={}", exception.getMessage());
+        }
+    }
+}
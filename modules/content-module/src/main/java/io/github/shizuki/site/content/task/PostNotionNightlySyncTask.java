@@ -2,6 +2,8 @@ package io.github.shizuki.site.content.task;
 
 import io.github.shizuki.site.content.support.NotionProperties;
 import io.github.shizuki.site.content.support.PostNotionSyncService;
+import io.github.shizuki.site.content.support.PostSidebarAggregateStore;
+import io.github.shizuki.site.content.support.PublishedPostIndex;
 import io.github.shizuki.site.content.entity.NotionSyncJobEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,11 +17,17 @@ public class PostNotionNightlySyncTask {
 
     private final NotionProperties notionProperties;
     private final PostNotionSyncService postNotionSyncService;
+    private final PublishedPostIndex publishedPostIndex;
+    private final PostSidebarAggregateStore postSidebarAggregateStore;
 
     public PostNotionNightlySyncTask(NotionProperties notionProperties,
-                                     PostNotionSyncService postNotionSyncService) {
+                                     PostNotionSyncService postNotionSyncService,
+                                     PublishedPostIndex publishedPostIndex,
+                                     PostSidebarAggregateStore postSidebarAggregateStore) {
         this.notionProperties = notionProperties;
         this.postNotionSyncService = postNotionSyncService;
+        this.publishedPostIndex = publishedPostIndex;
+        this.postSidebarAggregateStore = postSidebarAggregateStore;
     }
 
     @Scheduled(
@@ -41,6 +49,9 @@ public class PostNotionNightlySyncTask {
             postNotionSyncService.executeJob(job.getId());
         } catch (Exception exception) {
             LOGGER.warn("POST_NOTION_NIGHTLY_SYNC_FAIL reason={}", exception.getMessage());
+        } finally {
+            publishedPostIndex.invalidate();
+            postSidebarAggregateStore.invalidate();
         }
     }
 }
@@ -0,0 +1,31 @@
+package io.github.shizuki.site.content.task;
+
+import io.github.shizuki.site.content.support.PostSidebarAggregateStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PostSidebarAggregateReconcileTask {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostSidebarAggregateReconcileTask.class);
+
+    private final PostSidebarAggregateStore postSidebarAggregateStore;
+
+    public PostSidebarAggregateReconcileTask(PostSidebarAggregateStore postSidebarAggregateStore) {
+        this.postSidebarAggregateStore = postSidebarAggregateStore;
+    }
+
+    @Scheduled(
+        initialDelayString = "${shizuki.blog.sidebar-aggregate.reconcile-interval-ms:900000}",
+        fixedDelayString = "${shizuki.blog.sidebar-aggregate.reconcile-interval-ms:900000}"
+    )
+    public void reconcile() {
+        try {
+            postSidebarAggregateStore.reconcile();
+        } catch (Exception exception) {
+            LOGGER.warn("POST_SIDEBAR_AGGREGATE_RECONCILE_FAIL reason={}", exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+SET @col_exists = (
+    SELECT COUNT(1)
+    FROM information_schema.columns
+    WHERE table_schema = DATABASE()
+      AND table_name = 'CTN_POST'
+      AND column_name = 'metrics_version'
+);
+SET @ddl = IF(
+    @col_exists = 0,
+    'ALTER TABLE CTN_POST ADD COLUMN metrics_version INT NOT NULL DEFAULT 0 COMMENT ''CTN_POST.metrics_version 正文统计口径版本''',
+    'SELECT 1'
+);
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
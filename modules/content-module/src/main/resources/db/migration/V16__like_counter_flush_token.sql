@@ -0,0 +1,31 @@
+SET @col_exists = (
+    SELECT COUNT(1)
+    FROM information_schema.columns
+    WHERE table_schema = DATABASE()
+      AND table_name = 'CTN_POST'
+      AND column_name = 'like_flush_token'
+);
+SET @ddl = IF(
+    @col_exists = 0,
+    'ALTER TABLE CTN_POST ADD COLUMN like_flush_token VARCHAR(64) NULL COMMENT ''CTN_POST.like_flush_token 最近一次落库的点赞增量批次''',
+    'SELECT 1'
+);
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @col_exists = (
+    SELECT COUNT(1)
+    FROM information_schema.columns
+    WHERE table_schema = DATABASE()
+      AND table_name = 'CTN_APP'
+      AND column_name = 'like_flush_token'
+);
+SET @ddl = IF(
+    @col_exists = 0,
+    'ALTER TABLE CTN_APP ADD COLUMN like_flush_token VARCHAR(64) NULL COMMENT ''CTN_APP.like_flush_token 最近一次落库的点赞增量批次''',
+    'SELECT 1'
+);
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,5 @@
+-- 游标列表只收录有 published_time 的文章，这里为历史已发布文章补齐发布时间。
+UPDATE CTN_POST
+SET published_time = COALESCE(create_time, update_time)
+WHERE status_code = 'PUBLISHED'
+  AND published_time IS NULL;
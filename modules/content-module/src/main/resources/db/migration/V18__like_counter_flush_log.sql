@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS CTN_LIKE_FLUSH_LOG (
+    target_code VARCHAR(16) NOT NULL COMMENT 'CTN_LIKE_FLUSH_LOG.target_code 点赞对象类型 POST/APP',
+    target_id BIGINT NOT NULL COMMENT 'CTN_LIKE_FLUSH_LOG.target_id 点赞对象ID',
+    flush_token VARCHAR(64) NOT NULL COMMENT 'CTN_LIKE_FLUSH_LOG.flush_token 已落库的点赞增量批次',
+    create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'CTN_LIKE_FLUSH_LOG.create_time 落库时间',
+    CONSTRAINT PK_CTN_LIKE_FLUSH_LOG PRIMARY KEY (target_code, target_id, flush_token),
+    KEY IX_CTN_LIKE_FLUSH_LOG_1 (create_time)
+) COMMENT='点赞增量落库批次表';
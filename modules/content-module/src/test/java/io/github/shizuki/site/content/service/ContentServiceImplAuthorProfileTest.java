@@ -21,11 +21,16 @@ import io.github.shizuki.site.content.mapper.PostMapper;
 import io.github.shizuki.site.content.mapper.PostPresentationMapper;
 import io.github.shizuki.site.content.mapper.PostTagMapper;
 import io.github.shizuki.site.content.service.impl.ContentServiceImpl;
+import io.github.shizuki.site.content.support.LikeCounterService;
 import io.github.shizuki.site.content.support.NotionBlockCodec;
 import io.github.shizuki.site.content.support.NotionProperties;
 import io.github.shizuki.site.content.support.PostNotionSyncService;
 import io.github.shizuki.site.content.support.PostPresentationGeneratorClient;
+import io.github.shizuki.site.content.support.PostMarkdownCache;
 import io.github.shizuki.site.content.support.PostPresentationTemplateService;
+import io.github.shizuki.site.content.support.PostSidebarAggregateStore;
+import io.github.shizuki.site.content.support.PostVisibilityResolver;
+import io.github.shizuki.site.content.support.PublishedPostIndex;
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -41,6 +46,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class ContentServiceImplAuthorProfileTest {
@@ -125,6 +133,11 @@ class ContentServiceImplAuthorProfileTest {
             postNotionSyncService,
             new PostPresentationTemplateService(),
             postPresentationGeneratorClient,
+            new PublishedPostIndex(postMapper, postTagMapper, noRedis(), Runnable::run),
+            new PostVisibilityResolver(postCategoryPolicyMapper, postCategoryPolicyGroupMapper, postGroupAclMapper),
+            new PostSidebarAggregateStore(postMapper, postTagMapper, postGroupAclMapper),
+            Mockito.mock(LikeCounterService.class),
+            new PostMarkdownCache(objectStorageClient),
             postPresentationExecutor,
             notionSyncExecutor
         );
@@ -229,4 +242,8 @@ class ContentServiceImplAuthorProfileTest {
     private Map<String, Object> castMap(Object value) {
         return (Map<String, Object>) value;
     }
+
+    private static ObjectProvider<StringRedisTemplate> noRedis() {
+        return new StaticListableBeanFactory().getBeanProvider(StringRedisTemplate.class);
+    }
 }
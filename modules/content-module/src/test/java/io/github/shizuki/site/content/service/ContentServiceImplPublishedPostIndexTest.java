@@ -0,0 +1,554 @@
+package io.github.shizuki.site.content.service;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.shizuki.common.core.error.BusinessException;
+import io.github.shizuki.common.core.response.CursorPageResponse;
+import io.github.shizuki.common.core.response.PageResponse;
+import io.github.shizuki.common.security.context.LoginUserContext;
+import io.github.shizuki.common.security.model.LoginUser;
+import io.github.shizuki.common.storage.client.ObjectStorageClient;
+import io.github.shizuki.site.content.entity.PostEntity;
+import io.github.shizuki.site.content.entity.PostGroupAclEntity;
+import io.github.shizuki.site.content.entity.PostTagEntity;
+import io.github.shizuki.site.content.mapper.AppGroupAclMapper;
+import io.github.shizuki.site.content.mapper.AppMapper;
+import io.github.shizuki.site.content.mapper.AuthorProfileMapper;
+import io.github.shizuki.site.content.mapper.ContentReportMapper;
+import io.github.shizuki.site.content.mapper.NotionSyncJobMapper;
+import io.github.shizuki.site.content.mapper.PostCategoryMetaMapper;
+import io.github.shizuki.site.content.mapper.PostCategoryPolicyGroupMapper;
+import io.github.shizuki.site.content.mapper.PostCategoryPolicyMapper;
+import io.github.shizuki.site.content.mapper.PostContentMapper;
+import io.github.shizuki.site.content.mapper.PostGroupAclMapper;
+import io.github.shizuki.site.content.mapper.PostMapper;
+import io.github.shizuki.site.content.mapper.PostPresentationMapper;
+import io.github.shizuki.site.content.mapper.PostTagMapper;
+import io.github.shizuki.site.content.response.PostSummary;
+import io.github.shizuki.site.content.service.impl.ContentServiceImpl;
+import io.github.shizuki.site.content.support.LikeCounterService;
+import io.github.shizuki.site.content.support.NotionBlockCodec;
+import io.github.shizuki.site.content.support.NotionProperties;
+import io.github.shizuki.site.content.support.PostNotionSyncService;
+import io.github.shizuki.site.content.support.PostPresentationGeneratorClient;
+import io.github.shizuki.site.content.support.PostMarkdownCache;
+import io.github.shizuki.site.content.support.PostPresentationTemplateService;
+import io.github.shizuki.site.content.support.PostSidebarAggregateStore;
+import io.github.shizuki.site.content.support.PostVisibilityResolver;
+import io.github.shizuki.site.content.support.PublishedPostIndex;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class ContentServiceImplPublishedPostIndexTest {
+
+    private static final int SEEDED_POST_COUNT = 5_000;
+    private static final List<String> CATEGORIES = List.of("life", "game", "tech", "notes", "travel");
+    private static final List<String> TAGS = List.of("java", "spring", "vue", "rust", "music", "anime", "daily", "trip", "book", "cat");
+
+    @Mock(stubOnly = true)
+    private PostMapper postMapper;
+
+    @Mock
+    private AppMapper appMapper;
+
+    @Mock
+    private ContentReportMapper contentReportMapper;
+
+    @Mock(stubOnly = true)
+    private PostGroupAclMapper postGroupAclMapper;
+
+    @Mock
+    private AppGroupAclMapper appGroupAclMapper;
+
+    @Mock(stubOnly = true)
+    private PostTagMapper postTagMapper;
+
+    @Mock(stubOnly = true)
+    private PostCategoryPolicyMapper postCategoryPolicyMapper;
+
+    @Mock
+    private PostCategoryPolicyGroupMapper postCategoryPolicyGroupMapper;
+
+    @Mock
+    private PostCategoryMetaMapper postCategoryMetaMapper;
+
+    @Mock
+    private PostContentMapper postContentMapper;
+
+    @Mock
+    private PostPresentationMapper postPresentationMapper;
+
+    @Mock
+    private NotionSyncJobMapper notionSyncJobMapper;
+
+    @Mock
+    private AuthorProfileMapper authorProfileMapper;
+
+    @Mock
+    private ObjectStorageClient objectStorageClient;
+
+    @Mock
+    private PostPresentationGeneratorClient postPresentationGeneratorClient;
+
+    @Mock
+    private Executor postPresentationExecutor;
+
+    @Mock
+    private PostNotionSyncService postNotionSyncService;
+
+    @Mock
+    private Executor notionSyncExecutor;
+
+    private final List<PostEntity> posts = new CopyOnWriteArrayList<>();
+    private final Map<Long, List<PostTagEntity>> tagsByPostId = new ConcurrentHashMap<>();
+    private final Map<Long, List<PostGroupAclEntity>> aclByPostId = new ConcurrentHashMap<>();
+
+    private PublishedPostIndex publishedPostIndex;
+    private ContentServiceImpl indexedService;
+    private ContentServiceImpl queryService;
+
+    @BeforeAll
+    static void initTableInfo() {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, PostEntity.class);
+        TableInfoHelper.initTableInfo(assistant, PostTagEntity.class);
+        TableInfoHelper.initTableInfo(assistant, PostGroupAclEntity.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        seedPosts(new Random(20260418L));
+
+        Mockito.when(postMapper.selectList(Mockito.any())).thenAnswer(invocation -> selectPosts(invocation.getArgument(0)));
+        Mockito.lenient().when(postMapper.selectById(Mockito.any())).thenAnswer(invocation -> findPost(invocation.getArgument(0)));
+        Mockito.when(postTagMapper.selectList(Mockito.any())).thenAnswer(invocation -> {
+            List<Long> postIds = longValues(invocation.getArgument(0));
+            if (postIds.isEmpty()) {
+                return tagsByPostId.values().stream().flatMap(List::stream).toList();
+            }
+            return postIds.stream()
+                .flatMap(postId -> tagsByPostId.getOrDefault(postId, List.of()).stream())
+                .toList();
+        });
+        Mockito.when(postGroupAclMapper.selectList(Mockito.any())).thenAnswer(invocation ->
+            longValues(invocation.getArgument(0)).stream()
+                .flatMap(postId -> aclByPostId.getOrDefault(postId, List.of()).stream())
+                .toList()
+        );
+        Mockito.when(postCategoryPolicyMapper.selectList(Mockito.any())).thenReturn(List.of());
+
+        publishedPostIndex = new PublishedPostIndex(postMapper, postTagMapper, noRedis(), Runnable::run);
+        indexedService = newService(publishedPostIndex);
+        queryService = newService(new PublishedPostIndex(postMapper, postTagMapper, noRedis(), Runnable::run));
+        ReflectionTestUtils.setField(queryService, "publishedPostIndexEnabled", false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        LoginUserContext.clear();
+    }
+
+    @Test
+    void shouldMatchQueryPathForGuestListings() {
+        assertListingsMatch();
+    }
+
+    @Test
+    void shouldMatchQueryPathForGroupMemberAndOwnerListings() {
+        LoginUserContext.set(new LoginUser(7L, Set.of("USER", "FRIEND"), Set.of()));
+        assertListingsMatch();
+
+        LoginUserContext.set(new LoginUser(3L, Set.of("USER"), Set.of()));
+        assertListingsMatch();
+
+        LoginUserContext.set(new LoginUser(1L, Set.of("ADMIN"), Set.of()));
+        assertListingsMatch();
+    }
+
+    @Test
+    void shouldMatchQueryPathAfterIncrementalPublishUpdateAndDelete() {
+        assertListingsMatch();
+
+        PostEntity published = post(SEEDED_POST_COUNT + 1L, 5L, "Fresh spring post", "tech", "PUBLIC", LocalDateTime.of(2026, 6, 1, 0, 0));
+        posts.add(published);
+        tagsByPostId.put(published.getId(), List.of(tag(published.getId(), "spring")));
+        publishedPostIndex.refreshPost(published.getId());
+
+        PostEntity updated = findPost(42L);
+        updated.setCategoryCode("travel");
+        updated.setPublishedAt(LocalDateTime.of(2020, 1, 1, 0, 0));
+        tagsByPostId.put(42L, List.of(tag(42L, "trip")));
+        publishedPostIndex.refreshPost(42L);
+
+        PostEntity unpublished = findPost(43L);
+        unpublished.setStatusCode("DRAFT");
+        posts.remove(unpublished);
+        publishedPostIndex.refreshPost(43L);
+
+        posts.remove(findPost(44L));
+        tagsByPostId.remove(44L);
+        publishedPostIndex.removePost(44L);
+
+        PostEntity tagOnlyHit = post(SEEDED_POST_COUNT + 2L, 5L, "Weekend log", "life", "PUBLIC", LocalDateTime.of(2026, 7, 1, 0, 0));
+        posts.add(tagOnlyHit);
+        tagsByPostId.put(tagOnlyHit.getId(), List.of(tag(tagOnlyHit.getId(), "anime")));
+        publishedPostIndex.refreshPost(tagOnlyHit.getId());
+
+        assertListingsMatch();
+        Assertions.assertEquals(
+            published.getId(),
+            indexedService.listPosts(1, 1, null, "tech", "spring").items().get(0).postId()
+        );
+        Assertions.assertNotEquals(
+            tagOnlyHit.getId(),
+            indexedService.listPosts(1, 1, "anime", null, null).items().get(0).postId()
+        );
+        Assertions.assertEquals(
+            tagOnlyHit.getId(),
+            queryService.listPosts(1, 1, "anime", null, null).items().get(0).postId()
+        );
+    }
+
+    @Test
+    void shouldNormalizeStoredCategoryCodesTheWayQueriesDo() {
+        PostEntity imported = post(SEEDED_POST_COUNT + 1L, 5L, "Imported notes", " Game Notes ", "PUBLIC", LocalDateTime.of(2026, 6, 1, 0, 0));
+        posts.add(imported);
+        tagsByPostId.put(imported.getId(), List.of());
+        publishedPostIndex.refreshPost(imported.getId());
+
+        for (String categoryCode : List.of("game-notes", "Game Notes")) {
+            for (ContentServiceImpl service : List.of(indexedService, queryService)) {
+                PageResponse<PostSummary> page = service.listPosts(1, 10, null, categoryCode, null, null, null);
+                Assertions.assertEquals(List.of(imported.getId()), page.items().stream().map(PostSummary::postId).toList());
+            }
+        }
+    }
+
+    @Test
+    void shouldResolveVisibilityForThePagePrefixAndReuseTheCachedTotal() {
+        LoginUserContext.set(new LoginUser(7L, Set.of("USER", "FRIEND"), Set.of()));
+        PageResponse<PostSummary> expected = queryService.listPosts(1, 10, null, null, null, null, null);
+        PageResponse<PostSummary> first = indexedService.listPosts(1, 10, null, null, null, null, null);
+        Mockito.clearInvocations(postGroupAclMapper);
+
+        PageResponse<PostSummary> second = indexedService.listPosts(1, 10, null, null, null, null, null);
+
+        Assertions.assertEquals(expected.total(), first.total());
+        Assertions.assertEquals(first.total(), second.total());
+        Assertions.assertEquals(
+            first.items().stream().map(PostSummary::postId).toList(),
+            second.items().stream().map(PostSummary::postId).toList()
+        );
+        long aclLookups = Mockito.mockingDetails(postGroupAclMapper).getInvocations().stream()
+            .mapToLong(invocation -> longValues(invocation.getArgument(0)).size())
+            .sum();
+        Assertions.assertTrue(aclLookups <= 20, "ACL rows looked up for a cached page: " + aclLookups);
+    }
+
+    @Test
+    void shouldPageStablyByCursorWhilePostsArePublishedBetweenFetches() {
+        List<Long> expected = offsetListingIds(indexedService).stream()
+            .filter(postId -> findPost(postId).getPublishedAt() != null)
+            .toList();
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        long nextId = SEEDED_POST_COUNT + 100L;
+        do {
+            CursorPageResponse<PostSummary> page = indexedService.listPostsByCursor(cursor, 37, null, null, null, null, null);
+            page.items().forEach(item -> seen.add(item.postId()));
+            cursor = page.nextCursor();
+
+            PostEntity fresh = post(nextId, 5L, "Fresh " + nextId, "tech", "PUBLIC", LocalDateTime.of(2027, 1, 1, 0, 0).plusMinutes(nextId));
+            nextId++;
+            posts.add(fresh);
+            tagsByPostId.put(fresh.getId(), List.of());
+            publishedPostIndex.refreshPost(fresh.getId());
+        } while (cursor != null);
+
+        Assertions.assertEquals(expected, seen);
+        PageResponse<PostSummary> shifted = indexedService.listPosts(2, 37, null, null, null, null, null);
+        Assertions.assertNotEquals(expected.get(37), shifted.items().get(0).postId(), "offset paging shifts after inserts");
+    }
+
+    @Test
+    void shouldSeekDatabaseByPublishedTimeAndIdWhenIndexDisabled() {
+        posts.stream()
+            .filter(post -> post.getPublishedAt() == null)
+            .forEach(post -> post.setPublishedAt(post.getCreatedAt()));
+        LoginUserContext.set(new LoginUser(7L, Set.of("USER", "FRIEND"), Set.of()));
+        List<Long> expected = offsetListingIds(queryService).stream()
+            .filter(postId -> findPost(postId).getCategoryCode().equals("game"))
+            .toList();
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        long nextId = SEEDED_POST_COUNT + 100L;
+        do {
+            CursorPageResponse<PostSummary> page = queryService.listPostsByCursor(cursor, 25, null, "game", null, null, null);
+            page.items().forEach(item -> seen.add(item.postId()));
+            cursor = page.nextCursor();
+            posts.add(post(nextId++, 5L, "Fresh game", "game", "PUBLIC", LocalDateTime.of(2027, 1, 1, 0, 0)));
+        } while (cursor != null);
+
+        Assertions.assertEquals(expected, seen);
+        Assertions.assertThrows(BusinessException.class, () -> queryService.listPostsByCursor("not-a-cursor", 10, null, null, null, null, null));
+    }
+
+    @Test
+    void shouldListTheSamePostsByCursorFromIndexAndDatabase() {
+        LoginUserContext.set(new LoginUser(7L, Set.of("USER", "FRIEND"), Set.of()));
+
+        List<Long> fromIndex = cursorListingIds(indexedService, "tech");
+        List<Long> fromDatabase = cursorListingIds(queryService, "tech");
+
+        Assertions.assertEquals(fromDatabase, fromIndex);
+        Assertions.assertTrue(fromIndex.stream().allMatch(postId -> findPost(postId).getPublishedAt() != null));
+    }
+
+    private List<Long> cursorListingIds(ContentServiceImpl service, String categoryCode) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageResponse<PostSummary> page = service.listPostsByCursor(cursor, 30, null, categoryCode, null, null, null);
+            page.items().forEach(item -> ids.add(item.postId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private List<Long> offsetListingIds(ContentServiceImpl service) {
+        List<Long> ids = new ArrayList<>();
+        for (long pageNo = 1; ; pageNo++) {
+            PageResponse<PostSummary> page = service.listPosts(pageNo, 100, null, null, null, null, null);
+            page.items().forEach(item -> ids.add(item.postId()));
+            if (page.items().size() < 100) {
+                return ids;
+            }
+        }
+    }
+
+    private List<PostEntity> selectPosts(Object wrapper) {
+        if (!(wrapper instanceof AbstractWrapper<?, ?, ?> abstractWrapper)) {
+            return new ArrayList<>(posts);
+        }
+        String sqlSegment = abstractWrapper.getSqlSegment();
+        Matcher limitMatcher = Pattern.compile("LIMIT (\\d+)").matcher(sqlSegment);
+        if (!limitMatcher.find()) {
+            return new ArrayList<>(posts);
+        }
+        // 只有展开形式的游标条件才在 MySQL 上走索引定位，行值比较写法直接判失败。
+        Assertions.assertFalse(sqlSegment.contains("(published_time, id) <"), sqlSegment);
+        Collection<Object> params = abstractWrapper.getParamNameValuePairs().values();
+        List<LocalDateTime> seekTimes = params.stream().filter(LocalDateTime.class::isInstance).map(LocalDateTime.class::cast).toList();
+        if (!seekTimes.isEmpty()) {
+            Assertions.assertTrue(sqlSegment.contains("published_time <") && sqlSegment.contains("published_time ="), sqlSegment);
+            Assertions.assertEquals(List.of(seekTimes.get(0), seekTimes.get(0)), seekTimes);
+        }
+        LocalDateTime seekTime = seekTimes.isEmpty() ? null : seekTimes.get(0);
+        Long seekId = params.stream().filter(Long.class::isInstance).map(Long.class::cast).findFirst().orElse(null);
+        return posts.stream()
+            .filter(post -> "PUBLISHED".equals(post.getStatusCode()) && post.getPublishedAt() != null)
+            .filter(post -> seekTime == null
+                || post.getPublishedAt().isBefore(seekTime)
+                || (post.getPublishedAt().isEqual(seekTime) && post.getId() < seekId))
+            .sorted(Comparator.comparing(PostEntity::getPublishedAt, Comparator.reverseOrder())
+                .thenComparing(PostEntity::getId, Comparator.reverseOrder()))
+            .limit(Long.parseLong(limitMatcher.group(1)))
+            .toList();
+    }
+
+    private void assertListingsMatch() {
+        assertSamePage(1, 10, null, null, null, null, null);
+        assertSamePage(37, 20, null, null, null, null, null);
+        assertSamePage(250, 20, null, null, null, null, null);
+        assertSamePage(1, 50, null, "game", null, null, null);
+        assertSamePage(3, 25, null, null, "spring", null, null);
+        assertSamePage(2, 10, null, "tech", "java", null, null);
+        assertSamePage(1, 100, "anime notes", null, null, null, null);
+        assertSameKeywordHits("anime");
+        assertSamePage(2, 40, null, null, null, "2025-03-01T00:00:00", "2025-09-01T00:00:00");
+        assertSamePage(1, 10, null, "missing", null, null, null);
+    }
+
+    private void assertSameKeywordHits(String keyword) {
+        PageResponse<PostSummary> expected = queryService.listPosts(1, 100, keyword, null, null, null, null);
+        PageResponse<PostSummary> actual = indexedService.listPosts(1, 100, keyword, null, null, null, null);
+        Assertions.assertEquals(expected.total(), actual.total(), () -> "keyword hit count diverged for " + keyword);
+
+        boolean summaryOrTagHitSeen = false;
+        for (PostSummary item : actual.items()) {
+            boolean titleHit = item.title().toLowerCase(Locale.ROOT).contains(keyword);
+            Assertions.assertFalse(titleHit && summaryOrTagHitSeen, "title hits should rank ahead of other hits");
+            summaryOrTagHitSeen |= !titleHit;
+        }
+    }
+
+    private void assertSamePage(
+        long pageNo,
+        long pageSize,
+        String keyword,
+        String categoryCode,
+        String tagCode,
+        String publishedFrom,
+        String publishedTo
+    ) {
+        PageResponse<PostSummary> expected = queryService.listPosts(
+            pageNo, pageSize, keyword, categoryCode, tagCode, publishedFrom, publishedTo
+        );
+        PageResponse<PostSummary> actual = indexedService.listPosts(
+            pageNo, pageSize, keyword, categoryCode, tagCode, publishedFrom, publishedTo
+        );
+        Assertions.assertEquals(expected, actual, () -> "listing diverged for page=" + pageNo + " keyword=" + keyword
+            + " category=" + categoryCode + " tag=" + tagCode);
+    }
+
+    private void seedPosts(Random random) {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (long id = 1; id <= SEEDED_POST_COUNT; id++) {
+            String visibility = switch (random.nextInt(10)) {
+                case 0 -> "PRIVATE";
+                case 1 -> "GROUP";
+                default -> "PUBLIC";
+            };
+            LocalDateTime publishedAt = base.plusHours(random.nextInt(24 * 700));
+            PostEntity entity = post(
+                id,
+                1L + random.nextInt(8),
+                "Post " + id + (random.nextBoolean() ? " anime notes" : " daily"),
+                CATEGORIES.get(random.nextInt(CATEGORIES.size())),
+                visibility,
+                publishedAt
+            );
+            if (random.nextInt(20) == 0) {
+                entity.setPublishedAt(null);
+            }
+            posts.add(entity);
+
+            List<PostTagEntity> tags = new ArrayList<>();
+            for (String tagCode : TAGS) {
+                if (random.nextInt(4) == 0) {
+                    tags.add(tag(id, tagCode));
+                }
+            }
+            tagsByPostId.put(id, tags);
+            if ("GROUP".equals(visibility)) {
+                aclByPostId.put(id, List.of(acl(id, "FRIEND")));
+            }
+        }
+    }
+
+    private PostEntity findPost(Long postId) {
+        return posts.stream().filter(post -> post.getId().equals(postId)).findFirst().orElse(null);
+    }
+
+    private static List<Long> longValues(Object wrapper) {
+        if (!(wrapper instanceof AbstractWrapper<?, ?, ?> abstractWrapper)) {
+            return List.of();
+        }
+        abstractWrapper.getSqlSegment();
+        return abstractWrapper.getParamNameValuePairs().values().stream()
+            .filter(Long.class::isInstance)
+            .map(Long.class::cast)
+            .toList();
+    }
+
+    private ContentServiceImpl newService(PublishedPostIndex index) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        return new ContentServiceImpl(
+            postMapper,
+            appMapper,
+            contentReportMapper,
+            postGroupAclMapper,
+            appGroupAclMapper,
+            postTagMapper,
+            postCategoryPolicyMapper,
+            postCategoryPolicyGroupMapper,
+            postCategoryMetaMapper,
+            postContentMapper,
+            postPresentationMapper,
+            notionSyncJobMapper,
+            authorProfileMapper,
+            objectStorageClient,
+            objectMapper,
+            new NotionProperties(),
+            new NotionBlockCodec(objectMapper),
+            postNotionSyncService,
+            new PostPresentationTemplateService(),
+            postPresentationGeneratorClient,
+            index,
+            new PostVisibilityResolver(postCategoryPolicyMapper, postCategoryPolicyGroupMapper, postGroupAclMapper),
+            new PostSidebarAggregateStore(postMapper, postTagMapper, postGroupAclMapper),
+            Mockito.mock(LikeCounterService.class),
+            new PostMarkdownCache(objectStorageClient),
+            postPresentationExecutor,
+            notionSyncExecutor
+        );
+    }
+
+    private PostEntity post(Long id, Long userId, String title, String categoryCode, String visibility, LocalDateTime publishedAt) {
+        PostEntity entity = new PostEntity();
+        entity.setId(id);
+        entity.setUserId(userId);
+        entity.setTitle(title);
+        entity.setSummary(title + " summary");
+        entity.setCategoryCode(categoryCode);
+        entity.setVisibility(visibility);
+        entity.setStatusCode("PUBLISHED");
+        entity.setWordCount(120L);
+        entity.setLineCount(12L);
+        entity.setReadingMinutes(1);
+        entity.setLikeCount(id % 17);
+        entity.setDeleted(0);
+        entity.setCreatedAt(publishedAt.minusHours(1));
+        entity.setUpdatedAt(publishedAt.minusMinutes(10));
+        entity.setPublishedAt(publishedAt);
+        return entity;
+    }
+
+    private PostTagEntity tag(Long postId, String tagCode) {
+        PostTagEntity entity = new PostTagEntity();
+        entity.setPostId(postId);
+        entity.setTagCode(tagCode);
+        return entity;
+    }
+
+    private PostGroupAclEntity acl(Long postId, String groupCode) {
+        PostGroupAclEntity entity = new PostGroupAclEntity();
+        entity.setPostId(postId);
+        entity.setGroupCode(groupCode);
+        return entity;
+    }
+
+    private static ObjectProvider<StringRedisTemplate> noRedis() {
+        return new StaticListableBeanFactory().getBeanProvider(StringRedisTemplate.class);
+    }
+}
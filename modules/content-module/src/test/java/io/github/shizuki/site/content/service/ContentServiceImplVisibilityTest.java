@@ -10,6 +10,7 @@ import io.github.shizuki.site.content.response.PostSummary;
 import io.github.shizuki.site.content.entity.PostCategoryPolicyEntity;
 import io.github.shizuki.site.content.entity.PostCategoryPolicyGroupEntity;
 import io.github.shizuki.site.content.entity.PostEntity;
+import io.github.shizuki.site.content.entity.PostGroupAclEntity;
 import io.github.shizuki.site.content.mapper.AppGroupAclMapper;
 import io.github.shizuki.site.content.mapper.AppMapper;
 import io.github.shizuki.site.content.mapper.AuthorProfileMapper;
@@ -24,12 +25,18 @@ import io.github.shizuki.site.content.mapper.PostMapper;
 import io.github.shizuki.site.content.mapper.PostPresentationMapper;
 import io.github.shizuki.site.content.mapper.PostTagMapper;
 import io.github.shizuki.site.content.service.impl.ContentServiceImpl;
+import io.github.shizuki.site.content.support.LikeCounterService;
 import io.github.shizuki.site.content.support.NotionBlockCodec;
 import io.github.shizuki.site.content.support.NotionProperties;
 import io.github.shizuki.site.content.support.PostNotionSyncService;
 import io.github.shizuki.site.content.support.PostPresentationGeneratorClient;
+import io.github.shizuki.site.content.support.PostMarkdownCache;
 import io.github.shizuki.site.content.support.PostPresentationTemplateService;
+import io.github.shizuki.site.content.support.PostSidebarAggregateStore;
+import io.github.shizuki.site.content.support.PostVisibilityResolver;
+import io.github.shizuki.site.content.support.PublishedPostIndex;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Executor;
@@ -41,6 +48,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class ContentServiceImplVisibilityTest {
@@ -103,8 +113,16 @@ class ContentServiceImplVisibilityTest {
 
     @BeforeEach
     void setUp() {
+        contentService = newContentService();
+
+        Mockito.lenient().when(postTagMapper.selectList(Mockito.any())).thenReturn(List.of());
+        Mockito.lenient().when(postCategoryPolicyMapper.selectList(Mockito.any())).thenReturn(List.of());
+        Mockito.lenient().when(postCategoryMetaMapper.selectList(Mockito.any())).thenReturn(List.of());
+    }
+
+    private ContentServiceImpl newContentService() {
         ObjectMapper objectMapper = new ObjectMapper();
-        contentService = new ContentServiceImpl(
+        return new ContentServiceImpl(
             postMapper,
             appMapper,
             contentReportMapper,
@@ -125,13 +143,14 @@ class ContentServiceImplVisibilityTest {
             postNotionSyncService,
             new PostPresentationTemplateService(),
             postPresentationGeneratorClient,
+            new PublishedPostIndex(postMapper, postTagMapper, noRedis(), Runnable::run),
+            new PostVisibilityResolver(postCategoryPolicyMapper, postCategoryPolicyGroupMapper, postGroupAclMapper),
+            new PostSidebarAggregateStore(postMapper, postTagMapper, postGroupAclMapper),
+            Mockito.mock(LikeCounterService.class),
+            new PostMarkdownCache(objectStorageClient),
             postPresentationExecutor,
             notionSyncExecutor
         );
-
-        Mockito.lenient().when(postTagMapper.selectList(Mockito.any())).thenReturn(List.of());
-        Mockito.lenient().when(postCategoryPolicyMapper.selectList(Mockito.any())).thenReturn(List.of());
-        Mockito.lenient().when(postCategoryMetaMapper.selectList(Mockito.any())).thenReturn(List.of());
     }
 
     @AfterEach
@@ -147,7 +166,7 @@ class ContentServiceImplVisibilityTest {
         PostCategoryPolicyEntity restrictedPolicy = enabledPolicy("game");
 
         Mockito.when(postMapper.selectList(Mockito.any())).thenReturn(List.of(publicPost, privatePost, restrictedPost));
-        Mockito.when(postCategoryPolicyMapper.selectOne(Mockito.any())).thenReturn(null, restrictedPolicy);
+        Mockito.when(postCategoryPolicyMapper.selectList(Mockito.any())).thenReturn(List.of(restrictedPolicy));
         Mockito.when(postCategoryPolicyGroupMapper.selectList(Mockito.any())).thenReturn(List.of(group("game", "USER")));
 
         PageResponse<PostSummary> response = contentService.listPosts(1, 10, null, null, null, null, null);
@@ -166,7 +185,7 @@ class ContentServiceImplVisibilityTest {
         PostCategoryPolicyEntity restrictedPolicy = enabledPolicy("game");
 
         Mockito.when(postMapper.selectList(Mockito.any())).thenReturn(List.of(publicPost, privatePost, restrictedPost));
-        Mockito.when(postCategoryPolicyMapper.selectOne(Mockito.any())).thenReturn(null, restrictedPolicy);
+        Mockito.when(postCategoryPolicyMapper.selectList(Mockito.any())).thenReturn(List.of(restrictedPolicy));
         Mockito.when(postCategoryPolicyGroupMapper.selectList(Mockito.any())).thenReturn(List.of(group("game", "USER")));
 
         PostSidebarResponse response = contentService.getPostSidebar();
@@ -185,7 +204,6 @@ class ContentServiceImplVisibilityTest {
         PostEntity ownPrivatePost = publishedPost(2L, 12L, "Mine", "secret", "PRIVATE", LocalDateTime.of(2026, 3, 28, 9, 0));
 
         Mockito.when(postMapper.selectList(Mockito.any())).thenReturn(List.of(publicPost, ownPrivatePost));
-        Mockito.when(postCategoryPolicyMapper.selectOne(Mockito.any())).thenReturn(null);
 
         PageResponse<PostSummary> response = contentService.listPosts(1, 10, null, null, null, null, null);
 
@@ -206,6 +224,43 @@ class ContentServiceImplVisibilityTest {
         Mockito.verify(postMapper).selectAuthorPosts(-42L);
     }
 
+    @Test
+    void shouldResolveVisibilityWithConstantQueryCountAsPostsGrow() {
+        LoginUserContext.set(new LoginUser(999L, Set.of("USER"), Set.of()));
+        Mockito.when(postCategoryPolicyMapper.selectList(Mockito.any())).thenReturn(List.of(enabledPolicy("game")));
+        Mockito.when(postCategoryPolicyGroupMapper.selectList(Mockito.any())).thenReturn(List.of(group("game", "USER")));
+
+        for (int postCount : new int[] {12, 120, 1200}) {
+            List<PostEntity> posts = new ArrayList<>();
+            List<PostGroupAclEntity> acl = new ArrayList<>();
+            long expectedVisible = 0L;
+            for (long id = 1; id <= postCount; id++) {
+                String visibility = id % 3 == 0 ? "GROUP" : id % 5 == 0 ? "PRIVATE" : "PUBLIC";
+                String category = id % 2 == 0 ? "game" : "life";
+                posts.add(publishedPost(id, 10_000L + id, "Post " + id, category, visibility, LocalDateTime.of(2026, 3, 1, 0, 0).plusMinutes(id)));
+                if ("GROUP".equals(visibility)) {
+                    acl.add(postAcl(id, id % 2 == 0 ? "USER" : "FRIEND"));
+                    expectedVisible += id % 2 == 0 ? 1 : 0;
+                } else if ("PUBLIC".equals(visibility)) {
+                    expectedVisible++;
+                }
+            }
+            Mockito.when(postMapper.selectList(Mockito.any())).thenReturn(posts);
+            Mockito.when(postGroupAclMapper.selectList(Mockito.any())).thenReturn(acl);
+            Mockito.clearInvocations(postCategoryPolicyMapper, postCategoryPolicyGroupMapper, postGroupAclMapper);
+
+            PageResponse<PostSummary> response = newContentService().listPosts(1, 10, null, null, null, null, null);
+
+            // 一次判断填满首页所需的前缀，一次为剩余文章计算总数，与文章数量无关。
+            int passes = postCount > 20 ? 2 : 1;
+            Assertions.assertEquals(expectedVisible, response.total());
+            Mockito.verify(postCategoryPolicyMapper, Mockito.times(passes)).selectList(Mockito.any());
+            Mockito.verify(postCategoryPolicyGroupMapper, Mockito.times(passes)).selectList(Mockito.any());
+            Mockito.verify(postGroupAclMapper, Mockito.times(passes)).selectList(Mockito.any());
+            Mockito.verify(postCategoryPolicyMapper, Mockito.never()).selectOne(Mockito.any());
+        }
+    }
+
     private PostEntity publishedPost(
         Long id,
         Long userId,
@@ -238,10 +293,21 @@ class ContentServiceImplVisibilityTest {
         return entity;
     }
 
+    private PostGroupAclEntity postAcl(Long postId, String groupCode) {
+        PostGroupAclEntity entity = new PostGroupAclEntity();
+        entity.setPostId(postId);
+        entity.setGroupCode(groupCode);
+        return entity;
+    }
+
     private PostCategoryPolicyGroupEntity group(String categoryCode, String groupCode) {
         PostCategoryPolicyGroupEntity entity = new PostCategoryPolicyGroupEntity();
         entity.setCategoryCode(categoryCode);
         entity.setGroupCode(groupCode);
         return entity;
     }
+
+    private static ObjectProvider<StringRedisTemplate> noRedis() {
+        return new StaticListableBeanFactory().getBeanProvider(StringRedisTemplate.class);
+    }
 }
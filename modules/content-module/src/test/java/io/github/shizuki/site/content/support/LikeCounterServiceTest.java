@@ -0,0 +1,398 @@
+package io.github.shizuki.site.content.support;
+
+import io.github.shizuki.site.content.entity.PostEntity;
+import io.github.shizuki.site.content.mapper.AppMapper;
+import io.github.shizuki.site.content.mapper.LikeFlushLogMapper;
+import io.github.shizuki.site.content.mapper.PostMapper;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+@ExtendWith(MockitoExtension.class)
+class LikeCounterServiceTest {
+
+    @Mock
+    private PostMapper postMapper;
+
+    @Mock
+    private AppMapper appMapper;
+
+    @Mock
+    private LikeFlushLogMapper likeFlushLogMapper;
+
+    @Mock
+    private PublishedPostIndex publishedPostIndex;
+
+    private final Set<String> flushLog = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong persistedPostLikes = new AtomicLong();
+    private final Map<Long, String> appliedAppTokens = new ConcurrentHashMap<>();
+    private final AtomicLong persistedAppLikes = new AtomicLong();
+
+    private LikeCounterService likeCounterService;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.lenient().when(postMapper.increaseLikeCount(ArgumentMatchers.eq(7L), ArgumentMatchers.anyLong(), ArgumentMatchers.anyString()))
+            .thenAnswer(invocation -> {
+                persistedPostLikes.addAndGet(invocation.getArgument(1));
+                return 1;
+            });
+        Mockito.lenient().when(likeFlushLogMapper.insert(ArgumentMatchers.anyString(), ArgumentMatchers.anyLong(), ArgumentMatchers.anyString()))
+            .thenAnswer(invocation -> {
+                String entry = invocation.getArgument(0) + ":" + invocation.getArgument(1) + ":" + invocation.getArgument(2);
+                if (!flushLog.add(entry)) {
+                    throw new DuplicateKeyException("duplicate flush token " + entry);
+                }
+                return 1;
+            });
+        likeCounterService = new LikeCounterService(
+            likeFlushWriter(),
+            new StaticListableBeanFactory().getBeanProvider(StringRedisTemplate.class),
+            publishedPostIndex
+        );
+    }
+
+    @Test
+    void shouldPersistExactlyOneThousandParallelLikesWhileFlushing() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean liking = new AtomicBoolean(true);
+        try {
+            Future<?> flusher = executor.submit(() -> {
+                while (liking.get()) {
+                    likeCounterService.flush();
+                }
+                return null;
+            });
+            List<Future<?>> likes = new ArrayList<>();
+            for (int index = 0; index < 1000; index++) {
+                likes.add(executor.submit(() -> {
+                    start.await();
+                    likeCounterService.increment(LikeCounterService.Target.POST, 7L, 0L, null);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> like : likes) {
+                like.get(10, TimeUnit.SECONDS);
+            }
+            liking.set(false);
+            flusher.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        likeCounterService.flush();
+
+        Assertions.assertEquals(1000L, persistedPostLikes.get());
+        Assertions.assertEquals(0L, likeCounterService.pendingDelta(LikeCounterService.Target.POST, 7L));
+        Mockito.verify(postMapper, Mockito.never()).updateById(ArgumentMatchers.any(PostEntity.class));
+    }
+
+    @Test
+    void shouldKeepDeltaPendingWhenFlushFails() {
+        Mockito.when(appMapper.increaseLikeCount(ArgumentMatchers.eq(3L), ArgumentMatchers.anyLong(), ArgumentMatchers.anyString()))
+            .thenThrow(new IllegalStateException("db down"))
+            .thenReturn(1);
+
+        likeCounterService.increment(LikeCounterService.Target.APP, 3L, 0L, null);
+        likeCounterService.increment(LikeCounterService.Target.APP, 3L, 0L, null);
+        likeCounterService.flush();
+        Assertions.assertEquals(2L, likeCounterService.pendingDelta(LikeCounterService.Target.APP, 3L));
+
+        likeCounterService.flush();
+        Assertions.assertEquals(0L, likeCounterService.pendingDelta(LikeCounterService.Target.APP, 3L));
+        ArgumentCaptor<String> tokens = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(appMapper, Mockito.times(2)).increaseLikeCount(ArgumentMatchers.eq(3L), ArgumentMatchers.eq(2L), tokens.capture());
+        Assertions.assertEquals(tokens.getAllValues().get(0), tokens.getAllValues().get(1));
+    }
+
+    @Test
+    void shouldKeepRedisDeltaDirtyUntilDatabaseUpdateSucceeds() {
+        ScriptedRedis redis = new ScriptedRedis();
+        LikeCounterService redisBacked = redisBackedService(redis);
+        Mockito.when(appMapper.increaseLikeCount(ArgumentMatchers.eq(3L), ArgumentMatchers.anyLong(), ArgumentMatchers.anyString()))
+            .thenThrow(new IllegalStateException("db down"))
+            .thenAnswer(this::applyAppDelta);
+
+        redisBacked.increment(LikeCounterService.Target.APP, 3L, 0L, null);
+        redisBacked.increment(LikeCounterService.Target.APP, 3L, 0L, null);
+        redisBacked.flush();
+
+        Assertions.assertEquals(2L, redisBacked.pendingDelta(LikeCounterService.Target.APP, 3L));
+        Assertions.assertEquals(Set.of("3"), redis.members("shizuki:content:like:app:dirty"));
+
+        Assertions.assertEquals(3L, redisBacked.increment(LikeCounterService.Target.APP, 3L, 0L, null));
+        redisBacked.flush();
+        redisBacked.flush();
+
+        Assertions.assertEquals(0L, redisBacked.pendingDelta(LikeCounterService.Target.APP, 3L));
+        Assertions.assertTrue(redis.members("shizuki:content:like:app:dirty").isEmpty());
+        Assertions.assertTrue(redis.values.isEmpty());
+        Assertions.assertTrue(redis.hashes.isEmpty());
+        Assertions.assertEquals(3L, persistedAppLikes.get());
+    }
+
+    @Test
+    void shouldNotApplyRedisBatchTwiceWhenCommitFailsAfterDatabaseUpdate() {
+        ScriptedRedis redis = new ScriptedRedis();
+        redis.failCommit = true;
+        LikeCounterService redisBacked = redisBackedService(redis);
+        Mockito.when(appMapper.increaseLikeCount(ArgumentMatchers.eq(3L), ArgumentMatchers.anyLong(), ArgumentMatchers.anyString()))
+            .thenAnswer(this::applyAppDelta);
+
+        redisBacked.increment(LikeCounterService.Target.APP, 3L, 0L, null);
+        redisBacked.increment(LikeCounterService.Target.APP, 3L, 0L, null);
+        redisBacked.flush();
+        Assertions.assertEquals(2L, persistedAppLikes.get());
+
+        redis.failCommit = false;
+        redis.expireLeases();
+        redisBacked.flush();
+
+        Assertions.assertEquals(2L, persistedAppLikes.get());
+        Assertions.assertEquals(0L, redisBacked.pendingDelta(LikeCounterService.Target.APP, 3L));
+        Assertions.assertTrue(redis.members("shizuki:content:like:app:dirty").isEmpty());
+    }
+
+    @Test
+    void shouldNotReplayRedisBatchAfterAnotherBatchOverwroteTheRowToken() {
+        ScriptedRedis redis = new ScriptedRedis();
+        redis.failCommit = true;
+        LikeCounterService redisBacked = redisBackedService(redis);
+        Mockito.when(appMapper.increaseLikeCount(ArgumentMatchers.eq(3L), ArgumentMatchers.anyLong(), ArgumentMatchers.anyString()))
+            .thenAnswer(this::applyAppDelta);
+
+        redisBacked.increment(LikeCounterService.Target.APP, 3L, 0L, null);
+        redisBacked.increment(LikeCounterService.Target.APP, 3L, 0L, null);
+        redisBacked.flush();
+        String redisToken = appliedAppTokens.get(3L);
+
+        redis.failIncrement = true;
+        redisBacked.increment(LikeCounterService.Target.APP, 3L, 2L, redisToken);
+        redis.failIncrement = false;
+        redis.failCommit = false;
+        redis.expireLeases();
+        redisBacked.flush();
+
+        Assertions.assertNotEquals(redisToken, appliedAppTokens.get(3L));
+        Assertions.assertEquals(3L, persistedAppLikes.get());
+        Assertions.assertEquals(0L, redisBacked.pendingDelta(LikeCounterService.Target.APP, 3L));
+        Assertions.assertTrue(redis.hashes.isEmpty());
+        Mockito.verify(appMapper, Mockito.times(2)).increaseLikeCount(ArgumentMatchers.eq(3L), ArgumentMatchers.anyLong(), ArgumentMatchers.anyString());
+    }
+
+    @Test
+    void shouldNotCountFlushingBatchAgainOnceTheRowCarriesItsToken() {
+        ScriptedRedis redis = new ScriptedRedis();
+        redis.failCommit = true;
+        LikeCounterService redisBacked = redisBackedService(redis);
+        Mockito.when(appMapper.increaseLikeCount(ArgumentMatchers.eq(3L), ArgumentMatchers.anyLong(), ArgumentMatchers.anyString()))
+            .thenAnswer(this::applyAppDelta);
+
+        redisBacked.increment(LikeCounterService.Target.APP, 3L, 10L, null);
+        redisBacked.increment(LikeCounterService.Target.APP, 3L, 10L, null);
+        redisBacked.flush();
+
+        String appliedToken = appliedAppTokens.get(3L);
+        Assertions.assertEquals(12L, redisBacked.likeCount(LikeCounterService.Target.APP, 3L, 10L, null));
+        Assertions.assertEquals(12L, redisBacked.likeCount(LikeCounterService.Target.APP, 3L, 12L, appliedToken));
+        Assertions.assertEquals(13L, redisBacked.increment(LikeCounterService.Target.APP, 3L, 12L, appliedToken));
+    }
+
+    @Test
+    void shouldCountLikeOnceWhenRedisIncrementFails() {
+        ScriptedRedis redis = new ScriptedRedis();
+        redis.failIncrement = true;
+        LikeCounterService redisBacked = redisBackedService(redis);
+        Mockito.when(appMapper.increaseLikeCount(ArgumentMatchers.eq(3L), ArgumentMatchers.eq(1L), ArgumentMatchers.anyString())).thenReturn(1);
+
+        Assertions.assertEquals(1L, redisBacked.increment(LikeCounterService.Target.APP, 3L, 0L, null));
+        redisBacked.flush();
+
+        Assertions.assertEquals(0L, redisBacked.pendingDelta(LikeCounterService.Target.APP, 3L));
+        Assertions.assertTrue(redis.members("shizuki:content:like:app:dirty").isEmpty());
+        Mockito.verify(appMapper, Mockito.times(1)).increaseLikeCount(ArgumentMatchers.eq(3L), ArgumentMatchers.eq(1L), ArgumentMatchers.anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRefreshPublishedIndexOncePerFlush() {
+        Mockito.when(postMapper.increaseLikeCount(ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong(), ArgumentMatchers.anyString())).thenReturn(1);
+
+        likeCounterService.increment(LikeCounterService.Target.POST, 7L, 0L, null);
+        likeCounterService.increment(LikeCounterService.Target.POST, 8L, 0L, null);
+        likeCounterService.increment(LikeCounterService.Target.POST, 9L, 0L, null);
+        likeCounterService.flush();
+
+        ArgumentCaptor<Collection<Long>> refreshed = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(publishedPostIndex, Mockito.times(1)).refreshPosts(refreshed.capture());
+        Assertions.assertEquals(Set.of(7L, 8L, 9L), Set.copyOf(refreshed.getValue()));
+    }
+
+    private Object applyAppDelta(InvocationOnMock invocation) {
+        appliedAppTokens.put(invocation.getArgument(0), invocation.getArgument(2));
+        persistedAppLikes.addAndGet(invocation.getArgument(1));
+        return 1;
+    }
+
+    /**
+     * Without a transaction manager the flush log insert would survive a failed update; undo it the way the
+     * surrounding transaction rolls it back.
+     */
+    private LikeFlushWriter likeFlushWriter() {
+        return new LikeFlushWriter(postMapper, appMapper, likeFlushLogMapper) {
+            @Override
+            public void apply(LikeCounterService.Target target, Long id, long delta, String token) {
+                Set<String> before = Set.copyOf(flushLog);
+                try {
+                    super.apply(target, id, delta, token);
+                } catch (RuntimeException exception) {
+                    flushLog.retainAll(before);
+                    throw exception;
+                }
+            }
+        };
+    }
+
+    private LikeCounterService redisBackedService(ScriptedRedis redis) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("stringRedisTemplate", redis);
+        return new LikeCounterService(
+            likeFlushWriter(),
+            beanFactory.getBeanProvider(StringRedisTemplate.class),
+            publishedPostIndex
+        );
+    }
+
+    /**
+     * Redis runs each script serially; the fake mirrors the like counter scripts under a single lock.
+     */
+    private static final class ScriptedRedis extends StringRedisTemplate {
+
+        private final Map<String, String> values = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> sets = new ConcurrentHashMap<>();
+        private final Map<String, Map<String, String>> hashes = new ConcurrentHashMap<>();
+        private boolean failIncrement;
+        private boolean failCommit;
+        @SuppressWarnings("unchecked")
+        private final ValueOperations<String, String> valueOperations = Mockito.mock(ValueOperations.class);
+        @SuppressWarnings("unchecked")
+        private final SetOperations<String, String> setOperations = Mockito.mock(SetOperations.class);
+
+        private ScriptedRedis() {
+            Mockito.lenient().when(valueOperations.get(ArgumentMatchers.anyString()))
+                .thenAnswer(invocation -> values.get(invocation.<String>getArgument(0)));
+            Mockito.lenient().when(setOperations.members(ArgumentMatchers.anyString()))
+                .thenAnswer(invocation -> members(invocation.getArgument(0)));
+        }
+
+        private Set<String> members(String key) {
+            return Set.copyOf(sets.getOrDefault(key, Set.of()));
+        }
+
+        @Override
+        public ValueOperations<String, String> opsForValue() {
+            return valueOperations;
+        }
+
+        @Override
+        public SetOperations<String, String> opsForSet() {
+            return setOperations;
+        }
+
+        @Override
+        public synchronized Boolean delete(String key) {
+            return values.remove(key) != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public synchronized <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            if (script == LikeCounterService.INCREMENT_SCRIPT) {
+                if (failIncrement) {
+                    throw new IllegalStateException("redis down");
+                }
+                long pending = add(keys.get(0), 1L);
+                sets.computeIfAbsent(keys.get(1), key -> ConcurrentHashMap.newKeySet()).add(String.valueOf(args[0]));
+                return (T) Long.valueOf(pending + unappliedFlushing(keys.get(2), String.valueOf(args[1])));
+            }
+            if (script == LikeCounterService.PEEK_SCRIPT) {
+                long pending = Long.parseLong(values.getOrDefault(keys.get(0), "0"));
+                return (T) Long.valueOf(pending + unappliedFlushing(keys.get(1), String.valueOf(args[0])));
+            }
+            if (script == LikeCounterService.TAKE_SCRIPT) {
+                if (values.putIfAbsent(keys.get(2), "1") != null) {
+                    return null;
+                }
+                Map<String, String> flushing = hashes.get(keys.get(1));
+                if (flushing != null) {
+                    return (T) (flushing.get("delta") + ":" + flushing.get("token"));
+                }
+                String moved = values.remove(keys.get(0));
+                if (moved == null) {
+                    return (T) "0:";
+                }
+                hashes.put(keys.get(1), Map.of("delta", moved, "token", String.valueOf(args[1])));
+                return (T) (moved + ":" + args[1]);
+            }
+            Assertions.assertSame(LikeCounterService.COMMIT_SCRIPT, script);
+            if (failCommit) {
+                throw new IllegalStateException("redis down");
+            }
+            Map<String, String> flushing = hashes.get(keys.get(1));
+            if (flushing != null && flushing.get("token").equals(String.valueOf(args[0]))) {
+                hashes.remove(keys.get(1));
+            }
+            values.remove(keys.get(2));
+            if (!values.containsKey(keys.get(0)) && !hashes.containsKey(keys.get(1))) {
+                sets.getOrDefault(keys.get(3), ConcurrentHashMap.newKeySet()).remove(String.valueOf(args[1]));
+            }
+            return (T) Long.valueOf(1L);
+        }
+
+        private synchronized void expireLeases() {
+            values.keySet().removeIf(key -> key.endsWith(":lease"));
+        }
+
+        private long unappliedFlushing(String key, String persistedToken) {
+            Map<String, String> flushing = hashes.get(key);
+            if (flushing == null || flushing.get("token").equals(persistedToken)) {
+                return 0L;
+            }
+            return Long.parseLong(flushing.get("delta"));
+        }
+
+        private long add(String key, long delta) {
+            long next = Long.parseLong(values.getOrDefault(key, "0")) + delta;
+            values.put(key, String.valueOf(next));
+            return next;
+        }
+    }
+}
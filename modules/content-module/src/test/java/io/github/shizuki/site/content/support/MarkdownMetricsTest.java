@@ -0,0 +1,131 @@
+package io.github.shizuki.site.content.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.shizuki.site.content.entity.PostEntity;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+class MarkdownMetricsTest {
+
+    private static final Pattern LEGACY_ASCII_WORD_PATTERN = Pattern.compile("[A-Za-z0-9_]+(?:'[A-Za-z0-9_]+)?");
+    private static final String[] FRAGMENTS = {
+        "hello", "world", "don't", "a'b'c", "x''y", "'quoted'", "snake_case", "v2", "1.5", "中文", "測試", "𠀀", "𪛞",
+        "塚", "㐀", "ｱ", "かな", "한글", "é", "\n", "\r\n", "\r", " ", "\u0085", "\u000B", " ", "  ",
+        "# ", "**", "`code`", "[link](http://a.b/c)", "!", "'", "_", "-"
+    };
+
+    @Test
+    void shouldMatchLegacyCounterOnEdgeCasesAndRandomInput() {
+        for (String sample : new String[] {"", "a", "\n", "\r\n\r\n", "it's a dog's life", "中文 English 混排\n第二行", "a'", "'a", "a'b'c'd"}) {
+            assertEquals(legacy(sample), MarkdownMetrics.of(sample), sample);
+        }
+        Random random = new Random(20260418L);
+        for (int round = 0; round < 2_000; round++) {
+            StringBuilder builder = new StringBuilder();
+            int pieces = random.nextInt(40);
+            for (int piece = 0; piece < pieces; piece++) {
+                builder.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+            String sample = builder.toString();
+            assertEquals(legacy(sample), MarkdownMetrics.of(sample), sample);
+        }
+    }
+
+    @Test
+    void shouldTrackMetricsVersionOnPost() {
+        PostEntity post = new PostEntity();
+        assertTrue(!MarkdownMetrics.isCurrent(post));
+
+        MarkdownMetrics.of("一二三 four five").applyTo(post);
+
+        assertEquals(5L, post.getWordCount());
+        assertEquals(1L, post.getLineCount());
+        assertEquals(1, post.getReadingMinutes());
+        assertTrue(MarkdownMetrics.isCurrent(post));
+    }
+
+    @Test
+    void shouldMatchLegacyCounterOnLargeMixedDocument() {
+        String document = mixedDocument(200 * 1024);
+
+        assertEquals(legacy(document), MarkdownMetrics.of(document));
+    }
+
+    /**
+     * Opt-in benchmark: run with {@code -Dbenchmark=true}. Compares the scanner against the legacy regex counter.
+     */
+    @Test
+    @Tag("benchmark")
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void shouldCountFasterThanLegacyCounterOnMixedDocument() {
+        String document = mixedDocument(200 * 1024);
+        assertEquals(legacy(document), MarkdownMetrics.of(document));
+
+        long legacyNanos = Long.MAX_VALUE;
+        long scannerNanos = Long.MAX_VALUE;
+        for (int round = 0; round < 15; round++) {
+            long started = System.nanoTime();
+            legacy(document);
+            legacyNanos = Math.min(legacyNanos, System.nanoTime() - started);
+
+            started = System.nanoTime();
+            MarkdownMetrics.of(document);
+            scannerNanos = Math.min(scannerNanos, System.nanoTime() - started);
+        }
+
+        String timings = String.format(Locale.ROOT, "markdown metrics on %d chars: legacy=%.3fms scanner=%.3fms",
+            document.length(), legacyNanos / 1e6, scannerNanos / 1e6);
+        assertTrue(scannerNanos < legacyNanos, timings);
+    }
+
+    private static String mixedDocument(int targetChars) {
+        String[] latin = {"spring", "redis", "don't", "cache_key", "v2", "outbox", "latency"};
+        String[] cjk = {"缓存", "检索", "性能", "部署", "架构设计", "笔记"};
+        Random random = new Random(42L);
+        StringBuilder builder = new StringBuilder(targetChars + 64);
+        while (builder.length() < targetChars) {
+            int kind = random.nextInt(10);
+            if (kind < 4) {
+                builder.append(latin[random.nextInt(latin.length)]).append(' ');
+            } else if (kind < 8) {
+                builder.append(cjk[random.nextInt(cjk.length)]);
+            } else if (kind == 8) {
+                builder.append("，`code` **bold** ");
+            } else {
+                builder.append(random.nextBoolean() ? "\n" : "\r\n");
+            }
+        }
+        return builder.toString();
+    }
+
+    private static MarkdownMetrics legacy(String markdown) {
+        String safeMarkdown = markdown == null ? "" : markdown;
+        long lineCount = safeMarkdown.isEmpty() ? 0L : safeMarkdown.split("\\R", -1).length;
+        long cjkCharCount = safeMarkdown.codePoints().filter(MarkdownMetricsTest::isLegacyCjk).count();
+        Matcher matcher = LEGACY_ASCII_WORD_PATTERN.matcher(safeMarkdown);
+        long asciiWordCount = 0L;
+        while (matcher.find()) {
+            asciiWordCount++;
+        }
+        long wordCount = cjkCharCount + asciiWordCount;
+        int readingMinutes = (int) Math.max(1L, (long) Math.ceil(Math.max(1L, wordCount) / 300.0d));
+        return new MarkdownMetrics(wordCount, lineCount, readingMinutes);
+    }
+
+    private static boolean isLegacyCjk(int codePoint) {
+        Character.UnicodeBlock block = Character.UnicodeBlock.of(codePoint);
+        return block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS
+            || block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS_EXTENSION_A
+            || block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS_EXTENSION_B
+            || block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS_EXTENSION_C
+            || block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS_EXTENSION_D
+            || block == Character.UnicodeBlock.CJK_COMPATIBILITY_IDEOGRAPHS;
+    }
+}
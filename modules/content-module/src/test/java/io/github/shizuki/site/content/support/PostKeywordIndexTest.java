@@ -0,0 +1,144 @@
+package io.github.shizuki.site.content.support;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+class PostKeywordIndexTest {
+
+    private static final String[] QUERIES = {"kafka", "缓存", "outbox 性能", "travel 音乐", "9999"};
+
+    private final List<String[]> posts = new ArrayList<>();
+
+    @Test
+    void shouldTokenizeCjkBigramsAndLatinStems() {
+        assertEquals(List.of("spring", "boot", "start"), PostKeywordIndex.tokenizeQuery("Spring Boot starting"));
+        assertEquals(List.of("中文", "文搜", "搜索"), PostKeywordIndex.tokenizeQuery("中文搜索"));
+        assertEquals(List.of("中"), PostKeywordIndex.tokenizeQuery("中"));
+        assertEquals(List.of("redis", "缓存"), PostKeywordIndex.tokenizeQuery("Redis缓存"));
+        assertTrue(PostKeywordIndex.tokenizeDocument("中文搜索").containsAll(List.of("中", "文", "中文", "搜索")));
+        assertEquals(PostKeywordIndex.stem("notes"), PostKeywordIndex.stem("note"));
+        assertEquals(PostKeywordIndex.stem("cache"), PostKeywordIndex.stem("caching"));
+        assertEquals(PostKeywordIndex.stem("cached"), PostKeywordIndex.stem("caches"));
+    }
+
+    @Test
+    void shouldIntersectTokensAndRankTitleHitsFirst() {
+        PostKeywordIndex index = PostKeywordIndex.build(List.of(
+            PostKeywordIndex.Document.of(1L, "Daily notes", "Spring cache tuning", List.of()),
+            PostKeywordIndex.Document.of(2L, "Spring cache deep dive", "notes", List.of("java")),
+            PostKeywordIndex.Document.of(3L, "Spring only", "nothing else", List.of()),
+            PostKeywordIndex.Document.of(4L, "缓存设计", "Spring 实践", List.of("cache"))
+        ));
+
+        PostKeywordIndex.Matches matches = index.match("spring caches");
+
+        assertArrayEquals(new long[] {1L, 2L, 4L}, matches.ids());
+        assertEquals(0, matches.titleScore(1L));
+        assertEquals(2, matches.titleScore(2L));
+        assertEquals(0, matches.titleScore(4L));
+        assertArrayEquals(new long[] {4L}, index.match("缓存").ids());
+        assertArrayEquals(new long[] {4L}, index.match("存").ids());
+        assertArrayEquals(new long[0], index.match("spring missing").ids());
+        assertNull(index.match("  ++  "));
+    }
+
+    @Test
+    void shouldApplyIncrementalReplaceAndRemove() {
+        PostKeywordIndex.Document first = PostKeywordIndex.Document.of(1L, "Kafka outbox", "", List.of());
+        PostKeywordIndex.Document second = PostKeywordIndex.Document.of(2L, "Kafka consumer", "", List.of());
+        PostKeywordIndex index = PostKeywordIndex.build(List.of(first, second));
+
+        PostKeywordIndex.Document renamed = PostKeywordIndex.Document.of(1L, "Redis outbox", "", List.of());
+        index = index.with(first, renamed);
+        assertArrayEquals(new long[] {2L}, index.match("kafka").ids());
+        assertArrayEquals(new long[] {1L}, index.match("redis outbox").ids());
+
+        index = index.without(second);
+        assertArrayEquals(new long[0], index.match("kafka").ids());
+        index = index.with(null, PostKeywordIndex.Document.of(0L, "Kafka first", "", List.of()));
+        assertArrayEquals(new long[] {0L}, index.match("kafka").ids());
+    }
+
+    @Test
+    void shouldMatchBruteForceTokenSearchOnTenThousandPosts() {
+        List<PostKeywordIndex.Document> documents = tenThousandDocuments();
+        PostKeywordIndex index = PostKeywordIndex.build(documents);
+
+        for (String query : QUERIES) {
+            List<String> tokens = PostKeywordIndex.tokenizeQuery(query);
+            long[] expected = documents.stream()
+                .filter(document -> document.tokens().containsAll(tokens))
+                .mapToLong(PostKeywordIndex.Document::postId)
+                .toArray();
+
+            assertArrayEquals(expected, index.match(query).ids(), query);
+        }
+        assertArrayEquals(new long[] {9999L}, index.match("9999").ids());
+    }
+
+    /**
+     * Opt-in benchmark: run with {@code -Dbenchmark=true}. Compares the index against the substring scan it replaced.
+     */
+    @Test
+    @Tag("benchmark")
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void shouldAnswerQueriesFasterThanSubstringScanOnTenThousandPosts() {
+        List<PostKeywordIndex.Document> documents = tenThousandDocuments();
+        PostKeywordIndex index = PostKeywordIndex.build(documents);
+
+        long scanNanos = Long.MAX_VALUE;
+        long indexNanos = Long.MAX_VALUE;
+        for (int round = 0; round < 15; round++) {
+            long started = System.nanoTime();
+            int scanned = 0;
+            for (String query : QUERIES) {
+                String normalized = query.toLowerCase(Locale.ROOT);
+                for (String[] post : posts) {
+                    if (post[0].toLowerCase(Locale.ROOT).contains(normalized) || post[1].toLowerCase(Locale.ROOT).contains(normalized)) {
+                        scanned++;
+                    }
+                }
+            }
+            scanNanos = Math.min(scanNanos, System.nanoTime() - started);
+
+            started = System.nanoTime();
+            int indexed = 0;
+            for (String query : QUERIES) {
+                indexed += index.match(query).ids().length;
+            }
+            indexNanos = Math.min(indexNanos, System.nanoTime() - started);
+            assertTrue(scanned > 0 && indexed > 0);
+        }
+
+        String timings = String.format(Locale.ROOT, "keyword query over 10000 posts: scan=%.3fms index=%.3fms", scanNanos / 1e6, indexNanos / 1e6);
+        assertTrue(indexNanos < scanNanos, timings);
+    }
+
+    private List<PostKeywordIndex.Document> tenThousandDocuments() {
+        String[] latin = {"spring", "redis", "kafka", "outbox", "cache", "index", "search", "notes", "travel", "music"};
+        String[] cjk = {"缓存", "检索", "旅行", "音乐", "笔记", "架构", "性能", "部署"};
+        Random random = new Random(20260418L);
+        List<PostKeywordIndex.Document> documents = new ArrayList<>();
+        posts.clear();
+        for (long id = 1; id <= 10_000; id++) {
+            String title = latin[random.nextInt(latin.length)] + " " + cjk[random.nextInt(cjk.length)] + " " + id;
+            StringBuilder summary = new StringBuilder();
+            for (int word = 0; word < 30; word++) {
+                summary.append(random.nextBoolean() ? latin[random.nextInt(latin.length)] : cjk[random.nextInt(cjk.length)]).append(' ');
+            }
+            posts.add(new String[] {title, summary.toString()});
+            documents.add(PostKeywordIndex.Document.of(id, title, summary.toString(), List.of()));
+        }
+        return documents;
+    }
+}
@@ -0,0 +1,216 @@
+package io.github.shizuki.site.content.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.shizuki.common.storage.client.ObjectStorageClient;
+import io.github.shizuki.common.storage.model.StorageObjectMetadata;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class PostMarkdownCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final CountingObjectStorageClient storage = new CountingObjectStorageClient();
+
+    @Test
+    void shouldServeRepeatedReadsFromMemory() {
+        storage.objects.put("posts/1.md", "# hello");
+        PostMarkdownCache cache = newCache(1024 * 1024, null);
+
+        for (int round = 0; round < 10; round++) {
+            assertEquals("# hello", cache.read(1L, "hash-1", "blog", "posts/1.md"));
+        }
+
+        assertEquals(1, storage.streamCalls.get());
+        PostMarkdownCache.Stats stats = cache.stats();
+        assertEquals(9L, stats.memoryHits());
+        assertEquals(1L, stats.misses());
+    }
+
+    @Test
+    void shouldReloadWhenContentHashChangesOrPostIsInvalidated() {
+        storage.objects.put("posts/1.md", "v1");
+        PostMarkdownCache cache = newCache(1024 * 1024, null);
+        cache.read(1L, "hash-1", "blog", "posts/1.md");
+
+        storage.objects.put("posts/1.md", "v2");
+        assertEquals("v2", cache.read(1L, "hash-2", "blog", "posts/1.md"));
+        assertEquals(2, storage.streamCalls.get());
+
+        storage.objects.put("posts/1.md", "v3");
+        cache.invalidate(1L);
+        assertEquals("v3", cache.read(1L, "hash-2", "blog", "posts/1.md"));
+        assertEquals(3, storage.streamCalls.get());
+        assertEquals(1, cache.stats().entryCount());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntriesWithinByteBudget() {
+        for (int id = 1; id <= 5; id++) {
+            storage.objects.put("posts/" + id + ".md", "x".repeat(100));
+        }
+        PostMarkdownCache cache = newCache(600, null);
+        cache.read(1L, "h", "blog", "posts/1.md");
+        cache.read(2L, "h", "blog", "posts/2.md");
+        cache.read(3L, "h", "blog", "posts/3.md");
+        cache.read(1L, "h", "blog", "posts/1.md");
+        cache.read(4L, "h", "blog", "posts/4.md");
+
+        PostMarkdownCache.Stats stats = cache.stats();
+        assertTrue(stats.usedBytes() <= 600);
+        assertEquals(1L, stats.evictions());
+        int callsBefore = storage.streamCalls.get();
+        cache.read(1L, "h", "blog", "posts/1.md");
+        assertEquals(callsBefore, storage.streamCalls.get());
+        cache.read(2L, "h", "blog", "posts/2.md");
+        assertEquals(callsBefore + 1, storage.streamCalls.get());
+    }
+
+    @Test
+    void shouldServeFromDiskTierAfterRestartAndDropDiskOnInvalidate() {
+        storage.objects.put("posts/7.md", "磁盘缓存");
+        PostMarkdownCache first = newCache(1024 * 1024, tempDir);
+        first.read(7L, "hash", "blog", "posts/7.md");
+
+        PostMarkdownCache restarted = newCache(1024 * 1024, tempDir);
+        assertEquals("磁盘缓存", restarted.read(7L, "hash", "blog", "posts/7.md"));
+        assertEquals("磁盘缓存", restarted.read(7L, "hash", "blog", "posts/7.md"));
+        assertEquals(1, storage.streamCalls.get());
+        assertEquals(1L, restarted.stats().diskHits());
+        assertEquals(1L, restarted.stats().memoryHits());
+
+        restarted.invalidate(7L);
+        newCache(1024 * 1024, tempDir).read(7L, "hash", "blog", "posts/7.md");
+        assertEquals(2, storage.streamCalls.get());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedDiskFilesWithinByteBudget() {
+        for (int id = 1; id <= 3; id++) {
+            storage.objects.put("posts/" + id + ".md", "x".repeat(100));
+        }
+        PostMarkdownCache cache = newCache(0, tempDir, 250);
+        cache.read(1L, "h", "blog", "posts/1.md");
+        cache.read(2L, "h", "blog", "posts/2.md");
+        cache.read(1L, "h", "blog", "posts/1.md");
+        cache.read(3L, "h", "blog", "posts/3.md");
+
+        PostMarkdownCache.Stats stats = cache.stats();
+        assertEquals(1L, stats.diskHits());
+        assertEquals(1L, stats.diskEvictions());
+        assertEquals(2, stats.diskEntryCount());
+        assertEquals(200L, stats.diskUsedBytes());
+        assertEquals(2, diskFiles().size());
+        assertTrue(diskFiles().stream().noneMatch(name -> name.startsWith("2-")));
+
+        int callsBefore = storage.streamCalls.get();
+        cache.read(1L, "h", "blog", "posts/1.md");
+        assertEquals(callsBefore, storage.streamCalls.get());
+    }
+
+    @Test
+    void shouldDropIdleDiskFilesAndTrimToBudgetAfterRestart() throws IOException {
+        storage.objects.put("posts/8.md", "y".repeat(100));
+        storage.objects.put("posts/9.md", "z".repeat(100));
+        PostMarkdownCache first = newCache(0, tempDir, 1024);
+        first.read(8L, "h", "blog", "posts/8.md");
+        first.read(9L, "h", "blog", "posts/9.md");
+        Path idle = tempDir.resolve(diskFiles().stream().filter(name -> name.startsWith("9-")).findFirst().orElseThrow());
+        Files.setLastModifiedTime(idle, FileTime.from(Instant.now().minus(Duration.ofDays(8))));
+        Files.writeString(tempDir.resolve("8-interrupted.md.123.tmp"), "partial");
+
+        PostMarkdownCache restarted = newCache(0, tempDir, 1024);
+        assertEquals("y".repeat(100), restarted.read(8L, "h", "blog", "posts/8.md"));
+        assertEquals(2, storage.streamCalls.get());
+        assertEquals(1L, restarted.stats().diskHits());
+        assertEquals(1L, restarted.stats().diskEvictions());
+        assertEquals(1, diskFiles().size());
+
+        PostMarkdownCache shrunk = newCache(0, tempDir, 50);
+        assertEquals("z".repeat(100), shrunk.read(9L, "h", "blog", "posts/9.md"));
+        assertEquals(3, storage.streamCalls.get());
+        assertEquals(0, shrunk.stats().diskEntryCount());
+        assertTrue(diskFiles().isEmpty());
+    }
+
+    private PostMarkdownCache newCache(long maxBytes, Path diskDirectory) {
+        return newCache(maxBytes, diskDirectory, 268_435_456L);
+    }
+
+    private PostMarkdownCache newCache(long maxBytes, Path diskDirectory, long diskMaxBytes) {
+        PostMarkdownCache cache = new PostMarkdownCache(storage);
+        ReflectionTestUtils.setField(cache, "maxBytes", maxBytes);
+        ReflectionTestUtils.setField(cache, "diskDirectory", diskDirectory == null ? "" : diskDirectory.toString());
+        ReflectionTestUtils.setField(cache, "diskMaxBytes", diskMaxBytes);
+        return cache;
+    }
+
+    private List<String> diskFiles() {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static final class CountingObjectStorageClient implements ObjectStorageClient {
+
+        private final Map<String, String> objects = new HashMap<>();
+        private final AtomicInteger streamCalls = new AtomicInteger();
+
+        @Override
+        public InputStream getObjectStream(String bucket, String key) {
+            streamCalls.incrementAndGet();
+            return new ByteArrayInputStream(objects.get(key).getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void putObject(String bucket, String key, InputStream inputStream, StorageObjectMetadata metadata) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteObject(String bucket, String key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String generateGetUrl(String bucket, String key, long expireSeconds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String generatePutUrl(String bucket, String key, long expireSeconds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean objectExists(String bucket, String key) {
+            return objects.containsKey(key);
+        }
+
+        @Override
+        public StorageObjectMetadata getObjectMetadata(String bucket, String key) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
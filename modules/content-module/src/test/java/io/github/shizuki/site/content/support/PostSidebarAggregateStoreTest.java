@@ -0,0 +1,264 @@
+package io.github.shizuki.site.content.support;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import io.github.shizuki.site.content.entity.PostEntity;
+import io.github.shizuki.site.content.entity.PostGroupAclEntity;
+import io.github.shizuki.site.content.entity.PostTagEntity;
+import io.github.shizuki.site.content.mapper.PostGroupAclMapper;
+import io.github.shizuki.site.content.mapper.PostMapper;
+import io.github.shizuki.site.content.mapper.PostTagMapper;
+import io.github.shizuki.site.content.model.ContentVisibilityEnum;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PostSidebarAggregateStoreTest {
+
+    private static final String[] CATEGORIES = {"tech", "life", "game", "secret", ""};
+    private static final String[] TAGS = {"java", "spring", "redis", "travel", "music", "cjk"};
+    private static final String[] VISIBILITIES = {"PUBLIC", "PUBLIC", "PUBLIC", "PRIVATE", "GROUP"};
+    private static final DateTimeFormatter ARCHIVE_MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    @Mock(stubOnly = true)
+    private PostMapper postMapper;
+
+    @Mock(stubOnly = true)
+    private PostTagMapper postTagMapper;
+
+    @Mock(stubOnly = true)
+    private PostGroupAclMapper postGroupAclMapper;
+
+    private final Map<Long, PostEntity> posts = new HashMap<>();
+    private final Map<Long, List<String>> tagsByPostId = new HashMap<>();
+    private final Map<Long, List<String>> aclByPostId = new HashMap<>();
+
+    private PostSidebarAggregateStore store;
+
+    @BeforeAll
+    static void initTableInfo() {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, PostTagEntity.class);
+        TableInfoHelper.initTableInfo(assistant, PostGroupAclEntity.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(postMapper.selectList(Mockito.any())).thenAnswer(invocation -> posts.values().stream().map(this::copy).toList());
+        Mockito.when(postMapper.selectById(Mockito.any())).thenAnswer(invocation -> {
+            PostEntity post = posts.get((Long) invocation.getArgument(0));
+            return post == null ? null : copy(post);
+        });
+        Mockito.when(postTagMapper.selectList(Mockito.any())).thenAnswer(invocation -> {
+            Long postId = eqValue(invocation.getArgument(0));
+            List<PostTagEntity> rows = new ArrayList<>();
+            tagsByPostId.forEach((id, tags) -> {
+                if (postId == null || postId.equals(id)) {
+                    tags.forEach(tag -> rows.add(tag(id, tag)));
+                }
+            });
+            return rows;
+        });
+        Mockito.when(postGroupAclMapper.selectList(Mockito.any())).thenAnswer(invocation -> {
+            Long postId = eqValue(invocation.getArgument(0));
+            List<PostGroupAclEntity> rows = new ArrayList<>();
+            aclByPostId.forEach((id, groups) -> {
+                if (postId == null || postId.equals(id)) {
+                    groups.forEach(group -> rows.add(acl(id, group)));
+                }
+            });
+            return rows;
+        });
+        store = new PostSidebarAggregateStore(postMapper, postTagMapper, postGroupAclMapper);
+    }
+
+    @Test
+    void shouldMatchBruteForceAggregatesAcrossRandomPublishAndDeleteSequences() {
+        Random random = new Random(20260418L);
+        for (long id = 1; id <= 200; id++) {
+            writePost(random, id);
+        }
+        assertConsistent();
+
+        long nextId = 201;
+        for (int step = 0; step < 1500; step++) {
+            int operation = random.nextInt(10);
+            List<Long> ids = new ArrayList<>(posts.keySet());
+            Long target = ids.isEmpty() ? null : ids.get(random.nextInt(ids.size()));
+            if (operation < 3 || target == null) {
+                long id = nextId++;
+                writePost(random, id);
+                store.refreshPost(id);
+            } else if (operation < 5) {
+                writePost(random, target);
+                store.refreshPost(target);
+            } else if (operation < 7) {
+                PostEntity post = posts.get(target);
+                post.setStatusCode("PUBLISHED".equals(post.getStatusCode()) ? "DRAFT" : "PUBLISHED");
+                store.refreshPost(target);
+            } else if (operation < 9) {
+                posts.remove(target);
+                tagsByPostId.remove(target);
+                aclByPostId.remove(target);
+                store.removePost(target);
+            } else {
+                store.reconcile();
+            }
+            if (step % 25 == 0) {
+                assertConsistent();
+            }
+        }
+        assertConsistent();
+    }
+
+    private void assertConsistent() {
+        assertViewer(visibilityClass -> true, post -> true);
+        assertViewer(
+            visibilityClass -> visibilityClass.visibility() == ContentVisibilityEnum.PUBLIC && !"secret".equals(visibilityClass.categoryCode()),
+            post -> visibility(post) == ContentVisibilityEnum.PUBLIC && !"secret".equals(post.getCategoryCode())
+        );
+        assertViewer(
+            visibilityClass -> switch (visibilityClass.visibility()) {
+                case PUBLIC -> true;
+                case PRIVATE -> Long.valueOf(3L).equals(visibilityClass.ownerUserId());
+                case GROUP -> Long.valueOf(3L).equals(visibilityClass.ownerUserId()) || visibilityClass.aclGroups().contains("FRIEND");
+            },
+            post -> switch (visibility(post)) {
+                case PUBLIC -> true;
+                case PRIVATE -> Long.valueOf(3L).equals(post.getUserId());
+                case GROUP -> Long.valueOf(3L).equals(post.getUserId()) || aclByPostId.getOrDefault(post.getId(), List.of()).contains("FRIEND");
+            }
+        );
+    }
+
+    private void assertViewer(
+        Predicate<PostSidebarAggregateStore.VisibilityClass> classAccess,
+        Predicate<PostEntity> postAccess
+    ) {
+        List<PostEntity> visible = posts.values().stream()
+            .filter(post -> "PUBLISHED".equals(post.getStatusCode()))
+            .filter(postAccess)
+            .toList();
+        Map<String, Long> categories = new TreeMap<>();
+        Map<String, Long> tags = new TreeMap<>();
+        Map<String, Long> archives = new TreeMap<>();
+        for (PostEntity post : visible) {
+            String category = post.getCategoryCode().isBlank() ? "uncategorized" : post.getCategoryCode();
+            categories.merge(category, 1L, Long::sum);
+            tagsByPostId.getOrDefault(post.getId(), List.of()).forEach(tag -> tags.merge(tag, 1L, Long::sum));
+            LocalDateTime publishTime = PublishedPostIndex.resolvePublishTime(post);
+            if (publishTime != null) {
+                archives.merge(ARCHIVE_MONTH_FORMATTER.format(publishTime), 1L, Long::sum);
+            }
+        }
+        List<Long> latest = visible.stream()
+            .sorted(
+                Comparator.comparing((PostEntity post) -> {
+                    LocalDateTime publishTime = PublishedPostIndex.resolvePublishTime(post);
+                    return publishTime == null ? LocalDateTime.MIN : publishTime;
+                }, Comparator.reverseOrder()).thenComparing(PostEntity::getId, Comparator.reverseOrder())
+            )
+            .limit(5)
+            .map(PostEntity::getId)
+            .toList();
+
+        PostSidebarAggregateStore.Aggregate aggregate = store.aggregate(visibilityClasses -> classAccess, 5);
+
+        Assertions.assertEquals(categories, new TreeMap<>(aggregate.categoryCounts()));
+        Assertions.assertEquals(tags, new TreeMap<>(aggregate.tagCounts()));
+        Assertions.assertEquals(archives, new TreeMap<>(aggregate.archiveCounts()));
+        Assertions.assertEquals(latest, aggregate.latestPosts().stream().map(PostSidebarAggregateStore.LatestPost::postId).toList());
+    }
+
+    private void writePost(Random random, long id) {
+        PostEntity post = new PostEntity();
+        post.setId(id);
+        post.setUserId(1L + random.nextInt(5));
+        post.setTitle("Post " + id);
+        post.setCategoryCode(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+        post.setVisibility(VISIBILITIES[random.nextInt(VISIBILITIES.length)]);
+        post.setStatusCode(random.nextInt(6) == 0 ? "DRAFT" : "PUBLISHED");
+        post.setDeleted(0);
+        LocalDateTime publishedAt = LocalDateTime.of(2025, 1, 1, 0, 0).plusHours(random.nextInt(24 * 500));
+        post.setCreatedAt(publishedAt.minusDays(1));
+        post.setUpdatedAt(publishedAt);
+        post.setPublishedAt(random.nextInt(10) == 0 ? null : publishedAt);
+        posts.put(id, post);
+
+        List<String> tags = new ArrayList<>();
+        for (String tag : TAGS) {
+            if (random.nextInt(3) == 0) {
+                tags.add(tag);
+            }
+        }
+        tagsByPostId.put(id, tags);
+        if ("GROUP".equals(post.getVisibility())) {
+            aclByPostId.put(id, random.nextBoolean() ? List.of("FRIEND") : List.of("USER", "INTERVIEWER"));
+        } else {
+            aclByPostId.remove(id);
+        }
+    }
+
+    private ContentVisibilityEnum visibility(PostEntity post) {
+        return ContentVisibilityEnum.from(post.getVisibility());
+    }
+
+    private PostEntity copy(PostEntity source) {
+        PostEntity post = new PostEntity();
+        post.setId(source.getId());
+        post.setUserId(source.getUserId());
+        post.setTitle(source.getTitle());
+        post.setCategoryCode(source.getCategoryCode());
+        post.setVisibility(source.getVisibility());
+        post.setStatusCode(source.getStatusCode());
+        post.setDeleted(source.getDeleted());
+        post.setCreatedAt(source.getCreatedAt());
+        post.setUpdatedAt(source.getUpdatedAt());
+        post.setPublishedAt(source.getPublishedAt());
+        return post;
+    }
+
+    private PostTagEntity tag(Long postId, String tagCode) {
+        PostTagEntity entity = new PostTagEntity();
+        entity.setPostId(postId);
+        entity.setTagCode(tagCode);
+        return entity;
+    }
+
+    private PostGroupAclEntity acl(Long postId, String groupCode) {
+        PostGroupAclEntity entity = new PostGroupAclEntity();
+        entity.setPostId(postId);
+        entity.setGroupCode(groupCode);
+        return entity;
+    }
+
+    private static Long eqValue(Object wrapper) {
+        if (!(wrapper instanceof AbstractWrapper<?, ?, ?> abstractWrapper)) {
+            return null;
+        }
+        abstractWrapper.getSqlSegment();
+        return abstractWrapper.getParamNameValuePairs().values().stream()
+            .filter(Long.class::isInstance)
+            .map(Long.class::cast)
+            .findFirst()
+            .orElse(null);
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.shizuki.site.content.support;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import io.github.shizuki.site.content.entity.PostCategoryPolicyEntity;
+import io.github.shizuki.site.content.entity.PostCategoryPolicyGroupEntity;
+import io.github.shizuki.site.content.entity.PostGroupAclEntity;
+import io.github.shizuki.site.content.mapper.PostCategoryPolicyGroupMapper;
+import io.github.shizuki.site.content.mapper.PostCategoryPolicyMapper;
+import io.github.shizuki.site.content.mapper.PostGroupAclMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class PostVisibilityResolverTest {
+
+    @BeforeAll
+    static void initTableInfo() {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, PostGroupAclEntity.class);
+        TableInfoHelper.initTableInfo(assistant, PostCategoryPolicyEntity.class);
+        TableInfoHelper.initTableInfo(assistant, PostCategoryPolicyGroupEntity.class);
+    }
+
+    @Test
+    void shouldSplitAclLookupIntoBoundedBatchesAndMergeRows() {
+        PostCategoryPolicyMapper policyMapper = Mockito.mock(PostCategoryPolicyMapper.class);
+        PostCategoryPolicyGroupMapper policyGroupMapper = Mockito.mock(PostCategoryPolicyGroupMapper.class);
+        PostGroupAclMapper aclMapper = Mockito.mock(PostGroupAclMapper.class);
+        List<Integer> batchSizes = new ArrayList<>();
+        Mockito.when(aclMapper.selectList(Mockito.any())).thenAnswer(invocation -> {
+            List<Long> postIds = longValues(invocation.getArgument(0));
+            batchSizes.add(postIds.size());
+            return postIds.stream().map(postId -> acl(postId, postId % 2 == 0 ? "FRIEND" : "OTHER")).toList();
+        });
+        PostVisibilityResolver resolver = new PostVisibilityResolver(policyMapper, policyGroupMapper, aclMapper);
+
+        List<Long> postIds = LongStream.rangeClosed(1, 1_201).boxed().toList();
+        PostVisibilityResolver.Batch batch = resolver.load(List.of(), postIds, Set.of("FRIEND"));
+
+        Assertions.assertEquals(List.of(500, 500, 201), batchSizes);
+        Assertions.assertTrue(batch.allowsAcl(2L));
+        Assertions.assertTrue(batch.allowsAcl(1_200L));
+        Assertions.assertFalse(batch.allowsAcl(1_201L));
+        Mockito.verifyNoInteractions(policyMapper, policyGroupMapper);
+    }
+
+    private static List<Long> longValues(Object wrapper) {
+        AbstractWrapper<?, ?, ?> abstractWrapper = (AbstractWrapper<?, ?, ?>) wrapper;
+        abstractWrapper.getSqlSegment();
+        return abstractWrapper.getParamNameValuePairs().values().stream()
+            .filter(Long.class::isInstance)
+            .map(Long.class::cast)
+            .toList();
+    }
+
+    private static PostGroupAclEntity acl(Long postId, String groupCode) {
+        PostGroupAclEntity entity = new PostGroupAclEntity();
+        entity.setPostId(postId);
+        entity.setGroupCode(groupCode);
+        return entity;
+    }
+}
@@ -0,0 +1,176 @@
+package io.github.shizuki.site.content.support;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import io.github.shizuki.site.content.entity.PostEntity;
+import io.github.shizuki.site.content.entity.PostTagEntity;
+import io.github.shizuki.site.content.mapper.PostMapper;
+import io.github.shizuki.site.content.mapper.PostTagMapper;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+class PublishedPostIndexTest {
+
+    private final Map<Long, PostEntity> rows = new ConcurrentHashMap<>();
+    private final PostMapper postMapper = Mockito.mock(PostMapper.class);
+    private final PostTagMapper postTagMapper = Mockito.mock(PostTagMapper.class);
+    private final PubSubRedis redis = new PubSubRedis();
+    private final List<Runnable> rebuilds = new ArrayList<>();
+
+    @BeforeAll
+    static void initTableInfo() {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, PostEntity.class);
+        TableInfoHelper.initTableInfo(assistant, PostTagEntity.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(postMapper.selectList(ArgumentMatchers.any())).thenAnswer(invocation -> rows.values().stream()
+            .filter(post -> "PUBLISHED".equals(post.getStatusCode()))
+            .map(this::copy)
+            .toList());
+        Mockito.when(postMapper.selectBatchIds(ArgumentMatchers.anyCollection())).thenAnswer(invocation -> {
+            Collection<?> ids = invocation.getArgument(0);
+            return ids.stream().map(rows::get).filter(post -> post != null).map(this::copy).toList();
+        });
+        Mockito.when(postTagMapper.selectList(ArgumentMatchers.any())).thenReturn(List.of());
+        rows.put(1L, post(1L, "PUBLIC", LocalDateTime.of(2026, 1, 1, 0, 0)));
+        rows.put(2L, post(2L, "PUBLIC", LocalDateTime.of(2026, 2, 1, 0, 0)));
+    }
+
+    @Test
+    void shouldApplyAnotherNodesRefreshThroughTheBroadcast() {
+        PublishedPostIndex nodeA = newIndex(Runnable::run);
+        PublishedPostIndex nodeB = newIndex(Runnable::run);
+        Assertions.assertEquals(2, nodeA.snapshot().size());
+        Assertions.assertEquals(2, nodeB.snapshot().size());
+
+        rows.get(2L).setVisibility("PRIVATE");
+        rows.get(1L).setStatusCode("DRAFT");
+        nodeA.refreshPosts(List.of(1L, 2L));
+        redis.deliver(nodeA, nodeB);
+
+        for (PublishedPostIndex node : List.of(nodeA, nodeB)) {
+            PublishedPostIndex.Snapshot snapshot = node.snapshot();
+            Assertions.assertEquals(1, snapshot.size());
+            Assertions.assertNull(snapshot.get(1L));
+            Assertions.assertEquals("PRIVATE", snapshot.get(2L).post().getVisibility());
+        }
+        Mockito.verify(postMapper, Mockito.times(2)).selectBatchIds(ArgumentMatchers.anyCollection());
+    }
+
+    @Test
+    void shouldRemovePostOnEveryNodeAndIgnoreItsOwnMessages() {
+        PublishedPostIndex nodeA = newIndex(Runnable::run);
+        PublishedPostIndex nodeB = newIndex(Runnable::run);
+        nodeA.snapshot();
+        nodeB.snapshot();
+
+        nodeA.removePost(2L);
+        redis.deliver(nodeA, nodeA, nodeB);
+
+        Assertions.assertNull(nodeA.snapshot().get(2L));
+        Assertions.assertNull(nodeB.snapshot().get(2L));
+        Assertions.assertNotNull(nodeB.snapshot().get(1L));
+        Mockito.verify(postMapper, Mockito.never()).selectBatchIds(ArgumentMatchers.anyCollection());
+    }
+
+    @Test
+    void shouldKeepServingThePreviousSnapshotWhileOneRebuildRuns() {
+        PublishedPostIndex index = newIndex(rebuilds::add);
+        PublishedPostIndex.Snapshot first = index.snapshot();
+        rows.put(3L, post(3L, "PUBLIC", LocalDateTime.of(2026, 3, 1, 0, 0)));
+
+        index.invalidate();
+        Assertions.assertSame(first, index.snapshot());
+        Assertions.assertSame(first, index.snapshot());
+        Assertions.assertEquals(1, rebuilds.size());
+
+        rebuilds.remove(0).run();
+        PublishedPostIndex.Snapshot rebuilt = index.snapshot();
+        Assertions.assertNotSame(first, rebuilt);
+        Assertions.assertEquals(3, rebuilt.size());
+        Assertions.assertTrue(rebuilds.isEmpty());
+    }
+
+    @Test
+    void shouldMarkEveryNodeStaleWhenOneNodeInvalidates() {
+        PublishedPostIndex nodeA = newIndex(Runnable::run);
+        PublishedPostIndex nodeB = newIndex(rebuilds::add);
+        nodeA.snapshot();
+        PublishedPostIndex.Snapshot first = nodeB.snapshot();
+        rows.put(3L, post(3L, "PUBLIC", LocalDateTime.of(2026, 3, 1, 0, 0)));
+
+        nodeA.invalidate();
+        redis.deliver(nodeA, nodeB);
+
+        Assertions.assertSame(first, nodeB.snapshot());
+        Assertions.assertEquals(1, rebuilds.size());
+        rebuilds.remove(0).run();
+        Assertions.assertEquals(3, nodeB.snapshot().size());
+    }
+
+    private PublishedPostIndex newIndex(Executor executor) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("stringRedisTemplate", redis);
+        return new PublishedPostIndex(postMapper, postTagMapper, beanFactory.getBeanProvider(StringRedisTemplate.class), executor);
+    }
+
+    private PostEntity post(Long id, String visibility, LocalDateTime publishedAt) {
+        PostEntity post = new PostEntity();
+        post.setId(id);
+        post.setTitle("post-" + id);
+        post.setVisibility(visibility);
+        post.setStatusCode("PUBLISHED");
+        post.setDeleted(0);
+        post.setPublishedAt(publishedAt);
+        return post;
+    }
+
+    private PostEntity copy(PostEntity source) {
+        PostEntity copy = post(source.getId(), source.getVisibility(), source.getPublishedAt());
+        copy.setStatusCode(source.getStatusCode());
+        return copy;
+    }
+
+    /**
+     * Records published messages; the test decides which nodes receive them, including the sender.
+     */
+    private static final class PubSubRedis extends StringRedisTemplate {
+
+        private final List<String> messages = new ArrayList<>();
+
+        @Override
+        public Long convertAndSend(String channel, Object message) {
+            Assertions.assertEquals(PublishedPostIndex.CHANNEL, channel);
+            messages.add(String.valueOf(message));
+            return 1L;
+        }
+
+        private void deliver(PublishedPostIndex sender, PublishedPostIndex... receivers) {
+            Assertions.assertFalse(messages.isEmpty(), "no broadcast from " + sender);
+            List<String> pending = List.copyOf(messages);
+            messages.clear();
+            for (String message : pending) {
+                for (PublishedPostIndex receiver : receivers) {
+                    receiver.onRemoteChange(message);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package io.github.shizuki.site.media.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.shizuki.site.media.config.MusicSearchCacheProperties;
+import io.github.shizuki.site.media.response.MusicSearchResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * 音乐搜索结果缓存。
+ *
+ * <p>进程内按 LRU 保留有限条目并在 TTL 后失效；同一个键的并发请求只有首个线程访问上游，
+ * 其余线程等待并共享它的结果。开启 Redis 时在访问上游前后读写 Redis，多实例共享热门搜索。
+ * 部分平台失败的结果只分享给当时在等待的请求，不写入缓存。
+ */
+@Component
+public class MusicSearchCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MusicSearchCache.class);
+
+    private final MusicSearchCacheProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private final Map<Key, CachedSearch> entries = new LinkedHashMap<>(16, 0.75F, true);
+    private final ConcurrentHashMap<Key, CompletableFuture<MusicSearchResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public MusicSearchCache(MusicSearchCacheProperties properties,
+                            ObjectMapper objectMapper,
+                            ObjectProvider<StringRedisTemplate> redisTemplateProvider) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.redisTemplateProvider = redisTemplateProvider;
+    }
+
+    /**
+     * 读取缓存的搜索结果，未命中时由 loader 访问上游并回填。
+     *
+     * @param key 搜索缓存键
+     * @param loader 上游搜索
+     * @return 搜索结果
+     */
+    public MusicSearchResponse get(Key key, Supplier<MusicSearchResponse> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        MusicSearchResponse cached = readLocal(key);
+        if (cached != null) {
+            return cached;
+        }
+        CompletableFuture<MusicSearchResponse> flight = new CompletableFuture<>();
+        CompletableFuture<MusicSearchResponse> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            return awaitLeader(leader);
+        }
+        try {
+            MusicSearchResponse value = readLocal(key);
+            if (value == null) {
+                value = readRedis(key);
+                if (value == null) {
+                    value = loader.get();
+                    if (isCacheable(value)) {
+                        writeRedis(key, value);
+                    }
+                }
+                if (isCacheable(value)) {
+                    writeLocal(key, value);
+                }
+            }
+            flight.complete(value);
+            return value;
+        } catch (Throwable ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * 清空进程内缓存。
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private MusicSearchResponse awaitLeader(CompletableFuture<MusicSearchResponse> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private boolean isCacheable(MusicSearchResponse value) {
+        return value != null && !value.partial();
+    }
+
+    private MusicSearchResponse readLocal(Key key) {
+        synchronized (entries) {
+            CachedSearch cached = entries.get(key);
+            if (cached == null) {
+                return null;
+            }
+            if (cached.expiresAtMs() <= System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+            return cached.response();
+        }
+    }
+
+    private void writeLocal(Key key, MusicSearchResponse value) {
+        long expiresAtMs = System.currentTimeMillis() + Duration.ofSeconds(properties.getTtlSeconds()).toMillis();
+        synchronized (entries) {
+            entries.put(key, new CachedSearch(value, expiresAtMs));
+            var iterator = entries.entrySet().iterator();
+            while (entries.size() > properties.getMaxEntries() && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    private MusicSearchResponse readRedis(Key key) {
+        StringRedisTemplate redisTemplate = redisTemplate();
+        if (redisTemplate == null) {
+            return null;
+        }
+        String redisKey = key.redisKey(properties.getRedisKeyPrefix());
+        try {
+            String payload = redisTemplate.opsForValue().get(redisKey);
+            return StringUtils.hasText(payload) ? objectMapper.readValue(payload, MusicSearchResponse.class) : null;
+        } catch (Exception ex) {
+            LOGGER.warn("MUSIC_SEARCH_CACHE_READ_FAIL key={} reason={}", redisKey, ex.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRedis(Key key, MusicSearchResponse value) {
+        StringRedisTemplate redisTemplate = redisTemplate();
+        if (redisTemplate == null) {
+            return;
+        }
+        String redisKey = key.redisKey(properties.getRedisKeyPrefix());
+        try {
+            redisTemplate.opsForValue().set(
+                redisKey,
+                objectMapper.writeValueAsString(value),
+                Duration.ofSeconds(properties.getTtlSeconds())
+            );
+        } catch (Exception ex) {
+            LOGGER.warn("MUSIC_SEARCH_CACHE_WRITE_FAIL key={} reason={}", redisKey, ex.getMessage());
+        }
+    }
+
+    private StringRedisTemplate redisTemplate() {
+        return properties.isRedisEnabled() ? redisTemplateProvider.getIfAvailable() : null;
+    }
+
+    /**
+     * 搜索缓存键。
+     *
+     * @param keyword 归一化后的搜索词
+     * @param type 搜索类型
+     * @param providers 实际参与搜索的平台，顺序决定结果合并顺序
+     * @param page 页码
+     * @param limit 每页数量
+     * @param sourceScope 来源策略范围（模式与已绑定平台），不同策略的结果互不共享
+     */
+    public record Key(String keyword,
+                      String type,
+                      List<String> providers,
+                      int page,
+                      int limit,
+                      String sourceScope) {
+
+        public Key {
+            providers = providers == null ? List.of() : List.copyOf(providers);
+        }
+
+        private String redisKey(String prefix) {
+            String raw = keyword + "|" + type + "|" + String.join(",", providers) + "|" + page + "|" + limit + "|" + sourceScope;
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                return prefix + HexFormat.of().formatHex(digest.digest(raw.getBytes(StandardCharsets.UTF_8)));
+            } catch (Exception ex) {
+                throw new IllegalStateException("SHA-256 is not available", ex);
+            }
+        }
+    }
+
+    private record CachedSearch(MusicSearchResponse response, long expiresAtMs) {
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.shizuki.site.media.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 音乐搜索结果缓存配置。
+ */
+@Component
+@ConfigurationProperties(prefix = "shizuki.music.search-cache")
+public class MusicSearchCacheProperties {
+
+    private boolean enabled = true;
+    private long ttlSeconds = 30L;
+    private int maxEntries = 1_000;
+    /**
+     * 是否同时写入 Redis，供多实例共享热门搜索结果。
+     */
+    private boolean redisEnabled = false;
+    private String redisKeyPrefix = "music:search:v1:";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(long ttlSeconds) {
+        this.ttlSeconds = Math.max(1L, ttlSeconds);
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    public boolean isRedisEnabled() {
+        return redisEnabled;
+    }
+
+    public void setRedisEnabled(boolean redisEnabled) {
+        this.redisEnabled = redisEnabled;
+    }
+
+    public String getRedisKeyPrefix() {
+        return redisKeyPrefix;
+    }
+
+    public void setRedisKeyPrefix(String redisKeyPrefix) {
+        this.redisKeyPrefix = redisKeyPrefix == null ? "music:search:v1:" : redisKeyPrefix.trim();
+    }
+}
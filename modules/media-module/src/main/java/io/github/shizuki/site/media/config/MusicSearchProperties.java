@@ -0,0 +1,49 @@
+package io.github.shizuki.site.media.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 音乐聚合搜索配置。
+ */
+@Component
+@ConfigurationProperties(prefix = "shizuki.music.search")
+public class MusicSearchProperties {
+
+    /**
+     * 单次搜索等待全部平台返回的总时限，超时平台记入 timedOutProviders。
+     */
+    private long deadlineMs = 3_000L;
+    /**
+     * 平台并发拉取线程数。
+     */
+    private int fanoutThreads = 16;
+    /**
+     * 平台拉取排队上限，排满后新任务直接按失败平台处理。
+     */
+    private int fanoutQueueCapacity = 64;
+
+    public long getDeadlineMs() {
+        return deadlineMs;
+    }
+
+    public void setDeadlineMs(long deadlineMs) {
+        this.deadlineMs = Math.max(100L, deadlineMs);
+    }
+
+    public int getFanoutThreads() {
+        return fanoutThreads;
+    }
+
+    public void setFanoutThreads(int fanoutThreads) {
+        this.fanoutThreads = Math.max(1, fanoutThreads);
+    }
+
+    public int getFanoutQueueCapacity() {
+        return fanoutQueueCapacity;
+    }
+
+    public void setFanoutQueueCapacity(int fanoutQueueCapacity) {
+        this.fanoutQueueCapacity = Math.max(1, fanoutQueueCapacity);
+    }
+}
@@ -14,9 +14,11 @@ import io.github.shizuki.common.storage.model.StorageObjectMetadata;
 import io.github.shizuki.common.storage.util.OssKeyBuilder;
 import io.github.shizuki.common.storage.util.UploadValidator;
 import io.github.shizuki.site.media.cache.MusicLibraryHomeCacheStore;
+import io.github.shizuki.site.media.cache.MusicSearchCache;
 import io.github.shizuki.site.media.config.MediaStorageProperties;
 import io.github.shizuki.site.media.config.MetingMusicProperties;
 import io.github.shizuki.site.media.config.MusicListenCacheProperties;
+import io.github.shizuki.site.media.config.MusicSearchProperties;
 import io.github.shizuki.site.media.integration.AsmrMusicProvider;
 import io.github.shizuki.site.media.integration.MetingMusicProvider;
 import io.github.shizuki.site.media.integration.NeteaseCookieProvider;
@@ -129,6 +131,18 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
@@ -179,6 +193,7 @@ public class MediaServiceImpl implements MediaService {
     private static final Pattern VIRTUAL_LEGACY_PLAYLIST_CODE_PATTERN =
         Pattern.compile("^vh_tunehub_([a-z0-9_\\-]+)_([a-z0-9_\\-]+)_(.+)$");
     private static final Pattern VIRTUAL_ASMR_PLAYLIST_CODE_PATTERN = Pattern.compile("^vh_asmr_work_([0-9]+)$");
+    private static final Pattern WHITESPACE_RUN_PATTERN = Pattern.compile("\\s+");
     private static final String LOG_EVENT_API_CONTEXT_START = "MUSIC_METING_API_CONTEXT_RESOLVE";
     private static final String LOG_EVENT_SEARCH_START = "MUSIC_SEARCH_START";
     private static final String LOG_EVENT_SEARCH_PROVIDER_FAIL = "MUSIC_SEARCH_PROVIDER_FAIL";
@@ -252,10 +267,16 @@ public class MediaServiceImpl implements MediaService {
     private final MetingMusicProvider metingMusicProvider;
     private final MetingMusicProperties metingMusicProperties;
     private final MusicListenCacheProperties musicListenCacheProperties;
+    private final MusicSearchProperties musicSearchProperties;
+    private final MusicSearchCache musicSearchCache;
     private final ObjectMapper objectMapper;
     private final TransactionTemplate transactionTemplate;
     @Autowired(required = false)
     private MusicLibraryHomeCacheStore musicLibraryHomeCacheStore;
+    /**
+     * 搜索平台并发拉取线程池，首次搜索时创建。
+     */
+    private volatile ThreadPoolExecutor searchFanoutExecutor;
 
     /**
      * 构造媒体服务实现。
@@ -298,6 +319,8 @@ public class MediaServiceImpl implements MediaService {
                             MetingMusicProvider metingMusicProvider,
                             MetingMusicProperties metingMusicProperties,
                             MusicListenCacheProperties musicListenCacheProperties,
+                            MusicSearchProperties musicSearchProperties,
+                            MusicSearchCache musicSearchCache,
                             ObjectMapper objectMapper,
                             TransactionTemplate transactionTemplate) {
         this.objectStorageClient = objectStorageClient;
@@ -327,6 +350,8 @@ public class MediaServiceImpl implements MediaService {
         this.metingMusicProvider = metingMusicProvider;
         this.metingMusicProperties = metingMusicProperties;
         this.musicListenCacheProperties = musicListenCacheProperties;
+        this.musicSearchProperties = musicSearchProperties;
+        this.musicSearchCache = musicSearchCache;
         this.objectMapper = objectMapper;
         this.transactionTemplate = transactionTemplate;
     }
@@ -931,18 +956,55 @@ public class MediaServiceImpl implements MediaService {
         String normalizedType = normalizeMusicSearchType(type);
         int safePage = page == null ? 1 : Math.max(1, page);
         int safeLimit = limit == null ? 24 : Math.max(1, Math.min(60, limit));
+        Long userId = currentLoginUser() == null ? 0L : currentLoginUser().getUserId();
+
+        List<String> selectedProviders = resolveSearchProviders(providers, userId);
+        if (selectedProviders.contains("asmr")) {
+            requireAsmrAccess();
+        }
+        SearchSourcePolicy sourcePolicy = resolveSearchSourcePolicy(userId);
+        MusicSearchCache.Key cacheKey = new MusicSearchCache.Key(
+            musicSearchCacheKeyword(normalizedQuery),
+            normalizedType,
+            selectedProviders,
+            safePage,
+            safeLimit,
+            resolveSearchCacheScope(selectedProviders, sourcePolicy)
+        );
+        return musicSearchCache.get(
+            cacheKey,
+            () -> searchMusicUpstream(normalizedQuery, normalizedType, safePage, safeLimit, userId, selectedProviders, sourcePolicy)
+        );
+    }
+
+    /**
+     * 搜索结果缓存范围：来源模式加上本次所选平台中已绑定的部分，二者相同的用户共享同一份搜索结果。
+     */
+    private String resolveSearchCacheScope(List<String> selectedProviders, SearchSourcePolicy sourcePolicy) {
+        List<String> boundSelected = selectedProviders.stream()
+            .filter(sourcePolicy.boundProviders()::contains)
+            .sorted()
+            .toList();
+        return sourcePolicy.mode() + ":" + String.join(",", boundSelected);
+    }
+
+    /**
+     * 并发访问各平台完成一次搜索，结果由 {@link MusicSearchCache} 缓存与合并并发请求。
+     */
+    private MusicSearchResponse searchMusicUpstream(String normalizedQuery,
+                                                    String normalizedType,
+                                                    int safePage,
+                                                    int safeLimit,
+                                                    Long userId,
+                                                    List<String> selectedProviders,
+                                                    SearchSourcePolicy sourcePolicy) {
         int playlistCollectLimit = safeLimit + 1;
         int trackCollectLimit = safeLimit + 1;
-        Long userId = currentLoginUser() == null ? 0L : currentLoginUser().getUserId();
         String queryDigest = hashQueryFingerprint(normalizedQuery);
         String searchId = UUID.randomUUID().toString();
         String requestId = readString(MDC.get(LOG_KEY_REQUEST_ID), "-");
         String traceId = readString(MDC.get(LOG_KEY_TRACE_ID), "-");
 
-        List<String> selectedProviders = resolveSearchProviders(providers, userId);
-        if (selectedProviders.contains("asmr")) {
-            requireAsmrAccess();
-        }
         boolean includePlaylists = "all".equals(normalizedType) || "playlist".equals(normalizedType);
         boolean includeTracks = "all".equals(normalizedType) || "track".equals(normalizedType) || "artist".equals(normalizedType);
         boolean includeArtists = "all".equals(normalizedType) || "artist".equals(normalizedType);
@@ -986,7 +1048,6 @@ public class MediaServiceImpl implements MediaService {
         Set<String> missingApiKeyProviders = new LinkedHashSet<>();
 
         MusicApiContext apiContext = resolveMusicApiContext(false);
-        SearchSourcePolicy sourcePolicy = resolveSearchSourcePolicy(userId);
         if (sourcePolicy.accountOnly()) {
             boolean hasBoundProvider = selectedProviders.stream()
                 .filter(MUSIC_PLATFORMS::contains)
@@ -1023,6 +1084,21 @@ public class MediaServiceImpl implements MediaService {
             }
         }
 
+        // 先把各平台请求同时发出，再按 selectedProviders 顺序在总时限内逐个合并，保持原有去重与排序语义。
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(musicSearchProperties.getDeadlineMs());
+        Set<String> timedOutProviders = new LinkedHashSet<>();
+        Map<String, ProviderSearchFetch> providerFetches = startProviderSearchFetches(
+            selectedProviders,
+            normalizedQuery,
+            safePage,
+            safeLimit,
+            includeTracks,
+            includePlaylists,
+            apiContext,
+            sourcePolicy,
+            missingApiKeyProviders
+        );
+
         for (String provider : selectedProviders) {
             long providerStartMs = System.currentTimeMillis();
             int providerTrackMapped = 0;
@@ -1033,7 +1109,10 @@ public class MediaServiceImpl implements MediaService {
                     continue;
                 }
                 try {
-                    List<SpotifyTrackResponse> items = searchSpotify(normalizedQuery, Math.min(safeLimit, 20));
+                    List<SpotifyTrackResponse> items = awaitProviderSearchFetch(
+                        providerFetches.get(provider).spotifyTracks(),
+                        deadlineNanos
+                    );
                     int mappedCount = 0;
                     for (SpotifyTrackResponse item : items) {
                         String trackId = readString(item == null ? null : item.trackId(), "");
@@ -1080,6 +1159,9 @@ public class MediaServiceImpl implements MediaService {
                     );
                 } catch (Exception ex) {
                     failedProviders.add("spotify");
+                    if (ex instanceof SearchDeadlineExceededException) {
+                        timedOutProviders.add("spotify");
+                    }
                     LOGGER.warn(
                         "{} search_id={} request_id={} trace_id={} user_id={} type={} query_hash={} provider={} stage=track_fetch result=fail reason={} duration_ms={} row_count={} mapped_count={} dedupe_dropped={} partial=true",
                         LOG_EVENT_SEARCH_PROVIDER_FAIL,
@@ -1125,7 +1207,10 @@ public class MediaServiceImpl implements MediaService {
                 }
                 int playlistMatchedCount = 0;
                 try {
-                    AsmrMusicProvider.SearchResult searchResult = asmrMusicProvider.searchWorks(normalizedQuery, safePage, safeLimit);
+                    AsmrMusicProvider.SearchResult searchResult = awaitProviderSearchFetch(
+                        providerFetches.get(provider).asmrWorks(),
+                        deadlineNanos
+                    );
                     List<AsmrMusicProvider.WorkSummary> works = searchResult.works();
                     providerRowCount = works == null ? 0 : works.size();
 
@@ -1216,6 +1301,9 @@ public class MediaServiceImpl implements MediaService {
                     );
                 } catch (Exception ex) {
                     failedProviders.add(provider);
+                    if (ex instanceof SearchDeadlineExceededException) {
+                        timedOutProviders.add(provider);
+                    }
                     LOGGER.warn(
                         "{} search_id={} request_id={} trace_id={} user_id={} type={} query_hash={} provider={} stage=track_fetch result=fail reason={} duration_ms={} row_count={} mapped_count={} dedupe_dropped={} partial=true",
                         LOG_EVENT_SEARCH_PROVIDER_FAIL,
@@ -1295,19 +1383,14 @@ public class MediaServiceImpl implements MediaService {
             }
 
             List<MetingMusicProvider.SearchTrackResult> providerSearchItems = List.of();
-            boolean providerTrackSearchSucceeded = false;
             boolean shouldProbeTracks = includeTracks && tracks.size() < trackCollectLimit;
             if (shouldProbeTracks) {
                 long trackFetchStartMs = System.currentTimeMillis();
                 try {
-                    providerSearchItems = metingMusicProvider.searchTracks(
-                        apiContext.apiKey(),
-                        provider,
-                        normalizedQuery,
-                        safePage,
-                        safeLimit
+                    providerSearchItems = awaitProviderSearchFetch(
+                        providerFetches.get(provider).metingTracks(),
+                        deadlineNanos
                     );
-                    providerTrackSearchSucceeded = true;
                     providerRowCount = providerSearchItems.size();
                     int mappedCount = 0;
                     for (MetingMusicProvider.SearchTrackResult item : providerSearchItems) {
@@ -1357,6 +1440,9 @@ public class MediaServiceImpl implements MediaService {
                     );
                 } catch (Exception ex) {
                     failedProviders.add(provider);
+                    if (ex instanceof SearchDeadlineExceededException) {
+                        timedOutProviders.add(provider);
+                    }
                     LOGGER.warn(
                         "{} search_id={} request_id={} trace_id={} user_id={} type={} query_hash={} provider={} stage=track_fetch result=fail reason={} duration_ms={} row_count={} mapped_count={} dedupe_dropped={} partial=true",
                         LOG_EVENT_SEARCH_PROVIDER_FAIL,
@@ -1396,30 +1482,17 @@ public class MediaServiceImpl implements MediaService {
                 }
             }
 
+            // 歌单请求独立于曲目请求，曲目失败时已改用单条预览，这里不再因曲目失败跳过歌单。
             if (includePlaylists
                 && MUSIC_REAL_PLAYLIST_SEARCH_PLATFORMS.contains(provider)
-                && playlists.size() < playlistCollectLimit
-                && !failedProviders.contains(provider)) {
+                && playlists.size() < playlistCollectLimit) {
                 long playlistSearchStartMs = System.currentTimeMillis();
                 int playlistMatchedCount = 0;
                 try {
-                    List<MetingMusicProvider.SearchTrackResult> playlistPreviewTracks;
-                    if (safePage == 1 && providerTrackSearchSucceeded) {
-                        playlistPreviewTracks = providerSearchItems;
-                    } else {
-                        // The virtual playlist always opens the first search page. Fetch only one
-                        // matching row when the current track page cannot be reused, so its cover
-                        // stays deterministic without repeating an entire search page.
-                        playlistPreviewTracks = metingMusicProvider.searchTracks(
-                            apiContext.apiKey(),
-                            provider,
-                            normalizedQuery,
-                            1,
-                            1
-                        );
-                    }
-                    List<MetingMusicProvider.VirtualPlaylistSummary> searchPlaylists =
-                        metingMusicProvider.buildSearchPlaylists(provider, normalizedQuery, playlistPreviewTracks);
+                    List<MetingMusicProvider.VirtualPlaylistSummary> searchPlaylists = awaitProviderSearchFetch(
+                        providerFetches.get(provider).metingPlaylists(),
+                        deadlineNanos
+                    );
                     for (MetingMusicProvider.VirtualPlaylistSummary item : searchPlaylists) {
                         String code = readString(item.playlistCode(), "");
                         if (!StringUtils.hasText(code) || !playlistCodes.add(code)) {
@@ -1443,6 +1516,9 @@ public class MediaServiceImpl implements MediaService {
                     }
                 } catch (Exception ex) {
                     failedProviders.add(provider);
+                    if (ex instanceof SearchDeadlineExceededException) {
+                        timedOutProviders.add(provider);
+                    }
                     LOGGER.warn(
                         "{} search_id={} request_id={} trace_id={} user_id={} type={} query_hash={} provider={} stage=playlist_fetch result=fail reason={} duration_ms={} row_count=0 mapped_count=0 dedupe_dropped=0 partial=true",
                         LOG_EVENT_SEARCH_PROVIDER_FAIL,
@@ -1575,7 +1651,7 @@ public class MediaServiceImpl implements MediaService {
         long costMs = Math.max(1L, System.currentTimeMillis() - startMs);
 
         LOGGER.info(
-            "{} search_id={} request_id={} trace_id={} user_id={} type={} query_hash={} providers={} result={} reason={} playlist_count={} track_count={} artist_count={} partial={} cost_ms={}",
+            "{} search_id={} request_id={} trace_id={} user_id={} type={} query_hash={} providers={} result={} reason={} timed_out_providers={} playlist_count={} track_count={} artist_count={} partial={} cost_ms={}",
             LOG_EVENT_SEARCH_DONE,
             searchId,
             requestId,
@@ -1586,6 +1662,7 @@ public class MediaServiceImpl implements MediaService {
             selectedProviders,
             partial ? "partial" : "ok",
             partial ? "provider_partial_failure" : "-",
+            timedOutProviders,
             playlists.size(),
             tracks.size(),
             artists.size(),
@@ -1615,6 +1692,7 @@ public class MediaServiceImpl implements MediaService {
             safeLimit,
             partial,
             new ArrayList<>(failedProviders),
+            new ArrayList<>(timedOutProviders),
             hasMorePlaylists,
             hasMoreTracks,
             hasMoreArtists,
@@ -1624,6 +1702,197 @@ public class MediaServiceImpl implements MediaService {
         );
     }
 
+    /**
+     * 为本次搜索的每个平台并发发起上游请求，跳过条件与合并循环保持一致。
+     *
+     * <p>虚拟歌单总是打开搜索第一页：第一页直接复用曲目请求结果，其它页或第一页曲目请求失败时只额外取一条匹配曲目作为封面，
+     * 避免重复拉取整页，也不让曲目失败连带歌单失败。曲目请求因超过搜索时限被取消时不再补发。
+     */
+    private Map<String, ProviderSearchFetch> startProviderSearchFetches(List<String> selectedProviders,
+                                                                        String normalizedQuery,
+                                                                        int safePage,
+                                                                        int safeLimit,
+                                                                        boolean includeTracks,
+                                                                        boolean includePlaylists,
+                                                                        MusicApiContext apiContext,
+                                                                        SearchSourcePolicy sourcePolicy,
+                                                                        Set<String> missingApiKeyProviders) {
+        Map<String, ProviderSearchFetch> fetches = new LinkedHashMap<>();
+        for (String provider : selectedProviders) {
+            if ("spotify".equals(provider)) {
+                if (includeTracks) {
+                    fetches.put(provider, new ProviderSearchFetch(
+                        submitProviderSearchFetch(() -> searchSpotify(normalizedQuery, Math.min(safeLimit, 20))),
+                        null,
+                        null,
+                        null
+                    ));
+                }
+                continue;
+            }
+            if ("asmr".equals(provider)) {
+                if (includeTracks || includePlaylists) {
+                    fetches.put(provider, new ProviderSearchFetch(
+                        null,
+                        submitProviderSearchFetch(() -> asmrMusicProvider.searchWorks(normalizedQuery, safePage, safeLimit)),
+                        null,
+                        null
+                    ));
+                }
+                continue;
+            }
+            if (!MUSIC_PLATFORMS.contains(provider)
+                || missingApiKeyProviders.contains(provider)
+                || (sourcePolicy.accountOnly() && !sourcePolicy.boundProviders().contains(provider))) {
+                continue;
+            }
+            CompletableFuture<List<MetingMusicProvider.SearchTrackResult>> trackFetch = includeTracks
+                ? submitProviderSearchFetch(() -> metingMusicProvider.searchTracks(
+                    apiContext.apiKey(),
+                    provider,
+                    normalizedQuery,
+                    safePage,
+                    safeLimit
+                ))
+                : null;
+            CompletableFuture<List<MetingMusicProvider.VirtualPlaylistSummary>> playlistFetch = null;
+            if (includePlaylists && MUSIC_REAL_PLAYLIST_SEARCH_PLATFORMS.contains(provider)) {
+                Supplier<CompletableFuture<List<MetingMusicProvider.SearchTrackResult>>> previewFetch = prepareProviderSearchFetch(
+                    () -> metingMusicProvider.searchTracks(apiContext.apiKey(), provider, normalizedQuery, 1, 1)
+                );
+                CompletableFuture<List<MetingMusicProvider.SearchTrackResult>> previewTracks = safePage == 1 && trackFetch != null
+                    ? trackFetch.exceptionallyCompose(ex -> ex instanceof CancellationException
+                        ? CompletableFuture.failedFuture(ex)
+                        : previewFetch.get())
+                    : previewFetch.get();
+                playlistFetch = previewTracks.thenApply(items -> metingMusicProvider.buildSearchPlaylists(provider, normalizedQuery, items));
+            }
+            fetches.put(provider, new ProviderSearchFetch(null, null, trackFetch, playlistFetch));
+        }
+        return fetches;
+    }
+
+    /**
+     * 在搜索线程池中执行平台请求，并把登录用户与 MDC 日志上下文带入工作线程。
+     */
+    private <T> CompletableFuture<T> submitProviderSearchFetch(Supplier<T> fetch) {
+        return prepareProviderSearchFetch(fetch).get();
+    }
+
+    /**
+     * 在当前请求线程捕获登录用户与 MDC 日志上下文，返回稍后（可能在其他线程）提交平台请求的入口。
+     *
+     * <p>请求以 {@link FutureTask} 提交，返回的 future 被取消时中断工作线程：上游走 JDK HttpClient，
+     * 阻塞中的请求会随中断放弃，超时的平台不会继续占住 music-search 线程；尚未开始的请求出队后直接跳过。
+     */
+    private <T> Supplier<CompletableFuture<T>> prepareProviderSearchFetch(Supplier<T> fetch) {
+        LoginUser loginUser = LoginUserContext.get().orElse(null);
+        Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+        return () -> {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            FutureTask<T> task = new FutureTask<>(() -> {
+                LoginUserContext.set(loginUser);
+                if (mdcContext != null) {
+                    MDC.setContextMap(mdcContext);
+                }
+                try {
+                    return fetch.get();
+                } finally {
+                    LoginUserContext.clear();
+                    MDC.clear();
+                }
+            }) {
+                @Override
+                protected void done() {
+                    if (isCancelled()) {
+                        result.cancel(false);
+                        return;
+                    }
+                    try {
+                        result.complete(get());
+                    } catch (ExecutionException ex) {
+                        result.completeExceptionally(ex.getCause());
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        result.completeExceptionally(ex);
+                    }
+                }
+            };
+            result.whenComplete((value, ex) -> {
+                if (result.isCancelled()) {
+                    task.cancel(true);
+                }
+            });
+            try {
+                searchFanoutExecutor().execute(task);
+            } catch (RejectedExecutionException ex) {
+                return CompletableFuture.failedFuture(new RejectedExecutionException("search_fanout_saturated"));
+            }
+            return result;
+        };
+    }
+
+    /**
+     * 在搜索总时限内等待平台结果；超时后取消该平台请求（中断仍在执行的工作线程）并抛出
+     * {@link SearchDeadlineExceededException}。
+     */
+    private <T> T awaitProviderSearchFetch(CompletableFuture<T> fetch, long deadlineNanos) throws Exception {
+        try {
+            return fetch.get(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            fetch.cancel(true);
+            throw new SearchDeadlineExceededException();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw ex;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw ex;
+        }
+    }
+
+    private ThreadPoolExecutor searchFanoutExecutor() {
+        ThreadPoolExecutor executor = searchFanoutExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = searchFanoutExecutor;
+                if (executor == null) {
+                    AtomicInteger sequence = new AtomicInteger();
+                    int threads = musicSearchProperties.getFanoutThreads();
+                    executor = new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        60L,
+                        TimeUnit.SECONDS,
+                        new ArrayBlockingQueue<>(musicSearchProperties.getFanoutQueueCapacity()),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "music-search-" + sequence.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        },
+                        new ThreadPoolExecutor.AbortPolicy()
+                    );
+                    executor.allowCoreThreadTimeOut(true);
+                    searchFanoutExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * 关闭搜索平台并发拉取线程池。
+     */
+    @PreDestroy
+    public void shutdownSearchFanout() {
+        ThreadPoolExecutor executor = searchFanoutExecutor;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -3428,6 +3697,13 @@ public class MediaServiceImpl implements MediaService {
         return new MusicApiContext(apiKey, keySource, preferredOrder);
     }
 
+    /**
+     * 搜索缓存键使用的关键词：忽略大小写并合并连续空白，只是写法不同的搜索共享同一份结果。
+     */
+    private String musicSearchCacheKeyword(String normalizedQuery) {
+        return WHITESPACE_RUN_PATTERN.matcher(normalizedQuery).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
     private String normalizeMusicSearchQuery(String query) {
         String normalized = readString(query, "");
         if (!StringUtils.hasText(normalized)) {
@@ -5693,6 +5969,21 @@ public class MediaServiceImpl implements MediaService {
                                       int retryCount) {
     }
 
+    private record ProviderSearchFetch(CompletableFuture<List<SpotifyTrackResponse>> spotifyTracks,
+                                       CompletableFuture<AsmrMusicProvider.SearchResult> asmrWorks,
+                                       CompletableFuture<List<MetingMusicProvider.SearchTrackResult>> metingTracks,
+                                       CompletableFuture<List<MetingMusicProvider.VirtualPlaylistSummary>> metingPlaylists) {
+    }
+
+    /**
+     * 平台未在搜索总时限内返回。
+     */
+    private static final class SearchDeadlineExceededException extends Exception {
+        private SearchDeadlineExceededException() {
+            super("search_deadline_exceeded", null, false, false);
+        }
+    }
+
     private record SearchSourcePolicy(String mode,
                                       List<String> providerOrder,
                                       Set<String> boundProviders) {
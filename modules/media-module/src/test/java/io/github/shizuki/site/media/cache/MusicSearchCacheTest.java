@@ -0,0 +1,122 @@
+package io.github.shizuki.site.media.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.shizuki.site.media.config.MusicSearchCacheProperties;
+import io.github.shizuki.site.media.response.MusicSearchResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+class MusicSearchCacheTest {
+
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private MusicSearchCacheProperties properties;
+    private MusicSearchCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = Mockito.mock(StringRedisTemplate.class);
+        valueOperations = Mockito.mock(ValueOperations.class);
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        redisTemplateProvider = Mockito.mock(ObjectProvider.class);
+        Mockito.when(redisTemplateProvider.getIfAvailable()).thenReturn(redisTemplate);
+
+        properties = new MusicSearchCacheProperties();
+        properties.setMaxEntries(2);
+        cache = new MusicSearchCache(properties, new ObjectMapper(), redisTemplateProvider);
+    }
+
+    @Test
+    void shouldServeRepeatedSearchFromLocalCache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(key("夜曲"), () -> response("夜曲", false, loads));
+        MusicSearchResponse cached = cache.get(key("夜曲"), () -> response("夜曲", false, loads));
+
+        Assertions.assertEquals("夜曲", cached.query());
+        Assertions.assertEquals(1, loads.get());
+        Mockito.verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedSearchWhenFull() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(key("first"), () -> response("first", false, loads));
+        cache.get(key("second"), () -> response("second", false, loads));
+        cache.get(key("first"), () -> response("first", false, loads));
+        cache.get(key("third"), () -> response("third", false, loads));
+
+        cache.get(key("first"), () -> response("first", false, loads));
+        Assertions.assertEquals(3, loads.get());
+        cache.get(key("second"), () -> response("second", false, loads));
+        Assertions.assertEquals(4, loads.get());
+    }
+
+    @Test
+    void shouldNotCachePartialSearch() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(key("sweet"), () -> response("sweet", true, loads));
+        cache.get(key("sweet"), () -> response("sweet", true, loads));
+
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldShareSearchThroughRedisWhenEnabled() throws Exception {
+        properties.setRedisEnabled(true);
+        properties.setTtlSeconds(45L);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(key("白色相簿"), () -> response("白色相簿", false, loads));
+
+        Mockito.verify(valueOperations).set(
+            ArgumentMatchers.startsWith("music:search:v1:"),
+            ArgumentMatchers.contains("白色相簿"),
+            ArgumentMatchers.eq(Duration.ofSeconds(45L))
+        );
+
+        MusicSearchCache otherInstance = new MusicSearchCache(properties, new ObjectMapper(), redisTemplateProvider);
+        String payload = new ObjectMapper().writeValueAsString(response("白色相簿", false, new AtomicInteger()));
+        Mockito.when(valueOperations.get(ArgumentMatchers.startsWith("music:search:v1:"))).thenReturn(payload);
+
+        MusicSearchResponse shared = otherInstance.get(key("白色相簿"), () -> response("白色相簿", false, loads));
+
+        Assertions.assertEquals("白色相簿", shared.query());
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    private static MusicSearchCache.Key key(String keyword) {
+        return new MusicSearchCache.Key(keyword, "track", List.of("netease", "kuwo"), 1, 24, "meting_first:");
+    }
+
+    private static MusicSearchResponse response(String query, boolean partial, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return new MusicSearchResponse(
+            query,
+            "track",
+            1,
+            24,
+            partial,
+            partial ? List.of("netease") : List.of(),
+            List.of(),
+            false,
+            false,
+            false,
+            List.of(),
+            List.of(),
+            List.of()
+        );
+    }
+}
@@ -6,8 +6,11 @@ import io.github.shizuki.common.security.context.LoginUserContext;
 import io.github.shizuki.common.security.model.LoginUser;
 import io.github.shizuki.common.storage.client.ObjectStorageClient;
 import io.github.shizuki.common.storage.config.OssProperties;
+import io.github.shizuki.site.media.cache.MusicSearchCache;
 import io.github.shizuki.site.media.config.MetingMusicProperties;
 import io.github.shizuki.site.media.config.MusicListenCacheProperties;
+import io.github.shizuki.site.media.config.MusicSearchCacheProperties;
+import io.github.shizuki.site.media.config.MusicSearchProperties;
 import io.github.shizuki.site.media.integration.AsmrMusicProvider;
 import io.github.shizuki.site.media.integration.MetingMusicProvider;
 import io.github.shizuki.site.media.integration.NeteaseCookieProvider;
@@ -53,6 +56,13 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -61,6 +71,8 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.support.AbstractPlatformTransactionManager;
@@ -308,6 +320,8 @@ class MediaServiceImplTest {
             metingMusicProvider,
             metingMusicProperties,
             listenCacheProperties,
+            new MusicSearchProperties(),
+            new MusicSearchCache(new MusicSearchCacheProperties(), new com.fasterxml.jackson.databind.ObjectMapper(), noRedis()),
             new com.fasterxml.jackson.databind.ObjectMapper(),
             new TransactionTemplate(new NoOpTransactionManager())
         );
@@ -645,6 +659,178 @@ class MediaServiceImplTest {
             .searchTracks("th_test_default_key", "netease", "夜曲", 1, 1);
     }
 
+    @Test
+    void shouldFanOutProviderSearchesInParallel() {
+        // 三个 provider 互相等待对方进入调用：只有并发扇出时栅栏才会在截止时间前打开。
+        CountDownLatch allStarted = new CountDownLatch(3);
+        AtomicInteger overlapped = new AtomicInteger();
+        stubOverlappingSearch("netease", "夜航", allStarted, overlapped);
+        stubOverlappingSearch("kuwo", "夜航", allStarted, overlapped);
+        stubOverlappingSearch("qq", "夜航", allStarted, overlapped);
+
+        MusicSearchResponse response = mediaService.searchMusic("夜航", "track", "netease,kuwo,qq", 1, 24);
+
+        Assertions.assertEquals(3, overlapped.get());
+        Assertions.assertFalse(response.partial());
+        Assertions.assertTrue(response.timedOutProviders().isEmpty());
+        Assertions.assertEquals(
+            List.of("netease", "kuwo", "qq"),
+            response.tracks().stream().map(item -> item.provider()).toList()
+        );
+    }
+
+    @Test
+    void shouldMarkProvidersThatMissSearchDeadline() throws Exception {
+        MusicSearchProperties searchProperties = new MusicSearchProperties();
+        searchProperties.setDeadlineMs(300L);
+        MediaServiceImpl deadlineService = buildMediaService(
+            "th_test_default_key",
+            new TransactionTemplate(new NoOpTransactionManager()),
+            searchProperties
+        );
+        stubDelayedSearch("netease", "晨光", 0L);
+        stubDelayedSearch("qq", "晨光", 0L);
+        // kuwo 一直阻塞到被中断：只有超时后取消并中断工作线程，闩锁才会打开。
+        CountDownLatch kuwoStarted = new CountDownLatch(1);
+        CountDownLatch kuwoInterrupted = new CountDownLatch(1);
+        Mockito.when(metingMusicProvider.searchTracks("th_test_default_key", "kuwo", "晨光", 1, 24))
+            .thenAnswer(invocation -> {
+                kuwoStarted.countDown();
+                try {
+                    new CountDownLatch(1).await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    kuwoInterrupted.countDown();
+                    throw ex;
+                }
+                return List.of();
+            });
+
+        MusicSearchResponse response = deadlineService.searchMusic("晨光", "track", "netease,kuwo,qq", 1, 24);
+
+        Assertions.assertTrue(kuwoStarted.await(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(kuwoInterrupted.await(5, TimeUnit.SECONDS), "timed-out fetch kept its worker thread");
+        deadlineService.shutdownSearchFanout();
+        Assertions.assertTrue(response.partial());
+        Assertions.assertEquals(List.of("kuwo"), response.timedOutProviders());
+        Assertions.assertEquals(List.of("kuwo"), response.failedProviders());
+        Assertions.assertEquals(
+            List.of("netease", "qq"),
+            response.tracks().stream().map(item -> item.provider()).toList()
+        );
+    }
+
+    @Test
+    void shouldFallBackToPreviewSearchForPlaylistWhenTrackSearchFails() {
+        List<MetingMusicProvider.SearchTrackResult> preview = List.of(
+            new MetingMusicProvider.SearchTrackResult("1859245776", "netease", "夜曲", "周杰伦", "十一月的萧邦", "https://cover.example/nocturne.png", 226)
+        );
+        Mockito.when(metingMusicProvider.searchTracks("th_test_default_key", "netease", "夜曲", 1, 24))
+            .thenThrow(new RuntimeException("netease upstream error"));
+        Mockito.when(metingMusicProvider.searchTracks("th_test_default_key", "netease", "夜曲", 1, 1))
+            .thenReturn(preview);
+        Mockito.when(metingMusicProvider.buildSearchPlaylists("netease", "夜曲", preview))
+            .thenReturn(
+                List.of(
+                    new MetingMusicProvider.VirtualPlaylistSummary(
+                        "netease",
+                        "search",
+                        "5aSc5puy",
+                        "网易云 搜索: 夜曲",
+                        "Meting 搜索虚拟歌单",
+                        "https://cover.example/nocturne.png",
+                        "vh_meting_netease_search_5aSc5puy",
+                        null
+                    )
+                )
+            );
+
+        MusicSearchResponse response = mediaService.searchMusic("夜曲", "all", "netease", 1, 24);
+
+        Assertions.assertTrue(response.partial());
+        Assertions.assertEquals(List.of("netease"), response.failedProviders());
+        Assertions.assertTrue(response.tracks().isEmpty());
+        Assertions.assertEquals(1, response.playlists().size());
+        Assertions.assertEquals("https://cover.example/nocturne.png", response.playlists().get(0).cover());
+        Mockito.verify(metingMusicProvider).searchTracks("th_test_default_key", "netease", "夜曲", 1, 1);
+    }
+
+    @Test
+    void shouldCoalesceConcurrentIdenticalSearches() throws Exception {
+        stubDelayedSearch("netease", "热门", 200L);
+        int callers = 50;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<MusicSearchResponse>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                Callable<MusicSearchResponse> search = () -> {
+                    start.await();
+                    return mediaService.searchMusic("热门", "track", "netease", 1, 24);
+                };
+                results.add(pool.submit(search));
+            }
+            start.countDown();
+            for (Future<MusicSearchResponse> result : results) {
+                MusicSearchResponse response = result.get(5, TimeUnit.SECONDS);
+                Assertions.assertEquals(1, response.tracks().size());
+                Assertions.assertEquals("netease", response.tracks().get(0).provider());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        mediaService.searchMusic("热门", "track", "netease", 1, 24);
+        Mockito.verify(metingMusicProvider, Mockito.times(1))
+            .searchTracks("th_test_default_key", "netease", "热门", 1, 24);
+    }
+
+    @Test
+    void shouldShareCachedSearchAcrossCaseAndWhitespaceVariants() {
+        stubDelayedSearch("netease", "Sweet  Dreams", 0L);
+
+        MusicSearchResponse first = mediaService.searchMusic(" Sweet  Dreams ", "track", "netease", 1, 24);
+        MusicSearchResponse second = mediaService.searchMusic("sweet dreams", "track", "netease", 1, 24);
+        MusicSearchResponse third = mediaService.searchMusic("SWEET\tDREAMS", "track", "netease", 1, 24);
+
+        Assertions.assertEquals(1, first.tracks().size());
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(first, third);
+        Mockito.verify(metingMusicProvider, Mockito.times(1)).searchTracks(
+            ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(),
+            ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt());
+    }
+
+    private void stubOverlappingSearch(String provider, String keyword, CountDownLatch allStarted, AtomicInteger overlapped) {
+        Mockito.when(metingMusicProvider.searchTracks("th_test_default_key", provider, keyword, 1, 24))
+            .thenAnswer(invocation -> {
+                allStarted.countDown();
+                if (allStarted.await(2, TimeUnit.SECONDS)) {
+                    overlapped.incrementAndGet();
+                }
+                return List.of(
+                    new MetingMusicProvider.SearchTrackResult(provider, provider, keyword, "Artist", "Album", "", 200)
+                );
+            });
+    }
+
+    private void stubDelayedSearch(String provider, String keyword, long delayMs) {
+        Mockito.when(metingMusicProvider.searchTracks("th_test_default_key", provider, keyword, 1, 24))
+            .thenAnswer(invocation -> {
+                Thread.sleep(delayMs);
+                return List.of(
+                    new MetingMusicProvider.SearchTrackResult(
+                        provider + "-" + delayMs,
+                        provider,
+                        keyword,
+                        "Artist",
+                        "Album",
+                        "",
+                        200
+                    )
+                );
+            });
+    }
+
     @Test
     void shouldRejectAsmrSearchWhenPermissionMissing() {
         LoginUserContext.set(new LoginUser(7L, Set.of("USER"), Set.of()));
@@ -1231,6 +1417,12 @@ class MediaServiceImplTest {
     }
 
     private MediaServiceImpl buildMediaService(String defaultApiKey, TransactionTemplate transactionTemplate) {
+        return buildMediaService(defaultApiKey, transactionTemplate, new MusicSearchProperties());
+    }
+
+    private MediaServiceImpl buildMediaService(String defaultApiKey,
+                                               TransactionTemplate transactionTemplate,
+                                               MusicSearchProperties searchProperties) {
         MediaStorageProperties mediaStorageProperties = new MediaStorageProperties();
         mediaStorageProperties.setPublicBucket("shizuki-public");
         mediaStorageProperties.setPrivateBucket("shizuki-private");
@@ -1283,11 +1475,18 @@ class MediaServiceImplTest {
             metingMusicProvider,
             metingMusicProperties,
             listenCacheProperties,
+            searchProperties,
+            new MusicSearchCache(new MusicSearchCacheProperties(), new com.fasterxml.jackson.databind.ObjectMapper(), noRedis()),
             new com.fasterxml.jackson.databind.ObjectMapper(),
             transactionTemplate
         );
     }
 
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<StringRedisTemplate> noRedis() {
+        return Mockito.mock(ObjectProvider.class);
+    }
+
     private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
 
         private int beginCount;
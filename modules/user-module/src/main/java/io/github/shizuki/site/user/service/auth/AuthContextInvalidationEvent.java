@@ -0,0 +1,69 @@
+package io.github.shizuki.site.user.service.auth;
+
+import java.util.Locale;
+import org.springframework.util.StringUtils;
+
+/**
+ * 鉴权上下文失效事件：用户分组/权限、分组权限映射或会话发生变化时发布，
+ * 网关侧据此清理 token 内省缓存。
+ *
+ * @param scope 失效范围
+ * @param subject 用户 ID 或分组编码；范围为 ALL 时为空串
+ */
+public record AuthContextInvalidationEvent(Scope scope, String subject) {
+
+    public enum Scope {
+        USER,
+        GROUP,
+        ALL
+    }
+
+    public static AuthContextInvalidationEvent user(Long userId) {
+        return new AuthContextInvalidationEvent(Scope.USER, String.valueOf(userId));
+    }
+
+    public static AuthContextInvalidationEvent group(String groupCode) {
+        return new AuthContextInvalidationEvent(Scope.GROUP, groupCode == null ? "" : groupCode.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public static AuthContextInvalidationEvent all() {
+        return new AuthContextInvalidationEvent(Scope.ALL, "");
+    }
+
+    public Long userId() {
+        if (scope != Scope.USER) {
+            return null;
+        }
+        try {
+            return Long.parseLong(subject);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * 编码为 pub/sub 消息体，格式 {@code SCOPE:subject}。
+     */
+    public String encode() {
+        return scope.name() + ":" + subject;
+    }
+
+    /**
+     * 解析 pub/sub 消息体；格式非法时返回 null。
+     */
+    public static AuthContextInvalidationEvent decode(String message) {
+        if (!StringUtils.hasText(message)) {
+            return null;
+        }
+        int separator = message.indexOf(':');
+        if (separator <= 0) {
+            return null;
+        }
+        try {
+            Scope scope = Scope.valueOf(message.substring(0, separator));
+            return new AuthContextInvalidationEvent(scope, message.substring(separator + 1));
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.shizuki.site.user.service.auth;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 鉴权上下文失效通知：事务提交后先发布进程内事件，再通过 Redis pub/sub 广播给其他节点。
+ */
+@Component
+public class AuthContextInvalidationPublisher {
+
+    public static final String CHANNEL = "shizuki:auth:context-invalidation";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuthContextInvalidationPublisher.class);
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    @Value("${shizuki.auth.context-invalidation.redis-enabled:true}")
+    private boolean redisEnabled = true;
+
+    public AuthContextInvalidationPublisher(ApplicationEventPublisher eventPublisher,
+                                            ObjectProvider<StringRedisTemplate> redisTemplateProvider) {
+        this.eventPublisher = eventPublisher;
+        this.redisTemplateProvider = redisTemplateProvider;
+    }
+
+    public void userChanged(Long userId) {
+        if (userId != null && userId > 0) {
+            publish(AuthContextInvalidationEvent.user(userId));
+        }
+    }
+
+    public void groupChanged(String groupCode) {
+        publish(AuthContextInvalidationEvent.group(groupCode));
+    }
+
+    public void allChanged() {
+        publish(AuthContextInvalidationEvent.all());
+    }
+
+    private void publish(AuthContextInvalidationEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(event);
+                }
+            });
+            return;
+        }
+        dispatch(event);
+    }
+
+    private void dispatch(AuthContextInvalidationEvent event) {
+        eventPublisher.publishEvent(event);
+        StringRedisTemplate redisTemplate = redisEnabled ? redisTemplateProvider.getIfAvailable() : null;
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL, event.encode());
+        } catch (Exception ex) {
+            LOGGER.warn("AUTH_CONTEXT_INVALIDATION_PUBLISH_FAIL event={} reason={}", event.encode(), ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.shizuki.site.user.service.auth;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import io.github.shizuki.site.user.entity.GroupPermissionEntity;
+import io.github.shizuki.site.user.mapper.GroupPermissionMapper;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+/**
+ * 分组 → 权限矩阵：一次加载全部分组权限映射，构建不可变的驻留（interned）权限集合。
+ *
+ * <p>矩阵以版本号标识，分组权限写操作调用 {@link #bumpVersion()} 后，下一次读取按新版本重建；
+ * 其他节点收到 GROUP/ALL 失效广播时同样递增版本，{@code max-age-seconds} 仅作广播丢失时的兜底。
+ */
+@Component
+public class GroupPermissionMatrix {
+
+    private final GroupPermissionMapper groupPermissionMapper;
+    private final AtomicLong version = new AtomicLong();
+    private final Object rebuildLock = new Object();
+    private volatile Snapshot snapshot;
+
+    @Value("${shizuki.auth.group-permission-matrix.max-age-seconds:300}")
+    private long maxAgeSeconds = 300L;
+
+    public GroupPermissionMatrix(GroupPermissionMapper groupPermissionMapper) {
+        this.groupPermissionMapper = groupPermissionMapper;
+    }
+
+    /**
+     * 解析分组集合的有效权限并集；单分组时直接返回共享的不可变集合。
+     */
+    public Set<String> permissionsOf(Collection<String> groups) {
+        if (groups == null || groups.isEmpty()) {
+            return Set.of();
+        }
+        Map<String, Set<String>> byGroup = current().byGroup();
+        if (groups.size() == 1) {
+            return byGroup.getOrDefault(normalizeGroupCode(groups.iterator().next()), Set.of());
+        }
+        Set<String> first = null;
+        Set<String> merged = null;
+        for (String group : groups) {
+            Set<String> permissions = byGroup.get(normalizeGroupCode(group));
+            if (permissions == null || permissions.isEmpty() || permissions == first) {
+                continue;
+            }
+            if (first == null) {
+                first = permissions;
+                continue;
+            }
+            if (merged == null) {
+                merged = new LinkedHashSet<>(first);
+            }
+            merged.addAll(permissions);
+        }
+        if (merged != null) {
+            return Collections.unmodifiableSet(merged);
+        }
+        return first == null ? Set.of() : first;
+    }
+
+    /**
+     * 标记矩阵过期；处于事务中时在提交后再递增，避免并发读取按新版本加载到未提交前的数据。
+     * 其他节点通过鉴权上下文失效广播（GROUP/ALL）调用本方法。
+     */
+    public void bumpVersion() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+            return;
+        }
+        version.incrementAndGet();
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        long expectedVersion = version.get();
+        if (current != null && current.version() == expectedVersion && !isStale(current)) {
+            return current;
+        }
+        synchronized (rebuildLock) {
+            current = snapshot;
+            expectedVersion = version.get();
+            if (current != null && current.version() == expectedVersion && !isStale(current)) {
+                return current;
+            }
+            Snapshot rebuilt = load(expectedVersion);
+            snapshot = rebuilt;
+            return rebuilt;
+        }
+    }
+
+    private boolean isStale(Snapshot current) {
+        return maxAgeSeconds > 0 && System.currentTimeMillis() - current.loadedAtMs() > maxAgeSeconds * 1000L;
+    }
+
+    private Snapshot load(long loadVersion) {
+        List<GroupPermissionEntity> rows = groupPermissionMapper.selectList(
+            new LambdaQueryWrapper<GroupPermissionEntity>()
+                .orderByAsc(GroupPermissionEntity::getGroupCode)
+                .orderByAsc(GroupPermissionEntity::getPermissionCode)
+        );
+        Map<String, LinkedHashSet<String>> grouped = new LinkedHashMap<>();
+        Map<String, String> permissionPool = new HashMap<>();
+        for (GroupPermissionEntity row : rows) {
+            String groupCode = normalizeGroupCode(row.getGroupCode());
+            String permission = row.getPermissionCode() == null ? null : row.getPermissionCode().trim();
+            if (!StringUtils.hasText(groupCode) || !StringUtils.hasText(permission)) {
+                continue;
+            }
+            grouped.computeIfAbsent(groupCode, key -> new LinkedHashSet<>())
+                .add(permissionPool.computeIfAbsent(permission, key -> key));
+        }
+        Map<Set<String>, Set<String>> setPool = new HashMap<>();
+        Map<String, Set<String>> byGroup = new HashMap<>();
+        for (Map.Entry<String, LinkedHashSet<String>> entry : grouped.entrySet()) {
+            Set<String> interned = setPool.computeIfAbsent(entry.getValue(), Collections::unmodifiableSet);
+            byGroup.put(entry.getKey(), interned);
+        }
+        return new Snapshot(loadVersion, Map.copyOf(byGroup), System.currentTimeMillis());
+    }
+
+    private static String normalizeGroupCode(String groupCode) {
+        return groupCode == null ? "" : groupCode.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private record Snapshot(long version, Map<String, Set<String>> byGroup, long loadedAtMs) {
+    }
+}
@@ -1,7 +1,6 @@
 package io.github.shizuki.site.user.service.impl;
 
 import cn.dev33.satoken.stp.StpUtil;
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.shizuki.common.core.error.BusinessException;
@@ -26,13 +25,13 @@ import io.github.shizuki.site.user.request.auth.OAuthAuthorizeRequest;
 import io.github.shizuki.site.user.response.auth.OAuthAuthorizeResponse;
 import io.github.shizuki.site.user.request.auth.OAuthBindRequest;
 import io.github.shizuki.site.user.request.auth.OAuthConflictConfirmRequest;
-import io.github.shizuki.site.user.entity.GroupPermissionEntity;
 import io.github.shizuki.site.user.entity.UserAccountEntity;
-import io.github.shizuki.site.user.mapper.GroupPermissionMapper;
 import io.github.shizuki.site.user.mapper.UserAccountMapper;
 import io.github.shizuki.site.user.service.AuthService;
+import io.github.shizuki.site.user.service.auth.AuthContextInvalidationPublisher;
 import io.github.shizuki.site.user.service.auth.AuthFlowService;
 import io.github.shizuki.site.user.service.auth.EmailVerificationService;
+import io.github.shizuki.site.user.service.auth.GroupPermissionMatrix;
 import io.github.shizuki.site.user.service.auth.ImageCaptchaService;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -76,13 +75,17 @@ public class AuthServiceImpl implements AuthService {
      */
     private final UserAccountMapper userAccountMapper;
     /**
-     * 分组权限映射访问组件。
+     * 分组权限矩阵，introspect 时零查询解析分组权限。
      */
-    private final GroupPermissionMapper groupPermissionMapper;
+    private final GroupPermissionMatrix groupPermissionMatrix;
     /**
      * JSON 序列化组件，用于 groups/permissions 解析。
      */
     private final ObjectMapper objectMapper;
+    /**
+     * 鉴权上下文失效通知组件。
+     */
+    private final AuthContextInvalidationPublisher authContextInvalidationPublisher;
 
     /**
      * 构造认证应用服务实现。
@@ -92,23 +95,26 @@ public class AuthServiceImpl implements AuthService {
      * @param authFlowService 认证核心流程服务
      * @param authGrantStrategyFactory grant 策略工厂
      * @param userAccountMapper 用户账户读写组件
-     * @param groupPermissionMapper 分组权限映射读写组件
+     * @param groupPermissionMatrix 分组权限矩阵
      * @param objectMapper JSON 序列化组件
+     * @param authContextInvalidationPublisher 鉴权上下文失效通知组件
      */
     public AuthServiceImpl(ImageCaptchaService imageCaptchaService,
                            EmailVerificationService emailVerificationService,
                            AuthFlowService authFlowService,
                            AuthGrantStrategyFactory authGrantStrategyFactory,
                            UserAccountMapper userAccountMapper,
-                           GroupPermissionMapper groupPermissionMapper,
-                           ObjectMapper objectMapper) {
+                           GroupPermissionMatrix groupPermissionMatrix,
+                           ObjectMapper objectMapper,
+                           AuthContextInvalidationPublisher authContextInvalidationPublisher) {
         this.imageCaptchaService = imageCaptchaService;
         this.emailVerificationService = emailVerificationService;
         this.authFlowService = authFlowService;
         this.authGrantStrategyFactory = authGrantStrategyFactory;
         this.userAccountMapper = userAccountMapper;
-        this.groupPermissionMapper = groupPermissionMapper;
+        this.groupPermissionMatrix = groupPermissionMatrix;
         this.objectMapper = objectMapper;
+        this.authContextInvalidationPublisher = authContextInvalidationPublisher;
     }
 
     /**
@@ -207,6 +213,7 @@ public class AuthServiceImpl implements AuthService {
             Long userId = StpUtil.getLoginIdAsLong();
             authFlowService.revokeAllRefreshTokens(userId);
             StpUtil.logout();
+            authContextInvalidationPublisher.userChanged(userId);
             return;
         }
 
@@ -215,7 +222,9 @@ public class AuthServiceImpl implements AuthService {
             authFlowService.revokeRefreshToken(refreshToken);
         }
         if (hasLogin) {
+            Long userId = StpUtil.getLoginIdAsLong();
             StpUtil.logout();
+            authContextInvalidationPublisher.userChanged(userId);
         }
     }
 
@@ -239,22 +248,28 @@ public class AuthServiceImpl implements AuthService {
         }
 
         Long userId;
+        long tokenExpiresInSec;
         try {
             Object loginId = StpUtil.getLoginIdByToken(accessToken);
             if (loginId == null || !StringUtils.hasText(String.valueOf(loginId))) {
                 throw new BusinessException(ErrorCode.UNAUTHORIZED, "Invalid token");
             }
             userId = Long.parseLong(String.valueOf(loginId));
+            tokenExpiresInSec = StpUtil.getTokenTimeout(accessToken);
         } catch (BusinessException ex) {
             throw ex;
         } catch (Exception ex) {
             throw new BusinessException(ErrorCode.UNAUTHORIZED, "Invalid token");
         }
 
-        return buildIntrospectResponse(userId);
+        return buildIntrospectResponse(userId, tokenExpiresInSec);
     }
 
     private AuthIntrospectResponse buildIntrospectResponse(Long userId) {
+        return buildIntrospectResponse(userId, null);
+    }
+
+    private AuthIntrospectResponse buildIntrospectResponse(Long userId, Long tokenExpiresInSec) {
         UserAccountEntity account = userAccountMapper.selectById(userId);
         if (account == null) {
             throw new BusinessException(ErrorCode.UNAUTHORIZED, "Account not found");
@@ -263,7 +278,7 @@ public class AuthServiceImpl implements AuthService {
         Set<String> userPermissions = parseStringSet(account.getPermissionsJson());
         Set<String> effectivePermissions = new LinkedHashSet<>(userPermissions);
         effectivePermissions.addAll(resolveGroupPermissions(groups));
-        return new AuthIntrospectResponse(userId, groups, effectivePermissions);
+        return new AuthIntrospectResponse(userId, groups, effectivePermissions, tokenExpiresInSec);
     }
 
     /**
@@ -358,16 +373,6 @@ public class AuthServiceImpl implements AuthService {
     }
 
     private Set<String> resolveGroupPermissions(Set<String> groups) {
-        if (groups == null || groups.isEmpty()) {
-            return Set.of();
-        }
-        Set<String> resolved = groupPermissionMapper.selectList(
-                new LambdaQueryWrapper<GroupPermissionEntity>().in(GroupPermissionEntity::getGroupCode, groups)
-            ).stream()
-            .map(GroupPermissionEntity::getPermissionCode)
-            .map(value -> value == null ? null : value.trim())
-            .filter(StringUtils::hasText)
-            .collect(Collectors.toCollection(LinkedHashSet::new));
-        return resolved.isEmpty() ? Set.of() : resolved;
+        return groupPermissionMatrix.permissionsOf(groups);
     }
 }
@@ -52,6 +52,8 @@ import io.github.shizuki.site.user.mapper.UserAccountMapper;
 import io.github.shizuki.site.user.mapper.UserPreferenceMapper;
 import io.github.shizuki.site.user.mapper.UserProviderSecretMapper;
 import io.github.shizuki.site.user.service.UserService;
+import io.github.shizuki.site.user.service.auth.AuthContextInvalidationPublisher;
+import io.github.shizuki.site.user.service.auth.GroupPermissionMatrix;
 import io.github.shizuki.site.user.service.security.MusicApiKeyCryptoService;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
@@ -104,6 +106,8 @@ public class UserServiceImpl implements UserService {
     private final MusicApiKeyCryptoService musicApiKeyCryptoService;
     private final JdbcTemplate jdbcTemplate;
     private final ObjectMapper objectMapper;
+    private final AuthContextInvalidationPublisher authContextInvalidationPublisher;
+    private final GroupPermissionMatrix groupPermissionMatrix;
 
     public UserServiceImpl(OAuthStateService oAuthStateService,
                         GitHubOAuthClient gitHubOAuthClient,
@@ -118,7 +122,9 @@ public class UserServiceImpl implements UserService {
                         UserProviderSecretMapper userProviderSecretMapper,
                         MusicApiKeyCryptoService musicApiKeyCryptoService,
                         JdbcTemplate jdbcTemplate,
-                        ObjectMapper objectMapper) {
+                        ObjectMapper objectMapper,
+                        AuthContextInvalidationPublisher authContextInvalidationPublisher,
+                        GroupPermissionMatrix groupPermissionMatrix) {
         this.oAuthStateService = oAuthStateService;
         this.gitHubOAuthClient = gitHubOAuthClient;
         this.oAuthProperties = oAuthProperties;
@@ -133,6 +139,8 @@ public class UserServiceImpl implements UserService {
         this.musicApiKeyCryptoService = musicApiKeyCryptoService;
         this.jdbcTemplate = jdbcTemplate;
         this.objectMapper = objectMapper;
+        this.authContextInvalidationPublisher = authContextInvalidationPublisher;
+        this.groupPermissionMatrix = groupPermissionMatrix;
     }
 
     @Override
@@ -608,6 +616,7 @@ public class UserServiceImpl implements UserService {
         account.setGroupsJson(writeJson(normalizedGroups));
         account.setUpdatedAt(LocalDateTime.now());
         userAccountMapper.updateById(account);
+        authContextInvalidationPublisher.userChanged(userId);
         return new UserGroupsResponse(userId, normalizedGroups);
     }
 
@@ -643,6 +652,8 @@ public class UserServiceImpl implements UserService {
             entity.setUpdatedAt(now);
             groupPermissionMapper.insert(entity);
         }
+        groupPermissionMatrix.bumpVersion();
+        authContextInvalidationPublisher.groupChanged(normalizedGroup);
         return new GroupPermissionsResponse(normalizedGroup, normalizedPermissions);
     }
 
@@ -822,6 +833,9 @@ public class UserServiceImpl implements UserService {
         );
 
         groupCatalogMapper.deleteById(entity.getId());
+        groupPermissionMatrix.bumpVersion();
+        // 分组删除会批量改写账户 groups_json，按全量失效处理。
+        authContextInvalidationPublisher.allChanged();
     }
 
     @Override
@@ -1170,16 +1184,7 @@ public class UserServiceImpl implements UserService {
     }
 
     private Set<String> resolveGroupPermissions(Set<String> groups) {
-        if (groups == null || groups.isEmpty()) {
-            return Set.of();
-        }
-        return groupPermissionMapper.selectList(
-                new LambdaQueryWrapper<GroupPermissionEntity>().in(GroupPermissionEntity::getGroupCode, groups)
-            ).stream()
-            .map(GroupPermissionEntity::getPermissionCode)
-            .map(value -> value == null ? null : value.trim())
-            .filter(StringUtils::hasText)
-            .collect(Collectors.toCollection(LinkedHashSet::new));
+        return groupPermissionMatrix.permissionsOf(groups);
     }
 
     private Set<String> normalizeGroupCodes(Collection<String> groups) {
@@ -0,0 +1,30 @@
+-- AUD_LOG 改为按 create_time 月滚动 RANGE 分区：p_history 收纳迁移前的数据，p_future 兜底，
+-- 审计保留任务从 p_future 中拆出后续月份分区，并整分区删除或归档保留期外的数据。
+-- 分区键必须出现在每个唯一键中，主键改为 (id, create_time)。
+SET @partitioned = (
+    SELECT COUNT(1)
+    FROM information_schema.partitions
+    WHERE table_schema = DATABASE()
+      AND table_name = 'AUD_LOG'
+      AND partition_name IS NOT NULL
+);
+SET @ddl = IF(@partitioned = 0, 'ALTER TABLE AUD_LOG DROP PRIMARY KEY, ADD PRIMARY KEY (id, create_time)', 'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @month_start = DATE_FORMAT(CURRENT_DATE, '%Y-%m-01');
+SET @ddl = IF(@partitioned = 0, CONCAT(
+    'ALTER TABLE AUD_LOG PARTITION BY RANGE (TO_DAYS(create_time)) (',
+    'PARTITION p_history VALUES LESS THAN (TO_DAYS(''', @month_start, ''')), ',
+    'PARTITION p', DATE_FORMAT(@month_start, '%Y%m'),
+    ' VALUES LESS THAN (TO_DAYS(''', DATE_ADD(@month_start, INTERVAL 1 MONTH), ''')), ',
+    'PARTITION p', DATE_FORMAT(DATE_ADD(@month_start, INTERVAL 1 MONTH), '%Y%m'),
+    ' VALUES LESS THAN (TO_DAYS(''', DATE_ADD(@month_start, INTERVAL 2 MONTH), ''')), ',
+    'PARTITION p', DATE_FORMAT(DATE_ADD(@month_start, INTERVAL 2 MONTH), '%Y%m'),
+    ' VALUES LESS THAN (TO_DAYS(''', DATE_ADD(@month_start, INTERVAL 3 MONTH), ''')), ',
+    'PARTITION p_future VALUES LESS THAN MAXVALUE)'
+), 'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
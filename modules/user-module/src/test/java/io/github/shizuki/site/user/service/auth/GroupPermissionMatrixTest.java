@@ -0,0 +1,102 @@
+package io.github.shizuki.site.user.service.auth;
+
+import io.github.shizuki.site.user.entity.GroupPermissionEntity;
+import io.github.shizuki.site.user.mapper.GroupPermissionMapper;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@link GroupPermissionMatrix} 单元测试。
+ *
+ * <p>覆盖版本递增后的即时可见性、事务内延迟递增、驻留集合共享与多分组并集解析。
+ */
+class GroupPermissionMatrixTest {
+
+    private final List<GroupPermissionEntity> rows = new CopyOnWriteArrayList<>();
+    private GroupPermissionMapper groupPermissionMapper;
+    private GroupPermissionMatrix matrix;
+
+    @BeforeEach
+    void setUp() {
+        groupPermissionMapper = Mockito.mock(GroupPermissionMapper.class);
+        Mockito.when(groupPermissionMapper.selectList(ArgumentMatchers.any())).thenAnswer(invocation -> List.copyOf(rows));
+        matrix = new GroupPermissionMatrix(groupPermissionMapper);
+    }
+
+    /**
+     * 目标：新授予的权限在版本递增前不可见，递增后下一次解析立即可见。
+     */
+    @Test
+    void shouldExposeGrantedPermissionRightAfterVersionBump() {
+        rows.add(row("EDITOR", "blog.post.create"));
+        Assertions.assertEquals(Set.of("blog.post.create"), matrix.permissionsOf(Set.of("EDITOR")));
+
+        rows.add(row("EDITOR", "blog.post.publish"));
+        Assertions.assertEquals(Set.of("blog.post.create"), matrix.permissionsOf(Set.of("EDITOR")));
+
+        matrix.bumpVersion();
+
+        Assertions.assertEquals(Set.of("blog.post.create", "blog.post.publish"), matrix.permissionsOf(Set.of("EDITOR")));
+        Mockito.verify(groupPermissionMapper, Mockito.times(2)).selectList(ArgumentMatchers.any());
+    }
+
+    /**
+     * 目标：事务内递增推迟到提交之后，提交前的读取仍命中旧矩阵。
+     */
+    @Test
+    void shouldBumpVersionOnlyAfterCommitInsideTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            matrix.bumpVersion();
+            Assertions.assertEquals(0L, matrix.version());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            Assertions.assertEquals(1L, matrix.version());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * 目标：矩阵加载后重复解析零查询，且相同权限集合在分组间共享同一实例。
+     */
+    @Test
+    void shouldResolveWithoutQueriesAndShareInternedSets() {
+        rows.add(row("ADMIN", "blog.post.create"));
+        rows.add(row("ADMIN", "media.upload"));
+        rows.add(row("OPS", "blog.post.create"));
+        rows.add(row("OPS", "media.upload"));
+        rows.add(row("USER", "blog.post.read"));
+
+        for (int round = 0; round < 1_000; round++) {
+            matrix.permissionsOf(Set.of("ADMIN"));
+        }
+
+        Set<String> admin = matrix.permissionsOf(Set.of("admin"));
+        Set<String> ops = matrix.permissionsOf(Set.of("OPS"));
+        Assertions.assertSame(admin, ops);
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> admin.add("x"));
+        Assertions.assertSame(admin, matrix.permissionsOf(List.of("ADMIN", "OPS")));
+        Assertions.assertEquals(
+            Set.of("blog.post.create", "media.upload", "blog.post.read"),
+            matrix.permissionsOf(List.of("ADMIN", "USER", "UNKNOWN"))
+        );
+        Assertions.assertEquals(Set.of(), matrix.permissionsOf(Set.of("UNKNOWN")));
+        Mockito.verify(groupPermissionMapper, Mockito.times(1)).selectList(ArgumentMatchers.any());
+    }
+
+    private static GroupPermissionEntity row(String groupCode, String permissionCode) {
+        GroupPermissionEntity entity = new GroupPermissionEntity();
+        entity.setGroupCode(groupCode);
+        entity.setPermissionCode(permissionCode);
+        return entity;
+    }
+}
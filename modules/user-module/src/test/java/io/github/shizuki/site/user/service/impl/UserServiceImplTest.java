@@ -22,6 +22,8 @@ import io.github.shizuki.site.user.mapper.OAuthLoginMapper;
 import io.github.shizuki.site.user.mapper.UserAccountMapper;
 import io.github.shizuki.site.user.mapper.UserPreferenceMapper;
 import io.github.shizuki.site.user.mapper.UserProviderSecretMapper;
+import io.github.shizuki.site.user.service.auth.AuthContextInvalidationPublisher;
+import io.github.shizuki.site.user.service.auth.GroupPermissionMatrix;
 import io.github.shizuki.site.user.service.security.MusicApiKeyCryptoService;
 import org.springframework.jdbc.core.JdbcTemplate;
 import java.util.HashMap;
@@ -64,6 +66,10 @@ class UserServiceImplTest {
     private MusicApiKeyCryptoService musicApiKeyCryptoService;
     @Mock
     private JdbcTemplate jdbcTemplate;
+    @Mock
+    private AuthContextInvalidationPublisher authContextInvalidationPublisher;
+    @Mock
+    private GroupPermissionMatrix groupPermissionMatrix;
 
     private UserServiceImpl userService;
 
@@ -85,7 +91,9 @@ class UserServiceImplTest {
             userProviderSecretMapper,
             musicApiKeyCryptoService,
             jdbcTemplate,
-            new ObjectMapper()
+            new ObjectMapper(),
+            authContextInvalidationPublisher,
+            groupPermissionMatrix
         );
     }
 
@@ -184,7 +192,9 @@ class UserServiceImplTest {
             userProviderSecretMapper,
             musicApiKeyCryptoService,
             jdbcTemplate,
-            brokenObjectMapper
+            brokenObjectMapper,
+            authContextInvalidationPublisher,
+            groupPermissionMatrix
         );
 
         BusinessException exception = Assertions.assertThrows(
@@ -292,4 +302,26 @@ class UserServiceImplTest {
         );
         Assertions.assertEquals(ErrorCode.BAD_REQUEST, exception.getErrorCode());
     }
+
+    @Test
+    void should_notify_auth_context_invalidation_when_user_groups_replaced() {
+        UserAccountEntity account = new UserAccountEntity();
+        account.setId(7L);
+        account.setGroupsJson("[\"USER\"]");
+        Mockito.when(userAccountMapper.selectById(7L)).thenReturn(account);
+
+        userService.replaceUserGroups(7L, Set.of("user", "editor"));
+
+        Mockito.verify(authContextInvalidationPublisher).userChanged(7L);
+    }
+
+    @Test
+    void should_notify_auth_context_invalidation_when_group_permissions_replaced() {
+        Mockito.when(groupPermissionMapper.selectList(ArgumentMatchers.any())).thenReturn(List.of());
+
+        userService.replaceGroupPermissions("editor", Set.of("blog.post.create"));
+
+        Mockito.verify(groupPermissionMatrix).bumpVersion();
+        Mockito.verify(authContextInvalidationPublisher).groupChanged("EDITOR");
+    }
 }